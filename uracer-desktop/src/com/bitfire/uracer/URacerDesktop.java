@@ -49,6 +49,12 @@ public final class URacerDesktop {
 		int year = Calendar.getInstance().get(Calendar.YEAR);
 		System.out.print(URacer.Name + " (" + URacer.versionInfo + ")\nCopyright (c) 2011-" + year + " Manuel Bua.\n\n");
 
+		// headless runs need neither a display nor the boot configuration
+		URacerHeadless headless = CommandLine.parseHeadlessFlags(argv);
+		if (headless != null) {
+			System.exit(headless.run());
+		}
+
 		// load boot configuration, either from file or from defaults
 		BootConfig boot = new BootConfig();
 
@@ -0,0 +1,286 @@
+
+package com.bitfire.uracer;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Audio;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.LifecycleListener;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.backends.lwjgl.LwjglPreferences;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Clipboard;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.bitfire.uracer.configuration.Config;
+import com.bitfire.uracer.configuration.Storage;
+import com.bitfire.uracer.game.GameLevels;
+import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.simulation.HeadlessSimulation;
+import com.bitfire.uracer.game.logic.simulation.ReplayValidator;
+import com.bitfire.uracer.game.logic.simulation.ReplayVerdict;
+import com.bitfire.uracer.game.logic.simulation.SimulationResult;
+import com.bitfire.uracer.resources.Art;
+
+/** Runs a headless simulation of a replay, or validates a directory of replays, from the command line and on machines without a
+ * display, see the --simulate and --validate switches.
+ *
+ * It stands in for the LWJGL application, that would need a display and an audio device: only Gdx.app and Gdx.files are set
+ * up, along with the native libraries, the data directories and the levels list, and the results are printed to the standard
+ * output.
+ *
+ * @author manuel */
+public final class URacerHeadless implements Application {
+	public enum Task {
+		Simulate, Validate
+	}
+
+	/** the process exit codes */
+	public static final int ExitValid = 0;
+	public static final int ExitInvalid = 1;
+	public static final int ExitError = 2;
+
+	private final Task task;
+	private final String path;
+	private final int threads;
+	private int logLevel = LOG_INFO;
+
+	/** Creates a runner for the specified task, on the specified replay file or directory of replays: validations run on the
+	 * specified number of threads */
+	public URacerHeadless (Task task, String path, int threads) {
+		this.task = task;
+		this.path = path;
+		this.threads = threads;
+	}
+
+	/** Creates a runner without a task, for the callers that only need the headless application, see init() */
+	public URacerHeadless () {
+		this(null, null, 1);
+	}
+
+	/** Sets up this headless application in place of the LWJGL one, with the native libraries, the data directories and the
+	 * levels list */
+	public void init () {
+		Gdx.app = this;
+		Gdx.files = new LwjglFiles();
+		GdxNativesLoader.load();
+
+		Storage.init();
+		GameLevels.init();
+	}
+
+	/** Runs the task and returns the process exit code, {@link #ExitValid} only if the replays are valid */
+	public int run () {
+		init();
+
+		// the same friction the game applies
+		Pixmap frictionMap = null;
+		if (Config.Debug.ApplyCarFrictionFromMap) {
+			frictionMap = new Pixmap(Gdx.files.internal(Art.FrictionMapDesert));
+		}
+
+		try {
+			switch (task) {
+			case Simulate:
+				return simulate(frictionMap);
+			case Validate:
+				return validate(frictionMap);
+			default:
+				return ExitError;
+			}
+		} catch (RuntimeException e) {
+			error("URacerHeadless", "Couldn't run the " + task + " task", e);
+			return ExitError;
+		} finally {
+			if (frictionMap != null) {
+				frictionMap.dispose();
+			}
+		}
+	}
+
+	private int simulate (Pixmap frictionMap) {
+		FileHandle file = Gdx.files.absolute(path);
+		if (!file.exists()) {
+			System.out.println("No such replay file (" + path + ")");
+			return ExitError;
+		}
+
+		Replay replay = Replay.load(file.readBytes());
+		if (replay == null) {
+			System.out.println("Unreadable replay (" + path + ")");
+			return ExitError;
+		}
+
+		if (!GameLevels.levelIdExists(replay.getTrackId())) {
+			System.out.println("Unknown track " + replay.getTrackId() + " (" + path + ")");
+			return ExitError;
+		}
+
+		HeadlessSimulation simulation = new HeadlessSimulation(replay.getTrackId(), frictionMap);
+		try {
+			SimulationResult result = simulation.run(replay);
+			System.out.println("#" + replay.getShortId() + " claimed=" + replay.getTicks() + ", simulated=" + result.lapTicks + ", "
+				+ result);
+			return result.isLapCompleted() ? ExitValid : ExitInvalid;
+		} finally {
+			simulation.dispose();
+		}
+	}
+
+	private int validate (Pixmap frictionMap) {
+		ReplayValidator validator = new ReplayValidator(threads, frictionMap);
+		try {
+			Array<ReplayVerdict> verdicts = validator.validate(Gdx.files.absolute(path));
+			System.out.println(ReplayValidator.report(verdicts));
+
+			for (ReplayVerdict verdict : verdicts) {
+				if (!verdict.isValid()) {
+					return ExitInvalid;
+				}
+			}
+
+			return ExitValid;
+		} finally {
+			validator.dispose();
+		}
+	}
+
+	@Override
+	public ApplicationListener getApplicationListener () {
+		return null;
+	}
+
+	@Override
+	public Graphics getGraphics () {
+		return null;
+	}
+
+	@Override
+	public Audio getAudio () {
+		return null;
+	}
+
+	@Override
+	public Input getInput () {
+		return null;
+	}
+
+	@Override
+	public Files getFiles () {
+		return Gdx.files;
+	}
+
+	@Override
+	public Net getNet () {
+		return null;
+	}
+
+	@Override
+	public void log (String tag, String message) {
+		if (logLevel >= LOG_INFO) {
+			System.out.println("[" + tag + "] " + message);
+		}
+	}
+
+	@Override
+	public void log (String tag, String message, Throwable exception) {
+		if (logLevel >= LOG_INFO) {
+			System.out.println("[" + tag + "] " + message);
+			exception.printStackTrace(System.out);
+		}
+	}
+
+	@Override
+	public void error (String tag, String message) {
+		if (logLevel >= LOG_ERROR) {
+			System.err.println("[" + tag + "] " + message);
+		}
+	}
+
+	@Override
+	public void error (String tag, String message, Throwable exception) {
+		if (logLevel >= LOG_ERROR) {
+			System.err.println("[" + tag + "] " + message);
+			exception.printStackTrace(System.err);
+		}
+	}
+
+	@Override
+	public void debug (String tag, String message) {
+		if (logLevel >= LOG_DEBUG) {
+			System.out.println("[" + tag + "] " + message);
+		}
+	}
+
+	@Override
+	public void debug (String tag, String message, Throwable exception) {
+		if (logLevel >= LOG_DEBUG) {
+			System.out.println("[" + tag + "] " + message);
+			exception.printStackTrace(System.out);
+		}
+	}
+
+	@Override
+	public void setLogLevel (int logLevel) {
+		this.logLevel = logLevel;
+	}
+
+	@Override
+	public int getLogLevel () {
+		return logLevel;
+	}
+
+	@Override
+	public ApplicationType getType () {
+		return ApplicationType.HeadlessDesktop;
+	}
+
+	@Override
+	public int getVersion () {
+		return 0;
+	}
+
+	@Override
+	public long getJavaHeap () {
+		return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+	}
+
+	@Override
+	public long getNativeHeap () {
+		return getJavaHeap();
+	}
+
+	@Override
+	public Preferences getPreferences (String name) {
+		return new LwjglPreferences(name, ".prefs/");
+	}
+
+	@Override
+	public Clipboard getClipboard () {
+		return null;
+	}
+
+	@Override
+	public void postRunnable (Runnable runnable) {
+		// there is no main loop, run it right away
+		runnable.run();
+	}
+
+	@Override
+	public void exit () {
+	}
+
+	@Override
+	public void addLifecycleListener (LifecycleListener listener) {
+	}
+
+	@Override
+	public void removeLifecycleListener (LifecycleListener listener) {
+	}
+}
@@ -7,6 +7,7 @@ import aurelienribon.tweenengine.equations.Quart;
 import com.bitfire.postprocessing.filters.Blur;
 import com.bitfire.postprocessing.filters.Blur.BlurType;
 import com.bitfire.uracer.game.logic.helpers.CameraController.InterpolationMode;
+import com.bitfire.uracer.game.logic.replaying.ReplayManager;
 
 public final class Config {
 	public static final class Graphics {
@@ -50,10 +51,49 @@ public final class Config {
 		public static final float MaxImpactForce = 200f;
 		public static final float OneOnMaxImpactForce = 1f / MaxImpactForce;
 
+		/** the car simulation uses FastMath rather than MathUtils, so that its results are the same on any JVM: replays recorded
+		 * with one won't reproduce exactly with the other, thus their inputs would be rejected when validated */
+		public static final boolean UseFastMath = false;
+
+		/** each wall polyline is made of a single static body, with a box fixture per segment, rather than of a body per segment:
+		 * the walls have the very same shape, but Box2D resolves the contacts with them in another order, thus replays that touch
+		 * a wall won't reproduce exactly with the other layout */
+		public static final boolean MergeWalls = false;
+
 		private Physics () {
 		}
 	}
 
+	public static final class Replays {
+		/** replays are played back from memory-mapped files, keeping their events out of the heap at the cost of an uncompressed
+		 * copy on disk of each replay being played back */
+		public static final boolean MappedPlayback = false;
+
+		/** all the ranked replays that aren't opponents are played back as well, by a swarm of kinematic ghosts */
+		public static final boolean GhostSwarm = false;
+
+		/** the number of best replays ranked and kept on disk for each track, the best ReplayManager.MaxReplays of them being
+		 * raced against: only the swarm has any use for more of them */
+		public static final int LeaderboardSize = GhostSwarm ? 50 : ReplayManager.MaxReplays;
+
+		/** ghost cars are put back to the recorded car state whenever they reach a replay keyframe */
+		public static final boolean SnapGhostsToKeyframes = false;
+
+		/** ghost cars simulate the recorded input again instead of playing the recorded forces, whenever a replay has it */
+		public static final boolean InputPlayback = false;
+
+		/** ghost cars playing the recorded input compare the forces they compute against the recorded ones, logging any
+		 * divergence; implies InputPlayback */
+		public static final boolean ValidateInputPlayback = false;
+
+		/** the player input is recorded and stored along with the forces only if it's going to be played back, since it makes
+		 * every replay bigger */
+		public static final boolean RecordInputs = InputPlayback || ValidateInputPlayback;
+
+		private Replays () {
+		}
+	}
+
 	public static final class Debug {
 		public static final boolean UseDebugHelper = true;
 		public static final boolean TraverseWalls = false;
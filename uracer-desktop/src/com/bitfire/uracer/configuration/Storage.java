@@ -10,6 +10,11 @@ public final class Storage {
 	private static final String ConfigRoot = "/.config/uracer/";
 	private static final String DataRoot = "/.local/share/uracer/";
 	public static final String ReplaysRoot = DataRoot + "replays/";
+	public static final String ReplaysIndex = "index";
+	public static final String ReplaysPack = "pack";
+	public static final String ReplaysMappedRoot = DataRoot + "cache/replays/";
+	public static final String TracksCacheRoot = DataRoot + "cache/tracks/";
+	public static final String LevelsCache = DataRoot + "cache/levels";
 	public static final String Preferences = "uracer-preferences.cfg";
 
 	// local to installation folder
@@ -28,6 +33,8 @@ public final class Storage {
 		Gdx.files.external(Storage.ConfigRoot).mkdirs();
 		Gdx.files.external(Storage.DataRoot).mkdirs();
 		Gdx.files.external(Storage.ReplaysRoot).mkdirs();
+		Gdx.files.external(Storage.ReplaysMappedRoot).mkdirs();
+		Gdx.files.external(Storage.TracksCacheRoot).mkdirs();
 
 		Gdx.app.log("Storage", "Config root at " + Gdx.files.external(Storage.ConfigRoot));
 		Gdx.app.log("Storage", "Data root at " + Gdx.files.external(Storage.DataRoot));
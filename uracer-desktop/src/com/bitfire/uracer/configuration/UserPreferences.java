@@ -33,6 +33,7 @@ public final class UserPreferences {
 		SsaoQuality,
 
 		// rendering
+		ThreadedSimulation,
 //		ComplexTrees,
 //		Walls,
 
@@ -100,6 +101,7 @@ public final class UserPreferences {
 		// rendering
 		//
 
+		bool(Preference.ThreadedSimulation, false);
 		// bool(Preference.ComplexTrees, true);
 		// bool(Preference.Walls, true);
 
@@ -9,13 +9,22 @@ import com.bitfire.uracer.configuration.UserPreferences.Preference;
 import com.bitfire.uracer.configuration.UserProfile;
 import com.bitfire.uracer.game.events.TaskManagerEvent;
 import com.bitfire.uracer.game.logic.SinglePlayer;
+import com.bitfire.uracer.game.logic.gametasks.PhysicsStep;
 import com.bitfire.uracer.game.rendering.GameRenderer;
 import com.bitfire.uracer.game.task.TaskManager;
 import com.bitfire.uracer.game.world.GameWorld;
 
+/** Runs a game session.
+ *
+ * With the ThreadedSimulation preference on, the physics timestep of the next tick is computed by a SimulationThread once a frame
+ * has been captured, while the post-processor is at work on it, and is published by the tick it belongs to, on the rendering
+ * thread: only the physics and the car force and recording listeners run on the other thread, every task, the game
+ * logic and the rendering see the very same per-tick sequence they see otherwise. The car input of the next tick is sampled
+ * when its timestep starts, so the controls respond one frame later. */
 public class Game implements Disposable {
 
 	// world
+	private final GameContext context;
 	public GameWorld gameWorld = null;
 
 	// logic
@@ -27,11 +36,16 @@ public class Game implements Disposable {
 	// rendering
 	private GameRenderer gameRenderer = null;
 
+	// threaded simulation
+	private SimulationThread simulation = null;
+	private PhysicsStep physicsStep = null;
+
 	public Game (UserProfile userProfile, String trackId) {
 
-		taskManager = new TaskManager();
+		context = new GameContext();
+		taskManager = new TaskManager(context);
 
-		gameWorld = new GameWorld(trackId, UserPreferences.bool(Preference.NightMode));
+		gameWorld = new GameWorld(context, trackId, UserPreferences.bool(Preference.NightMode));
 		Gdx.app.debug("Game", "Game world ready");
 
 		// handles rendering
@@ -41,18 +55,37 @@ public class Game implements Disposable {
 		// handles game rules and mechanics, it's all about game data
 		gameLogic = new SinglePlayer(userProfile, gameWorld, gameRenderer);
 		Gdx.app.debug("Game", "GameLogic created");
+
+		if (UserPreferences.bool(Preference.ThreadedSimulation)) {
+			physicsStep = gameLogic.getPhysicsStep();
+			simulation = new SimulationThread("Simulation", new Runnable() {
+				@Override
+				public void run () {
+					physicsStep.stepAhead();
+				}
+			});
+
+			Gdx.app.log("Game", "Physics will be simulated by a separate thread");
+		}
 	}
 
 	@Override
 	public void dispose () {
+		if (simulation != null) {
+			simulation.dispose();
+		}
+
 		gameLogic.dispose();
 		gameRenderer.dispose();
 		gameWorld.dispose();
 		taskManager.dispose();
+		context.dispose();
 	}
 
 	/** Can be NOT called */
 	public void tick () {
+		awaitSimulation();
+
 		if (!gameLogic.isQuitPending()) {
 			taskManager.dispatchEvent(TaskManagerEvent.Type.onTick);
 		}
@@ -62,6 +95,8 @@ public class Game implements Disposable {
 
 	/** Can be NOT called */
 	public void tickCompleted () {
+		awaitSimulation();
+
 		if (!gameLogic.isQuitPending()) {
 			taskManager.dispatchEvent(TaskManagerEvent.Type.onTickCompleted);
 		}
@@ -70,16 +105,30 @@ public class Game implements Disposable {
 	}
 
 	public void render (FrameBuffer dest) {
-		gameRenderer.render(dest, gameLogic.isQuitPending(), gameLogic.isPaused());
+		awaitSimulation();
+
+		// the rendered state is the published one, the next timestep can be computed while it's post-processed
+		boolean stepAhead = simulation != null && !gameLogic.isQuitPending() && !gameLogic.isPaused()
+			&& physicsStep.prepareAhead();
+		gameRenderer.render(dest, gameLogic.isQuitPending(), gameLogic.isPaused(), stepAhead ? simulation : null);
+	}
+
+	/** Waits for the simulation thread to complete the timestep it's computing, if any, so that the physics can be touched */
+	private void awaitSimulation () {
+		if (simulation != null) {
+			simulation.await();
+		}
 	}
 
 	public void pause () {
+		awaitSimulation();
 		taskManager.dispatchEvent(TaskManagerEvent.Type.onPause);
 		gameLogic.pauseGame();
 		Gdx.app.log("Game", "Paused");
 	}
 
 	public void resume () {
+		awaitSimulation();
 		gameRenderer.rebind();
 		taskManager.dispatchEvent(TaskManagerEvent.Type.onResume);
 		gameLogic.resumeGame();
@@ -95,11 +144,13 @@ public class Game implements Disposable {
 	//
 
 	public void start () {
+		awaitSimulation();
 		gameLogic.addPlayer();
 		gameLogic.restartGame();
 	}
 
 	public void quit () {
+		awaitSimulation();
 		gameLogic.quitGame();
 	}
 }
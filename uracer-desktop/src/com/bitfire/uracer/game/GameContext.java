@@ -0,0 +1,22 @@
+package com.bitfire.uracer.game;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.bitfire.uracer.game.tween.GameTweener;
+
+/** Owns the state shared by everything living in a game world, that is its event buses and its game-timed tweener: the game
+ * session and each headless simulation have their own, so that more than one world can exist and be ticked, even on different
+ * threads, as long as each one is confined to a single thread.
+ *
+ * The application-wide state, such as the frame timing, the screen utilities and the wall-clocked SysTweener, is only ever
+ * accessed by the rendering thread and isn't part of it.
+ *
+ * @author manuel */
+public final class GameContext implements Disposable {
+	public final GameEvents events = new GameEvents();
+	public final GameTweener tweener = new GameTweener();
+
+	@Override
+	public void dispose () {
+		tweener.dispose();
+	}
+}
@@ -12,21 +12,19 @@ import com.bitfire.uracer.game.events.PlayerLapCompletionMonitorEvent;
 import com.bitfire.uracer.game.events.TaskManagerEvent;
 import com.bitfire.uracer.game.events.WrongWayMonitorEvent;
 
+/** The event buses of a game session or of a simulation, see GameContext. */
 public final class GameEvents {
 
-	public static final GameRendererEvent gameRenderer = new GameRendererEvent();
-	public static final PhysicsStepEvent physicsStep = new PhysicsStepEvent();
-	public static final PlayerDriftStateEvent driftState = new PlayerDriftStateEvent();
-	public static final CarEvent playerCar = new CarEvent();
-	public static final GhostCarEvent ghostCars = new GhostCarEvent();
-	public static final TaskManagerEvent taskManager = new TaskManagerEvent();
-	public static final WrongWayMonitorEvent wrongWay = new WrongWayMonitorEvent();
-	public static final PlayerLapCompletionMonitorEvent lapCompletion = new PlayerLapCompletionMonitorEvent();
-	public static final GhostLapCompletionMonitorEvent ghostLapCompletion = new GhostLapCompletionMonitorEvent();
-	public static final GameLogicEvent logicEvent = new GameLogicEvent();
+	public final GameRendererEvent gameRenderer = new GameRendererEvent();
+	public final PhysicsStepEvent physicsStep = new PhysicsStepEvent();
+	public final PlayerDriftStateEvent driftState = new PlayerDriftStateEvent();
+	public final CarEvent playerCar = new CarEvent();
+	public final GhostCarEvent ghostCars = new GhostCarEvent();
+	public final TaskManagerEvent taskManager = new TaskManagerEvent();
+	public final WrongWayMonitorEvent wrongWay = new WrongWayMonitorEvent();
+	public final PlayerLapCompletionMonitorEvent lapCompletion = new PlayerLapCompletionMonitorEvent();
+	public final GhostLapCompletionMonitorEvent ghostLapCompletion = new GhostLapCompletionMonitorEvent();
+	public final GameLogicEvent logicEvent = new GameLogicEvent();
 
-	// public static final CarStateEvent playerCarState = new CarStateEvent();
-
-	private GameEvents () {
-	}
+	// public final CarStateEvent playerCarState = new CarStateEvent();
 }
@@ -1,38 +1,49 @@
 
 package com.bitfire.uracer.game;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.utils.Base64Coder;
-import com.badlogic.gdx.utils.XmlReader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.XmlReader.Element;
 import com.bitfire.uracer.configuration.Storage;
-import com.bitfire.uracer.utils.DigestUtils;
+import com.bitfire.uracer.utils.TmxReader;
 import com.bitfire.uracer.utils.UAtlasTmxMapLoader;
 import com.bitfire.uracer.utils.URacerRuntimeException;
 
 /** Enumerates and maintains a list of available game tracks. FIXME add support for mini-screenshots
  * 
- * uRacer map levels are assumed to be encoded as base64+zlib compression. The checksummed layer shall be named "track". */
+ * uRacer map levels are assumed to be encoded as base64+zlib compression. The checksummed layer shall be named "track".
+ * 
+ * Computing the descriptor of a level means parsing and unpacking the whole map, so descriptors are computed in parallel and
+ * cached in the data root along with the size and modification time of their map file: unchanged levels aren't parsed again. */
 public final class GameLevels {
+	/** "URLV" */
+	private static final int CacheMagic = 0x55524C56;
+	private static final int CacheVersion = 1;
 
 	private static final Map<String, GameLevelDescriptor> levelIdToDescriptor = new HashMap<String, GameLevelDescriptor>();
 	private static final UAtlasTmxMapLoader mapLoader = new UAtlasTmxMapLoader();
 	private static final UAtlasTmxMapLoader.AtlasTiledMapLoaderParameters mapLoaderParams = new UAtlasTmxMapLoader.AtlasTiledMapLoaderParameters();
-	private static final XmlReader xml = new XmlReader();
+	private static final UAtlasTmxMapLoader.AtlasTiledMapLoaderParameters headlessLoaderParams = new UAtlasTmxMapLoader.AtlasTiledMapLoaderParameters();
 	private static final List<GameLevelDescriptor> levels = new ArrayList<GameLevels.GameLevelDescriptor>();
 
 	// cached simple array[] return type
@@ -84,6 +95,9 @@ public final class GameLevels {
 		mapLoaderParams.textureMagFilter = TextureFilter.Linear;
 		mapLoaderParams.yUp = false;
 
+		headlessLoaderParams.yUp = false;
+		headlessLoaderParams.loadTextures = false;
+
 		// check invalid
 		FileHandle dirLevels = Gdx.files.internal(Storage.Levels);
 		if (dirLevels == null || !dirLevels.isDirectory()) {
@@ -96,9 +110,61 @@ public final class GameLevels {
 			throw new URacerRuntimeException("Cannot find game levels.");
 		}
 
+		// reuse the cached descriptors of the unchanged levels, compute the others in parallel
+		long start = System.nanoTime();
+		Map<String, CachedDescriptor> cache = readCache();
+		GameLevelDescriptor[] descs = new GameLevelDescriptor[tracks.length];
+		List<Callable<GameLevelDescriptor>> tasks = new ArrayList<Callable<GameLevelDescriptor>>();
+		List<Integer> computed = new ArrayList<Integer>();
+
+		for (int i = 0; i < tracks.length; i++) {
+			final FileHandle track = tracks[i];
+			CachedDescriptor cached = cache.get(track.name());
+			if (cached != null && cached.matches(track)) {
+				descs[i] = cached.desc;
+			} else {
+				computed.add(i);
+				tasks.add(new Callable<GameLevelDescriptor>() {
+					@Override
+					public GameLevelDescriptor call () {
+						return computeDescriptor(track.name());
+					}
+				});
+			}
+		}
+
+		if (tasks.size() > 0) {
+			int parallelism = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+			ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+
+			try {
+				List<Future<GameLevelDescriptor>> futures = pool.invokeAll(tasks);
+				for (int i = 0; i < futures.size(); i++) {
+					descs[computed.get(i)] = futures.get(i).get();
+				}
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
+				}
+
+				throw new URacerRuntimeException("Couldn't check the available game levels, reason: " + e.getCause().getMessage());
+			} catch (InterruptedException e) {
+				throw new URacerRuntimeException("Interrupted while checking the available game levels.");
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		if (tasks.size() > 0 || cache.size() != tracks.length) {
+			writeCache(tracks, descs);
+		}
+
+		Gdx.app.log("GameLevels", "Checked " + tracks.length + " levels in " + (System.nanoTime() - start) / 1000000 + "ms ("
+			+ tasks.size() + " parsed, " + (tracks.length - tasks.size()) + " cached)");
+
 		// build internal maps
 		for (int i = 0; i < tracks.length; i++) {
-			GameLevelDescriptor desc = computeDescriptor(tracks[i].name());
+			GameLevelDescriptor desc = descs[i];
 			levels.add(desc);
 
 			// build lookup table
@@ -114,14 +180,40 @@ public final class GameLevels {
 	}
 
 	public static TiledMap load (String levelId) {
+		return load(levelId, mapLoader, mapLoaderParams);
+	}
+
+	/** Loads the specified level without any texture, for it to be simulated without a GL context: since simulations can be
+	 * created on any thread, each load uses its own loader */
+	public static TiledMap loadHeadless (String levelId) {
+		return load(levelId, new UAtlasTmxMapLoader(), headlessLoaderParams);
+	}
+
+	private static TiledMap load (String levelId, UAtlasTmxMapLoader loader,
+		UAtlasTmxMapLoader.AtlasTiledMapLoaderParameters params) {
+		FileHandle h = getLevelFile(levelId);
+		if (h != null && h.exists()) {
+			TiledMap map = loader.load(h.path(), params);
+
+			// the level is checksummed while loading, telling whether it has changed since discovered
+			BigInteger checksum = map.getProperties().get(UAtlasTmxMapLoader.LevelChecksumProperty, BigInteger.class);
+			if (checksum == null || !checksum.toString(16).equals(levelId)) {
+				Gdx.app.log("GameLevels", "Level " + levelId + " has changed since discovered (" + h.path() + ")");
+			}
+
+			return map;
+		}
+
+		return null;
+	}
+
+	/** Returns the map file of the specified level, or null if there is no such level */
+	public static FileHandle getLevelFile (String levelId) {
 		GameLevelDescriptor desc = getLevel(levelId);
 		if (desc != null) {
 			String filename = desc.getFileName();
 			if (filename != null) {
-				FileHandle h = Gdx.files.internal(Storage.Levels + filename);
-				if (h.exists()) {
-					return mapLoader.load(h.path(), mapLoaderParams);
-				}
+				return Gdx.files.internal(Storage.Levels + filename);
 			}
 		}
 
@@ -144,15 +236,106 @@ public final class GameLevels {
 		return (levelIdToDescriptor.get(levelId) != null);
 	}
 
+	/** A descriptor as cached, along with the size and modification time of the map file it was computed from */
+	private static final class CachedDescriptor {
+		final GameLevelDescriptor desc;
+		final long length, lastModified;
+
+		CachedDescriptor (GameLevelDescriptor desc, long length, long lastModified) {
+			this.desc = desc;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		/** Returns whether the specified map file is known not to have changed since */
+		boolean matches (FileHandle file) {
+			// no modification time means it can't be known
+			return lastModified != 0 && file.length() == length && file.lastModified() == lastModified;
+		}
+	}
+
+	private static Map<String, CachedDescriptor> readCache () {
+		Map<String, CachedDescriptor> cache = new HashMap<String, CachedDescriptor>();
+		FileHandle fh = Gdx.files.external(Storage.LevelsCache);
+		if (!fh.exists()) {
+			return cache;
+		}
+
+		DataInputStream is = null;
+		try {
+			is = new DataInputStream(new BufferedInputStream(fh.read()));
+			if (is.readInt() != CacheMagic || is.readUnsignedShort() != CacheVersion) {
+				Gdx.app.log("GameLevels", "Unknown levels cache format, rebuilding (" + fh.path() + ")");
+				return cache;
+			}
+
+			int count = is.readInt();
+			for (int i = 0; i < count; i++) {
+				String filename = is.readUTF();
+				long length = is.readLong();
+				long lastModified = is.readLong();
+				String name = is.readUTF();
+				BigInteger checksum = new BigInteger(is.readUTF(), 16);
+
+				GameLevelDescriptor desc = new GameLevelDescriptor(name, checksum, filename);
+				cache.put(filename, new CachedDescriptor(desc, length, lastModified));
+			}
+		} catch (Exception e) {
+			Gdx.app.log("GameLevels", "Couldn't read levels cache (" + fh.path() + "), reason: " + e.getMessage());
+			cache.clear();
+		} finally {
+			if (is != null) {
+				try {
+					is.close();
+				} catch (Exception e) {
+				}
+			}
+		}
+
+		return cache;
+	}
+
+	private static void writeCache (FileHandle[] tracks, GameLevelDescriptor[] descs) {
+		FileHandle tmp = Gdx.files.external(Storage.LevelsCache + ".tmp");
+
+		try {
+			tmp.parent().mkdirs();
+
+			DataOutputStream os = new DataOutputStream(new BufferedOutputStream(tmp.write(false)));
+			os.writeInt(CacheMagic);
+			os.writeShort(CacheVersion);
+			os.writeInt(tracks.length);
+
+			for (int i = 0; i < tracks.length; i++) {
+				os.writeUTF(descs[i].getFileName());
+				os.writeLong(tracks[i].length());
+				os.writeLong(tracks[i].lastModified());
+				os.writeUTF(descs[i].getName());
+				os.writeUTF(descs[i].getId());
+			}
+
+			os.close();
+
+			// replace the previous cache only once completely written
+			tmp.moveTo(Gdx.files.external(Storage.LevelsCache));
+		} catch (Exception e) {
+			Gdx.app.log("GameLevels", "Couldn't write levels cache (" + Storage.LevelsCache + "), reason: " + e.getMessage());
+		}
+	}
+
 	/** Compute a checksum on the level data, specifically on the tile positions and their order */
 	private static GameLevelDescriptor computeDescriptor (String filename) {
 		String filePath = Storage.Levels + filename;
+		TmxReader reader = new TmxReader();
 		Element root = null;
 
 		try {
-			root = xml.parse(Gdx.files.internal(filePath));
+			root = reader.parse(Gdx.files.internal(filePath));
 		} catch (IOException e) {
 			throw new URacerRuntimeException("Error reading level \"" + filePath + "\"");
+		} catch (GdxRuntimeException e) {
+			throw new URacerRuntimeException("Level \"" + filePath
+				+ "\" is not a valid uRacer level definition, unexpected data format.");
 		}
 
 		if (root == null) {
@@ -179,21 +362,10 @@ public final class GameLevels {
 		}
 
 		Element data = layer.getChildByName("data");
-		Element props = root.getChildByName("properties");
-
-		// retrieve name, if any
-		String levelName = "";
-		for (Element property : props.getChildrenByName("property")) {
-			String name = property.getAttribute("name", null);
-			String value = property.getAttribute("value", null);
-			if (name.equals("name")) {
-				levelName = value;
-				break;
-			}
-		}
 
 		// check for unnamed track
-		if (levelName.length() == 0) {
+		String levelName = reader.getLevelName();
+		if (levelName == null || levelName.length() == 0) {
 			throw new URacerRuntimeException("Level \"" + filePath + "\" is not a valid uRacer level definition, unnamed track.");
 		}
 
@@ -209,59 +381,8 @@ public final class GameLevels {
 			throw new URacerRuntimeException("Level \"" + filePath + "\" is not a valid uRacer level definition, not zlib-packed.");
 		}
 
-		byte[] temp = new byte[4];
-		ByteBuffer out = ByteBuffer.allocate(width * height * 4);
-		int outIdx = 0;
-
-		// base64 decode source data
-		byte[] trackData = Base64Coder.decode(data.getText());
-
-		// unpack and costruct the data to be checksummed
-		Inflater zlib = new Inflater();
-		zlib.setInput(trackData, 0, trackData.length);
-		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				try {
-					zlib.inflate(temp, 0, 4);
-
-					//@off
-					int id = 
-						unsignedByteToInt(temp[0]) | 
-						unsignedByteToInt(temp[1]) << 8 | 
-						unsignedByteToInt(temp[2]) << 16 |
-						unsignedByteToInt(temp[3]) << 24;
-					//@on
-
-					// clear it
-					id = id & ~0xE0000000;
-
-					out.putInt((outIdx++) << 2, id);
-				} catch (DataFormatException e) {
-					throw new URacerRuntimeException("Level \"" + filePath
-						+ "\" is not a valid uRacer level definition, unexpected data format.");
-				}
-			}
-		}
-
-		// compute checksum
-		byte[] checksum;
-		byte[] bLevelName;
-
-		bLevelName = levelName.getBytes();
-		DigestUtils.sha256.reset();
-		DigestUtils.sha256.update(bLevelName);
-		DigestUtils.sha256.update(out);
-		checksum = DigestUtils.sha256.digest();
-
-		temp = null;
-		out = null;
-		trackData = null;
-
-		return new GameLevelDescriptor(levelName, new BigInteger(1, checksum), filename);
-	}
-
-	private static int unsignedByteToInt (byte b) {
-		return (int)b & 0xFF;
+		// the track layer has been unpacked and checksummed while parsing
+		return new GameLevelDescriptor(levelName, reader.getLevelChecksum(), filename);
 	}
 
 	private GameLevels () {
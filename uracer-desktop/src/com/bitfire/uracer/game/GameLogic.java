@@ -3,6 +3,7 @@ package com.bitfire.uracer.game;
 
 import com.bitfire.uracer.configuration.UserProfile;
 import com.bitfire.uracer.game.actors.GhostCar;
+import com.bitfire.uracer.game.logic.gametasks.PhysicsStep;
 import com.bitfire.uracer.game.logic.gametasks.messager.Message;
 import com.bitfire.uracer.game.logic.gametasks.messager.Message.Position;
 import com.bitfire.uracer.game.logic.gametasks.messager.Message.Size;
@@ -54,6 +55,8 @@ public interface GameLogic {
 
 	TimeModulator getTimeModulator ();
 
+	PhysicsStep getPhysicsStep ();
+
 	GhostCar[] getGhosts ();
 
 	GhostCar getGhost (int handle);
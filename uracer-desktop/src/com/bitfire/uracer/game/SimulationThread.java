@@ -0,0 +1,94 @@
+
+package com.bitfire.uracer.game;
+
+import java.util.concurrent.Semaphore;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.bitfire.uracer.utils.URacerRuntimeException;
+
+/** Runs a task on a dedicated thread, a run at a time, so that the rendering thread can go on with something else and wait for
+ * it later. Whatever the task touches shall be left alone by the rendering thread from start() to await(): the two semaphores
+ * also make whatever has been written by either of them before visible to the other.
+ *
+ * @author manuel */
+public final class SimulationThread implements Disposable {
+	private final Runnable task;
+	private final Thread thread;
+	private final Semaphore started = new Semaphore(0);
+	private final Semaphore completed = new Semaphore(0);
+	private boolean running = false;
+	private boolean quit = false;
+	private Throwable failure = null;
+
+	public SimulationThread (String name, Runnable task) {
+		this.task = task;
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run () {
+				loop();
+			}
+		}, name);
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void dispose () {
+		await();
+		quit = true;
+		started.release();
+
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/** Starts running the task, waiting for the previous run to complete first */
+	public void start () {
+		await();
+		running = true;
+		started.release();
+	}
+
+	/** Waits for the task to complete, if running, rethrowing whatever it has thrown */
+	public void await () {
+		if (!running) {
+			return;
+		}
+
+		completed.acquireUninterruptibly();
+		running = false;
+
+		if (failure != null) {
+			Throwable t = failure;
+			failure = null;
+			throw new URacerRuntimeException("The simulation thread failed", t);
+		}
+	}
+
+	public boolean isRunning () {
+		return running;
+	}
+
+	private void loop () {
+		while (true) {
+			started.acquireUninterruptibly();
+			if (quit) {
+				return;
+			}
+
+			try {
+				task.run();
+			} catch (Throwable t) {
+				Gdx.app.error("SimulationThread", "Task failed", t);
+				failure = t;
+			} finally {
+				completed.release();
+			}
+		}
+	}
+}
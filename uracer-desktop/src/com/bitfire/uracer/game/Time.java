@@ -36,9 +36,9 @@ public final class Time extends Task {
 	private long lastStartTime;
 	private TimeValue result = new TimeValue();
 
-	/** Constructs a new Time object */
-	public Time () {
-		super(Order.PLUS_4);
+	/** Constructs a new Time object, counting the ticks of the specified context */
+	public Time (GameContext context) {
+		super(context, Order.PLUS_4);
 		reset();
 	}
 
@@ -7,6 +7,7 @@ import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.World;
 import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.entities.EntityRenderState;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.utils.AMath;
 
 public abstract class Box2DEntity extends SubframeInterpolableEntity {
@@ -16,8 +17,8 @@ public abstract class Box2DEntity extends SubframeInterpolableEntity {
 	public void onDebug (SpriteBatch batch) {
 	}
 
-	public Box2DEntity (World world) {
-		super();
+	public Box2DEntity (GameContext context, World world) {
+		super(context);
 		this.box2dWorld = world;
 	}
 
@@ -10,7 +10,6 @@ import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.MassData;
 import com.badlogic.gdx.utils.Array;
 import com.bitfire.uracer.configuration.Config;
-import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.GameLogic;
 import com.bitfire.uracer.game.collisions.CollisionFilters;
 import com.bitfire.uracer.game.events.CarEvent;
@@ -39,6 +38,12 @@ public abstract strictfp class Car extends Box2DEntity {
 
 	protected int impacts = 0;
 
+	// the strongest collision of the timestep, raised when the timestep is published
+	private boolean collided = false;
+	private Fixture collisionOther = null;
+	private final Vector2 collisionImpulses = new Vector2();
+	private float collisionFrontRatio = 0;
+
 	private CarForces carForces = new CarForces();
 
 	// distance
@@ -57,7 +62,7 @@ public abstract strictfp class Car extends Box2DEntity {
 
 	public Car (GameWorld gameWorld, GameLogic gameLogic, CarType carType, InputMode inputMode, CarPreset.Type presetType,
 		boolean triggerEvents) {
-		super(gameWorld.getBox2DWorld());
+		super(gameWorld.getContext(), gameWorld.getBox2DWorld());
 		this.preset = new CarPreset(presetType);
 		// this.carType = carType;
 		this.triggerEvents = triggerEvents;
@@ -66,7 +71,8 @@ public abstract strictfp class Car extends Box2DEntity {
 		this.gameWorld = gameWorld;
 		this.gameTrack = gameWorld.getGameTrack();
 
-		stillModel = ModelFactory.createCarStillModel(gameLogic, this, presetType);
+		// a headless world can't render anything
+		stillModel = gameWorld.isHeadless() ? null : ModelFactory.createCarStillModel(gameLogic, this, presetType);
 		impacts = 0;
 		this.inputMode = inputMode;
 		carTraveledDistance = 0;
@@ -81,7 +87,7 @@ public abstract strictfp class Car extends Box2DEntity {
 	@Override
 	public void dispose () {
 		super.dispose();
-		GameEvents.playerCar.removeAllListeners();
+		context.events.playerCar.removeAllListeners();
 	}
 
 	public TrackState getTrackState () {
@@ -228,6 +234,7 @@ public abstract strictfp class Car extends Box2DEntity {
 		body.setAngularVelocity(0);
 		body.setLinearVelocity(0, 0);
 		impacts = 0;
+		collided = false;
 	}
 
 	public void onCollide (Fixture other, Vector2 normalImpulses, float frontRatio) {
@@ -235,9 +242,22 @@ public abstract strictfp class Car extends Box2DEntity {
 
 		// FIXME
 		// see the bug report at https://code.google.com/p/libgdx/issues/detail?id=1398
-		if (triggerEvents) {
-			GameEvents.playerCar.data.setCollisionData(other, normalImpulses, frontRatio);
-			GameEvents.playerCar.trigger(this, CarEvent.Type.onCollision);
+		if (triggerEvents && (!collided || normalImpulses.len2() > collisionImpulses.len2())) {
+			collided = true;
+			collisionOther = other;
+			collisionImpulses.set(normalImpulses);
+			collisionFrontRatio = frontRatio;
+		}
+	}
+
+	@Override
+	public void onPublishPhysicsSubstep () {
+		super.onPublishPhysicsSubstep();
+
+		if (collided) {
+			collided = false;
+			context.events.playerCar.data.setCollisionData(collisionOther, collisionImpulses, collisionFrontRatio);
+			context.events.playerCar.trigger(this, CarEvent.Type.onCollision);
 		}
 	}
 
@@ -262,8 +282,8 @@ public abstract strictfp class Car extends Box2DEntity {
 
 		// trigger event, new forces have been computed
 		if (triggerEvents) {
-			GameEvents.playerCar.data.setForces(carForces);
-			GameEvents.playerCar.trigger(this, CarEvent.Type.onPhysicsForcesReady);
+			context.events.playerCar.data.setForces(carForces);
+			context.events.playerCar.trigger(this, CarEvent.Type.onPhysicsForcesReady);
 		}
 
 		// put newly computed forces into the system
@@ -1,41 +1,63 @@
 
 package com.bitfire.uracer.game.actors;
 
+import java.nio.FloatBuffer;
+
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenEquation;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.math.MathUtils;
 import com.bitfire.uracer.configuration.Config;
-import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.events.GhostCarEvent;
 import com.bitfire.uracer.game.logic.replaying.Replay;
-import com.bitfire.uracer.game.tween.GameTweener;
+import com.bitfire.uracer.game.logic.replaying.ReplayKeyframe;
 import com.bitfire.uracer.game.world.GameWorld;
 import com.bitfire.uracer.utils.BoxedFloat;
 import com.bitfire.uracer.utils.BoxedFloatAccessor;
 
 /** Implements an automated Car, playing previously recorded events. It will ignore car-to-car collisions, but will respect
  * in-track collisions and responses.
+ *
+ * If the replay has keyframes, playback can be moved to any tick via {@link #seek(int)}, and the car can optionally be put back
+ * to the recorded state whenever a keyframe is reached, see {@link #setSnapToKeyframes(boolean)}.
+ *
+ * If the replay has the recorded input and input playback is enabled, the car runs its own simulator fed with that input,
+ * along with the same impact and friction feedback a PlayerCar gets, instead of playing the recorded forces; optionally, the
+ * computed forces are checked against the recorded ones.
  * 
  * @author manuel */
 
 public final class GhostCar extends Car {
 	private static final int FadeEvents = 30;
 	private Replay replay;
-	private CarForces[] replayForces;
+	private FloatBuffer replayVelocityX, replayVelocityY, replayAngularVelocity;
 	private int replayForcesCount;
 	private int indexPlay;
 	private boolean hasReplay;
 	private final int id;
 	private boolean fadeOutEventTriggered, startedEventTriggered;
+
+	// the events raised by the timestep, triggered when the timestep is published
+	private boolean startedPending, fadeOutPending, endedPending;
 	private boolean started;
 	private BoxedFloat bfAlpha;
+	private boolean snapToKeyframes = Config.Replays.SnapGhostsToKeyframes;
+	private final ReplayKeyframe keyframe = new ReplayKeyframe();
+
+	// input playback
+	private final InputPlayback inputPlayback;
+	private boolean playInputs = false;
+	private final boolean validateInputs = Config.Replays.ValidateInputPlayback;
 
 	public GhostCar (int id, GameWorld gameWorld, CarPreset.Type presetType) {
 		super(gameWorld, null, CarType.ReplayCar, InputMode.InputFromReplay, presetType, false);
 		this.id = id;
+		inputPlayback = new InputPlayback(gameWorld, this);
 		started = false;
-		replay = new Replay();
+		replay = null;
 		resetDistanceAndSpeed(true, true);
 		removeReplay();
 		bfAlpha = new BoxedFloat(Config.Graphics.DefaultGhostCarOpacity);
@@ -47,6 +69,7 @@ public final class GhostCar extends Car {
 		return id;
 	}
 
+	/** Returns the Replay being played, if any, or null */
 	public Replay getReplay () {
 		return replay;
 	}
@@ -57,14 +80,53 @@ public final class GhostCar extends Car {
 			indexPlay = 0;
 			startedEventTriggered = false;
 			fadeOutEventTriggered = false;
+			clearPendingEvents();
 			stillModel.setAlpha(0);
 			resetWithTrackState();
 			setActive(true);
 			getTrackState().ghostArrived = false;
 			started = true;
+
+			playInputs = hasReplay && replay.hasInputs() && (Config.Replays.InputPlayback || validateInputs);
+			if (playInputs) {
+				resetSimulation();
+			}
+		}
+	}
+
+	/** Puts the simulator in the state it was when the replay has been recorded */
+	private void resetSimulation () {
+		inputPlayback.reset(replay.getInputs());
+
+		// impacts pending at the first tick are fed back with the body velocities
+		if (replay.hasKeyframes()) {
+			replay.getKeyframe(0, keyframe);
+			body.setLinearVelocity(keyframe.velocity);
+			body.setAngularVelocity(keyframe.angularVelocity);
 		}
 	}
 
+	public void setFrictionMap (Pixmap map) {
+		inputPlayback.setFrictionMap(map);
+	}
+
+	/** Returns whether the car is simulating the recorded input rather than playing the recorded forces */
+	public boolean isPlayingInputs () {
+		return started && playInputs;
+	}
+
+	/** Returns the largest difference found so far between a computed force component and the recorded one, when validating
+	 * input playback */
+	public float getInputMaxError () {
+		return inputPlayback.getMaxError();
+	}
+
+	/** Returns the first tick whose computed forces didn't match the recorded ones, -1 if none did, when validating input
+	 * playback */
+	public int getInputDivergenceTick () {
+		return inputPlayback.getDivergenceTick();
+	}
+
 	/** stops playing the replay and returns to being idle */
 	public void stop () {
 		if (started) {
@@ -79,6 +141,56 @@ public final class GhostCar extends Car {
 		return started;
 	}
 
+	/** Returns the index of the next event to be played */
+	public int getPlayedEvents () {
+		return indexPlay;
+	}
+
+	/** Moves playback to the specified tick, starting it if needed, and returns whether it could be done: the last keyframe
+	 * captured before the tick is restored and the few events between them are integrated kinematically, so the cost doesn't
+	 * depend on the tick. A replay without keyframes can only be played from the beginning.
+	 *
+	 * Since keyframes don't hold the simulator state, input playback switches to the recorded forces until restarted. */
+	public boolean seek (int tick) {
+		if (!hasReplay || !replay.hasKeyframes()) {
+			return false;
+		}
+
+		start();
+
+		tick = MathUtils.clamp(tick, 0, replayForcesCount - 1);
+		replay.getKeyframe(replay.getKeyframeIndex(tick), keyframe);
+		while (keyframe.tick < tick) {
+			int i = keyframe.tick;
+			keyframe.advance(replayVelocityX.get(i), replayVelocityY.get(i), replayAngularVelocity.get(i), Config.Physics.Dt);
+		}
+
+		// the lap completion is still relative to the replay start
+		resetWithTrackState();
+		float initialCompletion = getTrackState().initialCompletion;
+
+		setWorldPosMt(keyframe.position, keyframe.orientation);
+		body.setLinearVelocity(keyframe.velocity);
+		body.setAngularVelocity(keyframe.angularVelocity);
+		gameTrack.resetTrackState(this);
+		getTrackState().initialCompletion = initialCompletion;
+
+		indexPlay = tick;
+		fadeOutEventTriggered = false;
+		playInputs = false;
+		return true;
+	}
+
+	/** Whether the car is put back to the recorded state whenever playback reaches a keyframe, undoing any drift due to the
+	 * quantization of the replay events */
+	public void setSnapToKeyframes (boolean snap) {
+		snapToKeyframes = snap;
+	}
+
+	public boolean isSnappingToKeyframes () {
+		return snapToKeyframes;
+	}
+
 	public void setAlpha (float alpha) {
 		bfAlpha.value = alpha;
 	}
@@ -96,37 +208,38 @@ public final class GhostCar extends Car {
 	}
 
 	public void tweenAlphaTo (float value, float ms, TweenEquation eq) {
-		GameTweener.stop(bfAlpha);
+		context.tweener.stop(bfAlpha);
 		Timeline timeline = Timeline.createSequence();
 		timeline.push(Tween.to(bfAlpha, BoxedFloatAccessor.VALUE, ms).target(value).ease(eq));
-		GameTweener.start(timeline);
+		context.tweener.start(timeline);
 	}
 
 	public boolean isSsaoReady () {
 		return bfAlpha.value > 0.5f;
 	}
 
-	// input data for this car comes from a Replay object
+	// input data for this car comes from a Replay object, frozen and shared by reference
 	public void setReplay (Replay replay) {
 		stop();
 
 		hasReplay = (replay != null && replay.getEventsCount() > 0 && replay.isValid());
-		replayForces = null;
+		replayVelocityX = null;
+		replayVelocityY = null;
+		replayAngularVelocity = null;
 		replayForcesCount = 0;
 
-		if (hasReplay) {
-			this.replay.copy(replay);
-		} else {
-			this.replay.reset();
-		}
+		this.replay = hasReplay ? replay.freeze() : null;
 
 		if (hasReplay) {
-			replayForces = replay.getCarForces();
-			replayForcesCount = replay.getEventsCount();
+			replayVelocityX = this.replay.getVelocityX();
+			replayVelocityY = this.replay.getVelocityY();
+			replayAngularVelocity = this.replay.getAngularVelocity();
+			replayForcesCount = this.replay.getEventsCount();
 			resetWithTrackState();
 			indexPlay = 0;
 			fadeOutEventTriggered = false;
 			startedEventTriggered = false;
+			clearPendingEvents();
 			stillModel.setAlpha(0);
 			bfAlpha.value = 0;
 		}
@@ -172,11 +285,25 @@ public final class GhostCar extends Car {
 
 			if (!startedEventTriggered) {
 				startedEventTriggered = true;
-				GameEvents.ghostCars.trigger(this, GhostCarEvent.Type.ReplayStarted);
+				startedPending = true;
+			}
+
+			if (snapToKeyframes && indexPlay > 0 && indexPlay % replay.getKeyframeInterval() == 0) {
+				snapToKeyframe(indexPlay / replay.getKeyframeInterval());
 			}
 
 			if (indexPlay < replayForcesCount) {
-				forces.set(replayForces[indexPlay]);
+				if (playInputs) {
+					inputPlayback.simulate(replay.getInputs(), indexPlay, forces);
+					if (validateInputs) {
+						inputPlayback.validate(indexPlay, forces, replayVelocityX.get(indexPlay), replayVelocityY.get(indexPlay),
+							replayAngularVelocity.get(indexPlay));
+					}
+				} else {
+					forces.velocity_x = replayVelocityX.get(indexPlay);
+					forces.velocity_y = replayVelocityY.get(indexPlay);
+					forces.angularVelocity = replayAngularVelocity.get(indexPlay);
+				}
 			}
 
 			stillModel.setAlpha(bfAlpha.value);
@@ -190,12 +317,23 @@ public final class GhostCar extends Car {
 
 				if (!fadeOutEventTriggered) {
 					fadeOutEventTriggered = true;
-					GameEvents.ghostCars.trigger(this, GhostCarEvent.Type.onGhostFadingOut);
+					fadeOutPending = true;
 				}
 			}
 		}
 	}
 
+	/** Puts the body in the state of the specified keyframe, if any; the previous state is kept so the correction is smoothed
+	 * out by the subframe interpolation */
+	private void snapToKeyframe (int index) {
+		if (index < replay.getKeyframesCount()) {
+			replay.getKeyframe(index, keyframe);
+			body.setTransform(keyframe.position, keyframe.orientation);
+			body.setLinearVelocity(keyframe.velocity);
+			body.setAngularVelocity(keyframe.angularVelocity);
+		}
+	}
+
 	@Override
 	public void onAfterPhysicsSubstep () {
 		super.onAfterPhysicsSubstep();
@@ -205,8 +343,42 @@ public final class GhostCar extends Car {
 			indexPlay++;
 
 			if (indexPlay == replayForcesCount) {
-				GameEvents.ghostCars.trigger(this, GhostCarEvent.Type.ReplayEnded);
+				endedPending = true;
 			}
 		}
 	}
+
+	@Override
+	public void onPublishPhysicsSubstep () {
+		super.onPublishPhysicsSubstep();
+
+		if (startedPending) {
+			startedPending = false;
+			context.events.ghostCars.trigger(this, GhostCarEvent.Type.ReplayStarted);
+		}
+
+		if (fadeOutPending) {
+			fadeOutPending = false;
+			context.events.ghostCars.trigger(this, GhostCarEvent.Type.onGhostFadingOut);
+		}
+
+		if (endedPending) {
+			endedPending = false;
+
+			if (playInputs && validateInputs) {
+				int divergence = inputPlayback.getDivergenceTick();
+				String result = divergence == -1 ? "matches the recorded forces" : "diverged at tick " + divergence;
+				Gdx.app.log("GhostCar", "Input playback of replay #" + replay.getShortId() + " " + result + " (max error "
+					+ inputPlayback.getMaxError() + ")");
+			}
+
+			context.events.ghostCars.trigger(this, GhostCarEvent.Type.ReplayEnded);
+		}
+	}
+
+	private void clearPendingEvents () {
+		startedPending = false;
+		fadeOutPending = false;
+		endedPending = false;
+	}
 }
@@ -0,0 +1,332 @@
+
+package com.bitfire.uracer.game.actors;
+
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.bitfire.uracer.configuration.Config;
+import com.bitfire.uracer.entities.EntityRenderState;
+import com.bitfire.uracer.game.GameContext;
+import com.bitfire.uracer.game.events.PhysicsStepEvent;
+import com.bitfire.uracer.game.logic.helpers.TrackProgressField;
+import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.replaying.ReplayKeyframe;
+import com.bitfire.uracer.utils.AMath;
+
+/** Plays back many replays at once without any Box2D body, for racing against whole leaderboards.
+ *
+ * Unlike a GhostCar, a swarm ghost doesn't go through the physics world: the recorded velocities are integrated directly into
+ * plain position/orientation arrays, the same way Box2D would integrate them, in lockstep with the physics timestep. The cost of
+ * a physics step is thus unaffected by the number of ghosts, but since there are no collisions a swarm ghost may drift away from
+ * the recorded lap wherever its car hit something. Such a drift lasts until the next replay keyframe at most, since a ghost is
+ * put back to the recorded state whenever it reaches one; replays without keyframes aren't corrected.
+ *
+ * Swarm ghosts are rendered by the GameWorldRenderer through a single, shared CarStillModel. Having no track state, they are
+ * ranked against the player through the progress field of the track instead, see {@link #getRank(float)}.
+ *
+ * @author manuel */
+public final class GhostSwarm implements Disposable {
+	private static final int FadeEvents = 30;
+	private static final float MaxTranslation = ReplayKeyframe.MaxTranslation;
+	private static final float MaxRotation = ReplayKeyframe.MaxRotation;
+
+	private final GameContext context;
+	private final TrackProgressField progressField;
+	private final int capacity;
+	private int count = 0;
+	private float opacity = Config.Graphics.DefaultGhostCarOpacity;
+
+	// per-ghost state, in meters and radians
+	private final float[] posX, posY, angle;
+	private final float[] prevX, prevY, prevAngle;
+	private final float[] alpha;
+	private final int[] indexPlay, eventsCount;
+	private final int[] keyframeInterval, keyframesCount;
+	private final boolean[] playing;
+	private final Replay[] replays;
+	private final FloatBuffer[] velocityX, velocityY, angularVelocity, keyframes;
+
+	private final ReplayKeyframe keyframe = new ReplayKeyframe();
+
+	private final EntityRenderState previous = new EntityRenderState();
+	private final EntityRenderState current = new EntityRenderState();
+
+	private final PhysicsStepEvent.Listener physicsListener = new PhysicsStepEvent.Listener() {
+		@Override
+		public void handle (Object source, PhysicsStepEvent.Type type, PhysicsStepEvent.Order order) {
+			// not part of the physics, it's stepped along with the tick on the rendering thread
+			if (type == PhysicsStepEvent.Type.onPublishTimestep) {
+				step(Config.Physics.Dt);
+			}
+		}
+	};
+
+	public GhostSwarm (GameContext context, TrackProgressField progressField, int capacity) {
+		this.context = context;
+		this.progressField = progressField;
+		this.capacity = capacity;
+
+		posX = new float[capacity];
+		posY = new float[capacity];
+		angle = new float[capacity];
+		prevX = new float[capacity];
+		prevY = new float[capacity];
+		prevAngle = new float[capacity];
+		alpha = new float[capacity];
+		indexPlay = new int[capacity];
+		eventsCount = new int[capacity];
+		keyframeInterval = new int[capacity];
+		keyframesCount = new int[capacity];
+		playing = new boolean[capacity];
+		replays = new Replay[capacity];
+		velocityX = new FloatBuffer[capacity];
+		velocityY = new FloatBuffer[capacity];
+		angularVelocity = new FloatBuffer[capacity];
+		keyframes = new FloatBuffer[capacity];
+
+		context.events.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onPublishTimestep);
+	}
+
+	@Override
+	public void dispose () {
+		context.events.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onPublishTimestep);
+		clear();
+	}
+
+	public int getCapacity () {
+		return capacity;
+	}
+
+	/** Returns the number of replays being played */
+	public int size () {
+		return count;
+	}
+
+	public Replay getReplay (int ghost) {
+		return replays[ghost];
+	}
+
+	public boolean isPlaying (int ghost) {
+		return playing[ghost];
+	}
+
+	/** Returns the current opacity of the specified ghost, taking fading into account */
+	public float getAlpha (int ghost) {
+		return alpha[ghost];
+	}
+
+	public void setOpacity (float opacity) {
+		this.opacity = opacity;
+	}
+
+	/** Replaces the replays to be played with the specified ones, up to the swarm capacity; they'll be played once restarted */
+	public void setReplays (Array<Replay> replays) {
+		clear();
+		for (Replay replay : replays) {
+			if (!add(replay)) {
+				break;
+			}
+		}
+	}
+
+	/** Adds the specified replay to be played, returns false if the swarm is full */
+	public boolean add (Replay replay) {
+		if (count == capacity) {
+			return false;
+		}
+
+		if (replay == null || replay.getEventsCount() == 0 || !replay.isValid()) {
+			return true;
+		}
+
+		int i = count++;
+		replays[i] = replay.freeze();
+		velocityX[i] = replays[i].getVelocityX();
+		velocityY[i] = replays[i].getVelocityY();
+		angularVelocity[i] = replays[i].getAngularVelocity();
+		eventsCount[i] = replays[i].getEventsCount();
+		keyframes[i] = replays[i].getKeyframes();
+		keyframesCount[i] = replays[i].getKeyframesCount();
+		keyframeInterval[i] = replays[i].getKeyframeInterval();
+		indexPlay[i] = 0;
+		stop(i);
+		return true;
+	}
+
+	public void clear () {
+		for (int i = 0; i < count; i++) {
+			replays[i] = null;
+			velocityX[i] = null;
+			velocityY[i] = null;
+			angularVelocity[i] = null;
+			keyframes[i] = null;
+			playing[i] = false;
+		}
+
+		count = 0;
+	}
+
+	/** Starts playing all the replays from the beginning */
+	public void restart () {
+		for (int i = 0; i < count; i++) {
+			restart(i);
+		}
+	}
+
+	private void restart (int ghost) {
+		Replay replay = replays[ghost];
+		posX[ghost] = replay.getStartPosition().x;
+		posY[ghost] = replay.getStartPosition().y;
+		angle[ghost] = replay.getStartOrientation();
+		prevX[ghost] = posX[ghost];
+		prevY[ghost] = posY[ghost];
+		prevAngle[ghost] = angle[ghost];
+		indexPlay[ghost] = 0;
+		alpha[ghost] = 0;
+		playing[ghost] = true;
+	}
+
+	/** Moves the playback of every replay to the specified tick, starting it if needed; replays without keyframes are played
+	 * from the beginning. The last keyframe captured before the tick is restored and the few events between them are integrated,
+	 * so the cost doesn't depend on the tick. */
+	public void seek (int tick) {
+		for (int i = 0; i < count; i++) {
+			Replay replay = replays[i];
+			if (!replay.hasKeyframes()) {
+				restart(i);
+				continue;
+			}
+
+			int target = Math.min(Math.max(tick, 0), eventsCount[i] - 1);
+			replay.getKeyframe(replay.getKeyframeIndex(target), keyframe);
+			while (keyframe.tick < target) {
+				int e = keyframe.tick;
+				keyframe.advance(velocityX[i].get(e), velocityY[i].get(e), angularVelocity[i].get(e), Config.Physics.Dt);
+			}
+
+			posX[i] = keyframe.position.x;
+			posY[i] = keyframe.position.y;
+			angle[i] = keyframe.orientation;
+			prevX[i] = posX[i];
+			prevY[i] = posY[i];
+			prevAngle[i] = angle[i];
+			indexPlay[i] = target;
+			playing[i] = true;
+		}
+	}
+
+	public void stop () {
+		for (int i = 0; i < count; i++) {
+			stop(i);
+		}
+	}
+
+	private void stop (int ghost) {
+		playing[ghost] = false;
+		alpha[ghost] = 0;
+	}
+
+	/** Plays the next recorded event of every playing ghost */
+	private void step (float dt) {
+		for (int i = 0; i < count; i++) {
+			if (!playing[i]) {
+				continue;
+			}
+
+			int index = indexPlay[i];
+			int events = eventsCount[i];
+			if (index >= events) {
+				stop(i);
+				continue;
+			}
+
+			// same as Box2DEntity, keep the angle bounded
+			float a = AMath.normalRelativeAngle(angle[i]);
+			prevX[i] = posX[i];
+			prevY[i] = posY[i];
+			prevAngle[i] = a;
+
+			// undo any drift, the interpolation from the previous state smooths the correction out
+			int interval = keyframeInterval[i];
+			if (index % interval == 0 && index / interval < keyframesCount[i]) {
+				int k = (index / interval) * ReplayKeyframe.Size;
+				FloatBuffer kf = keyframes[i];
+				posX[i] = kf.get(k);
+				posY[i] = kf.get(k + 1);
+				a = kf.get(k + 2);
+			}
+
+			float tx = dt * velocityX[i].get(index);
+			float ty = dt * velocityY[i].get(index);
+			float ta = dt * -angularVelocity[i].get(index);
+
+			float t2 = tx * tx + ty * ty;
+			if (t2 > MaxTranslation * MaxTranslation) {
+				float ratio = MaxTranslation / (float)Math.sqrt(t2);
+				tx *= ratio;
+				ty *= ratio;
+			}
+
+			if (ta * ta > MaxRotation * MaxRotation) {
+				ta *= MaxRotation / Math.abs(ta);
+			}
+
+			posX[i] += tx;
+			posY[i] += ty;
+			angle[i] = a + ta;
+
+			// fade in/out based on events played / total events
+			if (index <= FadeEvents) {
+				alpha[i] = ((float)index / (float)FadeEvents) * opacity;
+			} else if (events - index <= FadeEvents) {
+				alpha[i] = ((float)(events - index) / (float)FadeEvents) * opacity;
+			} else {
+				alpha[i] = opacity;
+			}
+
+			indexPlay[i] = index + 1;
+		}
+	}
+
+	/** Returns the rank the specified track completion would get among the ghosts, from 1, that is the number of ghosts ahead of
+	 * it plus one: the ones that already arrived are ahead of anything, while the ones not playing nor arrived aren't ranked */
+	public int getRank (float completion) {
+		int rank = 1;
+		for (int i = 0; i < count; i++) {
+			if (indexPlay[i] >= eventsCount[i]) {
+				rank++;
+			} else if (playing[i]) {
+				float c = progressField.getCompletion(posX[i], posY[i], 0);
+
+				// near the starting line, a ghost still behind it is at the very start of its lap rather than at its end
+				if (c > 0.5f && indexPlay[i] * 2 < eventsCount[i]) {
+					c -= 1;
+				}
+
+				if (c > completion) {
+					rank++;
+				}
+			}
+		}
+
+		return rank;
+	}
+
+	/** Computes the render state of the specified ghost, in pixels and degrees, interpolating between the last two physics steps
+	 * if needed */
+	public void getRenderState (int ghost, float aliasingFactor, EntityRenderState out) {
+		current.position.set(posX[ghost], posY[ghost]);
+		current.orientation = angle[ghost];
+
+		if (Config.Graphics.SubframeInterpolation) {
+			previous.position.set(prevX[ghost], prevY[ghost]);
+			previous.orientation = prevAngle[ghost];
+			out.set(EntityRenderState.interpolate(previous, current, aliasingFactor));
+		} else {
+			out.set(current);
+		}
+
+		out.toPixels();
+	}
+}
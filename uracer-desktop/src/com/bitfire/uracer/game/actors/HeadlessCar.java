@@ -0,0 +1,178 @@
+
+package com.bitfire.uracer.game.actors;
+
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.replaying.ReplayInputs;
+import com.bitfire.uracer.game.logic.replaying.ReplayKeyframe;
+import com.bitfire.uracer.game.world.GameWorld;
+
+/** Implements a Car that isn't meant to be rendered, driven either by a recorded input or by the recorded forces of a replay:
+ * it lives in a headless GameWorld, see HeadlessSimulation.
+ *
+ * The car body is the same as the player's, so that it collides with the track walls the same way the recorded car did.
+ *
+ * @author manuel */
+public final class HeadlessCar extends Car {
+	private final InputPlayback inputPlayback;
+	private final ReplayKeyframe keyframe = new ReplayKeyframe();
+	private ReplayInputs inputs;
+	private FloatBuffer replayVelocityX, replayVelocityY, replayAngularVelocity;
+	private boolean playInputs, validateInputs;
+	private int tick, ticks;
+	private int collisions;
+
+	public HeadlessCar (GameWorld gameWorld, CarPreset.Type presetType) {
+		super(gameWorld, null, CarType.PlayerCar, InputMode.InputFromReplay, presetType, false);
+		inputPlayback = new InputPlayback(gameWorld, this);
+		stop();
+	}
+
+	public void setFrictionMap (Pixmap map) {
+		inputPlayback.setFrictionMap(map);
+	}
+
+	/** Plays the specified replay from its start, simulating its recorded input if any and if requested, checking the
+	 * computed forces against the recorded ones, or playing the recorded forces otherwise */
+	public void play (Replay replay, boolean simulateInputs) {
+		stop();
+
+		replayVelocityX = replay.getVelocityX();
+		replayVelocityY = replay.getVelocityY();
+		replayAngularVelocity = replay.getAngularVelocity();
+		ticks = replay.getEventsCount();
+
+		playInputs = simulateInputs && replay.hasInputs();
+		validateInputs = playInputs;
+		inputs = playInputs ? replay.getInputs() : null;
+
+		start(replay.getStartPosition(), replay.getStartOrientation());
+
+		// impacts pending at the first tick are fed back with the body velocities
+		if (playInputs && replay.hasKeyframes()) {
+			replay.getKeyframe(0, keyframe);
+			body.setLinearVelocity(keyframe.velocity);
+			body.setAngularVelocity(keyframe.angularVelocity);
+		}
+	}
+
+	/** Plays the specified input from the specified position */
+	public void play (ReplayInputs inputs, Vector2 position, float orientation) {
+		stop();
+
+		this.inputs = inputs;
+		ticks = inputs.getTicks();
+		playInputs = true;
+		validateInputs = false;
+
+		start(position, orientation);
+		body.setLinearVelocity(inputs.velocity);
+		body.setAngularVelocity(-inputs.angularVelocity);
+	}
+
+	private void start (Vector2 position, float orientation) {
+		resetPhysics();
+		resetDistanceAndSpeed(true, true);
+		setWorldPosMt(position, orientation);
+		gameTrack.resetTrackState(this);
+
+		if (playInputs) {
+			inputPlayback.reset(inputs);
+		}
+
+		tick = 0;
+		collisions = 0;
+		setActive(true);
+	}
+
+	/** Stops playing and returns to being idle */
+	public void stop () {
+		setActive(false);
+		resetPhysics();
+
+		inputs = null;
+		replayVelocityX = null;
+		replayVelocityY = null;
+		replayAngularVelocity = null;
+		playInputs = false;
+		validateInputs = false;
+		tick = 0;
+		ticks = 0;
+	}
+
+	/** Returns whether there is anything left to play */
+	public boolean isPlaying () {
+		return tick < ticks;
+	}
+
+	/** Returns the number of ticks played so far */
+	public int getPlayedTicks () {
+		return tick;
+	}
+
+	public boolean isPlayingInputs () {
+		return playInputs;
+	}
+
+	public boolean isValidatingInputs () {
+		return validateInputs;
+	}
+
+	/** Returns the largest difference found so far between a computed force component and the recorded one */
+	public float getInputMaxError () {
+		return inputPlayback.getMaxError();
+	}
+
+	/** Returns the first tick whose computed forces didn't match the recorded ones, -1 if none did */
+	public int getInputDivergenceTick () {
+		return inputPlayback.getDivergenceTick();
+	}
+
+	/** Returns the number of collisions since playing started */
+	public int getCollisions () {
+		return collisions;
+	}
+
+	@Override
+	public boolean isVisible () {
+		return false;
+	}
+
+	@Override
+	public void onCollide (Fixture other, Vector2 normalImpulses, float frontRatio) {
+		super.onCollide(other, normalImpulses, frontRatio);
+		collisions++;
+	}
+
+	@Override
+	protected void onComputeCarForces (CarForces forces) {
+		forces.reset();
+
+		if (tick < ticks) {
+			if (playInputs) {
+				inputPlayback.simulate(inputs, tick, forces);
+				if (validateInputs) {
+					inputPlayback.validate(tick, forces, replayVelocityX.get(tick), replayVelocityY.get(tick),
+						replayAngularVelocity.get(tick));
+				}
+			} else {
+				forces.velocity_x = replayVelocityX.get(tick);
+				forces.velocity_y = replayVelocityY.get(tick);
+				forces.angularVelocity = replayAngularVelocity.get(tick);
+			}
+		}
+	}
+
+	@Override
+	public void onAfterPhysicsSubstep () {
+		super.onAfterPhysicsSubstep();
+
+		if (tick < ticks) {
+			tick++;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+
+package com.bitfire.uracer.game.actors;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.bitfire.uracer.configuration.Config;
+import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.replaying.ReplayInputs;
+import com.bitfire.uracer.game.player.CarInput;
+import com.bitfire.uracer.game.player.CarSimulator;
+import com.bitfire.uracer.game.player.FrictionMonitor;
+import com.bitfire.uracer.game.world.GameWorld;
+
+/** Computes the forces of a car from its recorded input, the same way PlayerCar does, feeding its own simulator with the same
+ * impact and friction feedback; the computed forces can be checked against the recorded ones.
+ *
+ * @author manuel */
+final class InputPlayback {
+	private final Car car;
+	private final CarDescriptor carDesc;
+	private final CarSimulator carSim;
+	private final CarState carState;
+	private final FrictionMonitor friction;
+	private final CarInput carInput = new CarInput();
+	private float maxError;
+	private int divergence;
+
+	InputPlayback (GameWorld gameWorld, Car car) {
+		this.car = car;
+		carDesc = new CarDescriptor(car.getCarModel());
+		carSim = new CarSimulator(carDesc);
+		carState = new CarState(gameWorld, car);
+		friction = new FrictionMonitor(gameWorld);
+	}
+
+	void setFrictionMap (Pixmap map) {
+		friction.setFrictionMap(map);
+	}
+
+	/** Puts the simulator in the state it was when the specified input has been recorded */
+	void reset (ReplayInputs inputs) {
+		carSim.resetPhysics();
+		inputs.restore(carDesc);
+		carState.reset();
+		friction.setSamples(inputs.frictionSamples, inputs.frictionSamplesCount);
+		car.impacts = inputs.impacts;
+
+		maxError = 0;
+		divergence = -1;
+	}
+
+	/** Computes the forces from the input recorded at the specified tick */
+	void simulate (ReplayInputs inputs, int tick, CarForces forces) {
+		Body body = car.getBody();
+		inputs.get(tick, carInput);
+
+		// complete the substeps as they were while recording, rather than at the end of the frames being rendered now
+		for (int i = inputs.getCompletedSubsteps(tick); i > 0; i--) {
+			completeSubstep();
+		}
+
+		// feed back the result of any impact to the simulator
+		while (car.impacts > 0) {
+			car.impacts--;
+			carDesc.velocity_wc.set(body.getLinearVelocity());
+			carDesc.angularvelocity = -body.getAngularVelocity();
+		}
+
+		carSim.applyInput(carInput);
+		carSim.step(Config.Physics.Dt, body.getAngle());
+
+		forces.velocity_x = carDesc.velocity_wc.x;
+		forces.velocity_y = carDesc.velocity_wc.y;
+		forces.angularVelocity = carDesc.angularvelocity;
+	}
+
+	/** Checks the computed forces against the ones recorded at the specified tick */
+	void validate (int tick, CarForces forces, float velocityX, float velocityY, float angularVelocity) {
+		float error = Math.abs(forces.velocity_x - velocityX);
+		error = Math.max(error, Math.abs(forces.velocity_y - velocityY));
+		error = Math.max(error, Math.abs(forces.angularVelocity - angularVelocity));
+
+		maxError = Math.max(maxError, error);
+		if (error > Replay.ForcesTolerance && divergence == -1) {
+			divergence = tick;
+		}
+	}
+
+	/** Returns the largest difference found so far between a computed force component and the recorded one */
+	float getMaxError () {
+		return maxError;
+	}
+
+	/** Returns the first tick whose computed forces didn't match the recorded ones, -1 if none did */
+	int getDivergenceTick () {
+		return divergence;
+	}
+
+	private void completeSubstep () {
+		carState.update(carDesc);
+
+		if (Config.Debug.ApplyCarFrictionFromMap) {
+			friction.update(car, carState.tilePosition);
+			friction.applyDamping(carDesc);
+		}
+	}
+}
@@ -3,7 +3,7 @@ package com.bitfire.uracer.game.actors;
 
 import com.bitfire.uracer.entities.Entity;
 import com.bitfire.uracer.entities.EntityRenderState;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.GameRendererEvent;
 import com.bitfire.uracer.game.events.PhysicsStepEvent;
 import com.bitfire.uracer.game.events.GameRendererEvent.Order;
@@ -12,18 +12,29 @@ public abstract class SubframeInterpolableEntity extends Entity {
 	// world-coords
 	protected EntityRenderState statePrevious = new EntityRenderState();
 	protected EntityRenderState stateCurrent = new EntityRenderState();
+	protected final GameContext context;
+
+	// the last published timestep, the one to render, since the physics may be computing the next one meanwhile
+	private final EntityRenderState publishedPrevious = new EntityRenderState();
+	private final EntityRenderState publishedCurrent = new EntityRenderState();
 
 	private final PhysicsStepEvent.Listener physicsListener = new PhysicsStepEvent.Listener() {
 
 		@Override
 		public void handle (Object source, PhysicsStepEvent.Type type, PhysicsStepEvent.Order order) {
 			switch (type) {
+			case onPrepareTimestep:
+				onPreparePhysicsSubstep();
+				break;
 			case onBeforeTimestep:
 				onBeforePhysicsSubstep();
 				break;
 			case onAfterTimestep:
 				onAfterPhysicsSubstep();
 				break;
+			case onPublishTimestep:
+				onPublishPhysicsSubstep();
+				break;
 			case onSubstepCompleted:
 				onSubstepCompleted();
 				break;
@@ -35,25 +46,30 @@ public abstract class SubframeInterpolableEntity extends Entity {
 		@Override
 		public void handle (Object source, com.bitfire.uracer.game.events.GameRendererEvent.Type type, Order order) {
 			if (type == GameRendererEvent.Type.SubframeInterpolate) {
-				onSubframeInterpolate(GameEvents.gameRenderer.timeAliasingFactor);
+				onSubframeInterpolate(context.events.gameRenderer.timeAliasingFactor);
 			}
 		}
 	};
 
-	public SubframeInterpolableEntity () {
-		GameEvents.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onBeforeTimestep);
-		GameEvents.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onAfterTimestep);
-		GameEvents.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onSubstepCompleted);
-		GameEvents.gameRenderer.addListener(renderListener, GameRendererEvent.Type.SubframeInterpolate,
+	public SubframeInterpolableEntity (GameContext context) {
+		this.context = context;
+		context.events.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onPrepareTimestep);
+		context.events.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onBeforeTimestep);
+		context.events.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onAfterTimestep);
+		context.events.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onPublishTimestep);
+		context.events.physicsStep.addListener(physicsListener, PhysicsStepEvent.Type.onSubstepCompleted);
+		context.events.gameRenderer.addListener(renderListener, GameRendererEvent.Type.SubframeInterpolate,
 			GameRendererEvent.Order.DEFAULT);
 	}
 
 	@Override
 	public void dispose () {
-		GameEvents.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onBeforeTimestep);
-		GameEvents.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onAfterTimestep);
-		GameEvents.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onSubstepCompleted);
-		GameEvents.gameRenderer.removeListener(renderListener, GameRendererEvent.Type.SubframeInterpolate,
+		context.events.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onPrepareTimestep);
+		context.events.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onBeforeTimestep);
+		context.events.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onAfterTimestep);
+		context.events.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onPublishTimestep);
+		context.events.physicsStep.removeListener(physicsListener, PhysicsStepEvent.Type.onSubstepCompleted);
+		context.events.gameRenderer.removeListener(renderListener, GameRendererEvent.Type.SubframeInterpolate,
 			GameRendererEvent.Order.DEFAULT);
 	}
 
@@ -66,10 +82,16 @@ public abstract class SubframeInterpolableEntity extends Entity {
 	protected void resetState () {
 		saveStateTo(stateCurrent);
 		statePrevious.set(stateCurrent);
+		publishedPrevious.set(stateCurrent);
+		publishedCurrent.set(stateCurrent);
 		stateRender.set(stateCurrent);
 		stateRender.toPixels();
 	}
 
+	/** Issued on the rendering thread before the timestep is computed, see PhysicsStepEvent */
+	public void onPreparePhysicsSubstep () {
+	}
+
 	public void onBeforePhysicsSubstep () {
 		saveStateTo(statePrevious);
 	}
@@ -78,6 +100,12 @@ public abstract class SubframeInterpolableEntity extends Entity {
 		saveStateTo(stateCurrent);
 	}
 
+	/** Issued on the rendering thread at the tick the timestep belongs to, see PhysicsStepEvent */
+	public void onPublishPhysicsSubstep () {
+		publishedPrevious.set(statePrevious);
+		publishedCurrent.set(stateCurrent);
+	}
+
 	public void onSubstepCompleted () {
 
 	}
@@ -85,13 +113,13 @@ public abstract class SubframeInterpolableEntity extends Entity {
 	/** Issued after a tick/physicsStep but before render :P */
 	public void onSubframeInterpolate (float aliasingFactor) {
 		if (isSubframeInterpolated()) {
-			if (!EntityRenderState.isEqual(statePrevious, stateCurrent)) {
-				stateRender.set(EntityRenderState.interpolate(statePrevious, stateCurrent, aliasingFactor));
+			if (!EntityRenderState.isEqual(publishedPrevious, publishedCurrent)) {
+				stateRender.set(EntityRenderState.interpolate(publishedPrevious, publishedCurrent, aliasingFactor));
 			} else {
-				stateRender.set(stateCurrent);
+				stateRender.set(publishedCurrent);
 			}
 		} else {
-			stateRender.set(stateCurrent);
+			stateRender.set(publishedCurrent);
 		}
 
 		stateRender.toPixels();
@@ -24,10 +24,10 @@ import com.bitfire.uracer.Input;
 import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.entities.EntityRenderState;
-import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.GameLogic;
 import com.bitfire.uracer.game.actors.CarDescriptor;
 import com.bitfire.uracer.game.actors.GhostCar;
+import com.bitfire.uracer.game.actors.GhostSwarm;
 import com.bitfire.uracer.game.events.GameRendererEvent;
 import com.bitfire.uracer.game.events.GameRendererEvent.Order;
 import com.bitfire.uracer.game.events.GameRendererEvent.Type;
@@ -119,6 +119,7 @@ public final class DebugHelper extends GameTask implements DisposableTasks {
 	private ImmediateModeRenderer20 dbg = new ImmediateModeRenderer20(false, true, 0);
 
 	public DebugHelper (GameWorld gameWorld, PostProcessor postProcessor, LapManager lapManager, GameLogic logic, Input input) {
+		super(gameWorld.getContext());
 		this.gameWorld = gameWorld;
 		this.postProcessor = postProcessor;
 		this.lapManager = lapManager;
@@ -128,8 +129,8 @@ public final class DebugHelper extends GameTask implements DisposableTasks {
 		this.enabled = Config.Debug.UseDebugHelper;
 		this.box2dWorld = gameWorld.getBox2DWorld();
 
-		GameEvents.gameRenderer.addListener(renderListener, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.PLUS_4);
-		GameEvents.gameRenderer.addListener(renderListener, GameRendererEvent.Type.Debug, GameRendererEvent.Order.PLUS_4);
+		context.events.gameRenderer.addListener(renderListener, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.PLUS_4);
+		context.events.gameRenderer.addListener(renderListener, GameRendererEvent.Type.Debug, GameRendererEvent.Order.PLUS_4);
 
 		// player = null;
 		b2drenderer = new Box2DDebugRenderer();
@@ -189,8 +190,8 @@ public final class DebugHelper extends GameTask implements DisposableTasks {
 	public void dispose () {
 		super.dispose();
 
-		GameEvents.gameRenderer.removeListener(renderListener, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.PLUS_4);
-		GameEvents.gameRenderer.removeListener(renderListener, GameRendererEvent.Type.Debug, GameRendererEvent.Order.PLUS_4);
+		context.events.gameRenderer.removeListener(renderListener, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.PLUS_4);
+		context.events.gameRenderer.removeListener(renderListener, GameRendererEvent.Type.Debug, GameRendererEvent.Order.PLUS_4);
 
 		dbg.dispose();
 		b2drenderer.dispose();
@@ -203,7 +204,7 @@ public final class DebugHelper extends GameTask implements DisposableTasks {
 		public void handle (Object source, Type type, Order order) {
 			if (!isEnabled()) return;
 
-			SpriteBatch batch = GameEvents.gameRenderer.batch;
+			SpriteBatch batch = context.events.gameRenderer.batch;
 
 			if (type == GameRendererEvent.Type.BatchDebug) {
 				// render everything scaled
@@ -223,11 +224,11 @@ public final class DebugHelper extends GameTask implements DisposableTasks {
 
 			} else if (type == GameRendererEvent.Type.Debug) {
 				if (renderFlags.contains(RenderFlags.BoundingBoxes3D)) {
-					renderBoundingBoxes(GameEvents.gameRenderer.camPersp);
+					renderBoundingBoxes(context.events.gameRenderer.camPersp);
 				}
 
 				if (renderFlags.contains(RenderFlags.Box2DWireframe)) {
-					b2drenderer.render(box2dWorld, GameEvents.gameRenderer.mtxOrthographicMvpMt);
+					b2drenderer.render(box2dWorld, context.events.gameRenderer.mtxOrthographicMvpMt);
 				}
 
 				for (DebugRenderable r : renderables) {
@@ -498,6 +499,14 @@ public final class DebugHelper extends GameTask implements DisposableTasks {
 				coord += Art.DebugFontHeight * scale;
 			}
 		}
+
+		// the swarm ghosts are only ranked against the player
+		GhostSwarm swarm = gameWorld.getGhostSwarm();
+		if (hasPlayer && swarm != null && swarm.size() > 0) {
+			float completion = logic.isWarmUp() ? 0 : gameWorld.getGameTrack().getTrackCompletion(player);
+			text = "swarm " + swarm.getRank(completion) + "/" + (swarm.size() + 1);
+			drawString2X(batch, text, xoffset, coord, scale);
+		}
 	}
 
 	private void renderGraphicalStats (SpriteBatch batch, int y) {
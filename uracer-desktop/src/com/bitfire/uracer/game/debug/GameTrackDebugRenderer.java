@@ -25,10 +25,12 @@ public class GameTrackDebugRenderer extends DebugRenderable {
 	private final TrackSector[] sectors;
 	private final List<Vector2> route;
 	private final GameTrack gameTrack;
+	private final GameEvents events;
 
-	public GameTrackDebugRenderer (RenderFlags flag, GameTrack gameTrack) {
+	public GameTrackDebugRenderer (RenderFlags flag, GameEvents events, GameTrack gameTrack) {
 		super(flag);
 
+		this.events = events;
 		this.gameTrack = gameTrack;
 		this.sectors = gameTrack.getSectors();
 		this.route = gameTrack.getRoute();
@@ -93,7 +95,7 @@ public class GameTrackDebugRenderer extends DebugRenderable {
 		Gdx.gl.glEnable(GL20.GL_BLEND);
 		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 
-		shape.setProjectionMatrix(GameEvents.gameRenderer.mtxOrthographicMvpMt);
+		shape.setProjectionMatrix(events.gameRenderer.mtxOrthographicMvpMt);
 
 		// draw waypoint segments
 		shape.begin(ShapeType.Line);
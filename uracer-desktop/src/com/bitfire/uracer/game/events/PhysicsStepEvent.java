@@ -3,8 +3,12 @@ package com.bitfire.uracer.game.events;
 
 
 public class PhysicsStepEvent extends Event<PhysicsStepEvent.Type, PhysicsStepEvent.Order, PhysicsStepEvent.Listener> {
+	/** onBeforeTimestep and onAfterTimestep may be raised by a SimulationThread, ahead of the tick the timestep belongs to: their
+	 * listeners shall only touch the state of the physics. Whatever they need from the game is to be sampled on
+	 * onPrepareTimestep, and whatever the game needs from them is to be handed over on onPublishTimestep, both raised by the
+	 * rendering thread, right before the timestep is computed and at the tick it belongs to, respectively. */
 	public enum Type {
-		onBeforeTimestep, onAfterTimestep, onSubstepCompleted
+		onPrepareTimestep, onBeforeTimestep, onAfterTimestep, onPublishTimestep, onSubstepCompleted
 	}
 
 	public enum Order {
@@ -15,7 +15,6 @@ import com.bitfire.uracer.game.logic.types.helpers.TimeModulator;
 import com.bitfire.uracer.game.player.PlayerCar;
 import com.bitfire.uracer.game.rendering.GameRenderer;
 import com.bitfire.uracer.game.rendering.GameWorldRenderer;
-import com.bitfire.uracer.game.tween.GameTweener;
 import com.bitfire.uracer.game.world.GameWorld;
 import com.bitfire.uracer.utils.AMath;
 import com.bitfire.uracer.utils.BoxedFloat;
@@ -42,11 +41,14 @@ public abstract class BaseLogic extends CommonLogic {
 	private float collisionFrontRatio = 0.5f;
 	private float lastImpactForce = 0;
 
+	// the recording runs along with the physics, its errors are handled by the logic tick
+	private RecorderError recorderError = RecorderError.NoError;
+
 	public BaseLogic (UserProfile userProfile, GameWorld gameWorld, GameRenderer gameRenderer) {
 		super(userProfile, gameWorld, gameRenderer);
 		timeMod = new TimeModulator();
-		dilationTime = new Time();
-		outOfTrackTime = new Time();
+		dilationTime = new Time(context);
+		outOfTrackTime = new Time(context);
 	}
 
 	@Override
@@ -54,6 +56,29 @@ public abstract class BaseLogic extends CommonLogic {
 		super.dispose();
 	}
 
+	@Override
+	public void tick () {
+		super.tick();
+
+		RecorderError error = recorderError;
+		recorderError = RecorderError.NoError;
+
+		if (!quitPending) {
+			switch (error) {
+			case ReplayMemoryLimitReached:
+				Gdx.app.log("CommonLogic", "Player too slow, recording aborted.");
+				playerError("Too slow!");
+				break;
+			case RecordingNotEnabled:
+				Gdx.app.log("CommonLogic", "Recording not enabled");
+				playerError("Recording not enabled");
+				break;
+			case NoError:
+				break;
+			}
+		}
+	}
+
 	@Override
 	public Time getOutOfTrackTimer () {
 		return outOfTrackTime;
@@ -101,13 +126,13 @@ public abstract class BaseLogic extends CommonLogic {
 
 	@Override
 	public void endCollisionTime () {
-		GameTweener.stop(collisionFactor);
+		context.tweener.stop(collisionFactor);
 		collisionFrontRatio = 0.5f;
 		lastImpactForce = 0;
 
 		if (!AMath.isZero(collisionFactor.value)) {
 			//@off
-			GameTweener.start(Timeline
+			context.tweener.start(Timeline
 				.createSequence()
 				.push(Tween.to(collisionFactor, BoxedFloatAccessor.VALUE, 500).target(0).ease(Linear.INOUT)));
 			//@on
@@ -133,7 +158,7 @@ public abstract class BaseLogic extends CommonLogic {
 		gameWorldRenderer.updateRayHandler();
 
 		// game tweener step
-		if (!paused) GameTweener.update();
+		if (!paused) context.tweener.update(URacer.Game.getLastDeltaMs() * URacer.timeMultiplier);
 	}
 
 	@Override
@@ -202,7 +227,7 @@ public abstract class BaseLogic extends CommonLogic {
 		if (clampedImpactForce > 0 && clampedImpactForce > lastImpactForce) {
 			lastImpactForce = clampedImpactForce;
 
-			GameTweener.stop(collisionFactor);
+			context.tweener.stop(collisionFactor);
 			collisionFrontRatio = data.frontRatio;
 			collisionFactor.value = 0;
 
@@ -210,7 +235,7 @@ public abstract class BaseLogic extends CommonLogic {
 			final float max = GameplaySettings.CollisionFactorMaxDurationMs;
 
 			//@off
-			GameTweener.start(Timeline
+			context.tweener.start(Timeline
 				.createSequence()
 				.push(Tween.to(collisionFactor, BoxedFloatAccessor.VALUE,100).target(clampedImpactForce).ease(Linear.INOUT))
 				.push(Tween.to(collisionFactor, BoxedFloatAccessor.VALUE,min + max * clampedImpactForce).target(0)
@@ -225,18 +250,8 @@ public abstract class BaseLogic extends CommonLogic {
 	public void physicsForcesReady (CarEvent.Data eventData) {
 		if (lapManager.isRecording()) {
 			RecorderError recerror = lapManager.record(eventData.forces);
-
-			switch (recerror) {
-			case ReplayMemoryLimitReached:
-				Gdx.app.log("CommonLogic", "Player too slow, recording aborted.");
-				playerError("Too slow!");
-				break;
-			case RecordingNotEnabled:
-				Gdx.app.log("CommonLogic", "Recording not enabled");
-				playerError("Recording not enabled");
-				break;
-			case NoError:
-				break;
+			if (recerror != RecorderError.NoError) {
+				recorderError = recerror;
 			}
 		}
 	}
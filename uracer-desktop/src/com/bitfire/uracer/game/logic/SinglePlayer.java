@@ -5,14 +5,13 @@ import aurelienribon.tweenengine.equations.Quad;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
-import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import com.bitfire.postprocessing.PostProcessor;
 import com.bitfire.uracer.Input;
 import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.Config;
-import com.bitfire.uracer.configuration.Storage;
 import com.bitfire.uracer.configuration.UserProfile;
 import com.bitfire.uracer.game.GameplaySettings;
 import com.bitfire.uracer.game.actors.GhostCar;
@@ -30,6 +29,8 @@ import com.bitfire.uracer.game.logic.gametasks.messager.Message.Type;
 import com.bitfire.uracer.game.logic.gametasks.sounds.effects.PlayerEngineSoundEffect;
 import com.bitfire.uracer.game.logic.gametasks.sounds.effects.PlayerTensiveMusic;
 import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.replaying.ReplayIOService.Callback;
+import com.bitfire.uracer.game.logic.replaying.ReplayIOService.Ranking;
 import com.bitfire.uracer.game.logic.replaying.ReplayInfo;
 import com.bitfire.uracer.game.logic.replaying.ReplayManager.DiscardReason;
 import com.bitfire.uracer.game.logic.replaying.ReplayManager.ReplayResult;
@@ -45,10 +46,11 @@ import com.bitfire.uracer.utils.URacerRuntimeException;
 
 public class SinglePlayer extends BaseLogic {
 	protected DebugHelper debug = null;
-	private boolean saving = false;
+	private int loadRequest = 0;
 	private CameraShaker camShaker = new CameraShaker();
 	private int selectedBestReplayIdx = -1;
 	private ReplayResult lastRecorded = new ReplayResult();
+	private final Array<Replay> swarmReplays = new Array<Replay>();
 	private boolean canDisableTargetMode = false;
 	private boolean targetMode = !canDisableTargetMode; // always enabled if can't be disabled, else no target by default
 
@@ -66,7 +68,7 @@ public class SinglePlayer extends BaseLogic {
 	private void setupDebug (PostProcessor postProcessor) {
 		if (Config.Debug.UseDebugHelper) {
 			debug = new DebugHelper(gameWorld, postProcessor, lapManager, this, inputSystem);
-			debug.add(new GameTrackDebugRenderer(RenderFlags.TrackSectors, gameWorld.getGameTrack()));
+			debug.add(new GameTrackDebugRenderer(RenderFlags.TrackSectors, context.events, gameWorld.getGameTrack()));
 			debug.add(new DebugPlayer(RenderFlags.PlayerCarInfo, gameTasksManager));
 			debug.add(new DebugMusicVolumes(RenderFlags.MusicVolumes, (PlayerTensiveMusic)gameTasksManager.sound
 				.get(PlayerTensiveMusic.class)));
@@ -86,7 +88,7 @@ public class SinglePlayer extends BaseLogic {
 	private GhostCar findGhostFor (Replay replay) {
 		for (int g = 0; g < ghostCars.length; g++) {
 			GhostCar ghost = ghostCars[g];
-			if (ghost != null && replay != null && ghost.getReplay().getId().equals(replay.getId())) {
+			if (ghost != null && ghost.hasReplay() && replay != null && ghost.getReplay().getId().equals(replay.getId())) {
 				return ghost;
 			}
 		}
@@ -187,25 +189,18 @@ public class SinglePlayer extends BaseLogic {
 	}
 
 	private void saveReplay (final Replay replay) {
-		if (saving) {
-			Gdx.app.log("SinglePlayer", "(already saving, request ignored...");
-			return;
-		}
-
 		if (replay != null) {
-			saving = true;
-			Thread savingThread = new Thread(new Runnable() {
+			replayIO.save(replay, new Callback<Boolean>() {
 				@Override
-				public void run () {
-					if (replay.save()) {
+				public void completed (Boolean saved) {
+					if (saved != null && saved) {
 						Gdx.app.log("SinglePlayer",
-							"Replay #" + replay.getShortId() + " saved to \"" + ReplayUtils.getFullPath(replay.getInfo()) + "\"");
+							"Replay #" + replay.getShortId() + " saved to \"" + ReplayUtils.getPackPath(replay.getTrackId()) + "\"");
+					} else {
+						Gdx.app.error("SinglePlayer", "Couldn't save replay #" + replay.getShortId());
 					}
 				}
 			});
-
-			savingThread.start();
-			saving = false;
 		}
 	}
 
@@ -237,51 +232,39 @@ public class SinglePlayer extends BaseLogic {
 		}
 	}
 
-	/** Load from disk all the replays for the specified trackId, pruning while loading respecting the ReplayManager.MaxReplays
-	 * constant. Any previous Replay will be cleared from the lapManager instance. */
-	private int loadReplaysFromDiskFor (String trackId) {
+	/** Requests the best replays for the specified trackId to be loaded from disk, ranking them by the track's replay catalog so
+	 * that only the replays that would be kept are effectively loaded, pruning the others respecting the leaderboard size. If
+	 * nothing changed on disk since the last load, the cached ranking is reused instead. Loading happens in the background,
+	 * replays are bound to the ghosts once available; any previous Replay will be cleared from the lapManager instance at that
+	 * time. */
+	private void loadReplaysFromDiskFor (String trackId) {
+		final int request = ++loadRequest;
+
+		replayIO.loadBest(trackId, lapManager.getLeaderboard().getCapacity(), new Callback<Ranking>() {
+			@Override
+			public void completed (Ranking ranking) {
+				// only the most recent request is relevant
+				if (request == loadRequest && ranking != null) {
+					replaysLoaded(ranking);
+				}
+			}
+		});
+	}
+
+	private void replaysLoaded (Ranking ranking) {
+		// replays recorded in the meanwhile may not be on disk yet, keep them
+		Array<Replay> recorded = new Array<Replay>(lapManager.getReplays());
 		lapManager.removeAllReplays();
 
-		int reloaded = 0;
-		for (FileHandle userdir : Gdx.files.external(Storage.ReplaysRoot + gameWorld.getLevelId()).list()) {
-			if (userdir.isDirectory()) {
-				for (FileHandle userreplay : userdir.list()) {
-					Replay replay = Replay.load(userreplay.path());
-					if (replay != null) {
-						// add replays even if slower
-						ReplayResult ri = lapManager.addReplay(replay);
-						if (ri.is_accepted) {
-							ReplayUtils.pruneReplay(ri.pruned); // prune if needed
-							reloaded++;
-							Gdx.app.log("SinglePlayer", "Loaded replay #" + ri.accepted.getShortId());
-						} else {
-
-							String msg = "";
-							switch (ri.reason) {
-							case Null:
-								msg = "null replay (" + userreplay.path() + ")";
-								break;
-							case InvalidMinDuration:
-								msg = "invalid lap (" + ri.discarded.getSecondsStr() + "s < " + GameplaySettings.ReplayMinDurationSecs
-									+ "s) (#" + ri.discarded.getShortId() + ")";
-								break;
-							case Invalid:
-								msg = "the specified replay is not valid. (" + userreplay.path() + ")";
-								break;
-							case WrongTrack:
-								msg = "the specified replay belongs to another game track (#" + ri.discarded.getShortId() + ")";
-								break;
-							case Slower:
-								msg = "too slow! (#" + ri.discarded.getShortId() + ")";
-								ReplayUtils.pruneReplay(ri.discarded);
-								break;
-							case Accepted:
-								break;
-							}
-
-							Gdx.app.log("SinglePlayer", "Discarded at loading time, " + msg);
-						}
-					}
+		for (Replay replay : ranking.replays) {
+			lapManager.addReplay(replay);
+		}
+
+		for (Replay replay : recorded) {
+			if (lapManager.getReplay(replay.getId()) == null) {
+				ReplayResult ri = lapManager.addReplay(replay);
+				if (ri.is_accepted) {
+					replayIO.prune(ri.pruned, null); // prune if needed
 				}
 			}
 		}
@@ -297,8 +280,14 @@ public class SinglePlayer extends BaseLogic {
 			pos++;
 		}
 
-		Gdx.app.log("SinglePlayer", "Reloaded " + reloaded + " opponents.");
-		return reloaded;
+		Gdx.app.log("SinglePlayer", (ranking.cached ? "Reused " : "Reloaded ") + lapManager.getLeaderboard().size()
+			+ " ranked replays, " + lapManager.getReplaysCount() + " opponents"
+			+ (ranking.pruned > 0 ? ", pruned " + ranking.pruned + " slower replays." : "."));
+
+		// with no player the replays should be played as soon as they are ready
+		if (!hasPlayer()) {
+			restartAllReplays();
+		}
 	}
 
 	@Override
@@ -373,7 +362,7 @@ public class SinglePlayer extends BaseLogic {
 				CarUtils.dumpSpeedInfo("SinglePlayer", "Replay #" + ri.getShortId() + " accepted, player", playerCar, ri.getTicks());
 
 				saveReplay(lastRecorded.new_replay);
-				ReplayUtils.pruneReplay(lastRecorded.pruned); // prune if needed
+				replayIO.prune(lastRecorded.pruned, null); // prune if needed
 
 				// show message
 				int pos = lastRecorded.position;
@@ -407,6 +396,10 @@ public class SinglePlayer extends BaseLogic {
 					msg = "Too slow!";
 					duration = 1.5f;
 					break;
+				case AlreadyRanked:
+					msg = "The specified replay is ranked already " + id;
+					duration = 3;
+					break;
 				case Accepted:
 					break;
 				}
@@ -488,6 +481,23 @@ public class SinglePlayer extends BaseLogic {
 				ghost.start();
 			}
 		}
+
+		if (ghostSwarm != null) {
+			ghostSwarm.restart();
+		}
+	}
+
+	/** Binds the ranked replays following the opponents to the swarm, if any */
+	private void rebindSwarm () {
+		if (ghostSwarm != null) {
+			swarmReplays.clear();
+			lapManager.getLeaderboard().getTop(lapManager.getReplaysCount() + ghostSwarm.getCapacity(), swarmReplays);
+			if (lapManager.getReplaysCount() > 0) {
+				swarmReplays.removeRange(0, Math.min(lapManager.getReplaysCount(), swarmReplays.size) - 1);
+			}
+
+			ghostSwarm.setReplays(swarmReplays);
+		}
 	}
 
 	private void rebindAllReplays () {
@@ -510,6 +520,8 @@ public class SinglePlayer extends BaseLogic {
 			g++;
 		}
 
+		rebindSwarm();
+
 		// auto-select the best replay in case target mode is mandatory and there is no target yet
 		if (!canDisableTargetMode && getNextTarget() == null) {
 			Gdx.app.log("SinglePlayer", "Automatically selecting best replay...");
@@ -2,7 +2,7 @@
 package com.bitfire.uracer.game.logic.gametasks;
 
 import com.badlogic.gdx.utils.Disposable;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.GameLogicEvent;
 import com.bitfire.uracer.game.events.GameLogicEvent.Order;
 import com.bitfire.uracer.game.events.GameLogicEvent.Type;
@@ -20,10 +20,10 @@ public abstract class GameTask extends Task implements Disposable {
 		public void handle (Object source, Type type, Order order) {
 			switch (type) {
 			case PlayerAdded:
-				onPlayer(GameEvents.logicEvent.player);
+				onPlayer(context.events.logicEvent.player);
 				break;
 			case PlayerRemoved:
-				if (GameEvents.logicEvent.player != null) {
+				if (context.events.logicEvent.player != null) {
 					throw new URacerRuntimeException("Player zombieing");
 				}
 
@@ -42,27 +42,27 @@ public abstract class GameTask extends Task implements Disposable {
 		}
 	};
 
-	public GameTask () {
-		this(TaskManagerEvent.Order.DEFAULT);
+	public GameTask (GameContext context) {
+		this(context, TaskManagerEvent.Order.DEFAULT);
 	}
 
-	public GameTask (TaskManagerEvent.Order order) {
-		super(order);
-		GameEvents.logicEvent.addListener(logicListener, GameLogicEvent.Type.GameRestart);
-		GameEvents.logicEvent.addListener(logicListener, GameLogicEvent.Type.GameReset);
-		GameEvents.logicEvent.addListener(logicListener, GameLogicEvent.Type.GameQuit);
-		GameEvents.logicEvent.addListener(logicListener, GameLogicEvent.Type.PlayerAdded);
-		GameEvents.logicEvent.addListener(logicListener, GameLogicEvent.Type.PlayerRemoved);
+	public GameTask (GameContext context, TaskManagerEvent.Order order) {
+		super(context, order);
+		context.events.logicEvent.addListener(logicListener, GameLogicEvent.Type.GameRestart);
+		context.events.logicEvent.addListener(logicListener, GameLogicEvent.Type.GameReset);
+		context.events.logicEvent.addListener(logicListener, GameLogicEvent.Type.GameQuit);
+		context.events.logicEvent.addListener(logicListener, GameLogicEvent.Type.PlayerAdded);
+		context.events.logicEvent.addListener(logicListener, GameLogicEvent.Type.PlayerRemoved);
 	}
 
 	@Override
 	public void dispose () {
 		super.dispose();
-		GameEvents.logicEvent.removeListener(logicListener, GameLogicEvent.Type.GameRestart);
-		GameEvents.logicEvent.removeListener(logicListener, GameLogicEvent.Type.GameReset);
-		GameEvents.logicEvent.removeListener(logicListener, GameLogicEvent.Type.GameQuit);
-		GameEvents.logicEvent.removeListener(logicListener, GameLogicEvent.Type.PlayerAdded);
-		GameEvents.logicEvent.removeListener(logicListener, GameLogicEvent.Type.PlayerRemoved);
+		context.events.logicEvent.removeListener(logicListener, GameLogicEvent.Type.GameRestart);
+		context.events.logicEvent.removeListener(logicListener, GameLogicEvent.Type.GameReset);
+		context.events.logicEvent.removeListener(logicListener, GameLogicEvent.Type.GameQuit);
+		context.events.logicEvent.removeListener(logicListener, GameLogicEvent.Type.PlayerAdded);
+		context.events.logicEvent.removeListener(logicListener, GameLogicEvent.Type.PlayerRemoved);
 	}
 
 	public void onPlayer (PlayerCar player) {
@@ -32,19 +32,19 @@ public final class GameTasksManager {
 
 	private void createTasks (PostProcessor postProcessor) {
 		// physics step
-		physicsStep = new PhysicsStep(gameWorld.getBox2DWorld(), TaskManagerEvent.Order.MINUS_4);
+		physicsStep = new PhysicsStep(gameWorld.getContext(), gameWorld.getBox2DWorld(), TaskManagerEvent.Order.MINUS_4);
 		add(physicsStep);
 
 		// sound manager
-		sound = new SoundManager();
+		sound = new SoundManager(gameWorld.getContext());
 		add(sound);
 
 		// hud manager
-		hud = new Hud();
+		hud = new Hud(gameWorld.getContext());
 		add(hud);
 
 		// effects manager
-		effects = new TrackEffects();
+		effects = new TrackEffects(gameWorld.getContext());
 		add(effects);
 	}
 
@@ -2,7 +2,7 @@
 package com.bitfire.uracer.game.logic.gametasks;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.GameRendererEvent;
 import com.bitfire.uracer.game.events.GameRendererEvent.Order;
 import com.bitfire.uracer.game.events.GameRendererEvent.Type;
@@ -26,8 +26,8 @@ public final class Hud extends GameTask implements DisposableTasks {
 				return;
 			}
 
-			SpriteBatch batch = GameEvents.gameRenderer.batch;
-			float camZoom = GameEvents.gameRenderer.camZoom;
+			SpriteBatch batch = context.events.gameRenderer.batch;
+			float camZoom = context.events.gameRenderer.camZoom;
 			ItemsManager<HudElement> items = null;
 
 			if (type == Type.BatchBeforePostProcessing) {
@@ -44,9 +44,10 @@ public final class Hud extends GameTask implements DisposableTasks {
 		}
 	};
 
-	public Hud () {
-		GameEvents.gameRenderer.addListener(renderEvent, RenderEventBeforePost, GameRendererEvent.Order.DEFAULT);
-		GameEvents.gameRenderer.addListener(renderEvent, RenderEventAfterPost, GameRendererEvent.Order.DEFAULT);
+	public Hud (GameContext context) {
+		super(context);
+		context.events.gameRenderer.addListener(renderEvent, RenderEventBeforePost, GameRendererEvent.Order.DEFAULT);
+		context.events.gameRenderer.addListener(renderEvent, RenderEventAfterPost, GameRendererEvent.Order.DEFAULT);
 	}
 
 	public void addBeforePostProcessing (HudElement element) {
@@ -65,8 +66,8 @@ public final class Hud extends GameTask implements DisposableTasks {
 	@Override
 	public void dispose () {
 		super.dispose();
-		GameEvents.gameRenderer.removeListener(renderEvent, RenderEventBeforePost, GameRendererEvent.Order.DEFAULT);
-		GameEvents.gameRenderer.removeListener(renderEvent, RenderEventAfterPost, GameRendererEvent.Order.DEFAULT);
+		context.events.gameRenderer.removeListener(renderEvent, RenderEventBeforePost, GameRendererEvent.Order.DEFAULT);
+		context.events.gameRenderer.removeListener(renderEvent, RenderEventAfterPost, GameRendererEvent.Order.DEFAULT);
 		disposeTasks();
 	}
 
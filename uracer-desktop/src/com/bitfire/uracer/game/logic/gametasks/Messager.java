@@ -3,7 +3,7 @@ package com.bitfire.uracer.game.logic.gametasks;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.Array;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.GameRendererEvent;
 import com.bitfire.uracer.game.events.GameRendererEvent.Order;
 import com.bitfire.uracer.game.events.GameRendererEvent.Type;
@@ -18,7 +18,7 @@ public class Messager extends GameTask {
 	private final GameRendererEvent.Listener gameRendererEvent = new GameRendererEvent.Listener() {
 		@Override
 		public void handle (Object source, Type type, Order order) {
-			SpriteBatch batch = GameEvents.gameRenderer.batch;
+			SpriteBatch batch = context.events.gameRenderer.batch;
 
 			for (Position group : Position.values()) {
 				if (isBusy(group)) {
@@ -38,8 +38,9 @@ public class Messager extends GameTask {
 	private static final int MaxMessagesInStore = 10;
 	private int idxMessageStore;
 
-	public Messager () {
-		GameEvents.gameRenderer.addListener(gameRendererEvent, RenderEvent, RenderOrder);
+	public Messager (GameContext context) {
+		super(context);
+		context.events.gameRenderer.addListener(gameRendererEvent, RenderEvent, RenderOrder);
 
 		messages = new Array<Array<Message>>(3);
 		for (Position group : Position.values()) {
@@ -57,7 +58,7 @@ public class Messager extends GameTask {
 	@Override
 	public void dispose () {
 		super.dispose();
-		GameEvents.gameRenderer.removeListener(gameRendererEvent, RenderEvent, RenderOrder);
+		context.events.gameRenderer.removeListener(gameRendererEvent, RenderEvent, RenderOrder);
 	}
 
 	@Override
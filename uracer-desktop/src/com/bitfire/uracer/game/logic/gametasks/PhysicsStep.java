@@ -1,37 +1,67 @@
-
 package com.bitfire.uracer.game.logic.gametasks;
 
 import com.badlogic.gdx.physics.box2d.World;
 import com.bitfire.uracer.configuration.Config;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.TaskManagerEvent;
 import com.bitfire.uracer.game.events.PhysicsStepEvent.Type;
 
+/** Steps the physics once per tick. The timestep of the next tick can also be computed ahead of it, by another thread, see
+ * {@link #prepareAhead()}: the tick then only publishes its results. */
 public class PhysicsStep extends GameTask {
 	private World world;
+	private boolean steppedAhead = false;
 
-	public PhysicsStep (World world, TaskManagerEvent.Order order) {
-		super(order);
+	public PhysicsStep (GameContext context, World world, TaskManagerEvent.Order order) {
+		super(context, order);
 		this.world = world;
 	}
 
 	@Override
 	public void dispose () {
 		super.dispose();
-		GameEvents.physicsStep.removeAllListeners();
+		context.events.physicsStep.removeAllListeners();
 	}
 
 	@Override
 	protected void onTick () {
-		GameEvents.physicsStep.trigger(this, Type.onBeforeTimestep);
+		if (!steppedAhead) {
+			context.events.physicsStep.trigger(this, Type.onPrepareTimestep);
+			timestep();
+		}
+
+		steppedAhead = false;
+		context.events.physicsStep.trigger(this, Type.onPublishTimestep);
+	}
+
+	/** Prepares the timestep of the next tick to be computed ahead of it by {@link #stepAhead()}, returning false if there is
+	 * nothing to compute, since paused or already computed */
+	public boolean prepareAhead () {
+		if (isPaused || steppedAhead) {
+			return false;
+		}
+
+		context.events.physicsStep.trigger(this, Type.onPrepareTimestep);
+		return true;
+	}
+
+	/** Computes the timestep prepared by {@link #prepareAhead()}, on any thread as long as nothing else touches the physics
+	 * meanwhile; the next tick will then publish it */
+	public void stepAhead () {
+		timestep();
+		steppedAhead = true;
+	}
+
+	private void timestep () {
+		context.events.physicsStep.trigger(this, Type.onBeforeTimestep);
 		world.step(Config.Physics.Dt, 10, 10);
-		GameEvents.physicsStep.trigger(this, Type.onAfterTimestep);
+		context.events.physicsStep.trigger(this, Type.onAfterTimestep);
 	}
 
 	@Override
 	protected void onTickCompleted () {
 		world.clearForces();
-		GameEvents.physicsStep.trigger(this, Type.onSubstepCompleted);
+		context.events.physicsStep.trigger(this, Type.onSubstepCompleted);
 	}
 
 	@Override
@@ -4,6 +4,7 @@ package com.bitfire.uracer.game.logic.gametasks;
 import com.badlogic.gdx.Gdx;
 import com.bitfire.uracer.configuration.UserPreferences;
 import com.bitfire.uracer.configuration.UserPreferences.Preference;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.logic.gametasks.sounds.SoundEffect;
 import com.bitfire.uracer.game.player.PlayerCar;
 import com.bitfire.utils.ItemsManager;
@@ -13,7 +14,8 @@ public class SoundManager extends GameTask implements DisposableTasks {
 	public static float MusicVolumeMul = UserPreferences.real(Preference.MusicVolume);
 	private final ItemsManager<SoundEffect> manager = new ItemsManager<SoundEffect>();
 
-	public SoundManager () {
+	public SoundManager (GameContext context) {
+		super(context);
 	}
 
 	@Override
@@ -3,7 +3,7 @@ package com.bitfire.uracer.game.logic.gametasks;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.IntMap;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.GameRendererEvent;
 import com.bitfire.uracer.game.events.GameRendererEvent.Order;
 import com.bitfire.uracer.game.events.GameRendererEvent.Type;
@@ -24,7 +24,7 @@ public final class TrackEffects extends GameTask implements DisposableTasks {
 				return;
 			}
 
-			SpriteBatch batch = GameEvents.gameRenderer.batch;
+			SpriteBatch batch = context.events.gameRenderer.batch;
 
 			if (type == GameRendererEvent.Type.BatchBeforeCars) {
 				// after entities
@@ -39,9 +39,10 @@ public final class TrackEffects extends GameTask implements DisposableTasks {
 		}
 	};
 
-	public TrackEffects () {
-		GameEvents.gameRenderer.addListener(listener, GameRendererEvent.Type.BatchBeforeCars, GameRendererEvent.Order.DEFAULT);
-		GameEvents.gameRenderer.addListener(listener, GameRendererEvent.Type.BatchAfterCars, GameRendererEvent.Order.DEFAULT);
+	public TrackEffects (GameContext context) {
+		super(context);
+		context.events.gameRenderer.addListener(listener, GameRendererEvent.Type.BatchBeforeCars, GameRendererEvent.Order.DEFAULT);
+		context.events.gameRenderer.addListener(listener, GameRendererEvent.Type.BatchAfterCars, GameRendererEvent.Order.DEFAULT);
 	}
 
 	public void addBeforeCars (TrackEffect effect) {
@@ -77,8 +78,8 @@ public final class TrackEffects extends GameTask implements DisposableTasks {
 	@Override
 	public void dispose () {
 		super.dispose();
-		GameEvents.gameRenderer.removeListener(listener, GameRendererEvent.Type.BatchBeforeCars, GameRendererEvent.Order.DEFAULT);
-		GameEvents.gameRenderer.removeListener(listener, GameRendererEvent.Type.BatchAfterCars, GameRendererEvent.Order.DEFAULT);
+		context.events.gameRenderer.removeListener(listener, GameRendererEvent.Type.BatchBeforeCars, GameRendererEvent.Order.DEFAULT);
+		context.events.gameRenderer.removeListener(listener, GameRendererEvent.Type.BatchAfterCars, GameRendererEvent.Order.DEFAULT);
 		disposeTasks();
 	}
 
@@ -23,8 +23,10 @@ public final class HudLabel extends Positionable {
 	private BitmapFont font;
 	private boolean isStatic;
 	private Color color = new Color(Color.WHITE);
+	private final GameTweener tweener;
 
-	public HudLabel (FontFace fontFace, String text, boolean isStatic) {
+	public HudLabel (GameTweener tweener, FontFace fontFace, String text, boolean isStatic) {
+		this.tweener = tweener;
 		this.text = text;
 		alpha = 1f;
 		this.isStatic = isStatic;
@@ -102,15 +104,15 @@ public final class HudLabel extends Positionable {
 	/** effects */
 
 	public void fadeIn (int milliseconds) {
-		GameTweener.stop(this);
-		GameTweener.start(Timeline.createSequence().push(
+		tweener.stop(this);
+		tweener.start(Timeline.createSequence().push(
 			Tween.to(this, HudLabelAccessor.OPACITY, milliseconds).target(1f).ease(Linear.INOUT)));
 		// Gdx.app.log("", "fadein");
 	}
 
 	public void fadeOut (int milliseconds) {
-		GameTweener.stop(this);
-		GameTweener.start(Timeline.createSequence().push(
+		tweener.stop(this);
+		tweener.start(Timeline.createSequence().push(
 			Tween.to(this, HudLabelAccessor.OPACITY, milliseconds).target(0f).ease(Linear.INOUT)));
 		// Gdx.app.log("", "fadeout");
 	}
@@ -127,7 +129,7 @@ public final class HudLabel extends Positionable {
 			targetFarY = position.y + 100;
 		}
 
-		GameTweener
+		tweener
 			.start(Timeline
 				.createParallel()
 				.push(Tween.to(this, HudLabelAccessor.OPACITY, 500).target(1f).ease(Quint.INOUT))
@@ -34,9 +34,11 @@ public final class CarHighlighter {
 	private boolean isBusy, isActive, hasCar, isTracking, interpolateState;
 	private BoxedFloat bfScale, bfRot, bfAlpha, bfGreen, bfRed, bfBlue, bfRenderState;
 	private float trackAlpha;
+	private final GameTweener tweener;
 
 	// need tileMapZoomFactor since highlighter size depends from car *rendered* size
-	public CarHighlighter () {
+	public CarHighlighter (GameTweener tweener) {
+		this.tweener = tweener;
 		sprite = new Sprite();
 		sprite.setRegion(Art.cars.findRegion("selector"));
 		isBusy = false;
@@ -88,7 +90,7 @@ public final class CarHighlighter {
 
 		if (prevState != null && isTracking) {
 			// compute a position factor to later (at render time) interpolate the final position between the two render states
-			GameTweener.stop(bfRenderState);
+			tweener.stop(bfRenderState);
 
 			interpolateState = true;
 			bfRenderState.value = 0;
@@ -98,7 +100,7 @@ public final class CarHighlighter {
 			timeline.setCallback(renderStateCallback);
 			//@on
 
-			GameTweener.start(timeline);
+			tweener.start(timeline);
 		}
 
 		if (followedCar != null && followedCar instanceof GhostCar) {
@@ -191,7 +193,7 @@ public final class CarHighlighter {
 		bfGreen.value = 0.1f;
 		bfBlue.value = 0f;
 
-		GameTweener.stop(bfAlpha);
+		tweener.stop(bfAlpha);
 
 		Timeline seq = Timeline.createSequence();
 
@@ -204,7 +206,7 @@ public final class CarHighlighter {
 		;
 		//@on
 
-		GameTweener.start(seq);
+		tweener.start(seq);
 	}
 
 	public void track (boolean force, float alpha) {
@@ -230,9 +232,9 @@ public final class CarHighlighter {
 		Timeline timeline = Timeline.createParallel();
 		float ms = Config.Graphics.DefaultFadeMilliseconds;
 
-		GameTweener.stop(bfAlpha);
-		GameTweener.stop(bfScale);
-		GameTweener.stop(bfRot);
+		tweener.stop(bfAlpha);
+		tweener.stop(bfScale);
+		tweener.stop(bfRot);
 
 		//@off
 		timeline
@@ -243,7 +245,7 @@ public final class CarHighlighter {
 		;
 		//@on
 
-		GameTweener.start(timeline);
+		tweener.start(timeline);
 	}
 
 	public void track (boolean force) {
@@ -271,9 +273,9 @@ public final class CarHighlighter {
 		Timeline timeline = Timeline.createParallel();
 		float ms = Config.Graphics.DefaultFadeMilliseconds;
 
-		GameTweener.stop(bfAlpha);
-		GameTweener.stop(bfScale);
-		GameTweener.stop(bfRot);
+		tweener.stop(bfAlpha);
+		tweener.stop(bfScale);
+		tweener.stop(bfRot);
 
 		//@off
 		timeline
@@ -284,6 +286,6 @@ public final class CarHighlighter {
 			;
 		//@on
 
-		GameTweener.start(timeline);
+		tweener.start(timeline);
 	}
 }
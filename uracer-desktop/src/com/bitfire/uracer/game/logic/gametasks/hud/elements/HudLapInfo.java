@@ -22,11 +22,13 @@ public class HudLapInfo extends HudElement {
 	private LapManager lapManager;
 	private BoxedFloat r, g, b;
 	private boolean isValid;
+	private final GameTweener tweener;
 
-	public HudLapInfo (LapManager lapManager) {
+	public HudLapInfo (GameTweener tweener, LapManager lapManager) {
+		this.tweener = tweener;
 		this.lapManager = lapManager;
 
-		curr = new HudLabel(FontFace.LcdWhite, "99.99", true);
+		curr = new HudLabel(tweener, FontFace.LcdWhite, "99.99", true);
 		curr.setScale(1.5f);
 		curr.setPosition((Config.Graphics.ReferenceScreenWidth / 2), Config.Graphics.ReferenceScreenHeight - curr.getHeight() / 2
 			- 10);
@@ -52,9 +54,9 @@ public class HudLapInfo extends HudElement {
 	public void toColor (int millisecs, float red, float green, float blue) {
 		Timeline seq = Timeline.createParallel();
 
-		GameTweener.stop(r);
-		GameTweener.stop(g);
-		GameTweener.stop(b);
+		tweener.stop(r);
+		tweener.stop(g);
+		tweener.stop(b);
 
 		//@off
 		seq
@@ -64,7 +66,7 @@ public class HudLapInfo extends HudElement {
 		;
 		//@on
 
-		GameTweener.start(seq);
+		tweener.start(seq);
 	}
 
 	public boolean isValid () {
@@ -15,6 +15,7 @@ import com.bitfire.uracer.game.logic.gametasks.hud.elements.player.TrackProgress
 import com.bitfire.uracer.game.logic.gametasks.hud.elements.player.WrongWay;
 import com.bitfire.uracer.game.player.PlayerCar;
 import com.bitfire.uracer.game.rendering.GameRenderer;
+import com.bitfire.uracer.game.tween.GameTweener;
 import com.bitfire.uracer.utils.AMath;
 import com.bitfire.uracer.utils.Convert;
 import com.bitfire.uracer.utils.VMath;
@@ -36,16 +37,16 @@ public final class HudPlayer extends HudElement {
 	private float carModelWidthPx, carModelLengthPx;
 	private Vector2 tmpg = new Vector2();
 
-	public HudPlayer (UserProfile userProfile) {
+	public HudPlayer (GameTweener tweener, UserProfile userProfile) {
 		// elements
-		wrongWay = new WrongWay();
-		driftBar = new DriftBar();
-		trackProgress = new TrackProgress();
+		wrongWay = new WrongWay(tweener);
+		driftBar = new DriftBar(tweener);
+		trackProgress = new TrackProgress(tweener);
 
-		highlightError = new CarHighlighter();
+		highlightError = new CarHighlighter(tweener);
 		highlightError.setScale(1.75f);
 
-		highlightNext = new CarHighlighter();
+		highlightNext = new CarHighlighter(tweener);
 		highlightNext.setScale(1);
 	}
 
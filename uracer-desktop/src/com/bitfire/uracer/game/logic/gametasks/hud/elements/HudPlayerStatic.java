@@ -5,14 +5,15 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.bitfire.uracer.configuration.UserProfile;
 import com.bitfire.uracer.game.logic.gametasks.hud.HudElement;
 import com.bitfire.uracer.game.logic.gametasks.hud.elements.player.BasicInfo;
+import com.bitfire.uracer.game.tween.GameTweener;
 
 public class HudPlayerStatic extends HudElement {
 	private BasicInfo basicInfo;
 
 	// private HudLabel labelSpeed, labelDistance;
 
-	public HudPlayerStatic (UserProfile userProfile) {
-		basicInfo = new BasicInfo(userProfile);
+	public HudPlayerStatic (GameTweener tweener, UserProfile userProfile) {
+		basicInfo = new BasicInfo(tweener, userProfile);
 		// labelSpeed = new HudLabel(FontFace.Roboto, "", true);
 		// labelSpeed.setPosition(Config.Graphics.ReferenceScreenWidth - 190, Config.Graphics.ReferenceScreenHeight - 110);
 		// labelDistance = new HudLabel(FontFace.Roboto, "", true);
@@ -7,6 +7,7 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Disposable;
 import com.bitfire.uracer.configuration.UserProfile;
 import com.bitfire.uracer.game.logic.gametasks.hud.HudLabel;
+import com.bitfire.uracer.game.tween.GameTweener;
 import com.bitfire.uracer.resources.Art;
 import com.bitfire.uracer.resources.BitmapFontFactory.FontFace;
 
@@ -18,8 +19,8 @@ public class BasicInfo implements Disposable {
 	private float borderX, borderY;
 	private float w, h;
 
-	public BasicInfo (UserProfile profile) {
-		name = new HudLabel(FontFace.CurseRedYellowBig, profile.userName, true);
+	public BasicInfo (GameTweener tweener, UserProfile profile) {
+		name = new HudLabel(tweener, FontFace.CurseRedYellowBig, profile.userName, true);
 		flag = Art.getFlag(profile.userCountryCode);
 		flagRegion = new TextureRegion(flag);
 		flagRegion.flip(false, true);
@@ -13,6 +13,7 @@ import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.game.logic.gametasks.hud.HudLabel;
 import com.bitfire.uracer.game.logic.gametasks.hud.Positionable;
+import com.bitfire.uracer.game.tween.GameTweener;
 import com.bitfire.uracer.resources.Art;
 import com.bitfire.uracer.resources.BitmapFontFactory.FontFace;
 import com.bitfire.uracer.utils.AMath;
@@ -32,10 +33,10 @@ public class DriftBar extends Positionable {
 	private final Sprite sprDriftSecs, sprDriftStrength;
 	private final float offX, offY, w, h;
 
-	public DriftBar () {
+	public DriftBar (GameTweener tweener) {
 		seconds = 0;
 
-		labelSeconds = new HudLabel(FontFace.CurseRedYellowNew, "s", false);
+		labelSeconds = new HudLabel(tweener, FontFace.CurseRedYellowNew, "s", false);
 		labelSeconds.setAlpha(0);
 
 		//
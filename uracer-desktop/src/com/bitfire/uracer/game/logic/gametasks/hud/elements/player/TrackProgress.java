@@ -16,6 +16,7 @@ import com.bitfire.uracer.game.logic.gametasks.hud.Positionable;
 import com.bitfire.uracer.game.logic.helpers.GameTrack;
 import com.bitfire.uracer.game.logic.helpers.TrackProgressData;
 import com.bitfire.uracer.game.player.PlayerCar;
+import com.bitfire.uracer.game.tween.GameTweener;
 import com.bitfire.uracer.resources.Art;
 import com.bitfire.uracer.resources.BitmapFontFactory.FontFace;
 import com.bitfire.uracer.utils.ColorUtils;
@@ -39,8 +40,8 @@ public class TrackProgress extends Positionable {
 	private InterpolatedFloat playerProgress = new InterpolatedFloat();
 	private InterpolatedFloat playerToTarget = new InterpolatedFloat();
 
-	public TrackProgress () {
-		lblAdvantage = new HudLabel(FontFace.CurseWhiteBig, "", false);
+	public TrackProgress (GameTweener tweener) {
+		lblAdvantage = new HudLabel(tweener, FontFace.CurseWhiteBig, "", false);
 		lblAdvantageShown = false;
 		lblAdvantage.setAlpha(0);
 
@@ -20,8 +20,10 @@ public class WrongWay extends Positionable {
 	private Sprite sign;
 	private BoxedFloat bfAlpha;
 	private boolean isShown;
+	private final GameTweener tweener;
 
-	public WrongWay () {
+	public WrongWay (GameTweener tweener) {
+		this.tweener = tweener;
 		sign = new Sprite(Art.wrongWay);
 		float scale = 0.4f;
 		w = Art.wrongWay.getWidth() * scale;
@@ -57,20 +59,20 @@ public class WrongWay extends Positionable {
 	public void fadeIn (int millisecs) {
 		if (!isShown) {
 			isShown = true;
-			GameTweener.stop(bfAlpha);
+			tweener.stop(bfAlpha);
 			Timeline seq = Timeline.createSequence();
 			seq.push(Tween.to(bfAlpha, BoxedFloatAccessor.VALUE, millisecs).target(1f).ease(Linear.INOUT));
-			GameTweener.start(seq);
+			tweener.start(seq);
 		}
 	}
 
 	public void fadeOut (int millisecs) {
 		if (isShown) {
 			isShown = false;
-			GameTweener.stop(bfAlpha);
+			tweener.stop(bfAlpha);
 			Timeline seq = Timeline.createSequence();
 			seq.push(Tween.to(bfAlpha, BoxedFloatAccessor.VALUE, millisecs).target(0f).ease(Linear.INOUT));
-			GameTweener.start(seq);
+			tweener.start(seq);
 		}
 	}
 
@@ -3,6 +3,7 @@ package com.bitfire.uracer.game.logic.gametasks.sounds.effects;
 
 import com.badlogic.gdx.audio.Sound;
 import com.bitfire.uracer.URacer;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.events.PlayerDriftStateEvent;
 import com.bitfire.uracer.game.events.PlayerDriftStateEvent.Order;
@@ -19,6 +20,7 @@ import com.bitfire.uracer.utils.AudioUtils;
  * 
  * @author bmanuel */
 public final class PlayerDriftSoundEffect extends SoundEffect {
+	private final GameEvents events;
 	private Sound drift = null;
 	private long driftId = -1, lastDriftId = -1;
 	private float driftLastPitch = 0;
@@ -31,7 +33,8 @@ public final class PlayerDriftSoundEffect extends SoundEffect {
 	private boolean doFadeOut = false;
 	private float lastVolume = 0f;
 
-	public PlayerDriftSoundEffect () {
+	public PlayerDriftSoundEffect (GameContext context) {
+		events = context.events;
 		drift = Sounds.carDrift;
 	}
 
@@ -56,13 +59,13 @@ public final class PlayerDriftSoundEffect extends SoundEffect {
 	};
 
 	private void attach () {
-		GameEvents.driftState.addListener(driftListener, PlayerDriftStateEvent.Type.onBeginDrift);
-		GameEvents.driftState.addListener(driftListener, PlayerDriftStateEvent.Type.onEndDrift);
+		events.driftState.addListener(driftListener, PlayerDriftStateEvent.Type.onBeginDrift);
+		events.driftState.addListener(driftListener, PlayerDriftStateEvent.Type.onEndDrift);
 	}
 
 	private void detach () {
-		GameEvents.driftState.removeListener(driftListener, PlayerDriftStateEvent.Type.onBeginDrift);
-		GameEvents.driftState.removeListener(driftListener, PlayerDriftStateEvent.Type.onEndDrift);
+		events.driftState.removeListener(driftListener, PlayerDriftStateEvent.Type.onBeginDrift);
+		events.driftState.removeListener(driftListener, PlayerDriftStateEvent.Type.onEndDrift);
 	}
 
 	@Override
@@ -4,6 +4,7 @@ package com.bitfire.uracer.game.logic.gametasks.sounds.effects;
 import com.badlogic.gdx.Files.FileType;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.MathUtils;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.Time;
 import com.bitfire.uracer.game.events.CarEvent;
@@ -21,6 +22,8 @@ import net.sourceforge.jFuzzyLogic.FIS;
 
 public final class PlayerEngineSoundEffect extends SoundEffect {
 
+	private final GameEvents events;
+
 	// inference engine
 	private FIS feLoad;
 	private float load;
@@ -28,14 +31,16 @@ public final class PlayerEngineSoundEffect extends SoundEffect {
 
 	// throttle autosoftener
 	private static final boolean ThrottleAutoSoftener = true;
-	private Time driftTimer = new Time();
+	private Time driftTimer;
 	private static final int MinSoftnessTicks = 5;
 	private static final int MaxSoftnessTicks = 20;
 	private int softnessTicks = 0;
 
 	private EngineSoundSet soundset;
 
-	public PlayerEngineSoundEffect (TrackProgressData progressData) {
+	public PlayerEngineSoundEffect (GameContext context, TrackProgressData progressData) {
+		events = context.events;
+		driftTimer = new Time(context);
 		feLoad = FIS.load(Gdx.files.getFileHandle("data/audio/car-engine/fuzzy/engineLoad.fcl", FileType.Internal).read(), true);
 		load = 0;
 		throttle = 0;
@@ -73,11 +78,11 @@ public final class PlayerEngineSoundEffect extends SoundEffect {
 	};
 
 	private void attach () {
-		GameEvents.driftState.addListener(playerListener, PlayerDriftStateEvent.Type.onBeginDrift);
-		GameEvents.driftState.addListener(playerListener, PlayerDriftStateEvent.Type.onEndDrift);
-		GameEvents.playerCar.addListener(carListener, CarEvent.Type.onCollision);
-		GameEvents.playerCar.addListener(carListener, CarEvent.Type.onOutOfTrack);
-		GameEvents.playerCar.addListener(carListener, CarEvent.Type.onBackInTrack);
+		events.driftState.addListener(playerListener, PlayerDriftStateEvent.Type.onBeginDrift);
+		events.driftState.addListener(playerListener, PlayerDriftStateEvent.Type.onEndDrift);
+		events.playerCar.addListener(carListener, CarEvent.Type.onCollision);
+		events.playerCar.addListener(carListener, CarEvent.Type.onOutOfTrack);
+		events.playerCar.addListener(carListener, CarEvent.Type.onBackInTrack);
 	}
 
 	private CarEvent.Listener carListener = new CarEvent.Listener() {
@@ -99,11 +104,11 @@ public final class PlayerEngineSoundEffect extends SoundEffect {
 	};
 
 	private void detach () {
-		GameEvents.driftState.removeListener(playerListener, PlayerDriftStateEvent.Type.onBeginDrift);
-		GameEvents.driftState.removeListener(playerListener, PlayerDriftStateEvent.Type.onEndDrift);
-		GameEvents.playerCar.removeListener(carListener, CarEvent.Type.onCollision);
-		GameEvents.playerCar.removeListener(carListener, CarEvent.Type.onOutOfTrack);
-		GameEvents.playerCar.removeListener(carListener, CarEvent.Type.onBackInTrack);
+		events.driftState.removeListener(playerListener, PlayerDriftStateEvent.Type.onBeginDrift);
+		events.driftState.removeListener(playerListener, PlayerDriftStateEvent.Type.onEndDrift);
+		events.playerCar.removeListener(carListener, CarEvent.Type.onCollision);
+		events.playerCar.removeListener(carListener, CarEvent.Type.onOutOfTrack);
+		events.playerCar.removeListener(carListener, CarEvent.Type.onBackInTrack);
 	}
 
 	@Override
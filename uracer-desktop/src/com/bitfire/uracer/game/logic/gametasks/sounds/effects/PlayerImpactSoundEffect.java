@@ -5,6 +5,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.TimeUtils;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.events.CarEvent;
 import com.bitfire.uracer.game.events.CarEvent.Order;
@@ -18,6 +19,7 @@ import com.bitfire.uracer.utils.AMath;
 public final class PlayerImpactSoundEffect extends SoundEffect {
 	private static final float MinImpactForce = 0.05f;
 	private static final long MinMillisBeforePlay = 500;
+	private final GameEvents events;
 	private Sound[] impacts;
 	private long lastMillis = 0;
 	private float lastFactor = 0;
@@ -26,11 +28,12 @@ public final class PlayerImpactSoundEffect extends SoundEffect {
 	private CarEvent.Listener carEvent = new CarEvent.Listener() {
 		@Override
 		public void handle (Object source, Type type, Order order) {
-			impact(GameEvents.playerCar.data.impulses.len(), ((PlayerCar)source).carState.currSpeedFactor);
+			impact(events.playerCar.data.impulses.len(), ((PlayerCar)source).carState.currSpeedFactor);
 		}
 	};
 
-	public PlayerImpactSoundEffect () {
+	public PlayerImpactSoundEffect (GameContext context) {
+		events = context.events;
 		impacts = Sounds.carImpacts;
 	}
 
@@ -41,11 +44,11 @@ public final class PlayerImpactSoundEffect extends SoundEffect {
 	}
 
 	private void attach () {
-		GameEvents.playerCar.addListener(carEvent, CarEvent.Type.onCollision);
+		events.playerCar.addListener(carEvent, CarEvent.Type.onCollision);
 	}
 
 	private void detach () {
-		GameEvents.playerCar.removeListener(carEvent, CarEvent.Type.onCollision);
+		events.playerCar.removeListener(carEvent, CarEvent.Type.onCollision);
 	}
 
 	@Override
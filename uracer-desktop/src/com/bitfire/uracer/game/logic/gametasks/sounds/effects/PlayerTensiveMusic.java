@@ -4,6 +4,7 @@ package com.bitfire.uracer.game.logic.gametasks.sounds.effects;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.math.MathUtils;
 import com.bitfire.uracer.URacer;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.events.PlayerLapCompletionMonitorEvent;
 import com.bitfire.uracer.game.events.PlayerLapCompletionMonitorEvent.Order;
@@ -24,6 +25,7 @@ public final class PlayerTensiveMusic extends SoundEffect {
 	public static final float AheadByMt = 10f;
 	public static final float InvScaleMt = 1f / ScaleMt;
 
+	private final GameEvents events;
 	private Sound[] music = new Sound[NumTracks]; // prologue [0,3], inciso [4,6]
 	private long[] mid = new long[NumTracks];
 	private boolean[] started = new boolean[NumTracks];
@@ -36,7 +38,8 @@ public final class PlayerTensiveMusic extends SoundEffect {
 	private float fMusicIndex;
 	private float[] trackVolumes = new float[NumTracks];
 
-	public PlayerTensiveMusic (TrackProgressData progressData) {
+	public PlayerTensiveMusic (GameContext context, TrackProgressData progressData) {
+		this.events = context.events;
 		this.progressData = progressData;
 
 		musicIndex = 0;
@@ -73,11 +76,11 @@ public final class PlayerTensiveMusic extends SoundEffect {
 	};
 
 	private void attach () {
-		GameEvents.lapCompletion.addListener(playerCompletionListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted);
+		events.lapCompletion.addListener(playerCompletionListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted);
 	}
 
 	private void detach () {
-		GameEvents.lapCompletion.removeListener(playerCompletionListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted);
+		events.lapCompletion.removeListener(playerCompletionListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted);
 	}
 
 	@Override
@@ -4,6 +4,7 @@ package com.bitfire.uracer.game.logic.helpers;
 import com.bitfire.uracer.game.GameLogic;
 import com.bitfire.uracer.game.actors.CarPreset;
 import com.bitfire.uracer.game.actors.GhostCar;
+import com.bitfire.uracer.game.actors.HeadlessCar;
 import com.bitfire.uracer.game.player.PlayerCar;
 import com.bitfire.uracer.game.world.GameWorld;
 
@@ -18,4 +19,8 @@ public final class CarFactory {
 	public static GhostCar createGhost (int id, GameWorld gameWorld, CarPreset.Type presetType) {
 		return new GhostCar(id, gameWorld, presetType);
 	}
+
+	public static HeadlessCar createHeadless (GameWorld gameWorld, CarPreset.Type presetType) {
+		return new HeadlessCar(gameWorld, presetType);
+	}
 }
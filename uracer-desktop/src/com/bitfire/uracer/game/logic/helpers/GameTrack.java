@@ -1,6 +1,7 @@
 
 package com.bitfire.uracer.game.logic.helpers;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.badlogic.gdx.Gdx;
@@ -19,41 +20,72 @@ public final class GameTrack {
 	private final List<Vector2> route;
 	private final List<Polygon> polys;
 	private final TrackSector[] sectors;
+	private final int[] sectorPolygons;
+	private final PolygonGrid sectorGrid;
+	private TrackProgressField progressField = null;
 	private final float totalLength;
 	private final float oneOnTotalLength;
 	private Vector2 tmp = new Vector2();
+	private Vector2 heading = new Vector2();
 
 	public GameTrack (final List<Vector2> route, final List<Polygon> trackPoly) {
+		this(route, trackPoly, null);
+	}
+
+	/** Creates a track whose route segments are known to lie in the specified polygons, as found by a previous sectorization of
+	 * the same route and polygons, see getSectorPolygons(): if null, the route is sectorized as usual */
+	public GameTrack (final List<Vector2> route, final List<Polygon> trackPoly, int[] sectorPolygons) {
 		this.route = route;
 		this.polys = trackPoly;
 		this.sectors = new TrackSector[route.size()];
+		this.sectorPolygons = new int[route.size()];
+
+		if (sectorPolygons != null) {
+			if (sectorPolygons.length != route.size()) {
+				throw new GdxRuntimeException("The sectors don't match the route (" + sectorPolygons.length + " sectors, "
+					+ route.size() + " waypoints)");
+			}
 
-		totalLength = sectorize();
+			System.arraycopy(sectorPolygons, 0, this.sectorPolygons, 0, sectorPolygons.length);
+		}
+
+		totalLength = sectorize(sectorPolygons != null);
 		oneOnTotalLength = 1f / totalLength;
 		Gdx.app.log("GameTrack", "total length = " + totalLength);
-	}
 
-	private int findPolygon (Vector2 a, Vector2 b) {
-		for (int i = 0; i < polys.size(); i++) {
-			Polygon p = polys.get(i);
-			// mitigate errors for small differences
-			p.scale(0.1f);
-			if (p.contains(a.x, a.y) && p.contains(b.x, b.y)) {
-				p.scale(-0.1f); // restored
-				return i;
-			}
+		List<Polygon> sectorPolys = new ArrayList<Polygon>(sectors.length);
+		for (TrackSector s : sectors) {
+			sectorPolys.add(s.poly);
+		}
+
+		sectorGrid = new PolygonGrid(sectorPolys);
+		Gdx.app.log("GameTrack", "sector grid: " + sectorGrid.getCellsCount() + " cells, "
+			+ sectorGrid.getAverageCandidates() + " sectors per cell");
+	}
 
-			p.scale(-0.1f); // restored
+	/** Returns a grid over copies of the track polygons slightly scaled up, to mitigate errors for small differences when
+	 * matching the route against them, leaving the originals untouched */
+	private PolygonGrid createSectorizerGrid () {
+		List<Polygon> scaled = new ArrayList<Polygon>(polys.size());
+		for (Polygon p : polys) {
+			Polygon s = new Polygon(p.getVertices());
+			s.setPosition(p.getX(), p.getY());
+			s.setOrigin(p.getOriginX(), p.getOriginY());
+			s.setRotation(p.getRotation());
+			s.setScale(p.getScaleX(), p.getScaleY());
+			s.scale(0.1f);
+			scaled.add(s);
 		}
 
-		return -1;
+		return new PolygonGrid(scaled);
 	}
 
 	/** Load and follows the supplied route waypoints, identifying sectors containing the two leading/trailing waypoints. The
 	 * waypoint structure walking direction at creation time IS important and should follow the intended playing direction.
 	 * 
 	 * @return the total length of the track as computed by the sum of the lengths between a waypoint and the next. */
-	private float sectorize () {
+	private float sectorize (boolean known) {
+		PolygonGrid grid = known ? null : createSectorizerGrid();
 		float accuLength = 0;
 		for (int i = 0; i < route.size(); i++) {
 			Vector2 from = route.get(i);
@@ -68,13 +100,14 @@ public final class GameTrack {
 
 			float len = from.dst(to);
 
-			int p = findPolygon(from, to);
-			if (p == -1) {
+			int p = known ? sectorPolygons[i] : grid.find(from.x, from.y, to.x, to.y);
+			if (p < 0 || p >= polys.size()) {
 				throw new GdxRuntimeException("Cannot find a matching sectors for (" + (i - 1) + "," + i + ")");
 			}
 
 			TrackSector ts = new TrackSector(polys.get(p), len, accuLength, from, to);
 			sectors[i] = ts;
+			sectorPolygons[i] = p;
 
 			Gdx.app.log("GameTrack::sectorizer", from + " -> " + to + ", poly=" + p + ", len=" + len);
 
@@ -96,6 +129,20 @@ public final class GameTrack {
 		return sectors;
 	}
 
+	/** Returns the index of the track polygon of each sector */
+	public int[] getSectorPolygons () {
+		return sectorPolygons;
+	}
+
+	/** Returns the progress field of this track, baking it the first time: this isn't thread-safe, as nothing else here is */
+	public TrackProgressField getProgressField () {
+		if (progressField == null) {
+			progressField = new TrackProgressField(this);
+		}
+
+		return progressField;
+	}
+
 	/** Computes track position and orientation for the specified sector index offset, 1 is one sector ahead the from-editor
 	 * starting point, -1 is the previous.
 	 * 
@@ -145,6 +192,14 @@ public final class GameTrack {
 		return AMath.fixup(ret);
 	}
 
+	/** Returns a value in the [0,1] range, meaning the specified point, known to be in the specified sector, is at the start (0)
+	 * or at the end (1) of the track */
+	float getTrackCompletion (int sector, Vector2 point) {
+		TrackSector s = sectors[sector];
+		float dist = AMath.fixup(s.relativeTotal + s.length * distanceInSector(s, point));
+		return dist > 0 ? AMath.fixup(dist * oneOnTotalLength) : 0;
+	}
+
 	/** Returns a value in the [-1,1] range, meaning the specified car is following the path with a confidence value as expressed by
 	 * the returned value.
 	 * @param car
@@ -155,7 +210,7 @@ public final class GameTrack {
 		// car is on the expected path, now check for the correct heading
 		if (state.onExpectedPath) {
 			TrackSector s = sectors[state.curr];
-			Vector2 heading = VMath.fromRadians(car.getWorldOrientRads());
+			VMath.fromRadians(heading, car.getWorldOrientRads());
 			Vector2 dir = tmp.set(s.nLeading);
 
 			// switch coordinate space and rotate it so that both the car and the track sector converge
@@ -192,6 +247,18 @@ public final class GameTrack {
 
 		Vector2 pos = car.getWorldPosMt();
 
+		if (state.curr == -1) {
+			// it was reset off the track, see if it's on it now
+			state.curr = findSector(pos);
+			state.onExpectedPath = state.curr != -1;
+			if (state.onExpectedPath) {
+				state.next = state.curr + 1;
+				if (state.next == sectors.length) state.next = 0;
+			}
+
+			return;
+		}
+
 		boolean inCurr = pointInSector(pos, state.curr);
 		boolean inNext = pointInSector(pos, state.next);
 
@@ -238,16 +305,9 @@ public final class GameTrack {
 		return sectors[sector].poly.contains(point.x, point.y);
 	}
 
-	private int findSector (Vector2 a) {
-		for (int i = 0; i < sectors.length; i++) {
-			TrackSector s = sectors[i];
-			Polygon p = s.poly;
-			if (p.contains(a.x, a.y)) {
-				return i;
-			}
-		}
-
-		return -1;
+	/** Returns the index of the sector containing the specified point, or -1 if it's not on the track */
+	public int findSector (Vector2 a) {
+		return sectorGrid.find(a.x, a.y);
 	}
 
 	/** Represents a track sector, see Game Programming Gems 1, pag. 416 */
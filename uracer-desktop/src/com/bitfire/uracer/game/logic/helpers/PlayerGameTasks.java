@@ -3,6 +3,7 @@ package com.bitfire.uracer.game.logic.helpers;
 
 import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.UserProfile;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.logic.gametasks.GameTasksManager;
 import com.bitfire.uracer.game.logic.gametasks.hud.elements.HudLapInfo;
 import com.bitfire.uracer.game.logic.gametasks.hud.elements.HudPlayer;
@@ -18,6 +19,7 @@ import com.bitfire.uracer.game.logic.replaying.LapManager;
 /** Manages the creation and destruction of the player-bound game tasks. */
 public final class PlayerGameTasks {
 
+	private final GameContext context;
 	private final UserProfile userProfile;
 	private final GameTasksManager manager;
 
@@ -27,7 +29,8 @@ public final class PlayerGameTasks {
 	public HudPlayerStatic hudPlayerStatic = null;
 	public HudLapInfo hudLapInfo = null;
 
-	public PlayerGameTasks (UserProfile userProfile, GameTasksManager gameTaskManager) {
+	public PlayerGameTasks (GameContext context, UserProfile userProfile, GameTasksManager gameTaskManager) {
+		this.context = context;
 		this.userProfile = userProfile;
 		manager = gameTaskManager;
 	}
@@ -38,10 +41,10 @@ public final class PlayerGameTasks {
 
 	public void createTasks (LapManager lapManager, TrackProgressData progressData) {
 		// sounds
-		manager.sound.add(new PlayerDriftSoundEffect());
-		manager.sound.add(new PlayerImpactSoundEffect());
-		manager.sound.add(new PlayerEngineSoundEffect(progressData));
-		manager.sound.add(new PlayerTensiveMusic(progressData));
+		manager.sound.add(new PlayerDriftSoundEffect(context));
+		manager.sound.add(new PlayerImpactSoundEffect(context));
+		manager.sound.add(new PlayerEngineSoundEffect(context, progressData));
+		manager.sound.add(new PlayerTensiveMusic(context, progressData));
 
 		// track effects
 		int maxSkidMarks = URacer.Game.isDesktop() ? 150 : 100;
@@ -50,9 +53,9 @@ public final class PlayerGameTasks {
 		manager.effects.addAfterCars(new PlayerSmokeTrails());
 
 		// hud
-		hudPlayer = new HudPlayer(userProfile);
-		hudPlayerStatic = new HudPlayerStatic(userProfile);
-		hudLapInfo = new HudLapInfo(lapManager);
+		hudPlayer = new HudPlayer(context.tweener, userProfile);
+		hudPlayerStatic = new HudPlayerStatic(context.tweener, userProfile);
+		hudLapInfo = new HudLapInfo(context.tweener, lapManager);
 
 		manager.hud.addBeforePostProcessing(hudPlayer);
 		manager.hud.addAfterPostProcessing(hudLapInfo);
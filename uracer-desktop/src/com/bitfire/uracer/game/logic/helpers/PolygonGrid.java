@@ -0,0 +1,158 @@
+
+package com.bitfire.uracer.game.logic.helpers;
+
+import java.util.List;
+
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+
+/** A uniform grid over a set of polygons, mapping any point to the few polygons whose bounding rectangle overlaps the grid cell
+ * it falls in, so that finding the polygon containing a point doesn't need to test every one of them.
+ *
+ * The candidates of each cell are kept in ascending index order, so the polygon found is the one with the lowest index among
+ * those containing the point, same as a linear scan would find. The polygons shall not be moved, scaled nor rotated afterwards.
+ *
+ * @author manuel */
+public final class PolygonGrid {
+	private final Polygon[] polygons;
+	private final float x, y;
+	private final float invCellSize;
+	private final int cols, rows;
+
+	// the candidates of cell i are candidates[cellStart[i]] to candidates[cellStart[i + 1] - 1]
+	private final int[] cellStart;
+	private final int[] candidates;
+
+	public PolygonGrid (List<Polygon> polygons) {
+		int count = polygons.size();
+		this.polygons = polygons.toArray(new Polygon[count]);
+
+		// the bounds of every polygon, and the size of their average bounding rectangle
+		float[] bounds = new float[count * 4];
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		float avgSize = 0;
+
+		for (int i = 0; i < count; i++) {
+			Rectangle r = this.polygons[i].getBoundingRectangle();
+			bounds[i * 4] = r.x;
+			bounds[i * 4 + 1] = r.y;
+			bounds[i * 4 + 2] = r.x + r.width;
+			bounds[i * 4 + 3] = r.y + r.height;
+
+			minX = Math.min(minX, r.x);
+			minY = Math.min(minY, r.y);
+			maxX = Math.max(maxX, r.x + r.width);
+			maxY = Math.max(maxY, r.y + r.height);
+			avgSize += Math.max(r.width, r.height);
+		}
+
+		if (count == 0) {
+			minX = minY = maxX = maxY = 0;
+		}
+
+		// a cell about as large as the average polygon, so that each cell is overlapped by just a few of them
+		x = minX;
+		y = minY;
+		float cellSize = Math.max(count > 0 ? avgSize / count : 1, 0.01f);
+		invCellSize = 1f / cellSize;
+		cols = (int)((maxX - minX) * invCellSize) + 1;
+		rows = (int)((maxY - minY) * invCellSize) + 1;
+
+		// the range of cells overlapped by each polygon
+		int[] ranges = new int[count * 4];
+		for (int i = 0; i < count; i++) {
+			ranges[i * 4] = col(bounds[i * 4]);
+			ranges[i * 4 + 1] = row(bounds[i * 4 + 1]);
+			ranges[i * 4 + 2] = col(bounds[i * 4 + 2]);
+			ranges[i * 4 + 3] = row(bounds[i * 4 + 3]);
+		}
+
+		// count the candidates of each cell first, then fill them in
+		cellStart = new int[cols * rows + 1];
+		for (int i = 0; i < count; i++) {
+			for (int r = ranges[i * 4 + 1]; r <= ranges[i * 4 + 3]; r++) {
+				for (int c = ranges[i * 4]; c <= ranges[i * 4 + 2]; c++) {
+					cellStart[r * cols + c + 1]++;
+				}
+			}
+		}
+
+		for (int i = 0; i < cols * rows; i++) {
+			cellStart[i + 1] += cellStart[i];
+		}
+
+		candidates = new int[cellStart[cols * rows]];
+		int[] filled = new int[cols * rows];
+		for (int i = 0; i < count; i++) {
+			for (int r = ranges[i * 4 + 1]; r <= ranges[i * 4 + 3]; r++) {
+				for (int c = ranges[i * 4]; c <= ranges[i * 4 + 2]; c++) {
+					int cell = r * cols + c;
+					candidates[cellStart[cell] + filled[cell]++] = i;
+				}
+			}
+		}
+	}
+
+	private int col (float px) {
+		return Math.min(Math.max((int)((px - x) * invCellSize), 0), cols - 1);
+	}
+
+	private int row (float py) {
+		return Math.min(Math.max((int)((py - y) * invCellSize), 0), rows - 1);
+	}
+
+	/** Returns the cell the specified point falls in, or -1 if it's out of the grid */
+	private int cell (float px, float py) {
+		float fx = (px - x) * invCellSize;
+		float fy = (py - y) * invCellSize;
+		if (fx < 0 || fy < 0 || fx >= cols || fy >= rows) {
+			return -1;
+		}
+
+		return (int)fy * cols + (int)fx;
+	}
+
+	/** Returns the index of the first polygon containing the specified point, or -1 if there is none */
+	public int find (float px, float py) {
+		int cell = cell(px, py);
+		if (cell == -1) {
+			return -1;
+		}
+
+		for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+			int p = candidates[i];
+			if (polygons[p].contains(px, py)) {
+				return p;
+			}
+		}
+
+		return -1;
+	}
+
+	/** Returns the index of the first polygon containing both the specified points, or -1 if there is none */
+	public int find (float ax, float ay, float bx, float by) {
+		int cell = cell(ax, ay);
+		if (cell == -1) {
+			return -1;
+		}
+
+		for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+			int p = candidates[i];
+			if (polygons[p].contains(ax, ay) && polygons[p].contains(bx, by)) {
+				return p;
+			}
+		}
+
+		return -1;
+	}
+
+	/** Returns the number of cells in the grid */
+	public int getCellsCount () {
+		return cols * rows;
+	}
+
+	/** Returns the average number of candidates per cell */
+	public float getAverageCandidates () {
+		return (float)candidates.length / (cols * rows);
+	}
+}
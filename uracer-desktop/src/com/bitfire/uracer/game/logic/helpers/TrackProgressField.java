@@ -0,0 +1,184 @@
+
+package com.bitfire.uracer.game.logic.helpers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.bitfire.uracer.game.logic.helpers.GameTrack.TrackSector;
+import com.bitfire.uracer.utils.AMath;
+
+/** The track completion and the sector of the points of a regular lattice over the track sectors, computed once so that any
+ * point can be ranked along the track in constant time and without any per-car state, unlike GameTrack.getTrackCompletion()
+ * that depends on the track state being updated at each tick.
+ *
+ * Completion is interpolated bilinearly between the four samples around the point, taking care of the wrap around at the
+ * starting line and leaving out the ones off the track, as well as the ones too far along the track from the nearest one, such
+ * as those on another stretch where the track crosses itself. Where none of them is on the track, it is computed exactly
+ * instead. The sector is the one of the nearest sample on the track.
+ *
+ * @author manuel */
+public final class TrackProgressField {
+	/** the default distance between samples, in meters */
+	public static final float DefaultCellSize = 0.5f;
+
+	private final GameTrack track;
+	private final float x, y, invCellSize;
+	private final float maxSpread;
+	private final int cols, rows;
+	private final float[] completion;
+	private final short[] sector;
+
+	public TrackProgressField (GameTrack track) {
+		this(track, DefaultCellSize);
+	}
+
+	public TrackProgressField (GameTrack track, float cellSize) {
+		long start = System.nanoTime();
+		this.track = track;
+
+		// the bounds of the sectors
+		TrackSector[] sectors = track.getSectors();
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		for (TrackSector s : sectors) {
+			Rectangle r = s.poly.getBoundingRectangle();
+			minX = Math.min(minX, r.x);
+			minY = Math.min(minY, r.y);
+			maxX = Math.max(maxX, r.x + r.width);
+			maxY = Math.max(maxY, r.y + r.height);
+		}
+
+		x = minX;
+		y = minY;
+		invCellSize = 1f / cellSize;
+		maxSpread = 4 * cellSize / track.getTotalLength();
+		cols = (int)Math.ceil((maxX - minX) * invCellSize) + 1;
+		rows = (int)Math.ceil((maxY - minY) * invCellSize) + 1;
+
+		completion = new float[cols * rows];
+		sector = new short[cols * rows];
+
+		Vector2 p = new Vector2();
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < cols; c++) {
+				int i = r * cols + c;
+				p.set(x + c * cellSize, y + r * cellSize);
+
+				int s = track.findSector(p);
+				sector[i] = (short)s;
+				completion[i] = s == -1 ? 0 : track.getTrackCompletion(s, p);
+			}
+		}
+
+		Gdx.app.log("TrackProgressField", "Baked " + cols + "x" + rows + " samples in " + (System.nanoTime() - start) / 1000000
+			+ "ms");
+	}
+
+	/** Returns a value in the [0,1] range, meaning the specified point is at the start (0) or at the end (1) of the track, or the
+	 * specified default value if it's not on the track */
+	public float getCompletion (float px, float py, float retDefault) {
+		float fx = (px - x) * invCellSize;
+		float fy = (py - y) * invCellSize;
+		if (fx < 0 || fy < 0 || fx > cols - 1 || fy > rows - 1) {
+			return retDefault;
+		}
+
+		int c = Math.min((int)fx, cols - 2);
+		int r = Math.min((int)fy, rows - 2);
+		float tx = fx - c, ty = fy - r;
+		int i = r * cols + c;
+
+		int nearest = nearestSample(i, tx, ty);
+		if (nearest == -1) {
+			return exactCompletion(px, py, retDefault);
+		}
+
+		float ref = completion[nearest], acc = 0, weights = 0;
+		for (int k = 0; k < 4; k++) {
+			int sample = i + (k & 1) + (k >> 1) * cols;
+			if (sector[sample] == -1) {
+				continue;
+			}
+
+			// samples across the starting line are brought next to the nearest one
+			float v = completion[sample];
+			if (v - ref > 0.5f) {
+				v -= 1;
+			} else if (ref - v > 0.5f) {
+				v += 1;
+			}
+
+			if (Math.abs(v - ref) <= maxSpread) {
+				float w = weight(k, tx, ty);
+				acc += w * v;
+				weights += w;
+			}
+		}
+
+		if (weights <= 0) {
+			return AMath.fixup(ref);
+		}
+
+		float ret = acc / weights;
+		if (ret < 0) {
+			ret += 1;
+		} else if (ret >= 1) {
+			ret -= 1;
+		}
+
+		return AMath.fixup(ret);
+	}
+
+	public float getCompletion (Vector2 point, float retDefault) {
+		return getCompletion(point.x, point.y, retDefault);
+	}
+
+	/** Returns the distance, in meters, of the specified point from the starting line, or the specified default value if it's not
+	 * on the track */
+	public float getDistance (float px, float py, float retDefault) {
+		float ret = getCompletion(px, py, -1);
+		return ret == -1 ? retDefault : ret * track.getTotalLength();
+	}
+
+	/** Returns the sector of the nearest sample on the track to the specified point, or -1 if there is none */
+	public int getSector (float px, float py) {
+		float fx = (px - x) * invCellSize;
+		float fy = (py - y) * invCellSize;
+		if (fx < 0 || fy < 0 || fx > cols - 1 || fy > rows - 1) {
+			return -1;
+		}
+
+		int c = Math.min((int)fx, cols - 2);
+		int r = Math.min((int)fy, rows - 2);
+		int nearest = nearestSample(r * cols + c, fx - c, fy - r);
+		return nearest == -1 ? -1 : sector[nearest];
+	}
+
+	/** Returns the sample on the track with the largest weight among the four from the specified one, or -1 if there is none */
+	private int nearestSample (int i, float tx, float ty) {
+		int ret = -1;
+		float best = -1;
+		for (int k = 0; k < 4; k++) {
+			int sample = i + (k & 1) + (k >> 1) * cols;
+			float w = weight(k, tx, ty);
+			if (sector[sample] != -1 && w > best) {
+				best = w;
+				ret = sample;
+			}
+		}
+
+		return ret;
+	}
+
+	/** Returns the bilinear weight of the k-th sample around a point, from the bottom-left one */
+	private static float weight (int k, float tx, float ty) {
+		return ((k & 1) == 0 ? 1 - tx : tx) * ((k >> 1) == 0 ? 1 - ty : ty);
+	}
+
+	private final Vector2 tmp = new Vector2();
+
+	private float exactCompletion (float px, float py, float retDefault) {
+		tmp.set(px, py);
+		int s = track.findSector(tmp);
+		return s == -1 ? retDefault : track.getTrackCompletion(s, tmp);
+	}
+}
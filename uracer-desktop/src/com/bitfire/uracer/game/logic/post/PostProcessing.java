@@ -83,7 +83,7 @@ public final class PostProcessing {
 	 * instantiated objects is transfered to the PostProcessor when adding the effect to it. */
 	private void createEffects (GameWorld gameWorld) {
 		if (UserPreferences.bool(Preference.Ssao)) {
-			addEffect(Effects.Ssao.name, new Ssao(ScaleUtils.PlayWidth, ScaleUtils.PlayHeight,
+			addEffect(Effects.Ssao.name, new Ssao(gameWorld.getContext().events, ScaleUtils.PlayWidth, ScaleUtils.PlayHeight,
 				Ssao.Quality.valueOf(UserPreferences.string(Preference.SsaoQuality))));
 			needNormalDepthMap = true;
 		}
@@ -109,7 +109,7 @@ public final class PostProcessing {
 		// dbg
 
 		// dbg
-		addEffect(Effects.LightShafts.name, new LightShafts((int)(fboW * 0.75f), (int)(fboH * 0.75f), Quality.High));
+		addEffect(Effects.LightShafts.name, new LightShafts(gameWorld.getContext().events, (int)(fboW * 0.75f), (int)(fboH * 0.75f), Quality.High));
 		// dbg
 
 		if (UserPreferences.bool(Preference.Vignetting)) {
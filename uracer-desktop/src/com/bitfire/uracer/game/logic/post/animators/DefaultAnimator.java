@@ -61,9 +61,11 @@ public final class DefaultAnimator implements PostProcessingAnimator {
 	// private Vector2 cameraScreenPos = new Vector2();
 	private InterpolatedFloat speed = new InterpolatedFloat();
 	private InterpolatedFloat zoomBlurStrengthFactor = new InterpolatedFloat();
+	private final GameTweener tweener;
 
 	public DefaultAnimator (PostProcessing post, GameWorld gameWorld) {
 		this.world = gameWorld;
+		this.tweener = gameWorld.getContext().tweener;
 		this.nightMode = gameWorld.isNightMode();
 		bloom = (Bloom)post.getEffect(PostProcessing.Effects.Bloom.name);
 		zoom = (Zoomer)post.getEffect(PostProcessing.Effects.Zoomer.name);
@@ -90,7 +92,7 @@ public final class DefaultAnimator implements PostProcessingAnimator {
 	public void alertBegins (int milliseconds) {
 		if (!alertBegan) {
 			alertBegan = true;
-			GameTweener.stop(alertAmount);
+			tweener.stop(alertAmount);
 			Timeline seq = Timeline.createSequence();
 
 			//@off
@@ -99,7 +101,7 @@ public final class DefaultAnimator implements PostProcessingAnimator {
 				.pushPause(50)
 				.push(Tween.to(alertAmount, BoxedFloatAccessor.VALUE, milliseconds).target(0.75f).ease(Quad.OUT))
 			;
-			GameTweener.start(seq);
+			tweener.start(seq);
 			//@on
 		}
 	}
@@ -109,10 +111,10 @@ public final class DefaultAnimator implements PostProcessingAnimator {
 		if (alertBegan) {
 			alertBegan = false;
 
-			GameTweener.stop(alertAmount);
+			tweener.stop(alertAmount);
 			Timeline seq = Timeline.createSequence();
 			seq.push(Tween.to(alertAmount, BoxedFloatAccessor.VALUE, milliseconds).target(0).ease(Quad.INOUT));
-			GameTweener.start(seq);
+			tweener.start(seq);
 		}
 	}
 
@@ -124,12 +126,12 @@ public final class DefaultAnimator implements PostProcessingAnimator {
 
 		//@off
 		Timeline seq = Timeline.createSequence();
-		GameTweener.stop(alertAmount);
+		tweener.stop(alertAmount);
 		seq
 			.push(Tween.to(alertAmount, BoxedFloatAccessor.VALUE, 75).target(0.75f).ease(Quad.IN))
 			.pushPause(50)
 			.push(Tween.to(alertAmount, BoxedFloatAccessor.VALUE, milliseconds).target(0).ease(Quad.OUT));
-		GameTweener.start(seq);
+		tweener.start(seq);
 		//@on
 	}
 
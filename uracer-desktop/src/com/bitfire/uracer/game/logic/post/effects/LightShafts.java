@@ -40,15 +40,17 @@ public class LightShafts extends PostProcessorEffect {
 	private Combine combine;
 	private Threshold threshold;
 	private float oneOnW, oneOnH;
+	private final GameEvents events;
 
 	private GameRendererEvent.Listener gameRendererEvent = new GameRendererEvent.Listener() {
 		@Override
 		public void handle (Object source, Type type, Order order) {
-			debug(GameEvents.gameRenderer.batch);
+			debug(events.gameRenderer.batch);
 		}
 	};
 
-	public LightShafts (int fboWidth, int fboHeight, Quality quality) {
+	public LightShafts (GameEvents events, int fboWidth, int fboHeight, Quality quality) {
+		this.events = events;
 		Gdx.app.log("LightShafts", "Quality profile = " + quality.toString());
 		float oscale = quality.scale;
 
@@ -92,11 +94,11 @@ public class LightShafts extends PostProcessorEffect {
 	}
 
 	public void enableDebug () {
-		GameEvents.gameRenderer.addListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.DEFAULT);
+		events.gameRenderer.addListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.DEFAULT);
 	}
 
 	public void disableDebug () {
-		GameEvents.gameRenderer.removeListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug,
+		events.gameRenderer.removeListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug,
 			GameRendererEvent.Order.DEFAULT);
 	}
 
@@ -51,15 +51,17 @@ public final class Ssao extends PostProcessorEffect {
 	private Matrix3 mtxRot = new Matrix3();
 	private Matrix3 invRot = new Matrix3();
 	private Matrix4 invPrj = new Matrix4();
+	private final GameEvents events;
 
 	private GameRendererEvent.Listener gameRendererEvent = new GameRendererEvent.Listener() {
 		@Override
 		public void handle (Object source, Type type, Order order) {
-			debug(GameEvents.gameRenderer.batch);
+			debug(events.gameRenderer.batch);
 		}
 	};
 
-	public Ssao (int fboWidth, int fboHeight, Quality quality) {
+	public Ssao (GameEvents events, int fboWidth, int fboHeight, Quality quality) {
+		this.events = events;
 		Gdx.app.log("SsaoProcessor", "Quality profile = " + quality.toString());
 		float oscale = quality.scale;
 
@@ -122,11 +124,11 @@ public final class Ssao extends PostProcessorEffect {
 	}
 
 	public void enableDebug () {
-		GameEvents.gameRenderer.addListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.DEFAULT);
+		events.gameRenderer.addListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug, GameRendererEvent.Order.DEFAULT);
 	}
 
 	public void disableDebug () {
-		GameEvents.gameRenderer.removeListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug,
+		events.gameRenderer.removeListener(gameRendererEvent, GameRendererEvent.Type.BatchDebug,
 			GameRendererEvent.Order.DEFAULT);
 	}
 
@@ -193,7 +195,7 @@ public final class Ssao extends PostProcessorEffect {
 		Gdx.gl.glDisable(GL20.GL_CULL_FACE);
 		Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
 
-		Camera cam = GameEvents.gameRenderer.camPersp;
+		Camera cam = events.gameRenderer.camPersp;
 
 		mtxRot.set(cam.view);
 		invPrj.set(cam.projection).inv();
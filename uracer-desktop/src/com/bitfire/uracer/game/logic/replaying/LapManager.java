@@ -4,10 +4,11 @@ package com.bitfire.uracer.game.logic.replaying;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
-import com.bitfire.uracer.game.actors.Car;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.actors.CarForces;
 import com.bitfire.uracer.game.logic.replaying.ReplayManager.ReplayResult;
 import com.bitfire.uracer.game.logic.replaying.ReplayRecorder.RecorderError;
+import com.bitfire.uracer.game.player.PlayerCar;
 
 /** Manage player's performance recordings and keeps basic lap information */
 public class LapManager implements Disposable {
@@ -15,8 +16,8 @@ public class LapManager implements Disposable {
 	private final ReplayRecorder recorder;
 	private final ReplayManager manager;
 
-	public LapManager (String currentTrackId) {
-		recorder = new ReplayRecorder();
+	public LapManager (GameContext context, String currentTrackId) {
+		recorder = new ReplayRecorder(context);
 		manager = new ReplayManager(currentTrackId);
 	}
 
@@ -40,7 +41,7 @@ public class LapManager implements Disposable {
 	}
 
 	/** Starts recording the player lap performance. Returns the Replay instance where the recording is being performed. */
-	public void startRecording (Car car, String trackId, String userId) {
+	public void startRecording (PlayerCar car, String trackId, String userId) {
 		if (recorder.isRecording()) {
 			Gdx.app.log("TrackLapManager", "Couldn't start recording since it's already started.");
 			return;
@@ -100,6 +101,10 @@ public class LapManager implements Disposable {
 		return manager.getBestReplay();
 	}
 
+	public ReplayLeaderboard getLeaderboard () {
+		return manager.getLeaderboard();
+	}
+
 	public void removeAllReplays () {
 		manager.removeAll();
 	}
@@ -1,42 +1,100 @@
 
 package com.bitfire.uracer.game.logic.replaying;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
-import java.util.zip.GZIPInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.zip.GZIPOutputStream;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.TimeUtils;
-import com.bitfire.uracer.game.actors.Car;
+import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.game.actors.CarForces;
+import com.bitfire.uracer.game.player.PlayerCar;
 import com.bitfire.uracer.utils.DigestUtils;
 import com.bitfire.uracer.utils.ReplayUtils;
 import com.bitfire.uracer.utils.URacerRuntimeException;
 
 /** Represents replay data to be feed to a GhostCar, the replay player.
+ *
+ * Once frozen, a Replay is immutable and its data can be safely shared by reference between the ReplayManager, any GhostCar
+ * and the replay saver; the ReplayRecorder is the only one modifying a Replay, and it detaches from the data it handed out via
+ * {@link #freeze()} on its next modification (copy-on-write).
+ *
+ * A Replay obtained via {@link #map(String)} doesn't hold its events in the heap, instead they are read in place from a
+ * memory-mapped file, sharing the OS page cache.
+ *
+ * Along with the events, a recording captures a keyframe of the car body state every {@link #getKeyframeInterval()} ticks, see
+ * {@link ReplayKeyframe}, and the input fed to the player car simulator, see {@link ReplayInputs}. Replays recorded before
+ * keyframes were introduced have none, and neither have those recorded before the input was.
  * 
  * @author manuel */
 
 public final class Replay implements Disposable, Comparable<Replay> {
 	public static final int MaxEvents = 5000;
 
+	/** event storage grows by this many events at once, 10 seconds at the default timestep */
+	public static final int EventsChunk = 600;
+
+	private static final float[] NoEvents = new float[0];
+
+	/** the maximum difference between two force components computed from the same input, due to quantization */
+	public static final float ForcesTolerance = 1f / ReplayFormat.QuantizationSteps;
+
+	/** keyframes are captured this often, in ticks, half a second at the default timestep */
+	public static final int DefaultKeyframeInterval = 30;
+
 	// replay data
 	private Vector2 carPositionMt = new Vector2();
 	private float carOrientationRads;
-	private CarForces[] forces = null;
+
+	// recorded CarForces events, stored as columns and sized to the effective lap length
+	private float[] velocityX = NoEvents;
+	private float[] velocityY = NoEvents;
+	private float[] angularVelocity = NoEvents;
+
+	// captured keyframes, ReplayKeyframe.Size floats each
+	private float[] keyframes = NoEvents;
+	private int keyframesCount = 0;
+	private int keyframeInterval = DefaultKeyframeInterval;
+
+	// the recorded input, if any
+	private ReplayInputs inputs = null;
+
+	// memory-mapped recorded events and keyframes, if any
+	private FloatBuffer mappedVelocityX = null;
+	private FloatBuffer mappedVelocityY = null;
+	private FloatBuffer mappedAngularVelocity = null;
+	private FloatBuffer mappedKeyframes = null;
 
 	// replay info data
 	protected ReplayInfo info = new ReplayInfo();
 
+	// immutable, safe to share
+	private boolean frozen = false;
+
+	// the event storage is currently referenced by a frozen snapshot
+	private boolean shared = false;
+
+	// the replay ID being computed while recording, if any
+	private ReplayDigest digest = null;
+
 	public Replay () {
-		forces = new CarForces[MaxEvents];
-		for (int i = 0; i < MaxEvents; i++) {
-			forces[i] = new CarForces();
-		}
 		reset();
 	}
 
@@ -46,63 +104,218 @@ public final class Replay implements Disposable, Comparable<Replay> {
 			throw new NullPointerException();
 		}
 
-		int thisTicks = info.getTicks();
-		int otherTicks = o.info.getTicks();
-
-		// if different time, then compare
-		if (thisTicks != otherTicks) {
-			return thisTicks - otherTicks;
-		} else {
-			// equal time, draw
-			// the oldest wins
-			if (info.created < o.info.created) return -1;
-			if (info.created > o.info.created) return 1;
-			return 0;
-		}
+		return info.compareTo(o.info);
 	}
 
 	@Override
 	public void dispose () {
+		// frozen data may still be referenced elsewhere, let the gc reclaim it
+		if (frozen) {
+			return;
+		}
+
 		reset();
+		shared = false;
 
-		for (int i = 0; i < MaxEvents; i++) {
-			forces[i] = null;
-		}
+		velocityX = NoEvents;
+		velocityY = NoEvents;
+		angularVelocity = NoEvents;
+		keyframes = NoEvents;
 	}
 
 	// public void setId (String id) {
 	// info.replayId = id;
 	// }
 
+	/** Invalidates the replay data, any previously recorded event is dropped but its storage is retained for reuse */
 	public void reset () {
+		checkMutable();
 		info.reset();
 		carPositionMt.set(0, 0);
 		carOrientationRads = 0;
-		for (int i = 0; i < MaxEvents; i++) {
-			forces[i].reset();
+		keyframesCount = 0;
+		inputs = null;
+
+		if (digest != null) {
+			digest.cancel();
 		}
 	}
 
 	public void copy (Replay replay) {
+		checkMutable();
+
+		// the whole storage will be overwritten, no need to preserve the shared data
+		if (shared) {
+			shared = false;
+			velocityX = NoEvents;
+			velocityY = NoEvents;
+			angularVelocity = NoEvents;
+			keyframes = NoEvents;
+		}
+
+		if (digest != null) {
+			digest.cancel();
+		}
+
+		int count = replay.info.eventsCount;
+		keyframeInterval = replay.keyframeInterval;
+		ensureCapacity(count);
+
 		info.copy(replay.info);
 		carPositionMt.set(replay.carPositionMt);
 		carOrientationRads = replay.carOrientationRads;
-		for (int i = 0; i < MaxEvents; i++) {
-			forces[i].set(replay.forces[i]);
+		replay.getVelocityX().get(velocityX, 0, count);
+		replay.getVelocityY().get(velocityY, 0, count);
+		replay.getAngularVelocity().get(angularVelocity, 0, count);
+
+		keyframesCount = replay.keyframesCount;
+		ensureKeyframesCapacity(keyframesCount);
+		replay.getKeyframes().get(keyframes, 0, keyframesCount * ReplayKeyframe.Size);
+
+		inputs = replay.inputs != null ? new ReplayInputs(replay.inputs) : null;
+	}
+
+	/** Returns an immutable Replay holding this replay's data. No data is copied: the returned instance takes over the event
+	 * storage and this replay, if not frozen already, will allocate a new one as soon as it's modified. A frozen replay returns
+	 * itself. */
+	public Replay freeze () {
+		if (frozen) {
+			return this;
+		}
+
+		Replay snapshot = new Replay();
+		snapshot.info.copy(info);
+		snapshot.carPositionMt.set(carPositionMt);
+		snapshot.carOrientationRads = carOrientationRads;
+		snapshot.velocityX = velocityX;
+		snapshot.velocityY = velocityY;
+		snapshot.angularVelocity = angularVelocity;
+		snapshot.keyframes = keyframes;
+		snapshot.keyframesCount = keyframesCount;
+		snapshot.keyframeInterval = keyframeInterval;
+		snapshot.inputs = inputs;
+		snapshot.mappedVelocityX = mappedVelocityX;
+		snapshot.mappedVelocityY = mappedVelocityY;
+		snapshot.mappedAngularVelocity = mappedAngularVelocity;
+		snapshot.mappedKeyframes = mappedKeyframes;
+		snapshot.frozen = true;
+
+		shared = true;
+		return snapshot;
+	}
+
+	public boolean isFrozen () {
+		return frozen;
+	}
+
+	/** Returns whether the recorded events are read from a memory-mapped file */
+	public boolean isMapped () {
+		return mappedVelocityX != null;
+	}
+
+	private void checkMutable () {
+		if (frozen) {
+			throw new URacerRuntimeException("Replay #" + info.getShortId() + " is frozen and can't be modified");
+		}
+	}
+
+	/** Stops sharing the event storage with a frozen snapshot, copying only the events recorded so far */
+	private void detach () {
+		if (shared) {
+			shared = false;
+
+			int capacity = capacityFor(info.eventsCount);
+			velocityX = Arrays.copyOf(velocityX, capacity);
+			velocityY = Arrays.copyOf(velocityY, capacity);
+			angularVelocity = Arrays.copyOf(angularVelocity, capacity);
+			keyframes = Arrays.copyOf(keyframes, ReplayFormat.keyframesFor(capacity, keyframeInterval) * ReplayKeyframe.Size);
+
+			if (inputs != null) {
+				inputs = new ReplayInputs(inputs);
+			}
+		}
+	}
+
+	private static int capacityFor (int events) {
+		return Math.min(((events + EventsChunk - 1) / EventsChunk) * EventsChunk, MaxEvents);
+	}
+
+	/** Ensures the event storage can hold the specified number of events, growing it by whole chunks */
+	void ensureCapacity (int events) {
+		int capacity = velocityX.length;
+		if (events <= capacity) {
+			return;
+		}
+
+		capacity = capacityFor(events);
+
+		velocityX = grow(velocityX, capacity, info.eventsCount);
+		velocityY = grow(velocityY, capacity, info.eventsCount);
+		angularVelocity = grow(angularVelocity, capacity, info.eventsCount);
+		ensureKeyframesCapacity(ReplayFormat.keyframesFor(capacity, keyframeInterval));
+	}
+
+	private void ensureKeyframesCapacity (int count) {
+		int size = count * ReplayKeyframe.Size;
+		if (size > keyframes.length) {
+			keyframes = grow(keyframes, size, keyframesCount * ReplayKeyframe.Size);
 		}
 	}
 
-	public void begin (String trackId, String userId, Car car) {
+	private static float[] grow (float[] column, int capacity, int used) {
+		float[] grown = new float[capacity];
+		System.arraycopy(column, 0, grown, 0, Math.min(used, column.length));
+		return grown;
+	}
+
+	public void begin (String trackId, String userId, PlayerCar car) {
 		reset();
+		detach();
+		keyframeInterval = DefaultKeyframeInterval;
 		info.trackId = trackId;
 		info.userId = userId;
 		carPositionMt.set(car.getWorldPosMt());
 		carOrientationRads = car.getWorldOrientRads();
 		info.created = TimeUtils.millis();
+
+		if (Config.Replays.RecordInputs) {
+			inputs = new ReplayInputs();
+			inputs.begin(car);
+		}
+
+		if (digest == null) {
+			digest = new ReplayDigest();
+		}
+
+		digest.begin(userId, trackId, info.created);
 	}
 
-	public boolean add (CarForces f) {
-		forces[info.eventsCount++].set(f);
+	/** Records the specified forces, and the input they have been computed from if Config.Replays.RecordInputs, for the specified
+	 * car at the current tick, capturing a keyframe of the car state if it's time to */
+	public boolean add (CarForces f, PlayerCar car) {
+		checkMutable();
+		detach();
+
+		int i = info.eventsCount;
+		ensureCapacity(i + 1);
+
+		if (i % keyframeInterval == 0) {
+			addKeyframe(car);
+		}
+
+		velocityX[i] = f.velocity_x;
+		velocityY[i] = f.velocity_y;
+		angularVelocity[i] = f.angularVelocity;
+
+		if (inputs != null) {
+			inputs.add(car);
+		}
+
+		if (digest != null && digest.isActive()) {
+			digest.add(f.velocity_x, f.velocity_y, f.angularVelocity);
+		}
+
+		info.eventsCount++;
 		if (info.eventsCount == MaxEvents) {
 			reset();
 			return false;
@@ -111,57 +324,77 @@ public final class Replay implements Disposable, Comparable<Replay> {
 		return true;
 	}
 
+	private void addKeyframe (PlayerCar car) {
+		ensureKeyframesCapacity(ReplayFormat.keyframesFor(velocityX.length, keyframeInterval));
+
+		Body body = car.getBody();
+		int k = keyframesCount * ReplayKeyframe.Size;
+
+		keyframes[k] = body.getPosition().x;
+		keyframes[k + 1] = body.getPosition().y;
+		keyframes[k + 2] = body.getAngle();
+		keyframes[k + 3] = body.getLinearVelocity().x;
+		keyframes[k + 4] = body.getLinearVelocity().y;
+		keyframes[k + 5] = body.getAngularVelocity();
+		keyframesCount++;
+	}
+
 	public void end (int ticks) {
+		checkMutable();
 		info.trackTimeTicks = ticks;
 		info.completed = info.eventsCount > 0 && info.eventsCount < MaxEvents;
 
-		info.replayId = DigestUtils.computeDigest(this);
+		// the digest has been fed while recording, unless this replay has been copied into
+		if (info.isValidData() && digest != null && digest.isActive()) {
+			info.replayId = digest.end(ticks);
+		} else {
+			info.replayId = DigestUtils.computeDigest(this);
+		}
+
+		info.digestVersion = ReplayDigest.Version;
+
 		if (!DigestUtils.isValidDigest(info.replayId)) {
 			throw new URacerRuntimeException("The generated Replay ID is invalid (#" + info.replayId + ")");
 		}
 	}
 
-	/** Saves its data to a filename named as its replay ID in the replays output directory for this data's trackId and userId */
+	/** Saves its data to the replays pack for this data's trackId; since the replay ID is a digest of its content, a replay
+	 * already stored isn't stored again */
 	public boolean save () {
 		if (isValid()) { // sanity check
-			String dest = ReplayUtils.getDestinationDir(info);
-
-			// ensure destination directory exists
-			Gdx.files.external(dest).mkdirs();
+			try {
+				ByteArrayOutputStream data = new ByteArrayOutputStream(info.eventsCount * 3 * 2);
+				DataOutputStream hs = new DataOutputStream(data);
 
-			FileHandle hf = Gdx.files.external(ReplayUtils.getFullPath(info));
-			if (hf.exists()) {
-				throw new URacerRuntimeException("Replay " + info.getShortId() + " exists, this should never happens! ("
-					+ info.replayId + ")");
-			}
+				// uncompressed header
+				hs.writeInt(ReplayFormat.Magic);
+				hs.writeShort(ReplayFormat.CurrentVersion);
 
-			try {
-				GZIPOutputStream gzos = new GZIPOutputStream(hf.write(false));
-				DataOutputStream os = new DataOutputStream(gzos);
+				DataOutputStream os = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(hs)));
 
 				// replay info data
-				os.writeUTF(info.replayId);
-				os.writeUTF(info.userId);
-				os.writeUTF(info.trackId);
-				os.writeInt(info.trackTimeTicks);
-				os.writeInt(info.eventsCount);
-				os.writeLong(info.created);
+				ReplayFormat.writeInfo(os, info);
+				os.writeByte(info.digestVersion);
 
 				// car data
 				os.writeFloat(carPositionMt.x);
 				os.writeFloat(carPositionMt.y);
 				os.writeFloat(carOrientationRads);
 
-				// write the effective number of captured CarForces events
-				for (int i = 0; i < info.eventsCount; i++) {
-					CarForces f = forces[i];
-					os.writeFloat(f.velocity_x);
-					os.writeFloat(f.velocity_y);
-					os.writeFloat(f.angularVelocity);
-				}
+				// the quantization step count, followed by the packed CarForces columns
+				os.writeInt(ReplayFormat.QuantizationSteps);
+				ReplayFormat.writeForces(os, getVelocityX(), getVelocityY(), getAngularVelocity(), info.eventsCount,
+					ReplayFormat.QuantizationSteps);
+				ReplayFormat.writeKeyframes(os, getKeyframes(), keyframesCount, keyframeInterval);
+				ReplayFormat.writeInputs(os, getInputs());
 
 				os.close();
 
+				if (!ReplayUtils.getIndex(info.trackId).add(info, data.toByteArray())) {
+					Gdx.app.log("Replay", "Replay #" + info.getShortId() + " is already stored");
+				}
+
+				ReplayUtils.invalidateCachedReplays(info.trackId);
 				return true;
 			} catch (Exception e) {
 				Gdx.app.log("Replay", "Couldn't save replay, reason: " + e.getMessage());
@@ -173,44 +406,218 @@ public final class Replay implements Disposable, Comparable<Replay> {
 		}
 	}
 
+	/** Loads the specified replay file */
 	public static Replay load (String fullpathFilename) {
 		FileHandle fh = Gdx.files.external(fullpathFilename);
 		if (fh.exists()) {
-			try {
-				GZIPInputStream gzis = new GZIPInputStream(fh.read());
-				DataInputStream is = new DataInputStream(gzis);
+			return load(fh.read(), fullpathFilename);
+		}
 
-				Replay r = new Replay();
-				r.info.completed = true;
+		Gdx.app.log("Replay", "The specified replay doesn't exist (" + fullpathFilename + ")");
+		return null;
+	}
 
-				// replay info data
-				r.info.replayId = is.readUTF();
-				r.info.userId = is.readUTF();
-				r.info.trackId = is.readUTF();
-				r.info.trackTimeTicks = is.readInt();
-				r.info.eventsCount = is.readInt();
-				r.info.created = is.readLong();
+	/** Loads a replay from its stored data, as found in a replay file or pack */
+	public static Replay load (byte[] data) {
+		return load(new ByteArrayInputStream(data), "data");
+	}
 
-				// car data
-				r.carPositionMt.x = is.readFloat();
-				r.carPositionMt.y = is.readFloat();
-				r.carOrientationRads = is.readFloat();
-
-				for (int i = 0; i < r.info.eventsCount; i++) {
-					r.forces[i].velocity_x = is.readFloat();
-					r.forces[i].velocity_y = is.readFloat();
-					r.forces[i].angularVelocity = is.readFloat();
+	private static Replay load (InputStream in, String source) {
+		try {
+			int[] version = new int[1];
+			DataInputStream is = ReplayFormat.openBody(in, version);
+
+			Replay r = new Replay();
+			ReplayFormat.readInfo(is, r.info);
+			if (version[0] != ReplayFormat.VersionLegacy) {
+				r.info.digestVersion = is.readUnsignedByte();
+			}
+
+			// car data
+			r.carPositionMt.x = is.readFloat();
+			r.carPositionMt.y = is.readFloat();
+			r.carOrientationRads = is.readFloat();
+
+			int count = r.info.eventsCount;
+			r.ensureCapacity(count);
+
+			if (version[0] == ReplayFormat.VersionLegacy) {
+				for (int i = 0; i < count; i++) {
+					r.velocityX[i] = is.readFloat();
+					r.velocityY[i] = is.readFloat();
+					r.angularVelocity[i] = is.readFloat();
 				}
+			} else {
+				ReplayFormat.readForces(is, r.velocityX, r.velocityY, r.angularVelocity, count, is.readInt());
 
-				is.close();
+				int interval = is.readInt();
+				int keyframes = is.readInt();
+				ReplayFormat.checkKeyframes(interval, keyframes, count);
 
-				return r;
-			} catch (Exception e) {
-				Gdx.app.log("Replay",
-					"Couldn't load replay (" + fullpathFilename + "), reason: " + e.getMessage() + " (" + e.toString() + ")");
+				r.keyframeInterval = interval;
+				r.keyframes = NoEvents;
+				r.ensureKeyframesCapacity(keyframes);
+				ReplayFormat.readKeyframes(is, r.keyframes, keyframes);
+				r.keyframesCount = keyframes;
+
+				r.inputs = ReplayFormat.readInputs(is, count);
+			}
+
+			is.close();
+
+			r.frozen = true;
+			return r;
+		} catch (Exception e) {
+			Gdx.app.log("Replay", "Couldn't load replay (" + source + "), reason: " + e.getMessage() + " (" + e.toString() + ")");
+		}
+
+		return null;
+	}
+
+	/** Writes its data to the specified file in the uncompressed layout that can be memory-mapped by {@link #map(String)} */
+	public boolean saveMapped (String fullpathFilename) {
+		if (!isValid()) {
+			Gdx.app.log("Replay", "Couldn't save mapped replay because its not valid.");
+			return false;
+		}
+
+		try {
+			ByteArrayOutputStream infoBytes = new ByteArrayOutputStream();
+			DataOutputStream is = new DataOutputStream(infoBytes);
+			ReplayFormat.writeInfo(is, info);
+			is.writeByte(info.digestVersion);
+			is.writeFloat(carPositionMt.x);
+			is.writeFloat(carPositionMt.y);
+			is.writeFloat(carOrientationRads);
+			is.writeInt(keyframesCount);
+			ReplayFormat.writeInputs(is, getInputs());
+			is.close();
+
+			int count = info.eventsCount;
+			int dataOffset = ReplayFormat.mappedDataOffset(infoBytes.size());
+			ByteBuffer out = ByteBuffer.allocate(dataOffset + (count * 3 + keyframesCount * ReplayKeyframe.Size) * 4);
+
+			out.putInt(ReplayFormat.Magic);
+			out.putShort((short)ReplayFormat.VersionMapped);
+			out.putShort((short)keyframeInterval);
+			out.putInt(dataOffset);
+			out.put(infoBytes.toByteArray());
+
+			// contiguous force columns
+			out.position(dataOffset);
+			out.order(ByteOrder.LITTLE_ENDIAN);
+			FloatBuffer columns = out.asFloatBuffer();
+			columns.put(getVelocityX());
+			columns.put(getVelocityY());
+			columns.put(getAngularVelocity());
+			columns.put(getKeyframes());
+
+			// replace any previous file only once completely written
+			FileHandle tmp = Gdx.files.external(fullpathFilename + ".tmp");
+			tmp.writeBytes(out.array(), false);
+			tmp.moveTo(Gdx.files.external(fullpathFilename));
+			return true;
+		} catch (Exception e) {
+			Gdx.app.log("Replay", "Couldn't save mapped replay (" + fullpathFilename + "), reason: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/** Memory-maps the specified replay file, previously written by {@link #saveMapped(String)}: no event is decoded nor copied
+	 * to the heap, the returned Replay is frozen and reads its events in place. */
+	public static Replay map (String fullpathFilename) {
+		FileHandle fh = Gdx.files.external(fullpathFilename);
+		if (!fh.exists()) {
+			return null;
+		}
+
+		RandomAccessFile file = null;
+		try {
+			file = new RandomAccessFile(fh.file(), "r");
+			FileChannel channel = file.getChannel();
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (mapped.capacity() < ReplayFormat.MappedHeaderSize || mapped.getInt(0) != ReplayFormat.Magic
+				|| mapped.getShort(4) != ReplayFormat.VersionMapped) {
+				throw new IOException("Not a mapped replay");
+			}
+
+			int dataOffset = mapped.getInt(8);
+			if (dataOffset < ReplayFormat.MappedHeaderSize || dataOffset > mapped.capacity()) {
+				throw new IOException("Invalid data offset (" + dataOffset + ")");
+			}
+
+			byte[] infoBytes = new byte[dataOffset - ReplayFormat.MappedHeaderSize];
+			mapped.position(ReplayFormat.MappedHeaderSize);
+			mapped.get(infoBytes);
+
+			DataInputStream is = new DataInputStream(new ByteArrayInputStream(infoBytes));
+			Replay r = new Replay();
+			ReplayFormat.readInfo(is, r.info);
+			r.info.digestVersion = is.readUnsignedByte();
+			r.carPositionMt.x = is.readFloat();
+			r.carPositionMt.y = is.readFloat();
+			r.carOrientationRads = is.readFloat();
+
+			int count = r.info.eventsCount;
+			int keyframes = is.readInt();
+			ReplayFormat.checkKeyframes(mapped.getShort(6), keyframes, count);
+			r.keyframeInterval = mapped.getShort(6);
+			r.inputs = ReplayFormat.readInputs(is, count);
+
+			if ((long)dataOffset + (count * 3L + keyframes * (long)ReplayKeyframe.Size) * 4L > mapped.capacity()) {
+				throw new IOException("Truncated force columns");
+			}
+
+			mapped.position(dataOffset);
+			FloatBuffer columns = mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+			r.mappedVelocityX = ReplayFormat.mappedColumn(columns, 0, count);
+			r.mappedVelocityY = ReplayFormat.mappedColumn(columns, 1, count);
+			r.mappedAngularVelocity = ReplayFormat.mappedColumn(columns, 2, count);
+			r.mappedKeyframes = ReplayFormat.mappedKeyframes(columns, count, keyframes);
+			r.keyframesCount = keyframes;
+			r.frozen = true;
+
+			return r;
+		} catch (Exception e) {
+			Gdx.app.log("Replay", "Couldn't map replay (" + fullpathFilename + "), reason: " + e.getMessage());
+		} finally {
+			// the mapping stays valid once the file is closed
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException e) {
+				}
 			}
-		} else {
-			Gdx.app.log("Replay", "The specified replay doesn't exist (" + fullpathFilename + ")");
+		}
+
+		return null;
+	}
+
+	/** Loads the replay info data only, without decoding the recorded events */
+	public static ReplayInfo loadInfo (String fullpathFilename) {
+		FileHandle fh = Gdx.files.external(fullpathFilename);
+		if (fh.exists()) {
+			return loadInfo(fh.read(), fullpathFilename);
+		}
+
+		return null;
+	}
+
+	/** Loads the replay info data only from the stored data of a replay */
+	public static ReplayInfo loadInfo (byte[] data) {
+		return loadInfo(new ByteArrayInputStream(data), "data");
+	}
+
+	private static ReplayInfo loadInfo (InputStream in, String source) {
+		try {
+			DataInputStream is = ReplayFormat.openBody(in, new int[1]);
+			ReplayInfo info = new ReplayInfo();
+			ReplayFormat.readInfo(is, info);
+			is.close();
+			return info;
+		} catch (Exception e) {
+			Gdx.app.log("Replay", "Couldn't load replay info (" + source + "), reason: " + e.getMessage());
 		}
 
 		return null;
@@ -224,8 +631,83 @@ public final class Replay implements Disposable, Comparable<Replay> {
 		return info.isValid();
 	}
 
-	public CarForces[] getCarForces () {
-		return forces;
+	/** Returns a view on the recorded linear velocity x-components, holding getEventsCount() values */
+	public FloatBuffer getVelocityX () {
+		return isMapped() ? mappedVelocityX.duplicate() : FloatBuffer.wrap(velocityX, 0, info.eventsCount);
+	}
+
+	/** Returns a view on the recorded linear velocity y-components, holding getEventsCount() values */
+	public FloatBuffer getVelocityY () {
+		return isMapped() ? mappedVelocityY.duplicate() : FloatBuffer.wrap(velocityY, 0, info.eventsCount);
+	}
+
+	/** Returns a view on the recorded angular velocities, holding getEventsCount() values */
+	public FloatBuffer getAngularVelocity () {
+		return isMapped() ? mappedAngularVelocity.duplicate() : FloatBuffer.wrap(angularVelocity, 0, info.eventsCount);
+	}
+
+	/** Fills the specified CarForces with the recorded event at the specified index */
+	public void getCarForces (int index, CarForces out) {
+		if (isMapped()) {
+			out.velocity_x = mappedVelocityX.get(index);
+			out.velocity_y = mappedVelocityY.get(index);
+			out.angularVelocity = mappedAngularVelocity.get(index);
+		} else {
+			out.velocity_x = velocityX[index];
+			out.velocity_y = velocityY[index];
+			out.angularVelocity = angularVelocity[index];
+		}
+	}
+
+	/** Returns a view on the captured keyframes, holding getKeyframesCount() * ReplayKeyframe.Size values */
+	public FloatBuffer getKeyframes () {
+		return isMapped() ? mappedKeyframes.duplicate() : FloatBuffer.wrap(keyframes, 0, keyframesCount * ReplayKeyframe.Size);
+	}
+
+	/** Returns the recorded input, or null if it hasn't been recorded; the returned instance mustn't be modified */
+	public ReplayInputs getInputs () {
+		return inputs != null && inputs.getTicks() == info.eventsCount ? inputs : null;
+	}
+
+	public boolean hasInputs () {
+		return getInputs() != null;
+	}
+
+	public boolean hasKeyframes () {
+		return keyframesCount > 0;
+	}
+
+	public int getKeyframesCount () {
+		return keyframesCount;
+	}
+
+	/** Returns the number of ticks between two keyframes */
+	public int getKeyframeInterval () {
+		return keyframeInterval;
+	}
+
+	/** Returns the index of the last keyframe captured at or before the specified tick, -1 if there are no keyframes */
+	public int getKeyframeIndex (int tick) {
+		return Math.min(Math.max(tick, 0) / keyframeInterval, keyframesCount - 1);
+	}
+
+	/** Fills the specified ReplayKeyframe with the keyframe at the specified index */
+	public void getKeyframe (int index, ReplayKeyframe out) {
+		int k = index * ReplayKeyframe.Size;
+		FloatBuffer data = isMapped() ? mappedKeyframes : null;
+
+		out.tick = index * keyframeInterval;
+		if (data != null) {
+			out.position.set(data.get(k), data.get(k + 1));
+			out.orientation = data.get(k + 2);
+			out.velocity.set(data.get(k + 3), data.get(k + 4));
+			out.angularVelocity = data.get(k + 5);
+		} else {
+			out.position.set(keyframes[k], keyframes[k + 1]);
+			out.orientation = keyframes[k + 2];
+			out.velocity.set(keyframes[k + 3], keyframes[k + 4]);
+			out.angularVelocity = keyframes[k + 5];
+		}
 	}
 
 	public final Vector2 getStartPosition () {
@@ -0,0 +1,67 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.bitfire.uracer.utils.ReplayUtils;
+
+/** Keeps the ranked replays of each track level in memory across game restarts and resets, so that they don't need to be
+ * reloaded from disk as long as nothing changed there. Since replays are frozen they can be shared, so caching them costs no
+ * copies.
+ *
+ * An entry is invalidated explicitly whenever replays are saved or pruned, and implicitly whenever the track's replays pack
+ * changes (i.e. replays being added or removed by someone else). */
+public final class ReplayCache {
+	private static final class Entry {
+		final Array<Replay> replays;
+		final long signature;
+
+		Entry (Array<Replay> replays, long signature) {
+			this.replays = replays;
+			this.signature = signature;
+		}
+	}
+
+	private final ObjectMap<String, Entry> entries = new ObjectMap<String, Entry>();
+
+	/** Returns the cached ranked replays for the specified track, or null if there are none or they are stale */
+	public synchronized Array<Replay> get (String trackId) {
+		Entry entry = entries.get(trackId);
+		if (entry == null) {
+			return null;
+		}
+
+		if (entry.signature != computeSignature(trackId)) {
+			Gdx.app.log("ReplayCache", "Replays for track \"" + trackId + "\" changed on disk");
+			entries.remove(trackId);
+			return null;
+		}
+
+		return entry.replays;
+	}
+
+	/** Caches the specified ranked replays for the specified track, replacing any previous entry */
+	public synchronized void put (String trackId, Array<Replay> ranked) {
+		entries.put(trackId, new Entry(new Array<Replay>(ranked), computeSignature(trackId)));
+	}
+
+	public synchronized void invalidate (String trackId) {
+		entries.remove(trackId);
+	}
+
+	public synchronized void clear () {
+		entries.clear();
+	}
+
+	/** Combines the length and modification time of the track's replays pack, that is only ever appended to or rewritten */
+	private static long computeSignature (String trackId) {
+		FileHandle pack = Gdx.files.external(ReplayUtils.getPackPath(trackId));
+		if (!pack.exists()) {
+			return 0;
+		}
+
+		return pack.lastModified() * 31 + pack.length();
+	}
+}
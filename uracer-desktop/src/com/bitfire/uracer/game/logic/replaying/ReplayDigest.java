@@ -0,0 +1,119 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import java.nio.FloatBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+import com.bitfire.uracer.utils.DigestUtils;
+import com.bitfire.uracer.utils.URacerRuntimeException;
+
+/** Computes a replay ID incrementally, as the replay events are being recorded, so that ending a recording doesn't need to
+ * hash the whole lap at once.
+ *
+ * The ID covers the creation timestamp, the user and track IDs, every recorded event and the lap time, and nothing about the
+ * machine it's computed on. Events are hashed as they are stored on disk, quantized, so that the same ID can be computed again
+ * from a loaded replay, on any machine, and two replays with the same content always share the same ID.
+ *
+ * Replay IDs computed before, the only ones having {@link #VersionUnknown}, also covered the hardware ID of the recording
+ * machine, that isn't stored anywhere: they can't be computed again.
+ *
+ * A ReplayDigest isn't thread-safe, each recording owns its own. */
+public final class ReplayDigest {
+	public static final int DigestLength = 32;
+
+	/** the digest version of replay IDs that can't be computed again */
+	public static final int VersionUnknown = 0;
+
+	/** the digest version of the IDs computed by a ReplayDigest */
+	public static final int Version = 1;
+
+	// room for this many events before the pending bytes are fed to the digest
+	private static final int BufferedEvents = 256;
+	private static final int EventSize = 3 * 4;
+
+	private final MessageDigest sha256 = DigestUtils.createSha256();
+	private final byte[] buffer = new byte[BufferedEvents * EventSize];
+	private final byte[] digest = new byte[DigestLength];
+	private final char[] hex = new char[DigestLength * 2];
+	private int buffered = 0;
+	private boolean active = false;
+
+	/** Begins hashing a new replay, discarding any previous state */
+	public void begin (String userId, String trackId, long created) {
+		sha256.reset();
+		buffered = 0;
+		active = true;
+
+		sha256.update(Long.toString(created).getBytes());
+		sha256.update(userId.getBytes());
+		sha256.update(trackId.getBytes());
+	}
+
+	/** Feeds the next recorded event */
+	public void add (float velocityX, float velocityY, float angularVelocity) {
+		if (buffered == buffer.length) {
+			flush();
+		}
+
+		putInt(ReplayFormat.quantize(velocityX, ReplayFormat.QuantizationSteps));
+		putInt(ReplayFormat.quantize(velocityY, ReplayFormat.QuantizationSteps));
+		putInt(ReplayFormat.quantize(angularVelocity, ReplayFormat.QuantizationSteps));
+	}
+
+	/** Completes the hashing and returns the replay ID, as 64 lowercase hex digits */
+	public String end (int ticks) {
+		flush();
+		sha256.update(Integer.toString(ticks).getBytes());
+		active = false;
+
+		try {
+			sha256.digest(digest, 0, DigestLength);
+		} catch (DigestException e) {
+			throw new URacerRuntimeException("Couldn't compute the replay digest, " + e.getMessage());
+		}
+
+		DigestUtils.toHex(digest, hex);
+		return new String(hex);
+	}
+
+	/** Drops the current state, the events fed so far don't describe the replay anymore */
+	public void cancel () {
+		active = false;
+		buffered = 0;
+	}
+
+	/** Returns whether every event recorded since {@link #begin(String, String, long)} has been fed */
+	public boolean isActive () {
+		return active;
+	}
+
+	/** Computes the ID of an already recorded replay at once */
+	public String compute (Replay replay) {
+		begin(replay.getUserId(), replay.getTrackId(), replay.getCreationTimestamp());
+
+		int count = replay.getEventsCount();
+		FloatBuffer vx = replay.getVelocityX();
+		FloatBuffer vy = replay.getVelocityY();
+		FloatBuffer av = replay.getAngularVelocity();
+		for (int i = 0; i < count; i++) {
+			add(vx.get(i), vy.get(i), av.get(i));
+		}
+
+		return end(replay.getTicks());
+	}
+
+	private void putInt (int value) {
+		buffer[buffered++] = (byte)(value >>> 24);
+		buffer[buffered++] = (byte)(value >>> 16);
+		buffer[buffered++] = (byte)(value >>> 8);
+		buffer[buffered++] = (byte)value;
+	}
+
+	private void flush () {
+		if (buffered > 0) {
+			sha256.update(buffer, 0, buffered);
+			buffered = 0;
+		}
+	}
+}
@@ -0,0 +1,271 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.FloatBuffer;
+import java.util.zip.GZIPInputStream;
+
+/** Describes the on-disk replay layout and implements the packing of the recorded CarForces events.
+ *
+ * A versioned replay file begins with an uncompressed header (magic, version) followed by a gzip'ed body holding the replay
+ * info, the digest version of the replay ID, the car start state and then the velocity_x, velocity_y and angularVelocity
+ * columns. Each column is quantized to fixed-point, delta-coded against the previous event and zigzag/varint packed, so that
+ * slowly changing forces take one or two bytes per event instead of four. The columns are followed by the keyframe interval and
+ * count, then by the keyframes as raw floats: a keyframe is an absolute body state, it isn't quantized so that it can be
+ * restored exactly. Last, a flag tells whether the recorded input follows, see {@link ReplayInputs}.
+ *
+ * Legacy replay files have no header and are just a gzip stream, so they can be told apart by the gzip magic bytes.
+ *
+ * Replays meant to be played back via memory-mapping use an uncompressed layout instead: the header is followed by the offset
+ * of the force columns, the replay info, the digest version of the replay ID, the car start state, the keyframe count, the
+ * recorded input if any and then, aligned, the three columns followed by the keyframes as contiguous little-endian floats, so
+ * that they can be read in place through FloatBuffer views. The keyframe interval is stored in the header. */
+
+final class ReplayFormat {
+	/** "URPL" */
+	static final int Magic = 0x5552504c;
+
+	/** the unversioned layout, a gzip'ed stream of raw floats */
+	static final int VersionLegacy = 1;
+
+	/** quantized, delta-coded and varint-packed force columns, followed by the keyframes and the recorded input, along with the
+	 * digest version of the replay ID */
+	static final int VersionQuantized = 2;
+
+	/** uncompressed, contiguous force columns and keyframes to be memory-mapped, along with the recorded input and the digest
+	 * version of the replay ID */
+	static final int VersionMapped = 3;
+
+	static final int CurrentVersion = VersionQuantized;
+
+	/** magic, version, keyframe interval and the force columns offset */
+	static final int MappedHeaderSize = 12;
+
+	/** the force columns offset in a mapped replay file is a multiple of this */
+	static final int MappedAlignment = 16;
+
+	/** fixed-point steps per unit, the maximum error introduced on a force component is half a step */
+	static final int QuantizationSteps = 4096;
+
+	/** the first two bytes of any gzip stream (RFC 1952) */
+	static final int GzipMagic = 0x1f8b;
+
+	// a zigzag'ed int never needs more than five varint bytes
+	private static final int MaxVarintBytes = 5;
+
+	private ReplayFormat () {
+	}
+
+	/** Reads the uncompressed header, if any, and returns a stream positioned at the beginning of the replay info data.
+	 * @param version receives the format version at index 0 */
+	static DataInputStream openBody (InputStream in, int[] version) throws IOException {
+		BufferedInputStream bis = new BufferedInputStream(in);
+
+		// legacy replays are a bare gzip stream, versioned ones carry a header
+		bis.mark(2);
+		int signature = (bis.read() << 8) | bis.read();
+		bis.reset();
+
+		version[0] = VersionLegacy;
+
+		if (signature != GzipMagic) {
+			DataInputStream hs = new DataInputStream(bis);
+			if (hs.readInt() != Magic) {
+				throw new IOException("Unknown replay format");
+			}
+
+			version[0] = hs.readUnsignedShort();
+			if (version[0] != VersionQuantized) {
+				throw new IOException("Unsupported replay version " + version[0]);
+			}
+		}
+
+		return new DataInputStream(new BufferedInputStream(new GZIPInputStream(bis)));
+	}
+
+	/** Writes the replay info data, common to all the format versions */
+	static void writeInfo (DataOutputStream os, ReplayInfo info) throws IOException {
+		os.writeUTF(info.replayId);
+		os.writeUTF(info.userId);
+		os.writeUTF(info.trackId);
+		os.writeInt(info.trackTimeTicks);
+		os.writeInt(info.eventsCount);
+		os.writeLong(info.created);
+	}
+
+	/** Reads the replay info data, common to all the format versions */
+	static void readInfo (DataInputStream is, ReplayInfo info) throws IOException {
+		info.completed = true;
+		info.replayId = is.readUTF();
+		info.userId = is.readUTF();
+		info.trackId = is.readUTF();
+		info.trackTimeTicks = is.readInt();
+		info.eventsCount = is.readInt();
+		info.created = is.readLong();
+
+		if (info.eventsCount < 0 || info.eventsCount >= Replay.MaxEvents) {
+			throw new IOException("Invalid events count (" + info.eventsCount + ")");
+		}
+	}
+
+	/** Writes the forces as three packed columns, each one prefixed by its length in bytes */
+	static void writeForces (DataOutputStream os, FloatBuffer velocityX, FloatBuffer velocityY, FloatBuffer angularVelocity,
+		int count, int steps) throws IOException {
+		byte[] buffer = new byte[count * MaxVarintBytes];
+		writeColumn(os, velocityX, count, steps, buffer);
+		writeColumn(os, velocityY, count, steps, buffer);
+		writeColumn(os, angularVelocity, count, steps, buffer);
+	}
+
+	/** Reads back the three packed columns written by writeForces */
+	static void readForces (DataInputStream is, float[] velocityX, float[] velocityY, float[] angularVelocity, int count,
+		int steps) throws IOException {
+		if (steps <= 0) {
+			throw new IOException("Invalid quantization steps (" + steps + ")");
+		}
+
+		byte[] buffer = new byte[count * MaxVarintBytes];
+		readColumn(is, velocityX, count, steps, buffer);
+		readColumn(is, velocityY, count, steps, buffer);
+		readColumn(is, angularVelocity, count, steps, buffer);
+	}
+
+	/** Writes the keyframe interval and count, followed by the keyframes */
+	static void writeKeyframes (DataOutputStream os, FloatBuffer keyframes, int count, int interval) throws IOException {
+		os.writeInt(interval);
+		os.writeInt(count);
+		for (int i = 0; i < count * ReplayKeyframe.Size; i++) {
+			os.writeFloat(keyframes.get(i));
+		}
+	}
+
+	/** Reads back count keyframes written by writeKeyframes, once their interval and count have been read and checked */
+	static void readKeyframes (DataInputStream is, float[] keyframes, int count) throws IOException {
+		for (int i = 0; i < count * ReplayKeyframe.Size; i++) {
+			keyframes[i] = is.readFloat();
+		}
+	}
+
+	/** Writes the recorded input, if any */
+	static void writeInputs (DataOutputStream os, ReplayInputs inputs) throws IOException {
+		os.writeBoolean(inputs != null);
+		if (inputs != null) {
+			inputs.write(os);
+		}
+	}
+
+	/** Reads back the recorded input written by writeInputs, returns null if there is none */
+	static ReplayInputs readInputs (DataInputStream is, int eventsCount) throws IOException {
+		return is.readBoolean() ? ReplayInputs.read(is, eventsCount) : null;
+	}
+
+	/** Checks that the specified keyframe interval and count are consistent with the replay events count */
+	static void checkKeyframes (int interval, int count, int eventsCount) throws IOException {
+		if (interval <= 0 || interval > Short.MAX_VALUE) {
+			throw new IOException("Invalid keyframe interval (" + interval + ")");
+		}
+
+		if (count < 0 || count > keyframesFor(eventsCount, interval)) {
+			throw new IOException("Invalid keyframes count (" + count + " for " + eventsCount + " events)");
+		}
+	}
+
+	/** Returns the number of keyframes captured while recording the specified number of events */
+	static int keyframesFor (int events, int interval) {
+		return (events + interval - 1) / interval;
+	}
+
+	private static void writeColumn (DataOutputStream os, FloatBuffer column, int count, int steps, byte[] buffer)
+		throws IOException {
+		int length = 0;
+		int prev = 0;
+
+		for (int i = 0; i < count; i++) {
+			int q = quantize(column.get(i), steps);
+			length = writeVarint(buffer, length, zigzag(q - prev));
+			prev = q;
+		}
+
+		os.writeInt(length);
+		os.write(buffer, 0, length);
+	}
+
+	private static void readColumn (DataInputStream is, float[] column, int count, int steps, byte[] buffer) throws IOException {
+		float invSteps = 1f / (float)steps;
+		int length = is.readInt();
+		if (length < 0 || length > buffer.length) {
+			throw new IOException("Corrupted force column (" + length + " bytes for " + count + " events)");
+		}
+
+		is.readFully(buffer, 0, length);
+
+		int offset = 0;
+		int q = 0;
+		for (int i = 0; i < count; i++) {
+			int value = 0;
+			int shift = 0;
+			int b;
+
+			do {
+				if (offset == length || shift >= 32) {
+					throw new IOException("Truncated force column");
+				}
+
+				b = buffer[offset++];
+				value |= (b & 0x7f) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+
+			q += unzigzag(value);
+			column[i] = q * invSteps;
+		}
+	}
+
+	static int mappedDataOffset (int infoSize) {
+		int size = MappedHeaderSize + infoSize;
+		return ((size + MappedAlignment - 1) / MappedAlignment) * MappedAlignment;
+	}
+
+	/** Returns a view on the specified column of a mapped replay's force data */
+	static FloatBuffer mappedColumn (FloatBuffer columns, int column, int count) {
+		return mappedSlice(columns, column * count, count);
+	}
+
+	/** Returns a view on the keyframes of a mapped replay, that follow its force columns */
+	static FloatBuffer mappedKeyframes (FloatBuffer columns, int eventsCount, int keyframesCount) {
+		return mappedSlice(columns, 3 * eventsCount, keyframesCount * ReplayKeyframe.Size);
+	}
+
+	private static FloatBuffer mappedSlice (FloatBuffer columns, int offset, int length) {
+		FloatBuffer view = columns.duplicate();
+		view.position(offset);
+		view.limit(offset + length);
+		return view.slice();
+	}
+
+	static int quantize (float value, int steps) {
+		return Math.round(value * steps);
+	}
+
+	private static int zigzag (int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag (int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int writeVarint (byte[] buffer, int offset, int value) {
+		while ((value & ~0x7f) != 0) {
+			buffer[offset++] = (byte)((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+
+		buffer[offset++] = (byte)value;
+		return offset;
+	}
+}
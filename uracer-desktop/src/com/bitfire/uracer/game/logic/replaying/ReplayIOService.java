@@ -0,0 +1,354 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.bitfire.uracer.game.GameContext;
+import com.bitfire.uracer.game.logic.replaying.ReplayManager.DiscardReason;
+import com.bitfire.uracer.game.task.Task;
+import com.bitfire.uracer.utils.ReplayUtils;
+
+/** Performs replay disk I/O off the game thread.
+ *
+ * Saves, prunes and track rankings are serialized on a single writer thread, so that they are applied to disk in the same order
+ * they have been requested, while replay payloads are decoded in parallel by a small pool of readers. Both are bounded: once
+ * {@link #MaxPendingRequests} requests are waiting a new one is refused, its future is cancelled and its callback receives
+ * null.
+ *
+ * Callbacks are never invoked from a worker thread, instead they are delivered on the game thread at the next tick boundary. */
+public final class ReplayIOService extends Task {
+	public static final int MaxPendingRequests = 32;
+
+	/** Receives the result of a request, on the game thread */
+	public interface Callback<T> {
+		/** @param result the request result, or null if it failed or has been refused */
+		void completed (T result);
+	}
+
+	/** The best replays for a track, as computed by {@link ReplayIOService#loadBest(String, int, Callback)} */
+	public static final class Ranking {
+		public final String trackId;
+
+		/** the best replays, ranked from the fastest */
+		public final Array<Replay> replays = new Array<Replay>();
+
+		/** whether the ranking has been reused from memory, since nothing changed on disk */
+		public boolean cached = false;
+
+		/** the number of slower replays that have been pruned */
+		public int pruned = 0;
+
+		public Ranking (String trackId) {
+			this.trackId = trackId;
+		}
+	}
+
+	private final ThreadPoolExecutor writer;
+	private final ThreadPoolExecutor readers;
+	private final ConcurrentLinkedQueue<Runnable> completed = new ConcurrentLinkedQueue<Runnable>();
+	private final AtomicInteger pendingWrites = new AtomicInteger(0);
+
+	public ReplayIOService (GameContext context) {
+		super(context);
+		int workers = MathUtils.clamp(Runtime.getRuntime().availableProcessors() - 1, 1, 4);
+		writer = createExecutor("ReplayWriter", 1);
+		readers = createExecutor("ReplayReader", workers);
+	}
+
+	@Override
+	public void dispose () {
+		super.dispose();
+
+		// let any pending save complete
+		writer.shutdown();
+		readers.shutdown();
+
+		try {
+			if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+				Gdx.app.error("ReplayIOService", "Pending replay writes didn't complete in time");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		completed.clear();
+	}
+
+	@Override
+	protected void onTick () {
+		Runnable delivery;
+		while ((delivery = completed.poll()) != null) {
+			delivery.run();
+		}
+	}
+
+	/** Returns the number of saves and prunes not yet completed */
+	public int getPendingWrites () {
+		return pendingWrites.get();
+	}
+
+	/** Saves the specified replay, it shall be frozen */
+	public Future<Boolean> save (final Replay replay, Callback<Boolean> callback) {
+		return write(new Callable<Boolean>() {
+			@Override
+			public Boolean call () {
+				return replay.save();
+			}
+		}, callback);
+	}
+
+	/** Prunes the specified replay, if any */
+	public Future<Boolean> prune (ReplayInfo info, Callback<Boolean> callback) {
+		final ReplayInfo target = new ReplayInfo();
+		target.copy(info);
+
+		return write(new Callable<Boolean>() {
+			@Override
+			public Boolean call () {
+				boolean pruned = ReplayUtils.pruneReplay(target);
+				compactIfNeeded(target.getTrackId());
+				return pruned;
+			}
+		}, callback);
+	}
+
+	/** Loads the specified replay for playback */
+	public Future<Replay> load (ReplayInfo info, Callback<Replay> callback) {
+		return submit(readers, loader(info, null), callback);
+	}
+
+	/** Loads the specified replays for playback, decoding them in parallel; the callback receives them in the same order, any
+	 * replay that couldn't be loaded being null */
+	public void loadAll (Array<ReplayInfo> infos, final Callback<Array<Replay>> callback) {
+		final int count = infos.size;
+		final Replay[] loaded = new Replay[count];
+		final AtomicInteger remaining = new AtomicInteger(count);
+
+		if (count == 0) {
+			deliver(callback, new Array<Replay>());
+			return;
+		}
+
+		for (int i = 0; i < count; i++) {
+			final int slot = i;
+			submit(readers, loader(infos.get(i), null), new Callback<Replay>() {
+				@Override
+				public void completed (Replay result) {
+					loaded[slot] = result;
+					if (remaining.decrementAndGet() == 0 && callback != null) {
+						callback.completed(new Array<Replay>(loaded));
+					}
+				}
+			});
+		}
+	}
+
+	/** Computes the best replays stored for the specified track, keeping up to maxReplays of them and pruning the slower ones;
+	 * the track catalog is used for ranking so that only the replays that will be kept are read, with a single pass over the
+	 * track's pack, and then decoded in parallel. If nothing changed on disk since the last time the cached ranking is reused.
+	 * Once enough space is wasted by pruned replays the pack is compacted. */
+	public Future<Ranking> loadBest (final String trackId, final int maxReplays, Callback<Ranking> callback) {
+		return write(new Callable<Ranking>() {
+			@Override
+			public Ranking call () throws Exception {
+				return rank(trackId, maxReplays);
+			}
+		}, callback);
+	}
+
+	// runs on the writer thread
+	private Ranking rank (String trackId, int maxReplays) throws Exception {
+		Ranking ranking = new Ranking(trackId);
+
+		Array<Replay> cached = ReplayUtils.getCachedReplays(trackId);
+		if (cached != null) {
+			ranking.replays.addAll(cached);
+			ranking.cached = true;
+			return ranking;
+		}
+
+		ReplayIndex index = ReplayUtils.getIndex(trackId);
+		index.refresh();
+
+		Array<ReplayInfo> ranked = index.getRanked();
+		Array<ReplayInfo> missing = new Array<ReplayInfo>();
+		Array<ReplayInfo> candidates = new Array<ReplayInfo>();
+		Array<ReplayInfo> unmapped = new Array<ReplayInfo>();
+		Array<Future<Replay>> loads = new Array<Future<Replay>>();
+
+		int next = 0;
+		while (ranking.replays.size < maxReplays && next < ranked.size) {
+			// decode as many candidates as still needed, in parallel
+			int needed = Math.min(maxReplays - ranking.replays.size, MaxPendingRequests);
+			candidates.clear();
+			unmapped.clear();
+			loads.clear();
+
+			while (candidates.size < needed && next < ranked.size) {
+				ReplayInfo info = ranked.get(next++);
+				DiscardReason reason = ReplayManager.validate(info, trackId);
+				if (reason != DiscardReason.Accepted) {
+					Gdx.app.log("ReplayIOService", "Discarded at loading time, " + reason.toString() + " (#" + info.getShortId() + ")");
+					continue;
+				}
+
+				candidates.add(info);
+				if (!ReplayUtils.hasMappedCopy(info)) {
+					unmapped.add(info);
+				}
+			}
+
+			// read what can't be mapped with a single pass, decoding is done by the readers
+			ObjectMap<String, byte[]> data = index.readAll(unmapped);
+			for (ReplayInfo info : candidates) {
+				loads.add(submitOrRun(readers, loader(info, data.get(info.getId()))));
+			}
+
+			for (int i = 0; i < candidates.size; i++) {
+				Replay replay = loads.get(i).get();
+				if (replay != null) {
+					ranking.replays.add(replay);
+				} else {
+					missing.add(candidates.get(i));
+				}
+			}
+		}
+
+		// unreadable replays are forgotten by the catalog, slower ones are removed from disk as well
+		index.removeAll(missing);
+
+		Array<ReplayInfo> slower = new Array<ReplayInfo>();
+		for (int i = next; i < ranked.size; i++) {
+			slower.add(ranked.get(i));
+		}
+
+		if (slower.size > 0) {
+			ranking.pruned = ReplayUtils.pruneReplays(trackId, slower);
+			compactIfNeeded(trackId);
+		}
+
+		ranking.replays.sort();
+		ReplayUtils.cacheReplays(trackId, ranking.replays);
+		return ranking;
+	}
+
+	// runs on the writer thread
+	private static void compactIfNeeded (String trackId) {
+		ReplayIndex index = ReplayUtils.getIndex(trackId);
+		if (index.needsCompaction()) {
+			index.compact();
+		}
+	}
+
+	/** Returns a job loading the specified replay for playback, from the specified stored data if not null */
+	private static Callable<Replay> loader (ReplayInfo info, final byte[] data) {
+		final ReplayInfo target = new ReplayInfo();
+		target.copy(info);
+
+		return new Callable<Replay>() {
+			@Override
+			public Replay call () {
+				return ReplayUtils.loadForPlayback(target, data);
+			}
+		};
+	}
+
+	private <T> Future<T> write (final Callable<T> job, Callback<T> callback) {
+		pendingWrites.incrementAndGet();
+
+		return submit(writer, new Callable<T>() {
+			@Override
+			public T call () throws Exception {
+				try {
+					return job.call();
+				} finally {
+					pendingWrites.decrementAndGet();
+				}
+			}
+		}, callback);
+	}
+
+	private <T> Future<T> submit (ThreadPoolExecutor executor, Callable<T> job, final Callback<T> callback) {
+		FutureTask<T> task = new FutureTask<T>(job) {
+			@Override
+			protected void done () {
+				T result = null;
+
+				if (!isCancelled()) {
+					try {
+						result = get();
+					} catch (Exception e) {
+						Gdx.app.error("ReplayIOService", "Request failed, reason: " + e.getMessage());
+					}
+				}
+
+				deliver(callback, result);
+			}
+		};
+
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			Gdx.app.error("ReplayIOService", "Too many pending requests, request refused");
+			if (executor == writer) {
+				pendingWrites.decrementAndGet();
+			}
+
+			task.cancel(false);
+		}
+
+		return task;
+	}
+
+	/** Same as submit, but when the executor refuses the job it's run in the calling thread instead (used by workers only) */
+	private <T> Future<T> submitOrRun (ThreadPoolExecutor executor, Callable<T> job) {
+		FutureTask<T> task = new FutureTask<T>(job);
+
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.run();
+		}
+
+		return task;
+	}
+
+	private <T> void deliver (final Callback<T> callback, final T result) {
+		if (callback != null) {
+			completed.add(new Runnable() {
+				@Override
+				public void run () {
+					callback.completed(result);
+				}
+			});
+		}
+	}
+
+	private static ThreadPoolExecutor createExecutor (final String name, int threads) {
+		return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(
+			MaxPendingRequests), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger(0);
+
+			@Override
+			public Thread newThread (Runnable r) {
+				Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+				t.setDaemon(true);
+				t.setPriority(Thread.NORM_PRIORITY - 1);
+				return t;
+			}
+		});
+	}
+}
@@ -0,0 +1,411 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.bitfire.uracer.game.logic.replaying.ReplayPack.Record;
+import com.bitfire.uracer.utils.DigestUtils;
+import com.bitfire.uracer.utils.ReplayUtils;
+
+/** Maintains the catalog of the replays stored for a track level, so that they can be ranked and pruned by their ReplayInfo
+ * only, without decompressing and decoding every recorded lap.
+ *
+ * All the replays for a track are stored in a single append-only {@link ReplayPack}, the catalog being its offset index: it's
+ * persisted next to the pack together with the pack length it describes, so that opening it costs a single read as long as the
+ * pack didn't change, else only the records appended since then are scanned. Since replay IDs are content digests, storing a
+ * replay that is already known is a no-op.
+ *
+ * Replays saved as loose files by previous versions are imported into the pack the first time the catalog is opened. */
+public final class ReplayIndex {
+	/** "URIX" */
+	private static final int Magic = 0x55524958;
+	private static final int Version = 2;
+
+	/** the pack is compacted only once removed replays waste at least this many bytes, and more than the live ones take */
+	public static final int CompactionMinWaste = 128 * 1024;
+
+	private final String trackId;
+	private final ReplayPack pack;
+	private final Array<Record> entries = new Array<Record>();
+	private final ObjectMap<String, Record> byId = new ObjectMap<String, Record>();
+
+	// the pack length described by the catalog and the bytes taken by live records
+	private long packLength = 0;
+	private long liveBytes = 0;
+
+	private ReplayIndex (String trackId) {
+		this.trackId = trackId;
+		this.pack = new ReplayPack(ReplayUtils.getPackPath(trackId));
+	}
+
+	/** Loads the catalog for the specified track, bringing it up to date with its pack and importing any loose replay file */
+	public static ReplayIndex open (String trackId) {
+		ReplayIndex index = new ReplayIndex(trackId);
+		boolean loaded = index.read();
+		boolean changed = index.sync();
+		int imported = index.importLoose();
+
+		if (!loaded || changed || imported > 0) {
+			index.write();
+		}
+
+		Gdx.app.log("ReplayIndex", "Opened catalog for track \"" + trackId + "\" (" + index.entries.size + " replays, "
+			+ (loaded ? (changed ? "updated" : "up to date") : "rebuilt") + (imported > 0 ? ", " + imported + " imported" : "")
+			+ ")");
+
+		return index;
+	}
+
+	public String getTrackId () {
+		return trackId;
+	}
+
+	/** Stores the specified replay data in the pack, unless a replay with the same ID is already there; returns whether it has
+	 * been stored */
+	public synchronized boolean add (ReplayInfo info, byte[] data) throws IOException {
+		if (!isStorable(info)) {
+			return false;
+		}
+
+		sync();
+		if (byId.containsKey(info.getId())) {
+			return false;
+		}
+
+		Record record = pack.append(info, data);
+		put(record);
+		packLength = record.offset + record.size;
+		write();
+		return true;
+	}
+
+	/** Removes the specified replay from the catalog and persists it */
+	public synchronized boolean remove (ReplayInfo info) {
+		Array<ReplayInfo> infos = new Array<ReplayInfo>(1);
+		infos.add(info);
+		return removeAll(infos) > 0;
+	}
+
+	/** Removes all the specified replays from the catalog and persists it once, returns the number of removed replays */
+	public synchronized int removeAll (Array<ReplayInfo> infos) {
+		Array<String> removed = new Array<String>();
+		for (ReplayInfo info : infos) {
+			if (byId.containsKey(info.getId()) && !removed.contains(info.getId(), false)) {
+				removed.add(info.getId());
+			}
+		}
+
+		if (removed.size == 0) {
+			return 0;
+		}
+
+		try {
+			sync();
+			packLength += pack.appendRemoved(removed);
+		} catch (IOException e) {
+			// the removals will be lost at the next rescan, still honor them for now
+			Gdx.app.error("ReplayIndex", "Couldn't record removals in the pack, reason: " + e.getMessage());
+		}
+
+		for (String replayId : removed) {
+			drop(replayId);
+		}
+
+		write();
+		return removed.size;
+	}
+
+	public synchronized boolean contains (String replayId) {
+		return byId.containsKey(replayId);
+	}
+
+	public synchronized int size () {
+		return entries.size;
+	}
+
+	/** Returns a copy of the catalog, sorted from the fastest to the slowest lap */
+	public synchronized Array<ReplayInfo> getRanked () {
+		Array<ReplayInfo> ranked = new Array<ReplayInfo>(entries.size);
+		for (Record entry : entries) {
+			ReplayInfo info = new ReplayInfo();
+			info.copy(entry.info);
+			ranked.add(info);
+		}
+
+		ranked.sort();
+		return ranked;
+	}
+
+	/** Brings the catalog up to date with any change made to the pack by someone else, returns whether anything changed */
+	public synchronized boolean refresh () {
+		if (sync()) {
+			write();
+			return true;
+		}
+
+		return false;
+	}
+
+	/** Loads the specified replay from the pack, or returns null if it's unknown or unreadable */
+	public Replay load (ReplayInfo info) {
+		Array<ReplayInfo> infos = new Array<ReplayInfo>(1);
+		infos.add(info);
+		byte[] data = readAll(infos).get(info.getId());
+		return data != null ? Replay.load(data) : null;
+	}
+
+	/** Reads the stored data of the specified replays with a single sequential pass over the pack, replays that are unknown or
+	 * unreadable are omitted from the returned map */
+	public synchronized ObjectMap<String, byte[]> readAll (Array<ReplayInfo> infos) {
+		ObjectMap<String, byte[]> data = new ObjectMap<String, byte[]>(infos.size);
+		Array<Record> records = new Array<Record>(infos.size);
+		for (ReplayInfo info : infos) {
+			Record record = byId.get(info.getId());
+			if (record != null) {
+				records.add(record);
+			}
+		}
+
+		try {
+			byte[][] read = pack.read(records);
+			for (int i = 0; i < records.size; i++) {
+				data.put(records.get(i).info.getId(), read[i]);
+			}
+		} catch (IOException e) {
+			Gdx.app.error("ReplayIndex", "Couldn't read replays from the pack, reason: " + e.getMessage());
+		}
+
+		return data;
+	}
+
+	/** Returns the number of pack bytes taken by removed replays */
+	public synchronized long getWastedBytes () {
+		return packLength > 0 ? packLength - ReplayPack.HeaderSize - liveBytes : 0;
+	}
+
+	public synchronized boolean needsCompaction () {
+		long wasted = getWastedBytes();
+		return wasted >= CompactionMinWaste && wasted > liveBytes;
+	}
+
+	/** Rewrites the pack without the removed replays */
+	public synchronized boolean compact () {
+		sync();
+
+		long wasted = getWastedBytes();
+		if (wasted == 0) {
+			return false;
+		}
+
+		try {
+			packLength = pack.compact(entries);
+			write();
+			Gdx.app.log("ReplayIndex", "Compacted pack for track \"" + trackId + "\", " + wasted + " bytes reclaimed");
+			return true;
+		} catch (IOException e) {
+			Gdx.app.error("ReplayIndex", "Couldn't compact pack for track \"" + trackId + "\", reason: " + e.getMessage());
+			return false;
+		}
+	}
+
+	private boolean isStorable (ReplayInfo info) {
+		return info != null && ReplayUtils.areValidIds(info) && trackId.equals(info.getTrackId());
+	}
+
+	private void put (Record record) {
+		drop(record.info.getId());
+		entries.add(record);
+		byId.put(record.info.getId(), record);
+		liveBytes += record.size;
+	}
+
+	private void drop (String replayId) {
+		Record record = byId.remove(replayId);
+		if (record != null) {
+			entries.removeValue(record, true);
+			liveBytes -= record.size;
+		}
+	}
+
+	private void clear () {
+		entries.clear();
+		byId.clear();
+		packLength = 0;
+		liveBytes = 0;
+	}
+
+	/** Scans whatever the catalog doesn't know about the pack, returns whether anything changed */
+	private boolean sync () {
+		long length = pack.length();
+		if (length == packLength) {
+			return false;
+		}
+
+		// shorter than expected, it has been rewritten: start over
+		if (length < packLength) {
+			clear();
+		}
+
+		try {
+			long end = pack.scan(packLength, new ReplayPack.Visitor() {
+				@Override
+				public void replay (Record record) {
+					if (isStorable(record.info)) {
+						put(record);
+					}
+				}
+
+				@Override
+				public void removed (String replayId, int size) {
+					drop(replayId);
+				}
+			});
+
+			if (end < length) {
+				pack.truncate(end);
+			}
+
+			packLength = end;
+		} catch (IOException e) {
+			Gdx.app.error("ReplayIndex", "Discarding unreadable pack for track \"" + trackId + "\", reason: " + e.getMessage());
+			pack.file().moveTo(Gdx.files.external(ReplayUtils.getPackPath(trackId) + ".bad"));
+			clear();
+		}
+
+		return true;
+	}
+
+	/** Moves any loose replay file found in the user directories into the pack, returns the number of imported replays */
+	private int importLoose () {
+		FileHandle trackdir = Gdx.files.external(ReplayUtils.getTrackDir(trackId));
+		int imported = 0;
+
+		for (FileHandle userdir : trackdir.list()) {
+			if (!userdir.isDirectory()) {
+				continue;
+			}
+
+			for (FileHandle userreplay : userdir.list()) {
+				String rid = userreplay.name();
+				if (!DigestUtils.isValidDigest(rid)) {
+					continue;
+				}
+
+				byte[] data = userreplay.readBytes();
+				ReplayInfo info = Replay.loadInfo(data);
+				if (info == null || !rid.equals(info.getId()) || !isStorable(info)) {
+					Gdx.app.log("ReplayIndex", "Skipping invalid replay file (" + userreplay.path() + ")");
+					continue;
+				}
+
+				try {
+					if (!byId.containsKey(rid)) {
+						Record record = pack.append(info, data);
+						put(record);
+						packLength = record.offset + record.size;
+						imported++;
+					}
+
+					userreplay.delete();
+				} catch (IOException e) {
+					Gdx.app.error("ReplayIndex", "Couldn't import replay file (" + userreplay.path() + "), reason: " + e.getMessage());
+				}
+			}
+
+			if (userdir.list().length == 0) {
+				userdir.delete();
+			}
+		}
+
+		return imported;
+	}
+
+	private boolean read () {
+		FileHandle fh = Gdx.files.external(ReplayUtils.getIndexPath(trackId));
+		if (!fh.exists()) {
+			return false;
+		}
+
+		DataInputStream is = null;
+		try {
+			is = new DataInputStream(new BufferedInputStream(fh.read()));
+			if (is.readInt() != Magic || is.readUnsignedShort() != Version) {
+				Gdx.app.log("ReplayIndex", "Unknown catalog format, rebuilding (" + fh.path() + ")");
+				return false;
+			}
+
+			long length = is.readLong();
+			int count = is.readInt();
+			for (int i = 0; i < count; i++) {
+				ReplayInfo info = new ReplayInfo();
+				info.completed = true;
+				info.trackId = trackId;
+				info.replayId = is.readUTF();
+				info.userId = is.readUTF();
+				info.trackTimeTicks = is.readInt();
+				info.eventsCount = is.readInt();
+				info.created = is.readLong();
+
+				long offset = is.readLong();
+				int size = is.readInt();
+				int dataLength = is.readInt();
+				put(new Record(info, offset, size, dataLength));
+			}
+
+			packLength = length;
+			return true;
+		} catch (Exception e) {
+			Gdx.app.log("ReplayIndex", "Couldn't read catalog (" + fh.path() + "), reason: " + e.getMessage());
+			clear();
+			return false;
+		} finally {
+			if (is != null) {
+				try {
+					is.close();
+				} catch (Exception e) {
+				}
+			}
+		}
+	}
+
+	private void write () {
+		String path = ReplayUtils.getIndexPath(trackId);
+		FileHandle tmp = Gdx.files.external(path + ".tmp");
+
+		try {
+			Gdx.files.external(ReplayUtils.getTrackDir(trackId)).mkdirs();
+
+			DataOutputStream os = new DataOutputStream(new BufferedOutputStream(tmp.write(false)));
+			os.writeInt(Magic);
+			os.writeShort(Version);
+			os.writeLong(packLength);
+			os.writeInt(entries.size);
+
+			for (Record entry : entries) {
+				os.writeUTF(entry.info.replayId);
+				os.writeUTF(entry.info.userId);
+				os.writeInt(entry.info.trackTimeTicks);
+				os.writeInt(entry.info.eventsCount);
+				os.writeLong(entry.info.created);
+				os.writeLong(entry.offset);
+				os.writeInt(entry.size);
+				os.writeInt(entry.length);
+			}
+
+			os.close();
+
+			// replace the previous catalog only once completely written
+			tmp.moveTo(Gdx.files.external(path));
+		} catch (Exception e) {
+			Gdx.app.log("ReplayIndex", "Couldn't write catalog (" + path + "), reason: " + e.getMessage());
+		}
+	}
+}
@@ -5,7 +5,7 @@ import com.bitfire.uracer.utils.DigestUtils;
 import com.bitfire.uracer.utils.ReplayUtils;
 
 /** This represents replay information */
-public final class ReplayInfo {
+public final class ReplayInfo implements Comparable<ReplayInfo> {
 	protected String replayId;
 	protected String userId;
 	protected String trackId;
@@ -13,6 +13,7 @@ public final class ReplayInfo {
 	protected int eventsCount;
 	protected boolean completed = false;
 	protected long created;
+	protected int digestVersion = ReplayDigest.VersionUnknown;
 
 	public void copy (ReplayInfo replay) {
 		if (replay != null) {
@@ -23,6 +24,26 @@ public final class ReplayInfo {
 			eventsCount = replay.eventsCount;
 			completed = replay.completed;
 			created = replay.created;
+			digestVersion = replay.digestVersion;
+		}
+	}
+
+	/** Faster laps come first, on equal times the oldest one wins */
+	@Override
+	public int compareTo (ReplayInfo o) {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+
+		// if different time, then compare
+		if (trackTimeTicks != o.trackTimeTicks) {
+			return trackTimeTicks - o.trackTimeTicks;
+		} else {
+			// equal time, draw
+			// the oldest wins
+			if (created < o.created) return -1;
+			if (created > o.created) return 1;
+			return 0;
 		}
 	}
 
@@ -34,6 +55,7 @@ public final class ReplayInfo {
 		eventsCount = 0;
 		completed = false;
 		created = 0;
+		digestVersion = ReplayDigest.VersionUnknown;
 	}
 
 	public boolean isValidData () {
@@ -52,6 +74,16 @@ public final class ReplayInfo {
 		return replayId;
 	}
 
+	/** Returns the version of the digest its ID has been computed with, see {@link ReplayDigest} */
+	public int getDigestVersion () {
+		return digestVersion;
+	}
+
+	/** Returns whether its ID can be computed again from the replay content, to verify it */
+	public boolean hasVerifiableId () {
+		return digestVersion == ReplayDigest.Version;
+	}
+
 	public String getShortId () {
 		return replayId.substring(0, 6);
 	}
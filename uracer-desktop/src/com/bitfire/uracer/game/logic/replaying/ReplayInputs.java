@@ -0,0 +1,278 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector2;
+import com.bitfire.uracer.game.actors.CarDescriptor;
+import com.bitfire.uracer.game.player.CarInput;
+import com.bitfire.uracer.game.player.PlayerCar;
+
+/** The input fed to the car simulator while recording a replay, along with the state of the simulator when the recording
+ * began: that's all it takes to simulate the recorded car again, see GhostCar.
+ *
+ * Since PlayerCar applies track friction once per rendered frame rather than once per tick, the ticks that began a new frame
+ * are recorded as well, as the number of substeps completed since the previous tick.
+ *
+ * Each CarInput field is run-length encoded as its own column, since the player rarely changes all of them at once: throttle and
+ * brake are constant across long runs of ticks, while the steer angle varies only while steering. Values are stored as they
+ * are, since the simulation can only be repeated exactly if fed with the very same input.
+ *
+ * @author manuel */
+public final class ReplayInputs {
+	private static final int Throttle = 0;
+	private static final int SteerAngle = 1;
+	private static final int Brake = 2;
+	private static final int Updated = 3;
+	private static final int Substeps = 4;
+	private static final int Columns = 5;
+
+	/** A single run-length encoded input field */
+	private static final class Column {
+		int[] starts;
+		float[] values;
+		int runs = 0;
+
+		Column () {
+			starts = new int[16];
+			values = new float[16];
+		}
+
+		Column (Column other) {
+			starts = Arrays.copyOf(other.starts, Math.max(other.runs, 1));
+			values = Arrays.copyOf(other.values, Math.max(other.runs, 1));
+			runs = other.runs;
+		}
+
+		void add (int tick, float value) {
+			if (runs > 0 && Float.floatToIntBits(values[runs - 1]) == Float.floatToIntBits(value)) {
+				return;
+			}
+
+			if (runs == starts.length) {
+				starts = Arrays.copyOf(starts, runs * 2);
+				values = Arrays.copyOf(values, runs * 2);
+			}
+
+			starts[runs] = tick;
+			values[runs] = value;
+			runs++;
+		}
+
+		/** Returns the value at the specified tick, looking up its run */
+		float get (int tick) {
+			int lo = 0, hi = runs - 1;
+			while (lo < hi) {
+				int mid = (lo + hi + 1) >>> 1;
+				if (starts[mid] <= tick) {
+					lo = mid;
+				} else {
+					hi = mid - 1;
+				}
+			}
+
+			return values[lo];
+		}
+
+		void write (DataOutputStream os, int ticks) throws IOException {
+			os.writeInt(runs);
+			for (int i = 0; i < runs; i++) {
+				int end = (i + 1 < runs) ? starts[i + 1] : ticks;
+				os.writeShort(end - starts[i]);
+				os.writeFloat(values[i]);
+			}
+		}
+
+		void read (DataInputStream is, int ticks) throws IOException {
+			int count = is.readInt();
+			if (count < 0 || count > ticks) {
+				throw new IOException("Invalid input runs count (" + count + " for " + ticks + " ticks)");
+			}
+
+			starts = new int[Math.max(count, 1)];
+			values = new float[Math.max(count, 1)];
+			runs = count;
+
+			int tick = 0;
+			for (int i = 0; i < count; i++) {
+				int length = is.readUnsignedShort();
+				if (length == 0) {
+					throw new IOException("Empty input run");
+				}
+
+				starts[i] = tick;
+				values[i] = is.readFloat();
+				tick += length;
+			}
+
+			if (tick != ticks) {
+				throw new IOException("Input runs cover " + tick + " ticks instead of " + ticks);
+			}
+		}
+	}
+
+	// the simulator state at the first tick
+	public final Vector2 velocity = new Vector2();
+	public float angularVelocity;
+	public float throttle, brake, steerAngle;
+	public int impacts;
+	public int frictionSamples, frictionSamplesCount;
+
+	private final Column[] columns = new Column[Columns];
+	private int ticks = 0;
+	private int completedSubsteps = 0;
+
+	public ReplayInputs () {
+		for (int i = 0; i < Columns; i++) {
+			columns[i] = new Column();
+		}
+	}
+
+	public ReplayInputs (ReplayInputs other) {
+		velocity.set(other.velocity);
+		angularVelocity = other.angularVelocity;
+		throttle = other.throttle;
+		brake = other.brake;
+		steerAngle = other.steerAngle;
+		impacts = other.impacts;
+		frictionSamples = other.frictionSamples;
+		frictionSamplesCount = other.frictionSamplesCount;
+		ticks = other.ticks;
+		completedSubsteps = other.completedSubsteps;
+
+		for (int i = 0; i < Columns; i++) {
+			columns[i] = new Column(other.columns[i]);
+		}
+	}
+
+	/** Drops any recorded input, for a script to be written starting from a car at rest */
+	public void begin () {
+		velocity.set(0, 0);
+		angularVelocity = 0;
+		throttle = 0;
+		brake = 0;
+		steerAngle = 0;
+		impacts = 0;
+		frictionSamples = 0;
+		frictionSamplesCount = 0;
+		completedSubsteps = 0;
+
+		ticks = 0;
+		for (Column column : columns) {
+			column.runs = 0;
+		}
+	}
+
+	/** Captures the state of the simulator of the specified car, dropping any recorded input */
+	public void begin (PlayerCar car) {
+		CarDescriptor carDesc = car.getCarDescriptor();
+		velocity.set(carDesc.velocity_wc);
+		angularVelocity = carDesc.angularvelocity;
+		throttle = carDesc.throttle;
+		brake = carDesc.brake;
+		steerAngle = carDesc.steerangle;
+		impacts = car.getPendingImpacts();
+		frictionSamples = car.getFrictionMonitor().getSamples();
+		frictionSamplesCount = car.getFrictionMonitor().getSamplesCount();
+		completedSubsteps = car.getCompletedSubsteps();
+
+		ticks = 0;
+		for (Column column : columns) {
+			column.runs = 0;
+		}
+	}
+
+	/** Records the input fed to the simulator of the specified car at the next tick */
+	public void add (PlayerCar car) {
+		add(car.getInput(), car.getCompletedSubsteps() - completedSubsteps);
+		completedSubsteps = car.getCompletedSubsteps();
+	}
+
+	/** Appends the specified input to be fed at the next tick, after the specified number of substeps has been completed: a
+	 * game rendering a frame per tick completes one */
+	public void add (CarInput input, int substeps) {
+		columns[Throttle].add(ticks, input.throttle);
+		columns[SteerAngle].add(ticks, input.steerAngle);
+		columns[Brake].add(ticks, input.brake);
+		columns[Updated].add(ticks, input.updated ? 1 : 0);
+		columns[Substeps].add(ticks, substeps);
+		ticks++;
+	}
+
+	/** Fills the specified CarInput with the input recorded at the specified tick */
+	public void get (int tick, CarInput out) {
+		out.throttle = columns[Throttle].get(tick);
+		out.steerAngle = columns[SteerAngle].get(tick);
+		out.brake = columns[Brake].get(tick);
+		out.updated = columns[Updated].get(tick) != 0;
+	}
+
+	/** Returns the number of substeps completed between the previous tick and the specified one */
+	public int getCompletedSubsteps (int tick) {
+		return (int)columns[Substeps].get(tick);
+	}
+
+	/** Restores the simulator state captured when the recording began */
+	public void restore (CarDescriptor carDesc) {
+		carDesc.velocity_wc.set(velocity);
+		carDesc.angularvelocity = angularVelocity;
+		carDesc.throttle = throttle;
+		carDesc.brake = brake;
+		carDesc.steerangle = steerAngle;
+	}
+
+	/** Returns the number of recorded ticks */
+	public int getTicks () {
+		return ticks;
+	}
+
+	/** Returns the total number of runs the input is made of */
+	public int getRunsCount () {
+		int count = 0;
+		for (Column column : columns) {
+			count += column.runs;
+		}
+
+		return count;
+	}
+
+	void write (DataOutputStream os) throws IOException {
+		os.writeFloat(velocity.x);
+		os.writeFloat(velocity.y);
+		os.writeFloat(angularVelocity);
+		os.writeFloat(throttle);
+		os.writeFloat(brake);
+		os.writeFloat(steerAngle);
+		os.writeInt(impacts);
+		os.writeInt(frictionSamples);
+		os.writeInt(frictionSamplesCount);
+
+		for (Column column : columns) {
+			column.write(os, ticks);
+		}
+	}
+
+	/** Reads back the input written by {@link #write(DataOutputStream)} for a replay of the specified length */
+	static ReplayInputs read (DataInputStream is, int ticks) throws IOException {
+		ReplayInputs inputs = new ReplayInputs();
+		inputs.velocity.x = is.readFloat();
+		inputs.velocity.y = is.readFloat();
+		inputs.angularVelocity = is.readFloat();
+		inputs.throttle = is.readFloat();
+		inputs.brake = is.readFloat();
+		inputs.steerAngle = is.readFloat();
+		inputs.impacts = is.readInt();
+		inputs.frictionSamples = is.readInt();
+		inputs.frictionSamplesCount = is.readInt();
+
+		for (Column column : inputs.columns) {
+			column.read(is, ticks);
+		}
+
+		inputs.ticks = ticks;
+		return inputs;
+	}
+}
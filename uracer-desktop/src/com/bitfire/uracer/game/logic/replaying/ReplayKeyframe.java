@@ -0,0 +1,63 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import com.badlogic.gdx.math.Vector2;
+import com.bitfire.uracer.utils.AMath;
+
+/** The state of the recorded car body at a given tick, that is right before the recorded event at that tick has been played.
+ *
+ * Keyframes are captured every {@link Replay#getKeyframeInterval()} ticks while recording, so that playback can restart from
+ * anywhere in a lap without replaying all the events before it, and so that a ghost drifting away from the recorded lap can be
+ * put back on track.
+ *
+ * @author manuel */
+public final class ReplayKeyframe {
+	/** the number of floats describing a keyframe: position x/y, orientation, linear velocity x/y and angular velocity */
+	public static final int Size = 6;
+
+	// Box2D limits on the motion of a body in a single step (b2_maxTranslation, b2_maxRotation)
+	public static final float MaxTranslation = 2f;
+	public static final float MaxRotation = 0.5f * AMath.PI;
+
+	public int tick;
+	public final Vector2 position = new Vector2();
+	public float orientation;
+
+	/** the body velocities, angular velocity being in Box2D convention (the opposite of CarForces.angularVelocity) */
+	public final Vector2 velocity = new Vector2();
+	public float angularVelocity;
+
+	public void set (ReplayKeyframe other) {
+		tick = other.tick;
+		position.set(other.position);
+		orientation = other.orientation;
+		velocity.set(other.velocity);
+		angularVelocity = other.angularVelocity;
+	}
+
+	/** Advances this state by one tick, integrating the specified recorded event the same way Box2D would integrate it for a
+	 * body that doesn't collide with anything */
+	public void advance (float velocityX, float velocityY, float carAngularVelocity, float dt) {
+		float tx = dt * velocityX;
+		float ty = dt * velocityY;
+		float ta = dt * -carAngularVelocity;
+
+		float t2 = tx * tx + ty * ty;
+		if (t2 > MaxTranslation * MaxTranslation) {
+			float ratio = MaxTranslation / (float)Math.sqrt(t2);
+			tx *= ratio;
+			ty *= ratio;
+		}
+
+		if (ta * ta > MaxRotation * MaxRotation) {
+			ta *= MaxRotation / Math.abs(ta);
+		}
+
+		// same as Box2DEntity, keep the angle bounded
+		position.add(tx, ty);
+		orientation = AMath.normalRelativeAngle(orientation) + ta;
+		velocity.set(velocityX, velocityY);
+		angularVelocity = -carAngularVelocity;
+		tick++;
+	}
+}
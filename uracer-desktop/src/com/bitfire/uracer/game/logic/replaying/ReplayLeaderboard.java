@@ -0,0 +1,359 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/** Keeps the best <n> replays for a track level ranked, from the fastest to the slowest lap, both all-time and per user.
+ *
+ * Replays are ordered as by {@link Replay#compareTo(Replay)}, ties being broken by replay ID. Rankings are kept in treaps
+ * augmented with subtree sizes, so that adding or removing a replay, looking up the rank of a replay and the replay at a given
+ * rank all cost O(log n), while the best and worst replays are available in O(1). */
+public final class ReplayLeaderboard {
+	private static final class Node {
+		final Replay replay;
+		final int priority;
+		int size = 1;
+		Node left, right;
+
+		Node (Replay replay, int priority) {
+			this.replay = replay;
+			this.priority = priority;
+		}
+	}
+
+	/** A single ranking */
+	private static final class Board {
+		Node root = null;
+		Replay best = null;
+		Replay worst = null;
+
+		int size () {
+			return size(root);
+		}
+
+		void insert (Replay replay) {
+			root = insert(root, new Node(replay, MathUtils.random.nextInt()));
+			updateBounds();
+		}
+
+		void remove (Replay replay) {
+			root = remove(root, replay);
+			updateBounds();
+		}
+
+		void clear () {
+			root = null;
+			best = null;
+			worst = null;
+		}
+
+		/** Returns the number of replays ranked before the specified one */
+		int rankOf (Replay replay) {
+			int rank = 0;
+			Node n = root;
+			while (n != null) {
+				int c = compare(replay, n.replay);
+				if (c == 0) {
+					return rank + size(n.left);
+				} else if (c < 0) {
+					n = n.left;
+				} else {
+					rank += size(n.left) + 1;
+					n = n.right;
+				}
+			}
+
+			return -1;
+		}
+
+		Replay select (int rank) {
+			Node n = root;
+			while (n != null) {
+				int left = size(n.left);
+				if (rank < left) {
+					n = n.left;
+				} else if (rank > left) {
+					rank -= left + 1;
+					n = n.right;
+				} else {
+					return n.replay;
+				}
+			}
+
+			return null;
+		}
+
+		/** Appends up to count replays to the specified array, from the best one */
+		void top (Node n, int count, Array<Replay> out, int start) {
+			if (n == null || out.size - start >= count) {
+				return;
+			}
+
+			top(n.left, count, out, start);
+			if (out.size - start < count) {
+				out.add(n.replay);
+				top(n.right, count, out, start);
+			}
+		}
+
+		private void updateBounds () {
+			if (root == null) {
+				best = null;
+				worst = null;
+				return;
+			}
+
+			Node n = root;
+			while (n.left != null) {
+				n = n.left;
+			}
+
+			best = n.replay;
+
+			n = root;
+			while (n.right != null) {
+				n = n.right;
+			}
+
+			worst = n.replay;
+		}
+
+		private static Node insert (Node n, Node node) {
+			if (n == null) {
+				return node;
+			}
+
+			if (compare(node.replay, n.replay) < 0) {
+				n.left = insert(n.left, node);
+				if (n.left.priority > n.priority) {
+					n = rotateRight(n);
+				}
+			} else {
+				n.right = insert(n.right, node);
+				if (n.right.priority > n.priority) {
+					n = rotateLeft(n);
+				}
+			}
+
+			update(n);
+			return n;
+		}
+
+		private static Node remove (Node n, Replay replay) {
+			if (n == null) {
+				return null;
+			}
+
+			int c = compare(replay, n.replay);
+			if (c < 0) {
+				n.left = remove(n.left, replay);
+			} else if (c > 0) {
+				n.right = remove(n.right, replay);
+			} else {
+				return merge(n.left, n.right);
+			}
+
+			update(n);
+			return n;
+		}
+
+		private static Node merge (Node a, Node b) {
+			if (a == null) return b;
+			if (b == null) return a;
+
+			if (a.priority > b.priority) {
+				a.right = merge(a.right, b);
+				update(a);
+				return a;
+			}
+
+			b.left = merge(a, b.left);
+			update(b);
+			return b;
+		}
+
+		private static Node rotateRight (Node n) {
+			Node l = n.left;
+			n.left = l.right;
+			l.right = n;
+			update(n);
+			update(l);
+			return l;
+		}
+
+		private static Node rotateLeft (Node n) {
+			Node r = n.right;
+			n.right = r.left;
+			r.left = n;
+			update(n);
+			update(r);
+			return r;
+		}
+
+		private static void update (Node n) {
+			n.size = 1 + size(n.left) + size(n.right);
+		}
+
+		private static int size (Node n) {
+			return n != null ? n.size : 0;
+		}
+	}
+
+	private final int capacity;
+	private final Board all = new Board();
+	private final ObjectMap<String, Board> users = new ObjectMap<String, Board>();
+	private final ObjectMap<String, Replay> byId = new ObjectMap<String, Replay>();
+
+	public ReplayLeaderboard (int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid leaderboard capacity (" + capacity + ")");
+		}
+
+		this.capacity = capacity;
+	}
+
+	/** Ranks the specified replay; if the leaderboard is full the slowest replay is evicted to make room for it.
+	 *
+	 * @return the evicted replay, the specified replay itself if it has been refused since it's not faster than any other on a
+	 *         full leaderboard or already ranked, null if nothing has been evicted */
+	public Replay add (Replay replay) {
+		if (byId.containsKey(replay.getId())) {
+			return replay;
+		}
+
+		if (all.size() == capacity) {
+			if (compare(replay, all.worst) >= 0) {
+				return replay;
+			}
+		}
+
+		all.insert(replay);
+		getUserBoard(replay.getUserId(), true).insert(replay);
+		byId.put(replay.getId(), replay);
+
+		if (all.size() > capacity) {
+			Replay evicted = all.worst;
+			remove(evicted.getId());
+			return evicted;
+		}
+
+		return null;
+	}
+
+	/** Removes the specified replay, returns whether it was ranked */
+	public boolean remove (String replayId) {
+		Replay replay = byId.remove(replayId);
+		if (replay == null) {
+			return false;
+		}
+
+		all.remove(replay);
+
+		Board user = getUserBoard(replay.getUserId(), false);
+		user.remove(replay);
+		if (user.size() == 0) {
+			users.remove(replay.getUserId());
+		}
+
+		return true;
+	}
+
+	public void clear () {
+		all.clear();
+		users.clear();
+		byId.clear();
+	}
+
+	public int getCapacity () {
+		return capacity;
+	}
+
+	public int size () {
+		return all.size();
+	}
+
+	public boolean isEmpty () {
+		return byId.size == 0;
+	}
+
+	public boolean contains (String replayId) {
+		return byId.containsKey(replayId);
+	}
+
+	public Replay get (String replayId) {
+		return byId.get(replayId);
+	}
+
+	/** Returns the fastest replay, or null if there are none */
+	public Replay getBest () {
+		return all.best;
+	}
+
+	/** Returns the slowest replay, or null if there are none */
+	public Replay getWorst () {
+		return all.worst;
+	}
+
+	/** Returns the replay at the specified 0-based rank, or null if there is none */
+	public Replay get (int rank) {
+		return all.select(rank);
+	}
+
+	/** Returns the 0-based rank of the specified replay, -1 if it's not ranked */
+	public int getRank (String replayId) {
+		Replay replay = byId.get(replayId);
+		return replay != null ? all.rankOf(replay) : -1;
+	}
+
+	/** Fills the specified array with the best count replays, from the fastest, and returns it */
+	public Array<Replay> getTop (int count, Array<Replay> out) {
+		all.top(all.root, count, out, out.size);
+		return out;
+	}
+
+	// per-user views
+
+	public int getUserReplaysCount (String userId) {
+		Board user = getUserBoard(userId, false);
+		return user != null ? user.size() : 0;
+	}
+
+	/** Returns the fastest replay of the specified user, or null if there are none */
+	public Replay getUserBest (String userId) {
+		Board user = getUserBoard(userId, false);
+		return user != null ? user.best : null;
+	}
+
+	/** Returns the 0-based rank of the specified replay among the ones of its user, -1 if it's not ranked */
+	public int getUserRank (String replayId) {
+		Replay replay = byId.get(replayId);
+		return replay != null ? getUserBoard(replay.getUserId(), false).rankOf(replay) : -1;
+	}
+
+	/** Fills the specified array with the best count replays of the specified user, from the fastest, and returns it */
+	public Array<Replay> getUserTop (String userId, int count, Array<Replay> out) {
+		Board user = getUserBoard(userId, false);
+		if (user != null) {
+			user.top(user.root, count, out, out.size);
+		}
+
+		return out;
+	}
+
+	private Board getUserBoard (String userId, boolean create) {
+		Board user = users.get(userId);
+		if (user == null && create) {
+			user = new Board();
+			users.put(userId, user);
+		}
+
+		return user;
+	}
+
+	private static int compare (Replay a, Replay b) {
+		int c = a.compareTo(b);
+		return c != 0 ? c : a.getId().compareTo(b.getId());
+	}
+}
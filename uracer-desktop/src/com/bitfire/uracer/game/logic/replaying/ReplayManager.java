@@ -3,18 +3,22 @@ package com.bitfire.uracer.game.logic.replaying;
 
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.game.GameplaySettings;
 
-/** Maintains an updated list of the best <n> Replay objects for the specified track level */
+/** Maintains an updated leaderboard of the best <n> Replay objects for the specified track level, the best MaxReplays of them
+ * being the opponents */
 public final class ReplayManager implements Disposable {
 
+	/** the number of opponents, the best replays being raced against */
 	public static final int MaxReplays = 5;
 	private final String trackId;
+	private final ReplayLeaderboard leaderboard;
 	private final Array<Replay> nreplays = new Array<Replay>();
 	private final ReplayResult replayInfo = new ReplayResult();
 
 	public enum DiscardReason {
-		Null, InvalidMinDuration, Invalid, WrongTrack, Slower, Accepted
+		Null, InvalidMinDuration, Invalid, WrongTrack, Slower, AlreadyRanked, Accepted
 	}
 
 	/** Describes Replay position and state */
@@ -57,14 +61,41 @@ public final class ReplayManager implements Disposable {
 	}
 
 	public ReplayManager (String currentTrackId) {
+		this(currentTrackId, Config.Replays.LeaderboardSize);
+	}
+
+	public ReplayManager (String currentTrackId, int leaderboardSize) {
 		trackId = currentTrackId;
+		leaderboard = new ReplayLeaderboard(Math.max(leaderboardSize, MaxReplays));
 	}
 
 	@Override
 	public void dispose () {
-		for (Replay r : nreplays) {
-			r.dispose();
+		// replays are frozen and shared with ghosts and savers, just drop them
+		removeAll();
+	}
+
+	/** Checks the specified replay info against the rules any Replay shall respect to be added for the specified track
+	 * 
+	 * @return DiscardReason.Accepted if valid, the reason it should be discarded otherwise */
+	public static DiscardReason validate (ReplayInfo info, String trackId) {
+		if (info == null) {
+			return DiscardReason.Null;
+		}
+
+		if (!info.isValid()) {
+			return DiscardReason.Invalid;
+		}
+
+		if (info.getTicks() < GameplaySettings.ReplayMinDurationTicks) {
+			return DiscardReason.InvalidMinDuration;
 		}
+
+		if (!info.getTrackId().equals(trackId)) {
+			return DiscardReason.WrongTrack;
+		}
+
+		return DiscardReason.Accepted;
 	}
 
 	private boolean isValidReplay (Replay replay, ReplayResult outInfo) {
@@ -79,18 +110,9 @@ public final class ReplayManager implements Disposable {
 
 		outInfo.discarded.copy(replay.getInfo());
 
-		if (!replay.info.isValid()) {
-			outInfo.reason = DiscardReason.Invalid;
-			return false;
-		}
-
-		if (replay.info.getTicks() < GameplaySettings.ReplayMinDurationTicks) {
-			outInfo.reason = DiscardReason.InvalidMinDuration;
-			return false;
-		}
-
-		if (!replay.info.getTrackId().equals(trackId)) {
-			outInfo.reason = DiscardReason.WrongTrack;
+		DiscardReason reason = validate(replay.info, trackId);
+		if (reason != DiscardReason.Accepted) {
+			outInfo.reason = reason;
 			return false;
 		}
 
@@ -107,19 +129,22 @@ public final class ReplayManager implements Disposable {
 		replayInfo.reset();
 
 		if (isValidReplay(replay, replayInfo)) {
-			Replay new_replay = new Replay();
-			new_replay.copy(replay);
-
-			nreplays.add(new_replay);
-			nreplays.sort();
+			// accepted replays are immutable and referenced, never copied
+			Replay new_replay = replay.freeze();
 
-			Replay removed = null;
-			if (nreplays.size > MaxReplays) {
-				removed = nreplays.pop();
+			if (leaderboard.contains(new_replay.getId())) {
+				// replay discarded, the very same one is ranked already and shall be left as is
+				replayInfo.is_accepted = false;
+				replayInfo.reason = DiscardReason.AlreadyRanked;
+				replayInfo.discarded.copy(new_replay.info);
+				return replayInfo;
 			}
 
-			int pos = nreplays.indexOf(new_replay, true);
+			Replay removed = leaderboard.add(new_replay);
+			int pos = leaderboard.getRank(new_replay.getId());
 			if (pos > -1) {
+				updateOpponents();
+
 				// replay accepted
 				replayInfo.is_accepted = true;
 				replayInfo.accepted.copy(new_replay.info);
@@ -134,45 +159,41 @@ public final class ReplayManager implements Disposable {
 				// replay discarded, slower
 				replayInfo.is_accepted = false;
 				replayInfo.reason = DiscardReason.Slower;
-				if (removed != null) {
-					replayInfo.discarded.copy(removed.info);
-				}
+				replayInfo.discarded.copy(new_replay.info);
 			}
 		}
 
 		return replayInfo;
 	}
 
-	public Replay getById (String replayId) {
-		for (Replay r : nreplays) {
-			if (replayId.equals(r.info.getId())) {
-				return r;
-			}
-		}
+	/** Refreshes the opponents, only needed when the leaderboard changed */
+	private void updateOpponents () {
+		nreplays.clear();
+		leaderboard.getTop(MaxReplays, nreplays);
+	}
 
-		return null;
+	public Replay getById (String replayId) {
+		return leaderboard.get(replayId);
 	}
 
 	public void removeAll () {
-		for (Replay r : nreplays) {
-			r.reset();
-		}
-
+		leaderboard.clear();
 		nreplays.clear();
 	}
 
 	public boolean hasReplays () {
-		return nreplays.size > 0;
+		return !leaderboard.isEmpty();
 	}
 
 	public Replay getBestReplay () {
-		return nreplays.first();
+		return leaderboard.getBest();
 	}
 
 	public Replay getWorstReplay () {
-		return nreplays.peek();
+		return leaderboard.getWorst();
 	}
 
+	/** Returns the opponents, the best MaxReplays replays, ranked from the fastest */
 	public Array<Replay> getReplays () {
 		return nreplays;
 	}
@@ -180,4 +201,9 @@ public final class ReplayManager implements Disposable {
 	public int getReplaysCount () {
 		return nreplays.size;
 	}
+
+	/** Returns all the ranked replays, for all-time and per-user rankings */
+	public ReplayLeaderboard getLeaderboard () {
+		return leaderboard;
+	}
 }
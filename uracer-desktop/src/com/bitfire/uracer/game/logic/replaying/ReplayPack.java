@@ -0,0 +1,324 @@
+
+package com.bitfire.uracer.game.logic.replaying;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/** An append-only file holding all the replays stored for a track level.
+ *
+ * The pack begins with a header (magic, version) followed by records, each one made of a type byte, the length-prefixed replay
+ * info and the length-prefixed replay data, the latter being exactly what a single replay file would hold. Removing a replay
+ * appends a record of type {@link #RecordRemoved} holding just its ID, so that the pack alone always describes its content; the
+ * space taken by removed replays is reclaimed by rewriting the live records only, see {@link #compact(Array)}.
+ *
+ * A ReplayPack isn't thread-safe, it's owned by its track's ReplayIndex. */
+final class ReplayPack {
+	/** "URPK" */
+	static final int Magic = 0x5552504b;
+	static final int Version = 1;
+	static final int HeaderSize = 6;
+
+	static final byte RecordReplay = 1;
+	static final byte RecordRemoved = 2;
+
+	// type, info length and data length
+	private static final int RecordOverhead = 1 + 4 + 4;
+
+	/** The location of a replay in the pack */
+	static final class Record {
+		final ReplayInfo info;
+		long offset;
+		final int size;
+		final int length;
+
+		Record (ReplayInfo info, long offset, int size, int length) {
+			this.info = info;
+			this.offset = offset;
+			this.size = size;
+			this.length = length;
+		}
+
+		/** the offset of the replay data */
+		long dataOffset () {
+			return offset + size - length;
+		}
+	}
+
+	/** Receives the records found while scanning the pack, in order */
+	interface Visitor {
+		void replay (Record record);
+
+		void removed (String replayId, int size);
+	}
+
+	private final String path;
+
+	ReplayPack (String path) {
+		this.path = path;
+	}
+
+	FileHandle file () {
+		return Gdx.files.external(path);
+	}
+
+	long length () {
+		FileHandle fh = file();
+		return fh.exists() ? fh.length() : 0;
+	}
+
+	/** Appends the specified replay data and returns its record */
+	Record append (ReplayInfo info, byte[] data) throws IOException {
+		ByteArrayOutputStream infoBytes = new ByteArrayOutputStream();
+		DataOutputStream is = new DataOutputStream(infoBytes);
+		ReplayFormat.writeInfo(is, info);
+		is.close();
+
+		ByteArrayOutputStream record = new ByteArrayOutputStream(RecordOverhead + infoBytes.size() + data.length);
+		writeRecord(new DataOutputStream(record), RecordReplay, infoBytes.toByteArray(), data);
+
+		ReplayInfo stored = new ReplayInfo();
+		stored.copy(info);
+		long offset = write(record);
+		return new Record(stored, offset, record.size(), data.length);
+	}
+
+	/** Appends a removal record for each of the specified replays, returns the number of bytes written */
+	int appendRemoved (Array<String> replayIds) throws IOException {
+		if (replayIds.size == 0) {
+			return 0;
+		}
+
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		DataOutputStream os = new DataOutputStream(records);
+		for (String replayId : replayIds) {
+			ByteArrayOutputStream idBytes = new ByteArrayOutputStream();
+			new DataOutputStream(idBytes).writeUTF(replayId);
+			writeRecord(os, RecordRemoved, idBytes.toByteArray(), new byte[0]);
+		}
+
+		write(records);
+		return records.size();
+	}
+
+	/** Reads the data of the specified records, in the order they are found in the pack, with a single pass */
+	byte[][] read (Array<Record> records) throws IOException {
+		byte[][] data = new byte[records.size][];
+		if (records.size == 0) {
+			return data;
+		}
+
+		Integer[] order = new Integer[records.size];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+
+		final Array<Record> sorting = records;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare (Integer a, Integer b) {
+				long delta = sorting.get(a).offset - sorting.get(b).offset;
+				return delta < 0 ? -1 : (delta > 0 ? 1 : 0);
+			}
+		});
+
+		RandomAccessFile raf = new RandomAccessFile(file().file(), "r");
+		try {
+			for (Integer i : order) {
+				Record record = records.get(i);
+				data[i] = new byte[record.length];
+				raf.seek(record.dataOffset());
+				raf.readFully(data[i]);
+			}
+		} finally {
+			raf.close();
+		}
+
+		return data;
+	}
+
+	/** Reads the records sequentially, starting from the specified offset (0 to read the whole pack); returns the offset past
+	 * the last complete record, that is less than the pack length if its tail is truncated. */
+	long scan (long from, Visitor visitor) throws IOException {
+		FileHandle fh = file();
+		if (!fh.exists()) {
+			return 0;
+		}
+
+		long length = fh.length();
+		DataInputStream is = new DataInputStream(fh.read(64 * 1024));
+
+		try {
+			long offset = from;
+			if (offset == 0) {
+				if (length < HeaderSize || is.readInt() != Magic || is.readUnsignedShort() != Version) {
+					throw new IOException("Unknown pack format");
+				}
+
+				offset = HeaderSize;
+			} else {
+				skipFully(is, offset);
+			}
+
+			while (offset < length) {
+				try {
+					byte type = is.readByte();
+					byte[] info = new byte[readLength(is, length - offset)];
+					is.readFully(info);
+					int dataLength = readLength(is, length - offset);
+					int size = RecordOverhead + info.length + dataLength;
+
+					if (type == RecordReplay) {
+						ReplayInfo ri = new ReplayInfo();
+						ReplayFormat.readInfo(new DataInputStream(new ByteArrayInputStream(info)), ri);
+						skipFully(is, dataLength);
+						visitor.replay(new Record(ri, offset, size, dataLength));
+					} else if (type == RecordRemoved) {
+						skipFully(is, dataLength);
+						visitor.removed(new DataInputStream(new ByteArrayInputStream(info)).readUTF(), size);
+					} else {
+						throw new IOException("Unknown record type " + type);
+					}
+
+					offset += size;
+				} catch (IOException e) {
+					// an interrupted append leaves an incomplete record behind
+					Gdx.app.log("ReplayPack", "Incomplete record at " + offset + " (" + path + "), reason: " + e.getMessage());
+					break;
+				}
+			}
+
+			return offset;
+		} finally {
+			is.close();
+		}
+	}
+
+	/** Drops anything past the specified offset */
+	void truncate (long length) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file().file(), "rw");
+		try {
+			raf.setLength(length);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/** Rewrites the pack so that it holds the specified records only, in the same order, updating their offsets; returns the
+	 * new pack length */
+	long compact (Array<Record> live) throws IOException {
+		Array<Record> records = new Array<Record>(live);
+		records.sort(new Comparator<Record>() {
+			@Override
+			public int compare (Record a, Record b) {
+				return a.offset < b.offset ? -1 : (a.offset > b.offset ? 1 : 0);
+			}
+		});
+
+		FileHandle tmp = Gdx.files.external(path + ".tmp");
+		long[] offsets = new long[records.size];
+		long offset = HeaderSize;
+
+		RandomAccessFile raf = new RandomAccessFile(file().file(), "r");
+		DataOutputStream os = new DataOutputStream(tmp.write(false, 64 * 1024));
+		try {
+			writeHeader(os);
+
+			byte[] buffer = new byte[0];
+			for (int i = 0; i < records.size; i++) {
+				Record record = records.get(i);
+				if (buffer.length < record.size) {
+					buffer = new byte[record.size];
+				}
+
+				raf.seek(record.offset);
+				raf.readFully(buffer, 0, record.size);
+				os.write(buffer, 0, record.size);
+
+				offsets[i] = offset;
+				offset += record.size;
+			}
+		} finally {
+			raf.close();
+			os.close();
+		}
+
+		// replace the previous pack only once completely written
+		tmp.moveTo(file());
+
+		for (int i = 0; i < records.size; i++) {
+			records.get(i).offset = offsets[i];
+		}
+
+		return offset;
+	}
+
+	private long write (ByteArrayOutputStream records) throws IOException {
+		FileHandle fh = file();
+		long offset = length();
+
+		if (offset == 0) {
+			fh.parent().mkdirs();
+		}
+
+		OutputStream os = fh.write(true);
+		try {
+			if (offset == 0) {
+				DataOutputStream hs = new DataOutputStream(os);
+				writeHeader(hs);
+				hs.flush();
+				offset = HeaderSize;
+			}
+
+			records.writeTo(os);
+		} finally {
+			os.close();
+		}
+
+		return offset;
+	}
+
+	private static void writeHeader (DataOutputStream os) throws IOException {
+		os.writeInt(Magic);
+		os.writeShort(Version);
+	}
+
+	private static void writeRecord (DataOutputStream os, byte type, byte[] info, byte[] data) throws IOException {
+		os.writeByte(type);
+		os.writeInt(info.length);
+		os.write(info);
+		os.writeInt(data.length);
+		os.write(data);
+	}
+
+	private static int readLength (DataInputStream is, long remaining) throws IOException {
+		int length = is.readInt();
+		if (length < 0 || length > remaining) {
+			throw new IOException("Invalid record length (" + length + ")");
+		}
+
+		return length;
+	}
+
+	private static void skipFully (DataInputStream is, long count) throws IOException {
+		while (count > 0) {
+			long skipped = is.skip(count);
+			if (skipped <= 0) {
+				throw new EOFException();
+			}
+
+			count -= skipped;
+		}
+	}
+}
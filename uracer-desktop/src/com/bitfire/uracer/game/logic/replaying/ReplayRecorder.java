@@ -3,9 +3,10 @@ package com.bitfire.uracer.game.logic.replaying;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Disposable;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.Time;
-import com.bitfire.uracer.game.actors.Car;
 import com.bitfire.uracer.game.actors.CarForces;
+import com.bitfire.uracer.game.player.PlayerCar;
 
 public final class ReplayRecorder implements Disposable {
 	// @off
@@ -22,10 +23,13 @@ public final class ReplayRecorder implements Disposable {
 	// freshly recorded data
 	private Replay recording;
 
-	public ReplayRecorder () {
+	// the car being recorded, its state is captured in the keyframes
+	private PlayerCar car;
+
+	public ReplayRecorder (GameContext context) {
 		isRecording = false;
 		recording = new Replay();
-		time = new Time();
+		time = new Time(context);
 	}
 
 	@Override
@@ -36,6 +40,7 @@ public final class ReplayRecorder implements Disposable {
 
 	public void reset () {
 		isRecording = false;
+		car = null;
 		time.stop();
 		recording.reset();
 	}
@@ -44,8 +49,9 @@ public final class ReplayRecorder implements Disposable {
 		time.reset();
 	}
 
-	public void beginRecording (Car car, String trackId, String userId) {
+	public void beginRecording (PlayerCar car, String trackId, String userId) {
 		isRecording = true;
+		this.car = car;
 		recording.begin(trackId, userId, car);
 		time.start();
 	}
@@ -55,7 +61,7 @@ public final class ReplayRecorder implements Disposable {
 			return RecorderError.RecordingNotEnabled;
 		}
 
-		if (!recording.add(f)) {
+		if (!recording.add(f, car)) {
 			return RecorderError.ReplayMemoryLimitReached;
 		}
 
@@ -70,7 +76,10 @@ public final class ReplayRecorder implements Disposable {
 		time.stop();
 		recording.end((int)(time.elapsed().ticks));
 		isRecording = false;
-		return recording;
+		car = null;
+
+		// hand out the recorded data, the next recording will write to new storage
+		return recording.freeze();
 	}
 
 	public boolean isRecording () {
@@ -0,0 +1,185 @@
+
+package com.bitfire.uracer.game.logic.simulation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Disposable;
+import com.bitfire.uracer.configuration.Config;
+import com.bitfire.uracer.game.GameContext;
+import com.bitfire.uracer.game.actors.CarPreset;
+import com.bitfire.uracer.game.actors.HeadlessCar;
+import com.bitfire.uracer.game.events.TaskManagerEvent;
+import com.bitfire.uracer.game.logic.gametasks.PhysicsStep;
+import com.bitfire.uracer.game.logic.helpers.CarFactory;
+import com.bitfire.uracer.game.logic.helpers.GameTrack;
+import com.bitfire.uracer.game.logic.helpers.GameTrack.TrackState;
+import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.replaying.ReplayInputs;
+import com.bitfire.uracer.game.task.TaskManager;
+import com.bitfire.uracer.game.world.GameWorld;
+import com.bitfire.uracer.utils.Convert;
+
+/** Simulates a single car on a level as fast as possible, at the fixed physics timestep and without any graphics nor audio, so
+ * that replays and input scripts can be checked and measured on machines without a display.
+ *
+ * The level is loaded headless, that is only its walls, route and sectors are created: the car is stepped by the very same
+ * PhysicsStep task the game uses, a tick at a time, and the track state is updated after each one.
+ *
+ * Only Gdx.files and Gdx.app are needed, along with the native libraries and the levels list, see GameLevels.init(). Each
+ * simulation lives in its own GameContext, so that any number of them can run along with a game session, as long as each one
+ * is only ever used by a single thread at a time.
+ *
+ * @author manuel */
+public final class HeadlessSimulation implements Disposable {
+	private final GameContext context;
+	private final GameWorld gameWorld;
+	private final GameTrack gameTrack;
+	private final TaskManager taskManager;
+	private final PhysicsStep physicsStep;
+	private final HeadlessCar car;
+	private final int sectorsCount;
+
+	public HeadlessSimulation (String levelId) {
+		this(levelId, null);
+	}
+
+	/** Creates a simulation for the specified level: track friction is applied to the simulated input only if a friction map is
+	 * specified */
+	public HeadlessSimulation (String levelId, Pixmap frictionMap) {
+		this(levelId, frictionMap, Config.Physics.MergeWalls);
+	}
+
+	/** Creates a simulation as above, with the walls made of a body per polyline rather than per segment if so specified, see
+	 * Config.Physics.MergeWalls */
+	public HeadlessSimulation (String levelId, Pixmap frictionMap, boolean mergeWalls) {
+		// the same conversion factor the game uses
+		Convert.init(Config.Physics.PixelsPerMeter);
+
+		context = new GameContext();
+		gameWorld = new GameWorld(context, levelId, false, true, mergeWalls);
+		gameTrack = gameWorld.getGameTrack();
+		sectorsCount = gameTrack.getSectors().length;
+
+		taskManager = new TaskManager(context);
+		physicsStep = new PhysicsStep(context, gameWorld.getBox2DWorld(), TaskManagerEvent.Order.MINUS_4);
+
+		// the same car the player drives
+		car = CarFactory.createHeadless(gameWorld, CarPreset.Type.Car_Yellow);
+		car.setFrictionMap(frictionMap);
+
+		Gdx.app.log("HeadlessSimulation", "Created headless simulation for level " + levelId);
+	}
+
+	@Override
+	public void dispose () {
+		car.dispose();
+		physicsStep.dispose();
+		gameWorld.dispose();
+		taskManager.dispose();
+		context.dispose();
+	}
+
+	public GameWorld getGameWorld () {
+		return gameWorld;
+	}
+
+	/** Runs the specified replay from its start, simulating its recorded input if any and checking it against the recorded
+	 * forces, or playing the recorded forces otherwise */
+	public SimulationResult run (Replay replay) {
+		return run(replay, true, new SimulationResult());
+	}
+
+	/** Runs the specified replay from its start, filling the specified result */
+	public SimulationResult run (Replay replay, boolean simulateInputs, SimulationResult result) {
+		car.play(replay, simulateInputs);
+		return run(result, false);
+	}
+
+	/** Runs the specified input from the level starting position, that is warming up before the lap starts as the player does */
+	public SimulationResult runFromStart (ReplayInputs inputs) {
+		return runFromStart(inputs, new SimulationResult());
+	}
+
+	/** Runs the specified input from the level starting position, filling the specified result */
+	public SimulationResult runFromStart (ReplayInputs inputs, SimulationResult result) {
+		car.play(inputs, gameWorld.playerStart.position, gameWorld.playerStart.orientation);
+		return run(result, true);
+	}
+
+	/** Runs the specified input from the specified position and orientation, the lap starting there */
+	public SimulationResult run (ReplayInputs inputs, Vector2 position, float orientation) {
+		return run(inputs, position, orientation, new SimulationResult());
+	}
+
+	/** Runs the specified input from the specified position and orientation, filling the specified result */
+	public SimulationResult run (ReplayInputs inputs, Vector2 position, float orientation, SimulationResult result) {
+		car.play(inputs, position, orientation);
+		return run(result, false);
+	}
+
+	/** Steps the simulation until there is nothing left to play: when warming up, the lap only starts once the car crosses the
+	 * starting line */
+	private SimulationResult run (SimulationResult result, boolean warmUp) {
+		long start = System.nanoTime();
+		result.reset(sectorsCount);
+
+		TrackState state = car.getTrackState();
+		int sector = state.curr;
+		float completion = gameTrack.getTrackCompletion(car);
+		int lapStart = warmUp ? -1 : 0;
+		if (!warmUp) {
+			result.lapStartSector = sector;
+		}
+
+		while (car.isPlaying()) {
+			// a tick per frame, as a game running at the physics rate would do
+			taskManager.dispatchEvent(TaskManagerEvent.Type.onTick);
+			taskManager.dispatchEvent(TaskManagerEvent.Type.onTickCompleted);
+			result.ticks++;
+
+			gameTrack.updateTrackState(car);
+			boolean inLap = lapStart != -1 && !result.isLapCompleted();
+			if (inLap && !state.onExpectedPath) {
+				result.offPathTicks++;
+			}
+
+			if (state.curr != sector) {
+				sector = state.curr;
+				if (inLap) {
+					result.sectorTicks[sector] = result.ticks - lapStart;
+				}
+			}
+
+			// the starting line has been crossed, same as the lap completion monitor
+			float previous = completion;
+			completion = gameTrack.getTrackCompletion(car);
+			if (previous > 0.9f && completion >= 0 && completion < 0.1f) {
+				if (lapStart == -1) {
+					lapStart = result.ticks;
+					result.warmUpTicks = lapStart;
+					result.lapStartSector = state.curr;
+				} else if (inLap) {
+					result.lapTicks = result.ticks - lapStart;
+				}
+			}
+		}
+
+		result.position.set(car.getBody().getPosition());
+		result.orientation = car.getBody().getAngle();
+		result.velocity.set(car.getBody().getLinearVelocity());
+		result.angularVelocity = car.getBody().getAngularVelocity();
+		result.traveledDistance = car.getTraveledDistance();
+		result.collisions = car.getCollisions();
+
+		result.inputsValidated = car.isValidatingInputs();
+		if (result.inputsValidated) {
+			result.inputMaxError = car.getInputMaxError();
+			result.inputDivergenceTick = car.getInputDivergenceTick();
+		}
+
+		car.stop();
+		result.elapsedNs = System.nanoTime() - start;
+		return result;
+	}
+}
@@ -0,0 +1,240 @@
+
+package com.bitfire.uracer.game.logic.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.bitfire.uracer.game.GameLevels;
+import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.simulation.ReplayVerdict.Type;
+import com.bitfire.uracer.utils.DigestUtils;
+import com.bitfire.uracer.utils.URacerRuntimeException;
+
+/** Validates batches of replays, such as the laps submitted to a time-trial event, by simulating them again headless and
+ * checking the outcome against what they claim: the lap shall be completed through all the track sectors, in the claimed time,
+ * and the recorded input, if any, shall produce the recorded forces.
+ *
+ * The replay ID shall match its content as well: since the IDs computed before replay content digests also covered the hardware
+ * ID of the recording machine, they can't be checked, and replays having one are reported as unverifiable, if nothing else is
+ * wrong with them.
+ *
+ * Replays are read, decoded and checked for consistency in parallel on a ForkJoinPool, then simulated in parallel too: the
+ * replays for a track are split in batches, each simulated by its own HeadlessSimulation so that a level isn't loaded once per
+ * replay.
+ *
+ * @author manuel */
+public final class ReplayValidator {
+	/** the game checks for a completed lap once per frame rather than once per tick, the recorded time can be a few ticks off */
+	public static final int TicksTolerance = 3;
+
+	/** the least number of replays worth loading a level for, since that takes about as long as simulating a few laps once the
+	 * compiled track is cached */
+	private static final int MinBatchSize = 4;
+
+	private final ForkJoinPool pool;
+	private final Pixmap frictionMap;
+	private int maxOffPathTicks = 0;
+
+	public ReplayValidator (Pixmap frictionMap) {
+		this(Runtime.getRuntime().availableProcessors(), frictionMap);
+	}
+
+	/** Creates a validator running on the specified number of threads, applying track friction to the simulated input if a
+	 * friction map is specified */
+	public ReplayValidator (int parallelism, Pixmap frictionMap) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.frictionMap = frictionMap;
+	}
+
+	public void dispose () {
+		pool.shutdown();
+	}
+
+	/** Sets how many ticks a car can spend off the expected track sectors for its lap to still be valid */
+	public void setMaxOffPathTicks (int ticks) {
+		maxOffPathTicks = ticks;
+	}
+
+	/** Validates every replay file in the specified directory */
+	public Array<ReplayVerdict> validate (FileHandle directory) {
+		if (!directory.isDirectory()) {
+			throw new URacerRuntimeException("Not a directory (" + directory.path() + ")");
+		}
+
+		Array<FileHandle> files = new Array<FileHandle>();
+		for (FileHandle file : directory.list()) {
+			if (!file.isDirectory()) {
+				files.add(file);
+			}
+		}
+
+		return validate(files);
+	}
+
+	/** Validates the specified replay files, returning a verdict for each of them in the same order */
+	public Array<ReplayVerdict> validate (Array<FileHandle> files) {
+		long start = System.nanoTime();
+
+		// read, decode and check the replays
+		List<Callable<ReplayVerdict>> loaders = new ArrayList<Callable<ReplayVerdict>>(files.size);
+		for (final FileHandle file : files) {
+			loaders.add(new Callable<ReplayVerdict>() {
+				@Override
+				public ReplayVerdict call () {
+					return load(file);
+				}
+			});
+		}
+
+		Array<ReplayVerdict> verdicts = new Array<ReplayVerdict>(files.size);
+		for (Future<ReplayVerdict> future : pool.invokeAll(loaders)) {
+			verdicts.add(get(future));
+		}
+
+		// group the readable ones by track
+		ObjectMap<String, Array<ReplayVerdict>> tracks = new ObjectMap<String, Array<ReplayVerdict>>();
+		for (ReplayVerdict verdict : verdicts) {
+			if (verdict.replay != null) {
+				Array<ReplayVerdict> group = tracks.get(verdict.trackId);
+				if (group == null) {
+					group = new Array<ReplayVerdict>();
+					tracks.put(verdict.trackId, group);
+				}
+
+				group.add(verdict);
+			}
+		}
+
+		// simulate them in batches
+		List<Callable<Void>> simulations = new ArrayList<Callable<Void>>();
+		for (ObjectMap.Entry<String, Array<ReplayVerdict>> track : tracks.entries()) {
+			final String trackId = track.key;
+			Array<ReplayVerdict> group = track.value;
+
+			int batches = Math.max(Math.min(pool.getParallelism(), group.size / MinBatchSize), 1);
+			int batchSize = (group.size + batches - 1) / batches;
+			for (int i = 0; i < group.size; i += batchSize) {
+				final Array<ReplayVerdict> batch = new Array<ReplayVerdict>(batchSize);
+				batch.addAll(group, i, Math.min(batchSize, group.size - i));
+				simulations.add(new Callable<Void>() {
+					@Override
+					public Void call () {
+						simulate(trackId, batch);
+						return null;
+					}
+				});
+			}
+		}
+
+		for (Future<Void> future : pool.invokeAll(simulations)) {
+			get(future);
+		}
+
+		Gdx.app.log("ReplayValidator", "Validated " + verdicts.size + " replays in " + (System.nanoTime() - start) / 1000000
+			+ "ms");
+
+		return verdicts;
+	}
+
+	private static <T> T get (Future<T> future) {
+		try {
+			return future.get();
+		} catch (Exception e) {
+			throw new URacerRuntimeException("Couldn't validate replays, reason: " + e.getMessage());
+		}
+	}
+
+	private ReplayVerdict load (FileHandle file) {
+		ReplayVerdict verdict = new ReplayVerdict(file.path());
+
+		Replay replay = null;
+		try {
+			replay = Replay.load(file.readBytes());
+		} catch (Exception e) {
+			replay = null;
+		}
+
+		if (replay == null) {
+			verdict.reject(Type.Unreadable, "");
+			return verdict;
+		}
+
+		verdict.replayId = replay.getId();
+		verdict.trackId = replay.getTrackId();
+		verdict.userId = replay.getUserId();
+		verdict.claimedTicks = replay.getTicks();
+		verdict.verifiableId = replay.getInfo().hasVerifiableId();
+
+		if (!replay.isValid()) {
+			verdict.reject(Type.InvalidData, "incomplete replay");
+		} else if (replay.getInfo().hasVerifiableId() && !replay.getId().equals(DigestUtils.computeDigest(replay))) {
+			verdict.reject(Type.Tampered, "its ID doesn't match its content");
+		} else if (!GameLevels.levelIdExists(replay.getTrackId())) {
+			verdict.reject(Type.UnknownTrack, "");
+		} else {
+			verdict.replay = replay;
+		}
+
+		return verdict;
+	}
+
+	private void simulate (String trackId, Array<ReplayVerdict> verdicts) {
+		HeadlessSimulation simulation = new HeadlessSimulation(trackId, frictionMap);
+
+		try {
+			for (ReplayVerdict verdict : verdicts) {
+				verdict.result = simulation.run(verdict.replay, true, new SimulationResult());
+				verdict.replay = null;
+				judge(verdict);
+			}
+		} finally {
+			simulation.dispose();
+		}
+	}
+
+	private void judge (ReplayVerdict verdict) {
+		SimulationResult result = verdict.result;
+
+		if (!result.isLapCompleted()) {
+			verdict.reject(Type.LapNotCompleted, "");
+		} else if (!result.isSectorOrderValid()) {
+			verdict.reject(Type.OffTrack, "sectors skipped");
+		} else if (result.offPathTicks > maxOffPathTicks) {
+			verdict.reject(Type.OffTrack, result.offPathTicks + " ticks off the expected sectors");
+		} else if (Math.abs(result.lapTicks - verdict.claimedTicks) > TicksTolerance) {
+			verdict.reject(Type.TimeMismatch, "lap completed in " + result.lapTicks + " ticks");
+		} else if (result.inputsValidated && !result.isInputValid()) {
+			verdict.reject(Type.InputMismatch, "diverged at tick " + result.inputDivergenceTick);
+		} else if (!verdict.verifiableId) {
+			verdict.reject(Type.Unverifiable, "its ID predates content digests");
+		}
+	}
+
+	/** Returns a report of the specified verdicts, a line for each along with a summary */
+	public static String report (Array<ReplayVerdict> verdicts) {
+		StringBuilder sb = new StringBuilder();
+		int[] counts = new int[Type.values().length];
+
+		for (ReplayVerdict verdict : verdicts) {
+			sb.append(verdict).append('\n');
+			counts[verdict.type.ordinal()]++;
+		}
+
+		sb.append(verdicts.size).append(" replays");
+		for (Type type : Type.values()) {
+			if (counts[type.ordinal()] > 0) {
+				sb.append(", ").append(counts[type.ordinal()]).append(' ').append(type.description);
+			}
+		}
+
+		return sb.toString();
+	}
+}
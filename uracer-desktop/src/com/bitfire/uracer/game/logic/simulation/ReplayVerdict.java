@@ -0,0 +1,70 @@
+
+package com.bitfire.uracer.game.logic.simulation;
+
+import com.bitfire.uracer.game.logic.replaying.Replay;
+
+/** The outcome of the validation of a single replay, see ReplayValidator.
+ *
+ * @author manuel */
+public final class ReplayVerdict {
+	public enum Type {
+		// @off
+		Valid("valid"),
+		Unreadable("unreadable"),
+		InvalidData("invalid data"),
+		Tampered("tampered"),
+		Unverifiable("unverifiable"),
+		UnknownTrack("unknown track"),
+		LapNotCompleted("lap not completed"),
+		OffTrack("off track"),
+		TimeMismatch("time mismatch"),
+		InputMismatch("input mismatch"),
+		;
+		// @on
+
+		public final String description;
+
+		private Type (String description) {
+			this.description = description;
+		}
+	}
+
+	/** where the replay has been read from */
+	public final String source;
+	public Type type = Type.Valid;
+	public String details = "";
+
+	// the claims made by the replay, if it could be read
+	public String replayId = "", trackId = "", userId = "";
+	public int claimedTicks = -1;
+
+	/** whether the replay ID can be computed again from its content, see ReplayInfo.hasVerifiableId() */
+	public boolean verifiableId = true;
+
+	/** the simulation result, if the replay has been simulated */
+	public SimulationResult result = null;
+
+	// the replay being validated, dropped once simulated
+	Replay replay = null;
+
+	public ReplayVerdict (String source) {
+		this.source = source;
+	}
+
+	public boolean isValid () {
+		return type == Type.Valid;
+	}
+
+	void reject (Type type, String details) {
+		this.type = type;
+		this.details = details;
+	}
+
+	@Override
+	public String toString () {
+		String id = replayId.length() >= 6 ? replayId.substring(0, 6) : "------";
+		return "#" + id + " " + type.description.toUpperCase() + (details.length() > 0 ? " (" + details + ")" : "") + ", track="
+			+ trackId + ", user=" + userId + ", claimed=" + claimedTicks + ", simulated="
+			+ (result != null ? result.lapTicks : -1) + ", source=" + source;
+	}
+}
@@ -0,0 +1,360 @@
+
+package com.bitfire.uracer.game.logic.simulation;
+
+import java.util.Random;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.bitfire.uracer.URacerHeadless;
+import com.bitfire.uracer.configuration.Config;
+import com.bitfire.uracer.game.GameLevels;
+import com.bitfire.uracer.game.GameLevels.GameLevelDescriptor;
+import com.bitfire.uracer.game.actors.CarDescriptor;
+import com.bitfire.uracer.game.actors.CarModel;
+import com.bitfire.uracer.game.logic.replaying.ReplayInputs;
+import com.bitfire.uracer.game.player.CarInput;
+import com.bitfire.uracer.game.player.CarSimulator;
+import com.bitfire.uracer.game.player.CarSimulatorBatch;
+import com.bitfire.uracer.game.world.GameWorld;
+import com.bitfire.uracer.utils.FastMath;
+
+/** Checks the simulation code that is meant to agree with some reference implementation, and measures its cost, from the
+ * command line and without a display:
+ *
+ * <pre>
+ * java -cp ... com.bitfire.uracer.game.logic.simulation.SimulationChecks [check...]
+ * </pre>
+ *
+ * Each check prints its results and whether they are within the bounds it asserts, the process exits with 1 if any isn't; with
+ * no arguments all the checks are run. The available checks are:
+ *
+ * fastmath: the maximum absolute errors of FastMath against StrictMath, with MathUtils' for comparison, and the cost of each
+ * function against MathUtils and Math.
+ *
+ * batch: a CarSimulatorBatch and as many CarSimulator instances, stepped side by side from the same random states and inputs,
+ * shall compute velocities within CarSimulatorBatch.Tolerance of each other; the cost of a step of each is measured too.
+ *
+ * walls: the cost of the simulation of every bundled level with the walls made of a body per segment, as the game does by
+ * default, and of a body per polyline, see Config.Physics.MergeWalls, driving the same scripted input into and along the walls;
+ * random rays cast across either world shall hit the walls in the same places, and their cost is measured too. The results are
+ * printed as per segment / per polyline pairs.
+ *
+ * @author manuel */
+public final class SimulationChecks {
+	private static final String[] AllChecks = { "fastmath", "batch", "walls" };
+
+	/** the FastMath error bounds against StrictMath, as documented */
+	private static final double FastMathSinError = 2e-6;
+	private static final double FastMathAtan2Error = 2e-6;
+
+	private static final int BatchCars = 256;
+	private static final int BatchSteps = 3000;
+
+	/** the scripted run on the walls, and the random rays cast across the world with either wall layout */
+	private static final int WallsTicks = 1800;
+	private static final int WallsRays = 100000;
+	private static final float WallsRayLength = 15;
+
+	/** how far apart, in meters, the hits of a ray may be with either wall layout: the boxes are the same, but their vertices are
+	 * rounded differently, placed in world space on a body per polyline and in body space on a body per segment */
+	private static final double WallsHitError = 1e-3;
+
+	private static final int BenchmarkRuns = 5;
+	private static final int BenchmarkRepeats = 100;
+
+	private final Random random = new Random(42);
+	private boolean passed = true;
+	private URacerHeadless headless;
+
+	private SimulationChecks () {
+	}
+
+	public static void main (String[] args) {
+		SimulationChecks checks = new SimulationChecks();
+		for (String check : args.length > 0 ? args : AllChecks) {
+			if (check.equals("fastmath")) {
+				checks.checkFastMath();
+			} else if (check.equals("batch")) {
+				checks.checkBatch();
+			} else if (check.equals("walls")) {
+				checks.checkWalls();
+			} else {
+				System.out.println("Unknown check \"" + check + "\"");
+				System.exit(2);
+			}
+		}
+
+		System.exit(checks.passed ? 0 : 1);
+	}
+
+	private void verify (String what, double value, double bound) {
+		boolean ok = value <= bound;
+		System.out.println("  " + what + " = " + (float)value + " (<= " + (float)bound + ") " + (ok ? "OK" : "FAILED"));
+		passed &= ok;
+	}
+
+	private void checkFastMath () {
+		System.out.println("fastmath");
+
+		// sin and cos over the [-4PI,4PI] range
+		double errSin = 0, errCos = 0, mathUtilsSin = 0;
+		for (int i = -4000000; i <= 4000000; i++) {
+			float radians = i * (MathUtils.PI / 1000000f);
+			double sin = StrictMath.sin(radians);
+			errSin = Math.max(errSin, Math.abs(FastMath.sin(radians) - sin));
+			errCos = Math.max(errCos, Math.abs(FastMath.cos(radians) - StrictMath.cos(radians)));
+			mathUtilsSin = Math.max(mathUtilsSin, Math.abs(MathUtils.sin(radians) - sin));
+		}
+
+		// atan2 over points both near and far from the origin, and on the axes
+		double errAtan2 = 0, mathUtilsAtan2 = 0;
+		for (int i = 0; i < 4000000; i++) {
+			float y = (random.nextFloat() * 2 - 1) * (random.nextBoolean() ? 100 : 1);
+			float x = (random.nextFloat() * 2 - 1) * (random.nextBoolean() ? 100 : 1);
+			double atan2 = StrictMath.atan2(y, x);
+			errAtan2 = Math.max(errAtan2, Math.abs(FastMath.atan2(y, x) - atan2));
+			mathUtilsAtan2 = Math.max(mathUtilsAtan2, Math.abs(MathUtils.atan2(y, x) - atan2));
+		}
+
+		for (int y = -1; y <= 1; y++) {
+			for (int x = -1; x <= 1; x++) {
+				if (x != 0 || y != 0) {
+					errAtan2 = Math.max(errAtan2, Math.abs(FastMath.atan2(y, x) - StrictMath.atan2(y, x)));
+				}
+			}
+		}
+
+		verify("sin error", errSin, FastMathSinError);
+		verify("cos error", errCos, FastMathSinError);
+		verify("atan2 error", errAtan2, FastMathAtan2Error);
+		System.out.println("  MathUtils sin error = " + (float)mathUtilsSin + ", atan2 error = " + (float)mathUtilsAtan2);
+
+		// best of a few runs, the first ones being also the warmup
+		float[] values = new float[1 << 16];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextFloat() * 12 - 6;
+		}
+
+		double[] best = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE,
+			Double.MAX_VALUE };
+		float sink = 0;
+		for (int run = 0; run < BenchmarkRuns; run++) {
+			for (int f = 0; f < best.length; f++) {
+				long start = System.nanoTime();
+				sink += benchmark(f, values);
+				best[f] = Math.min(best[f], (double)(System.nanoTime() - start) / (BenchmarkRepeats * values.length));
+			}
+		}
+
+		System.out.println(String.format("  ns/op sin: FastMath %.2f, MathUtils %.2f, Math %.2f", best[0], best[1], best[2]));
+		System.out.println(String.format("  ns/op atan2: FastMath %.2f, MathUtils %.2f, Math %.2f (%s)", best[3], best[4], best[5],
+			sink == 0 ? "-" : "+"));
+	}
+
+	private void checkBatch () {
+		System.out.println("batch");
+
+		CarModel[] models = { new CarModel().toDefault(), new CarModel().toModel2() };
+		CarSimulatorBatch batch = new CarSimulatorBatch(BatchCars);
+		CarSimulator[] simulators = new CarSimulator[BatchCars];
+		CarDescriptor[] descs = new CarDescriptor[BatchCars];
+		float[] angles = new float[BatchCars];
+
+		for (int i = 0; i < BatchCars; i++) {
+			CarModel model = models[i % models.length];
+			descs[i] = new CarDescriptor(model);
+			descs[i].velocity_wc.set(random.nextFloat() * 40 - 20, random.nextFloat() * 40 - 20);
+			descs[i].angularvelocity = random.nextFloat() * 4 - 2;
+			simulators[i] = new CarSimulator(descs[i]);
+			batch.set(batch.add(model), descs[i]);
+			angles[i] = random.nextFloat() * MathUtils.PI2;
+		}
+
+		// the body angles are integrated here, from the velocities of the scalar cars
+		CarInput input = new CarInput();
+		float dt = Config.Physics.Dt;
+		double errVelocity = 0, errAngular = 0, errForce = 0;
+		for (int step = 0; step < BatchSteps; step++) {
+			for (int i = 0; i < BatchCars; i++) {
+				input.updated = random.nextFloat() < 0.7f;
+				input.throttle = random.nextFloat() < 0.2f ? 0 : random.nextFloat() * 80 - 30;
+				input.steerAngle = random.nextFloat() < 0.2f ? 0 : random.nextFloat() * 2 - 1;
+				input.brake = random.nextFloat() < 0.7f ? 0 : random.nextFloat() * 20;
+				simulators[i].applyInput(input);
+				batch.setInput(i, input);
+			}
+
+			batch.applyInputs();
+			batch.step(dt, angles);
+			for (int i = 0; i < BatchCars; i++) {
+				simulators[i].step(dt, angles[i]);
+
+				CarDescriptor desc = descs[i];
+				errVelocity = Math.max(errVelocity, Math.abs(desc.velocity_wc.x - batch.getVelocityX(i)));
+				errVelocity = Math.max(errVelocity, Math.abs(desc.velocity_wc.y - batch.getVelocityY(i)));
+				errAngular = Math.max(errAngular, Math.abs(desc.angularvelocity - batch.getAngularVelocity(i)));
+				errForce = Math.max(errForce, Math.abs(simulators[i].lateralForceFront.y - batch.getLateralForceFront(i)));
+				errForce = Math.max(errForce, Math.abs(simulators[i].lateralForceRear.y - batch.getLateralForceRear(i)));
+
+				angles[i] += desc.angularvelocity * dt;
+			}
+		}
+
+		verify("velocity error", errVelocity, CarSimulatorBatch.Tolerance);
+		verify("angular velocity error", errAngular, CarSimulatorBatch.Tolerance);
+		System.out.println("  lateral force error = " + (float)errForce);
+
+		// best of a few runs of the same steps, inputs excluded
+		double bestBatch = Double.MAX_VALUE, bestScalar = Double.MAX_VALUE;
+		for (int run = 0; run < BenchmarkRuns; run++) {
+			long start = System.nanoTime();
+			for (int step = 0; step < BenchmarkRepeats; step++) {
+				batch.applyInputs();
+				batch.step(dt, angles);
+			}
+
+			long middle = System.nanoTime();
+			for (int step = 0; step < BenchmarkRepeats; step++) {
+				for (int i = 0; i < BatchCars; i++) {
+					simulators[i].applyInput(input);
+					simulators[i].step(dt, angles[i]);
+				}
+			}
+
+			long end = System.nanoTime();
+			bestBatch = Math.min(bestBatch, (double)(middle - start) / (BenchmarkRepeats * BatchCars));
+			bestScalar = Math.min(bestScalar, (double)(end - middle) / (BenchmarkRepeats * BatchCars));
+		}
+
+		System.out.println(String.format("  ns/car-step: CarSimulatorBatch %.2f, CarSimulator %.2f", bestBatch, bestScalar));
+	}
+
+	private void checkWalls () {
+		System.out.println("walls");
+
+		if (headless == null) {
+			headless = new URacerHeadless();
+			headless.init();
+		}
+
+		// full throttle, weaving from one wall to the other
+		ReplayInputs inputs = new ReplayInputs();
+		CarInput input = new CarInput();
+		inputs.begin();
+		for (int i = 0; i < WallsTicks; i++) {
+			input.throttle = 200;
+			input.steerAngle = MathUtils.sin(i * 0.02f) * 0.6f;
+			input.brake = 0;
+			input.updated = true;
+			inputs.add(input, 1);
+		}
+
+		float[] segmentHits = new float[WallsRays];
+		float[] mergedHits = new float[WallsRays];
+		SimulationResult segmentResult = new SimulationResult();
+		SimulationResult mergedResult = new SimulationResult();
+
+		for (GameLevelDescriptor level : GameLevels.getLevels()) {
+			HeadlessSimulation segment = new HeadlessSimulation(level.getId(), null, false);
+			HeadlessSimulation merged = new HeadlessSimulation(level.getId(), null, true);
+			World segmentWorld = segment.getGameWorld().getBox2DWorld();
+			World mergedWorld = merged.getGameWorld().getBox2DWorld();
+
+			// best of a few runs, alternating the layouts
+			double[] best = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+			for (int run = 0; run < BenchmarkRuns; run++) {
+				best[0] = Math.min(best[0], (double)segment.runFromStart(inputs, segmentResult).elapsedNs / WallsTicks);
+				best[1] = Math.min(best[1], (double)merged.runFromStart(inputs, mergedResult).elapsedNs / WallsTicks);
+				best[2] = Math.min(best[2], (double)castRays(segment.getGameWorld(), segmentHits) / WallsRays);
+				best[3] = Math.min(best[3], (double)castRays(merged.getGameWorld(), mergedHits) / WallsRays);
+			}
+
+			// the same walls, so the same hits
+			double errHit = 0;
+			for (int i = 0; i < WallsRays; i++) {
+				errHit = Math.max(errHit, Math.abs(segmentHits[i] - mergedHits[i]) * WallsRayLength);
+			}
+
+			System.out.println(String.format("  %s: %d/%d bodies, %d/%d proxies", level.getFileName(),
+				segmentWorld.getBodyCount(), mergedWorld.getBodyCount(), segmentWorld.getProxyCount(),
+				mergedWorld.getProxyCount()));
+			System.out.println(String.format("    ticks/s: %.0f/%.0f, ns/ray: %.0f/%.0f", 1e9 / best[0], 1e9 / best[1], best[2],
+				best[3]));
+			System.out.println("    scripted run: " + segmentResult.collisions + "/" + mergedResult.collisions
+				+ " collisions, ends " + segmentResult.position.dst(mergedResult.position) + "m apart");
+			verify("ray hit error", errHit, WallsHitError);
+
+			segment.dispose();
+			merged.dispose();
+		}
+	}
+
+	/** Casts the same random rays across the specified world, storing the closest hit of each as a fraction of its length, and
+	 * returns how long it took */
+	private static long castRays (GameWorld gameWorld, final float[] hits) {
+		final Vector2 from = new Vector2(), to = new Vector2();
+		final int[] ray = new int[1];
+		RayCastCallback callback = new RayCastCallback() {
+			@Override
+			public float reportRayFixture (Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+				hits[ray[0]] = Math.min(hits[ray[0]], fraction);
+				return fraction;
+			}
+		};
+
+		Random rays = new Random(7);
+		long start = System.nanoTime();
+		for (ray[0] = 0; ray[0] < WallsRays; ray[0]++) {
+			from.set(rays.nextFloat() * gameWorld.worldSizeMt.x, rays.nextFloat() * gameWorld.worldSizeMt.y);
+			float angle = rays.nextFloat() * MathUtils.PI2;
+			to.set(from.x + MathUtils.cos(angle) * WallsRayLength, from.y + MathUtils.sin(angle) * WallsRayLength);
+			hits[ray[0]] = 1;
+			gameWorld.getBox2DWorld().rayCast(callback, from, to);
+		}
+
+		return System.nanoTime() - start;
+	}
+
+	private static float benchmark (int function, float[] values) {
+		float sum = 0;
+		for (int k = 0; k < BenchmarkRepeats; k++) {
+			switch (function) {
+			case 0:
+				for (int i = 0; i < values.length; i++) {
+					sum += FastMath.sin(values[i]);
+				}
+				break;
+			case 1:
+				for (int i = 0; i < values.length; i++) {
+					sum += MathUtils.sin(values[i]);
+				}
+				break;
+			case 2:
+				for (int i = 0; i < values.length; i++) {
+					sum += (float)Math.sin(values[i]);
+				}
+				break;
+			case 3:
+				for (int i = 1; i < values.length; i++) {
+					sum += FastMath.atan2(values[i], values[i - 1]);
+				}
+				break;
+			case 4:
+				for (int i = 1; i < values.length; i++) {
+					sum += MathUtils.atan2(values[i], values[i - 1]);
+				}
+				break;
+			case 5:
+				for (int i = 1; i < values.length; i++) {
+					sum += (float)Math.atan2(values[i], values[i - 1]);
+				}
+				break;
+			}
+		}
+
+		return sum;
+	}
+}
@@ -0,0 +1,121 @@
+
+package com.bitfire.uracer.game.logic.simulation;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector2;
+import com.bitfire.uracer.configuration.Config;
+
+/** The outcome of a headless simulation run, see HeadlessSimulation.
+ *
+ * @author manuel */
+public final class SimulationResult {
+	/** the number of simulated ticks */
+	public int ticks;
+
+	/** the number of ticks it took to reach the starting line when warming up, -1 if not warming up or if it didn't */
+	public int warmUpTicks = -1;
+
+	/** the number of ticks the lap has been completed in, -1 if it hasn't */
+	public int lapTicks = -1;
+
+	/** the number of ticks from the lap start the car entered each track sector at during the lap, -1 if it didn't */
+	public int[] sectorTicks = new int[0];
+
+	/** the sector the lap started in, -1 if the lap didn't start */
+	public int lapStartSector = -1;
+
+	/** the number of ticks the car spent off the expected sectors during the lap */
+	public int offPathTicks;
+
+	/** the car state after the last tick */
+	public final Vector2 position = new Vector2();
+	public float orientation;
+	public final Vector2 velocity = new Vector2();
+	public float angularVelocity;
+	public float traveledDistance;
+
+	/** the number of contacts between the car and the walls the physics solved, one per tick per contact */
+	public int collisions;
+
+	/** the result of the validation of the recorded input against the recorded forces, if validated */
+	public boolean inputsValidated;
+	public float inputMaxError;
+	public int inputDivergenceTick = -1;
+
+	/** the wall-clock time the run took */
+	public long elapsedNs;
+
+	void reset (int sectors) {
+		ticks = 0;
+		warmUpTicks = -1;
+		lapTicks = -1;
+
+		if (sectorTicks.length != sectors) {
+			sectorTicks = new int[sectors];
+		}
+
+		Arrays.fill(sectorTicks, -1);
+		lapStartSector = -1;
+		offPathTicks = 0;
+
+		position.set(0, 0);
+		orientation = 0;
+		velocity.set(0, 0);
+		angularVelocity = 0;
+		traveledDistance = 0;
+		collisions = 0;
+		inputsValidated = false;
+		inputMaxError = 0;
+		inputDivergenceTick = -1;
+		elapsedNs = 0;
+	}
+
+	public boolean isLapCompleted () {
+		return lapTicks != -1;
+	}
+
+	/** Returns the lap time, in seconds, or a negative value if the lap hasn't been completed */
+	public float getLapTime () {
+		return isLapCompleted() ? lapTicks * Config.Physics.Dt : -1;
+	}
+
+	/** Returns the time from the lap start the car entered the specified sector at, in seconds, or a negative value if it
+	 * didn't */
+	public float getSectorTime (int sector) {
+		return sectorTicks[sector] != -1 ? sectorTicks[sector] * Config.Physics.Dt : -1;
+	}
+
+	/** Returns whether the car entered every sector, in the track order, since the lap started */
+	public boolean isSectorOrderValid () {
+		if (lapStartSector == -1 || sectorTicks.length == 0) {
+			return false;
+		}
+
+		int previous = 0;
+		for (int i = 1; i <= sectorTicks.length; i++) {
+			int ticks = sectorTicks[(lapStartSector + i) % sectorTicks.length];
+			if (ticks == -1 || ticks < previous) {
+				return false;
+			}
+
+			previous = ticks;
+		}
+
+		return true;
+	}
+
+	/** Returns whether the recorded input has been validated and it produced the recorded forces */
+	public boolean isInputValid () {
+		return inputsValidated && inputDivergenceTick == -1;
+	}
+
+	@Override
+	public String toString () {
+		return "ticks=" + ticks + ", warm up=" + warmUpTicks + ", lap=" + getLapTime() + "s, sectors="
+			+ Arrays.toString(sectorTicks) + ", off path=" + offPathTicks + ", position=" + position + ", orientation="
+			+ orientation + ", velocity=" + velocity + ", collisions=" + collisions
+			+ (inputsValidated ? ", input max error=" + inputMaxError + ", divergence=" + inputDivergenceTick : "") + ", took "
+			+ (elapsedNs / 1000000) + "ms";
+	}
+}
@@ -7,16 +7,18 @@ import com.bitfire.uracer.Input;
 import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.configuration.UserProfile;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.GameInput;
 import com.bitfire.uracer.game.GameLogic;
 import com.bitfire.uracer.game.GameLogicObserver;
 import com.bitfire.uracer.game.Time;
 import com.bitfire.uracer.game.actors.CarPreset.Type;
 import com.bitfire.uracer.game.actors.GhostCar;
+import com.bitfire.uracer.game.actors.GhostSwarm;
 import com.bitfire.uracer.game.events.GameLogicEvent;
 import com.bitfire.uracer.game.logic.gametasks.GameTasksManager;
 import com.bitfire.uracer.game.logic.gametasks.Messager;
+import com.bitfire.uracer.game.logic.gametasks.PhysicsStep;
 import com.bitfire.uracer.game.logic.gametasks.hud.elements.player.DriftBar;
 import com.bitfire.uracer.game.logic.gametasks.messager.Message;
 import com.bitfire.uracer.game.logic.gametasks.messager.Message.Position;
@@ -27,6 +29,7 @@ import com.bitfire.uracer.game.logic.helpers.PlayerGameTasks;
 import com.bitfire.uracer.game.logic.helpers.TrackProgressData;
 import com.bitfire.uracer.game.logic.post.PostProcessing;
 import com.bitfire.uracer.game.logic.replaying.LapManager;
+import com.bitfire.uracer.game.logic.replaying.ReplayIOService;
 import com.bitfire.uracer.game.logic.replaying.ReplayManager;
 import com.bitfire.uracer.game.logic.types.helpers.GhostLapCompletionMonitor;
 import com.bitfire.uracer.game.logic.types.helpers.PlayerLapCompletionMonitor;
@@ -34,7 +37,6 @@ import com.bitfire.uracer.game.logic.types.helpers.WrongWayMonitor;
 import com.bitfire.uracer.game.player.PlayerCar;
 import com.bitfire.uracer.game.rendering.GameRenderer;
 import com.bitfire.uracer.game.rendering.GameWorldRenderer;
-import com.bitfire.uracer.game.tween.GameTweener;
 import com.bitfire.uracer.game.world.GameWorld;
 import com.bitfire.uracer.resources.Art;
 import com.bitfire.uracer.utils.BoxedFloat;
@@ -46,6 +48,7 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 	protected boolean quitPending = false, quitScheduled = false, paused = false;
 
 	// world
+	protected final GameContext context;
 	protected GameWorld gameWorld = null;
 	protected GameRenderer gameRenderer = null;
 	protected GameTrack gameTrack = null;
@@ -59,11 +62,13 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 	protected final UserProfile userProfile;
 	protected PlayerCar playerCar = null;
 	protected GhostCar[] ghostCars = new GhostCar[ReplayManager.MaxReplays];
+	protected GhostSwarm ghostSwarm = null;
 	private WrongWayMonitor wrongWayMonitor;
 	protected boolean isCurrentLapValid = true;
 
 	// lap / replays
 	protected LapManager lapManager = null;
+	protected ReplayIOService replayIO = null;
 	protected PlayerLapCompletionMonitor playerLapMonitor = null;
 	protected GhostLapCompletionMonitor[] ghostLapMonitor = new GhostLapCompletionMonitor[ReplayManager.MaxReplays];
 	protected TrackProgressData progressData = new TrackProgressData();
@@ -78,39 +83,49 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 	public CommonLogic (UserProfile userProfile, GameWorld gameWorld, GameRenderer gameRenderer) {
 		this.userProfile = userProfile;
 		this.gameWorld = gameWorld;
+		this.context = gameWorld.getContext();
 		this.gameRenderer = gameRenderer;
 		this.gameWorldRenderer = gameRenderer.getWorldRenderer();
 		this.inputSystem = URacer.Game.getInputSystem();
 		this.gameTrack = gameWorld.getGameTrack();
-		this.messager = new Messager();
+		this.messager = new Messager(context);
 		this.eventHandlers = new EventHandlers(this);
 
-		lapManager = new LapManager(gameWorld.getLevelId());
+		lapManager = new LapManager(context, gameWorld.getLevelId());
+		replayIO = new ReplayIOService(context);
 
 		// post-processing
 		postProcessing = gameRenderer.getPostProcessing();
 
 		// create both game and player tasks
 		gameTasksManager = new GameTasksManager(gameWorld, postProcessing.getPostProcessor());
-		playerTasks = new PlayerGameTasks(userProfile, gameTasksManager);
+		playerTasks = new PlayerGameTasks(context, userProfile, gameTasksManager);
 		playerTasks.createTasks(lapManager, progressData);
 
 		// create ghost cars and provides them via interface @Overrides
 		for (int i = 0; i < ghostCars.length; i++) {
 			ghostCars[i] = CarFactory.createGhost(i, gameWorld, Type.Default);
-			ghostLapMonitor[i] = new GhostLapCompletionMonitor(gameTrack);
+			ghostCars[i].setFrictionMap(Art.frictionMapDesert);
+			ghostLapMonitor[i] = new GhostLapCompletionMonitor(context, gameTrack);
 			ghostLapMonitor[i].reset();
 		}
 
 		gameWorld.setGhostCars(ghostCars);
 
+		// any other ranked replay is played by the swarm
+		if (Config.Replays.GhostSwarm) {
+			int capacity = Math.max(lapManager.getLeaderboard().getCapacity() - ReplayManager.MaxReplays, 0);
+			ghostSwarm = new GhostSwarm(context, gameTrack.getProgressField(), capacity);
+			gameWorld.setGhostSwarm(ghostSwarm);
+		}
+
 		// register events
 		eventHandlers.registerGhostEvents();
 		eventHandlers.registerRenderEvents();
 
 		// create player monitors and setup listeners
-		wrongWayMonitor = new WrongWayMonitor();
-		playerLapMonitor = new PlayerLapCompletionMonitor(gameTrack);
+		wrongWayMonitor = new WrongWayMonitor(context);
+		playerLapMonitor = new PlayerLapCompletionMonitor(context, gameTrack);
 
 		// set progress data
 		playerTasks.hudPlayer.trackProgress.setTrackProgressData(progressData);
@@ -139,11 +154,17 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 			}
 		}
 
+		if (ghostSwarm != null) {
+			gameWorld.setGhostSwarm(null);
+			ghostSwarm.dispose();
+		}
+
 		eventHandlers.unregisterGhostEvents();
 		eventHandlers.unregisterRenderEvents();
 
+		replayIO.dispose();
 		lapManager.dispose();
-		GameTweener.dispose();
+		context.tweener.dispose();
 	}
 
 	@Override
@@ -156,6 +177,11 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 		return userProfile;
 	}
 
+	@Override
+	public PhysicsStep getPhysicsStep () {
+		return gameTasksManager.physicsStep;
+	}
+
 	@Override
 	public GhostCar[] getGhosts () {
 		return ghostCars;
@@ -189,8 +215,8 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 		playerCar.reset();
 		Gdx.app.log("GameLogic", "Player configured");
 
-		GameEvents.logicEvent.player = playerCar;
-		GameEvents.logicEvent.trigger(this, GameLogicEvent.Type.PlayerAdded);
+		context.events.logicEvent.player = playerCar;
+		context.events.logicEvent.trigger(this, GameLogicEvent.Type.PlayerAdded);
 
 		Gdx.app.log("GameLogic", "Game tasks created and configured");
 
@@ -218,8 +244,8 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 			eventHandlers.unregisterPlayerMonitorEvents();
 			playerCar.dispose();
 			playerCar = null;
-			GameEvents.logicEvent.player = null;
-			GameEvents.logicEvent.trigger(this, GameLogicEvent.Type.PlayerRemoved);
+			context.events.logicEvent.player = null;
+			context.events.logicEvent.trigger(this, GameLogicEvent.Type.PlayerRemoved);
 		}
 
 		gameWorld.setPlayer(null);
@@ -254,7 +280,7 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 	@Override
 	public void restartGame () {
 		realRestart();
-		GameEvents.logicEvent.trigger(this, GameLogicEvent.Type.GameRestart);
+		context.events.logicEvent.trigger(this, GameLogicEvent.Type.GameRestart);
 	}
 
 	/** Restart and completely resets the game, removing any previous recording and playing replays FIXME not sure this is still
@@ -266,7 +292,7 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 		// also remove all replays so far
 		lapManager.removeAllReplays();
 
-		GameEvents.logicEvent.trigger(this, GameLogicEvent.Type.GameReset);
+		context.events.logicEvent.trigger(this, GameLogicEvent.Type.GameReset);
 	}
 
 	protected void setAccuDriftSeconds (float value) {
@@ -348,7 +374,7 @@ public abstract class CommonLogic implements GameLogic, GameLogicObserver {
 		if (quitPending && !quitScheduled) {
 			Gdx.app.log("CommonLogic", "Scheduling QUIT request");
 			quitScheduled = true;
-			GameEvents.logicEvent.trigger(this, GameLogicEvent.Type.GameQuit);
+			context.events.logicEvent.trigger(this, GameLogicEvent.Type.GameQuit);
 			doQuit();
 		}
 	}
@@ -16,9 +16,11 @@ import com.bitfire.uracer.game.player.PlayerCar;
 
 public final class EventHandlers {
 	private CommonLogic logic;
+	private final GameEvents events;
 
 	public EventHandlers (CommonLogic logic) {
 		this.logic = logic;
+		this.events = logic.context.events;
 	}
 
 	// PlayerLapCompletionMonitorEvent events order redux
@@ -104,7 +106,7 @@ public final class EventHandlers {
 	private CarEvent.Listener playerCarListener = new CarEvent.Listener() {
 		@Override
 		public void handle (Object source, CarEvent.Type type, CarEvent.Order order) {
-			CarEvent.Data eventData = GameEvents.playerCar.data;
+			CarEvent.Data eventData = events.playerCar.data;
 
 			switch (type) {
 			case onCollision:
@@ -142,65 +144,65 @@ public final class EventHandlers {
 
 	//@off
 	public void registerPlayerEvents () {
-		GameEvents.driftState.addListener(driftStateListener, PlayerDriftStateEvent.Type.onBeginDrift);
-		GameEvents.driftState.addListener(driftStateListener, PlayerDriftStateEvent.Type.onEndDrift);
+		events.driftState.addListener(driftStateListener, PlayerDriftStateEvent.Type.onBeginDrift);
+		events.driftState.addListener(driftStateListener, PlayerDriftStateEvent.Type.onEndDrift);
 
-		GameEvents.playerCar.addListener(playerCarListener, CarEvent.Type.onCollision);
-		GameEvents.playerCar.addListener(playerCarListener, CarEvent.Type.onPhysicsForcesReady);
-		GameEvents.playerCar.addListener(playerCarListener, CarEvent.Type.onOutOfTrack);
-		GameEvents.playerCar.addListener(playerCarListener, CarEvent.Type.onBackInTrack);
+		events.playerCar.addListener(playerCarListener, CarEvent.Type.onCollision);
+		events.playerCar.addListener(playerCarListener, CarEvent.Type.onPhysicsForcesReady);
+		events.playerCar.addListener(playerCarListener, CarEvent.Type.onOutOfTrack);
+		events.playerCar.addListener(playerCarListener, CarEvent.Type.onBackInTrack);
 	}
 
 	public void unregisterPlayerEvents () {
-		GameEvents.driftState.removeListener(driftStateListener, PlayerDriftStateEvent.Type.onBeginDrift);
-		GameEvents.driftState.removeListener(driftStateListener, PlayerDriftStateEvent.Type.onEndDrift);
+		events.driftState.removeListener(driftStateListener, PlayerDriftStateEvent.Type.onBeginDrift);
+		events.driftState.removeListener(driftStateListener, PlayerDriftStateEvent.Type.onEndDrift);
 
-		GameEvents.playerCar.removeListener(playerCarListener, CarEvent.Type.onCollision);
-		GameEvents.playerCar.removeListener(playerCarListener, CarEvent.Type.onPhysicsForcesReady);
-		GameEvents.playerCar.removeListener(playerCarListener, CarEvent.Type.onOutOfTrack);
-		GameEvents.playerCar.removeListener(playerCarListener, CarEvent.Type.onBackInTrack);
+		events.playerCar.removeListener(playerCarListener, CarEvent.Type.onCollision);
+		events.playerCar.removeListener(playerCarListener, CarEvent.Type.onPhysicsForcesReady);
+		events.playerCar.removeListener(playerCarListener, CarEvent.Type.onOutOfTrack);
+		events.playerCar.removeListener(playerCarListener, CarEvent.Type.onBackInTrack);
 	}
 
 	public void registerPlayerMonitorEvents () {
-		GameEvents.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
-		GameEvents.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
-		GameEvents.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
-		GameEvents.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.addListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
 
-		GameEvents.wrongWay.addListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayBegins, WrongWayMonitorEvent.Order.MINUS_4);
-		GameEvents.wrongWay.addListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayEnds, WrongWayMonitorEvent.Order.MINUS_4);
+		events.wrongWay.addListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayBegins, WrongWayMonitorEvent.Order.MINUS_4);
+		events.wrongWay.addListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayEnds, WrongWayMonitorEvent.Order.MINUS_4);
 	}
 
 	public void unregisterPlayerMonitorEvents () {
-		GameEvents.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
-		GameEvents.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
-		GameEvents.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
-		GameEvents.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onWarmUpCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapStarted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
+		events.lapCompletion.removeListener(playerLapCompletionMonitorListener, PlayerLapCompletionMonitorEvent.Type.onLapCompleted, PlayerLapCompletionMonitorEvent.Order.MINUS_4);
 
-		GameEvents.wrongWay.removeListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayBegins, WrongWayMonitorEvent.Order.MINUS_4);
-		GameEvents.wrongWay.removeListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayEnds, WrongWayMonitorEvent.Order.MINUS_4);
+		events.wrongWay.removeListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayBegins, WrongWayMonitorEvent.Order.MINUS_4);
+		events.wrongWay.removeListener(wrongWayMonitorListener, WrongWayMonitorEvent.Type.onWrongWayEnds, WrongWayMonitorEvent.Order.MINUS_4);
 	}
 
 	public void registerGhostEvents () {
-		GameEvents.ghostCars.addListener(ghostListener, GhostCarEvent.Type.onGhostFadingOut);
-		GameEvents.ghostCars.addListener(ghostListener, GhostCarEvent.Type.ReplayStarted);
-		GameEvents.ghostCars.addListener(ghostListener, GhostCarEvent.Type.ReplayEnded);
-		GameEvents.ghostLapCompletion.addListener(ghostLapCompletionMonitorListener, GhostLapCompletionMonitorEvent.Type.onLapCompleted, GhostLapCompletionMonitorEvent.Order.MINUS_4);
+		events.ghostCars.addListener(ghostListener, GhostCarEvent.Type.onGhostFadingOut);
+		events.ghostCars.addListener(ghostListener, GhostCarEvent.Type.ReplayStarted);
+		events.ghostCars.addListener(ghostListener, GhostCarEvent.Type.ReplayEnded);
+		events.ghostLapCompletion.addListener(ghostLapCompletionMonitorListener, GhostLapCompletionMonitorEvent.Type.onLapCompleted, GhostLapCompletionMonitorEvent.Order.MINUS_4);
 	}
 
 	public void unregisterGhostEvents () {
-		GameEvents.ghostCars.removeListener(ghostListener, GhostCarEvent.Type.onGhostFadingOut);
-		GameEvents.ghostCars.removeListener(ghostListener, GhostCarEvent.Type.ReplayStarted);
-		GameEvents.ghostCars.removeListener(ghostListener, GhostCarEvent.Type.ReplayEnded);
-		GameEvents.ghostLapCompletion.removeListener(ghostLapCompletionMonitorListener, GhostLapCompletionMonitorEvent.Type.onLapCompleted, GhostLapCompletionMonitorEvent.Order.MINUS_4);
+		events.ghostCars.removeListener(ghostListener, GhostCarEvent.Type.onGhostFadingOut);
+		events.ghostCars.removeListener(ghostListener, GhostCarEvent.Type.ReplayStarted);
+		events.ghostCars.removeListener(ghostListener, GhostCarEvent.Type.ReplayEnded);
+		events.ghostLapCompletion.removeListener(ghostLapCompletionMonitorListener, GhostLapCompletionMonitorEvent.Type.onLapCompleted, GhostLapCompletionMonitorEvent.Order.MINUS_4);
 	}
 
 	public void registerRenderEvents () {
-		GameEvents.gameRenderer.addListener(rendererListener, GameRendererEvent.Type.BeforeRender, GameRendererEvent.Order.MINUS_4);
+		events.gameRenderer.addListener(rendererListener, GameRendererEvent.Type.BeforeRender, GameRendererEvent.Order.MINUS_4);
 	}
 
 	public void unregisterRenderEvents () {
-		GameEvents.gameRenderer.removeListener(rendererListener, GameRendererEvent.Type.BeforeRender, GameRendererEvent.Order.MINUS_4);
+		events.gameRenderer.removeListener(rendererListener, GameRendererEvent.Type.BeforeRender, GameRendererEvent.Order.MINUS_4);
 	}
 	//@on
 }
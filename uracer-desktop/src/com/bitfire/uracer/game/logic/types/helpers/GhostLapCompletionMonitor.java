@@ -1,7 +1,7 @@
 
 package com.bitfire.uracer.game.logic.types.helpers;
 
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.actors.Car;
 import com.bitfire.uracer.game.events.GhostLapCompletionMonitorEvent;
 import com.bitfire.uracer.game.logic.helpers.GameTrack;
@@ -9,8 +9,8 @@ import com.bitfire.uracer.game.logic.helpers.GameTrack.TrackState;
 
 public class GhostLapCompletionMonitor extends PlayerLapCompletionMonitor {
 
-	public GhostLapCompletionMonitor (GameTrack gameTrack) {
-		super(gameTrack);
+	public GhostLapCompletionMonitor (GameContext context, GameTrack gameTrack) {
+		super(context, gameTrack);
 	}
 
 	@Override
@@ -32,7 +32,7 @@ public class GhostLapCompletionMonitor extends PlayerLapCompletionMonitor {
 			completion = gameTrack.getTrackCompletion(car);
 			if (hasFinished(prev, completion)) {
 				state.ghostArrived = true;
-				GameEvents.ghostLapCompletion.trigger(car, GhostLapCompletionMonitorEvent.Type.onLapCompleted);
+				context.events.ghostLapCompletion.trigger(car, GhostLapCompletionMonitorEvent.Type.onLapCompleted);
 			}
 		}
 	}
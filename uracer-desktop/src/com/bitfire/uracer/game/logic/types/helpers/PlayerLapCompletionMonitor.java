@@ -2,18 +2,20 @@
 package com.bitfire.uracer.game.logic.types.helpers;
 
 import com.badlogic.gdx.math.MathUtils;
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.actors.Car;
 import com.bitfire.uracer.game.events.PlayerLapCompletionMonitorEvent;
 import com.bitfire.uracer.game.logic.helpers.GameTrack;
 import com.bitfire.uracer.game.logic.helpers.GameTrack.TrackState;
 
 public class PlayerLapCompletionMonitor {
+	protected final GameContext context;
 	protected GameTrack gameTrack;
 	protected float prev, completion, wuPrev, wuCompletion;
 	private boolean warmUpStartedCalled, isWarmUp;
 
-	public PlayerLapCompletionMonitor (GameTrack gameTrack) {
+	public PlayerLapCompletionMonitor (GameContext context, GameTrack gameTrack) {
+		this.context = context;
 		this.gameTrack = gameTrack;
 		reset(true);
 	}
@@ -45,7 +47,7 @@ public class PlayerLapCompletionMonitor {
 			if (isWarmUp) {
 				if (!warmUpStartedCalled) {
 					warmUpStartedCalled = true;
-					GameEvents.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted);
+					context.events.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onWarmUpStarted);
 				}
 
 				// compute warmup quantity (0 at WU start pos, 1 at WU end pos)
@@ -59,8 +61,8 @@ public class PlayerLapCompletionMonitor {
 				if (hasFinished(wuPrev, wuCompletion)) {
 					wuCompletion = 1;
 					isWarmUp = false;
-					GameEvents.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onWarmUpCompleted);
-					GameEvents.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onLapStarted);
+					context.events.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onWarmUpCompleted);
+					context.events.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onLapStarted);
 				}
 
 			} else {
@@ -68,8 +70,8 @@ public class PlayerLapCompletionMonitor {
 				completion = gameTrack.getTrackCompletion(car);
 				// Gdx.app.log("LapCompletionMonitor", "c=" + completion + ", p=" + prev);
 				if (hasFinished(prev, completion)) {
-					GameEvents.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onLapCompleted);
-					GameEvents.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onLapStarted);
+					context.events.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onLapCompleted);
+					context.events.lapCompletion.trigger(car, PlayerLapCompletionMonitorEvent.Type.onLapStarted);
 				}
 			}
 		}
@@ -1,17 +1,20 @@
 
 package com.bitfire.uracer.game.logic.types.helpers;
 
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.GameplaySettings;
 import com.bitfire.uracer.game.Time;
 import com.bitfire.uracer.game.events.WrongWayMonitorEvent;
 
 public class WrongWayMonitor {
 
-	private final Time wrongWayTimer = new Time();
+	private final GameContext context;
+	private final Time wrongWayTimer;
 	private boolean isWrongWay = false;
 
-	public WrongWayMonitor () {
+	public WrongWayMonitor (GameContext context) {
+		this.context = context;
+		this.wrongWayTimer = new Time(context);
 		reset();
 	}
 
@@ -36,7 +39,7 @@ public class WrongWayMonitor {
 				} else if (wrongWayTimer.elapsed().tickSeconds > GameplaySettings.MaxSecondsWrongWayDetector) {
 					wrongWayTimer.reset();
 					isWrongWay = true;
-					GameEvents.wrongWay.trigger(null, WrongWayMonitorEvent.Type.onWrongWayBegins);
+					context.events.wrongWay.trigger(null, WrongWayMonitorEvent.Type.onWrongWayBegins);
 					// Gdx.app.log("WrongWayMonitor", "--> wrong way detected, invalidating lap");
 				} else {
 					// Gdx.app.log("WrongWayMonitor", "--> " + wrongWayTimer.elapsed().tickSeconds);
@@ -1,7 +1,6 @@
 
 package com.bitfire.uracer.game.player;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.bitfire.uracer.game.actors.CarDescriptor;
 import com.bitfire.uracer.utils.AMath;
@@ -111,8 +110,8 @@ public final class CarSimulator {
 	}
 
 	public void step (float dt, float bodyAngle) {
-		float sn = MathUtils.sin(AMath.normalRelativeAngle(-bodyAngle));
-		float cs = MathUtils.cos(AMath.normalRelativeAngle(-bodyAngle));
+		float sn = AMath.sin(AMath.normalRelativeAngle(-bodyAngle));
+		float cs = AMath.cos(AMath.normalRelativeAngle(-bodyAngle));
 
 		//
 		// SAE convention: x is to the front of the car, y is to the right, z is
@@ -151,10 +150,10 @@ public final class CarSimulator {
 
 		} else {
 			// compute rotational angle
-			rot_angle = MathUtils.atan2(yawspeed, velocity.x);
+			rot_angle = AMath.atan2(yawspeed, velocity.x);
 
 			// compute the side slip angle of the car (a.k.a. beta)
-			sideslip = MathUtils.atan2(velocity.y, velocity.x);
+			sideslip = AMath.atan2(velocity.y, velocity.x);
 
 			slipanglefront = sideslip + rot_angle - carDesc.steerangle;
 			slipanglerear = sideslip - rot_angle;
@@ -204,8 +203,8 @@ public final class CarSimulator {
 		resistance.y = -(carDesc.carModel.resistance * velocity.y + carDesc.carModel.drag * velocity.y * Math.abs(velocity.y));
 
 		// sum forces
-		force.x = ftraction.x + MathUtils.sin(carDesc.steerangle) * flatf.x + flatr.x + resistance.x;
-		force.y = ftraction.y + MathUtils.cos(carDesc.steerangle) * flatf.y + flatr.y + resistance.y;
+		force.x = ftraction.x + AMath.sin(carDesc.steerangle) * flatf.x + flatr.x + resistance.x;
+		force.y = ftraction.y + AMath.cos(carDesc.steerangle) * flatf.y + flatr.y + resistance.y;
 
 		//
 		// Acceleration
@@ -0,0 +1,348 @@
+
+package com.bitfire.uracer.game.player;
+
+import com.bitfire.uracer.game.actors.CarDescriptor;
+import com.bitfire.uracer.game.actors.CarForces;
+import com.bitfire.uracer.game.actors.CarModel;
+import com.bitfire.uracer.utils.AMath;
+
+/** Simulates many cars at once, the same way a CarSimulator does for a single one, for tuning sweeps and other headless runs
+ * needing to advance thousands of cars per tick.
+ *
+ * The state of each car, along with the constants of its model, is held in plain arrays indexed by car and every car is
+ * advanced by the same loop, without any Vector2 nor any reference to a CarDescriptor or a CarModel. The math is the one of
+ * CarSimulator, carried out in the very same order, so that the results are the same as the scalar version to within
+ * Tolerance: as long as the two are kept in sync they are actually identical, see the batch check of SimulationChecks.
+ *
+ * As with CarSimulator, the car bodies are integrated by someone else: the body angles are to be supplied at each step.
+ *
+ * @author manuel */
+public final class CarSimulatorBatch {
+	/** the largest difference allowed between the velocities computed for a car by a batch and by a CarSimulator */
+	public static final float Tolerance = 1e-5f;
+
+	private static final float DampingThrottle = AMath.damping(0.98f);
+
+	private final int capacity;
+	private int count = 0;
+
+	// per-car model constants
+	private final float[] wheelbase, b, c, weight, invmass, invinertia, wheellength;
+	private final float[] drag, resistance, stiffnessFront, stiffnessRear, maxGrip, maxSpeed, maxForce;
+
+	// per-car state
+	private final float[] velocityX, velocityY, angularVelocity;
+	private final float[] steerAngle, throttle, brake;
+
+	// per-car input
+	private final float[] inputThrottle, inputSteerAngle, inputBrake;
+	private final boolean[] inputUpdated;
+
+	// per-car exports
+	private final float[] lateralForceFront, lateralForceRear, rpmWheel;
+
+	public CarSimulatorBatch (int capacity) {
+		this.capacity = capacity;
+
+		wheelbase = new float[capacity];
+		b = new float[capacity];
+		c = new float[capacity];
+		weight = new float[capacity];
+		invmass = new float[capacity];
+		invinertia = new float[capacity];
+		wheellength = new float[capacity];
+		drag = new float[capacity];
+		resistance = new float[capacity];
+		stiffnessFront = new float[capacity];
+		stiffnessRear = new float[capacity];
+		maxGrip = new float[capacity];
+		maxSpeed = new float[capacity];
+		maxForce = new float[capacity];
+
+		velocityX = new float[capacity];
+		velocityY = new float[capacity];
+		angularVelocity = new float[capacity];
+		steerAngle = new float[capacity];
+		throttle = new float[capacity];
+		brake = new float[capacity];
+
+		inputThrottle = new float[capacity];
+		inputSteerAngle = new float[capacity];
+		inputBrake = new float[capacity];
+		inputUpdated = new boolean[capacity];
+
+		lateralForceFront = new float[capacity];
+		lateralForceRear = new float[capacity];
+		rpmWheel = new float[capacity];
+	}
+
+	/** Adds a car at rest with the specified model, returning its index */
+	public int add (CarModel model) {
+		if (count == capacity) {
+			throw new IllegalStateException("The batch is full (" + capacity + " cars)");
+		}
+
+		int car = count++;
+		setModel(car, model);
+		reset(car);
+		return car;
+	}
+
+	/** Removes all the cars */
+	public void clear () {
+		count = 0;
+	}
+
+	public int getCount () {
+		return count;
+	}
+
+	public int getCapacity () {
+		return capacity;
+	}
+
+	/** Copies the specified model constants into the specified car */
+	public void setModel (int car, CarModel model) {
+		wheelbase[car] = model.wheelbase;
+		b[car] = model.b;
+		c[car] = model.c;
+		weight[car] = model.weight;
+		invmass[car] = model.invmass;
+		invinertia[car] = model.invinertia;
+		wheellength[car] = model.wheellength;
+		drag[car] = model.drag;
+		resistance[car] = model.resistance;
+		stiffnessFront[car] = model.stiffness_front;
+		stiffnessRear[car] = model.stiffness_rear;
+		maxGrip[car] = model.max_grip;
+		maxSpeed[car] = model.max_speed;
+		maxForce[car] = model.max_force;
+	}
+
+	/** Puts the specified car at rest, same as CarSimulator.resetPhysics */
+	public void reset (int car) {
+		velocityX[car] = 0;
+		velocityY[car] = 0;
+		angularVelocity[car] = 0;
+		steerAngle[car] = 0;
+		throttle[car] = 0;
+		brake[car] = 0;
+		inputThrottle[car] = 0;
+		inputSteerAngle[car] = 0;
+		inputBrake[car] = 0;
+		inputUpdated[car] = false;
+		lateralForceFront[car] = 0;
+		lateralForceRear[car] = 0;
+		rpmWheel[car] = 0;
+	}
+
+	/** Sets the state of the specified car from the specified descriptor, the model excluded */
+	public void set (int car, CarDescriptor desc) {
+		velocityX[car] = desc.velocity_wc.x;
+		velocityY[car] = desc.velocity_wc.y;
+		angularVelocity[car] = desc.angularvelocity;
+		steerAngle[car] = desc.steerangle;
+		throttle[car] = desc.throttle;
+		brake[car] = desc.brake;
+	}
+
+	/** Fills the specified descriptor with the state of the specified car, the model and the position excluded */
+	public void get (int car, CarDescriptor desc) {
+		desc.velocity_wc.set(velocityX[car], velocityY[car]);
+		desc.angularvelocity = angularVelocity[car];
+		desc.steerangle = steerAngle[car];
+		desc.throttle = throttle[car];
+		desc.brake = brake[car];
+	}
+
+	/** Fills the specified forces with the ones computed for the specified car at the last step, as PlayerCar does */
+	public void getForces (int car, CarForces forces) {
+		forces.velocity_x = velocityX[car];
+		forces.velocity_y = velocityY[car];
+		forces.angularVelocity = angularVelocity[car];
+	}
+
+	/** Sets the input to apply to the specified car at the next applyInputs() */
+	public void setInput (int car, CarInput input) {
+		inputThrottle[car] = input.throttle;
+		inputSteerAngle[car] = input.steerAngle;
+		inputBrake[car] = input.brake;
+		inputUpdated[car] = input.updated;
+	}
+
+	public float getVelocityX (int car) {
+		return velocityX[car];
+	}
+
+	public float getVelocityY (int car) {
+		return velocityY[car];
+	}
+
+	public float getAngularVelocity (int car) {
+		return angularVelocity[car];
+	}
+
+	public float getSteerAngle (int car) {
+		return steerAngle[car];
+	}
+
+	public float getLateralForceFront (int car) {
+		return lateralForceFront[car];
+	}
+
+	public float getLateralForceRear (int car) {
+		return lateralForceRear[car];
+	}
+
+	public float getRpmWheel (int car) {
+		return rpmWheel[car];
+	}
+
+	/** Applies the last input set to every car, same as CarSimulator.applyInput */
+	public void applyInputs () {
+		for (int i = 0; i < count; i++) {
+			float maxF = maxForce[i];
+			float inThrottle = inputThrottle[i];
+			float inSteer = inputSteerAngle[i];
+			boolean hasDir = false, hasSteer = false;
+
+			float thr = throttle[i];
+			float brk = inputBrake[i];
+			float steer = steerAngle[i];
+
+			if (inputUpdated[i]) {
+				// throttle
+				if (AMath.fixup(inThrottle) > 0) {
+					thr = inThrottle < maxF ? inThrottle : maxF;
+					hasDir = true;
+				} else if (AMath.fixup(inThrottle) < 0) {
+					thr = inThrottle > -maxF ? inThrottle : -maxF;
+					hasDir = true;
+				}
+
+				// steering
+				if (AMath.fixup(inSteer) < 0) {
+					steer = inSteer < -AMath.PI_4 ? -AMath.PI_4 : inSteer;
+					hasSteer = true;
+				} else if (AMath.fixup(inSteer) > 0) {
+					steer = inSteer > AMath.PI_4 ? AMath.PI_4 : inSteer;
+					hasSteer = true;
+				}
+			}
+
+			if (!hasDir) {
+				if (Math.abs(velocityX[i]) > 0.5f || Math.abs(velocityY[i]) > 0.5f) {
+					if (!AMath.isZero(thr)) {
+						thr *= DampingThrottle;
+					}
+
+					if (!AMath.isZero(brk)) {
+						brk *= DampingThrottle;
+					}
+				} else {
+					velocityX[i] = 0;
+					velocityY[i] = 0;
+					angularVelocity[i] = 0;
+					brk = 0;
+					thr = 0;
+				}
+			}
+
+			if (!hasSteer) {
+				steer = 0;
+			}
+
+			throttle[i] = AMath.clamp(thr, -maxF, maxF);
+			brake[i] = AMath.clamp(brk, -maxF * 2, maxF * 2);
+			steerAngle[i] = steer;
+		}
+	}
+
+	/** Advances every car by the specified timestep, same as CarSimulator.step, given the current angle of their bodies */
+	public void step (float dt, float[] bodyAngles) {
+		for (int i = 0; i < count; i++) {
+			float angle = AMath.normalRelativeAngle(-bodyAngles[i]);
+			float sn = AMath.sin(angle);
+			float cs = AMath.cos(angle);
+			float vx = velocityX[i];
+			float vy = velocityY[i];
+			float av = angularVelocity[i];
+			float steer = steerAngle[i];
+
+			// velocity in the car reference frame
+			float lon = cs * vy + sn * vx;
+			float lat = -sn * vy + cs * vx;
+			if ((lon * lon + lat * lat) < AMath.CMP_EPSILON) {
+				lon = 0;
+				lat = 0;
+			}
+
+			// slip angles, fixing the singularity
+			float yawspeed = wheelbase[i] * 0.5f * av;
+			float slipFront = 0, slipRear = 0;
+			if (!AMath.isZero(lon)) {
+				float rot = AMath.atan2(yawspeed, lon);
+				float sideslip = AMath.atan2(lat, lon);
+				slipFront = sideslip + rot - steer;
+				slipRear = sideslip - rot;
+			}
+
+			// lateral forces, capped to the friction circle
+			float grip = maxGrip[i];
+			float flatf = Math.max(-grip, Math.min(grip, stiffnessFront[i] * slipFront));
+			float flatr = Math.max(-grip, Math.min(grip, stiffnessRear[i] * slipRear));
+			lateralForceFront[i] = flatf;
+			lateralForceRear[i] = flatr;
+			flatf *= weight[i];
+			flatr *= weight[i];
+
+			float traction = 100f * (throttle[i] - brake[i] * AMath.sign(lon));
+			float torque = AMath.fixup(b[i] * flatf - c[i] * flatr);
+
+			// drag and rolling resistance
+			float resLon = -(resistance[i] * lon + drag[i] * lon * Math.abs(lon));
+			float resLat = -(resistance[i] * lat + drag[i] * lat * Math.abs(lat));
+
+			// the lateral forces have no longitudinal component, the zero terms are kept so that even the signed zeros are the
+			// same as CarSimulator
+			float forceLon = traction + 0f + resLon;
+			float forceLat = 0f + AMath.cos(steer) * flatf + flatr + resLat;
+
+			// acceleration, in the car and then in the world reference frame
+			float accLon = forceLon * invmass[i];
+			float accLat = forceLat * invmass[i];
+			if ((accLon * accLon + accLat * accLat) < AMath.CMP_EPSILON) {
+				accLon = 0;
+				accLat = 0;
+			}
+
+			float accX = cs * accLat + sn * accLon;
+			float accY = -sn * accLat + cs * accLon;
+			if ((accX * accX + accY * accY) < AMath.CMP_EPSILON) {
+				accX = 0;
+				accY = 0;
+			}
+
+			// integrate, not exceeding the maximum velocity
+			vx += dt * accX;
+			vy += dt * accY;
+			if ((vx * vx + vy * vy) < AMath.CMP_EPSILON) {
+				vx = 0;
+				vy = 0;
+			}
+
+			float len = (float)Math.sqrt(vx * vx + vy * vy);
+			if (len > maxSpeed[i]) {
+				vx = vx / len * maxSpeed[i];
+				vy = vy / len * maxSpeed[i];
+			}
+
+			velocityX[i] = vx;
+			velocityY[i] = vy;
+			angularVelocity[i] = AMath.fixup(av + dt * (torque * invinertia[i]));
+
+			float degreeOfRotationPerFrame = (((float)Math.sqrt(lon * lon + lat * lat) * dt) / wheellength[i]) * 360f;
+			rpmWheel[i] = ((degreeOfRotationPerFrame * 30f) / 360f) * 60;
+		}
+	}
+}
@@ -1,13 +1,14 @@
 
 package com.bitfire.uracer.game.player;
 
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.Time;
 import com.bitfire.uracer.game.actors.Car;
 import com.bitfire.uracer.game.events.PlayerDriftStateEvent.Type;
 import com.bitfire.uracer.utils.AMath;
 
 public final class DriftState {
+	private final GameContext context;
 	private Car car;
 	public boolean isDrifting = false;
 	public float lateralForcesFront = 0, lateralForcesRear = 0;
@@ -17,10 +18,11 @@ public final class DriftState {
 	private float lastRear = 0, lastFront = 0, invMaxGrip = 0;
 	private Time time, collisionTime;
 
-	public DriftState (Car car) {
+	public DriftState (GameContext context, Car car) {
+		this.context = context;
 		this.car = car;
-		this.time = new Time();
-		this.collisionTime = new Time();
+		this.time = new Time(context);
+		this.collisionTime = new Time(context);
 		this.invMaxGrip = car.getCarModel().inv_max_grip;
 		reset();
 	}
@@ -28,7 +30,7 @@ public final class DriftState {
 	public void dispose () {
 		time.dispose();
 		collisionTime.dispose();
-		GameEvents.driftState.removeAllListeners();
+		context.events.driftState.removeAllListeners();
 	}
 
 	public void reset () {
@@ -54,7 +56,7 @@ public final class DriftState {
 		hasCollided = true;
 		collisionTime.start();
 		time.stop();
-		GameEvents.driftState.trigger(car, Type.onEndDrift);
+		context.events.driftState.trigger(car, Type.onEndDrift);
 	}
 
 	public void update (float latForceFrontY, float latForceRearY, float velocityLength) {
@@ -86,7 +88,7 @@ public final class DriftState {
 					hasCollided = false;
 					// driftStartTime = System.currentTimeMillis();
 					time.start();
-					GameEvents.driftState.trigger(car, Type.onBeginDrift);
+					context.events.driftState.trigger(car, Type.onBeginDrift);
 					// Gdx.app.log( "DriftState", car.getClass().getSimpleName() + " onBeginDrift()" );
 				}
 			} else {
@@ -100,7 +102,7 @@ public final class DriftState {
 					// Gdx.app.log( "PlayerDriftState", "playerDriftStateEvent::ds=" + NumberString.format( elapsed ) +
 					// " (" + elapsed + ")" );
 
-					GameEvents.driftState.trigger(car, Type.onEndDrift);
+					context.events.driftState.trigger(car, Type.onEndDrift);
 					// Gdx.app.log( "DriftState", car.getClass().getSimpleName() + " onEndDrift(), " + time.elapsed(
 					// Time.Reference.TickSeconds ) + "s" );
 				}
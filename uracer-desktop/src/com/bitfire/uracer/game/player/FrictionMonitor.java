@@ -0,0 +1,131 @@
+
+package com.bitfire.uracer.game.player;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Vector2;
+import com.bitfire.uracer.game.GameplaySettings;
+import com.bitfire.uracer.game.actors.Car;
+import com.bitfire.uracer.game.actors.CarDescriptor;
+import com.bitfire.uracer.game.world.GameWorld;
+import com.bitfire.uracer.game.world.WorldDefs.Layer;
+import com.bitfire.uracer.utils.Convert;
+
+/** Tells whether a car is running out of the track by sampling the friction map at the car position over the last
+ * {@link #WindowSize} substeps, slowing the car down while it is.
+ *
+ * The samples can be saved and restored, so that a car re-simulated from its recorded input starts exactly as the recorded one.
+ *
+ * @author manuel */
+public final class FrictionMonitor {
+	public static final int WindowSize = 10;
+
+	private final GameWorld gameWorld;
+	private Pixmap frictionMap = null;
+
+	// the last samples, true if out of the track, oldest first starting from next
+	private final boolean[] samples = new boolean[WindowSize];
+	private int next = 0, count = 0;
+
+	private final Vector2 offset = new Vector2();
+
+	public FrictionMonitor (GameWorld gameWorld) {
+		this.gameWorld = gameWorld;
+	}
+
+	public void setFrictionMap (Pixmap map) {
+		frictionMap = map;
+	}
+
+	public void reset () {
+		next = 0;
+		count = 0;
+	}
+
+	/** Samples the friction map at the current position of the specified car */
+	public void update (Car car, Vector2 tilePosition) {
+		if (frictionMap != null && gameWorld.isValidTilePosition(tilePosition)) {
+			// compute realsize-based pixel offset car-tile (top-left origin)
+			float scaledTileSize = gameWorld.getTileSizePx();
+			float tsx = tilePosition.x * scaledTileSize;
+			float tsy = tilePosition.y * scaledTileSize;
+			Convert.mt2px(offset, car.getBody().getPosition());
+			offset.y = gameWorld.worldSizePx.y - offset.y;
+			offset.x = offset.x - tsx;
+			offset.y = offset.y - tsy;
+			offset.scl(gameWorld.getTileSizePxInv()).scl(gameWorld.tileWidth);
+
+			TiledMapTileLayer layerTrack = gameWorld.getLayer(Layer.Track);
+			int id = layerTrack.getCell((int)tilePosition.x, (int)tilePosition.y).getTile().getId() - 1;
+
+			// bit twiddling, faster version
+			int xOnMap = (id & 3) * (int)gameWorld.tileWidth + (int)offset.x;
+			int yOnMap = (id >> 2) * (int)gameWorld.tileWidth + (int)offset.y;
+
+			int pixel = frictionMap.getPixel(xOnMap, yOnMap);
+			add(pixel != -256);
+		} else {
+			Gdx.app.log("FrictionMonitor", "Car out of map!");
+		}
+	}
+
+	/** Returns whether the car has been mostly out of the track during the last samples */
+	public boolean isOutOfTrack () {
+		if (count < WindowSize) {
+			return false;
+		}
+
+		int outside = 0;
+		for (int i = 0; i < WindowSize; i++) {
+			if (samples[i]) {
+				outside++;
+			}
+		}
+
+		// the same as a WindowedMean of 0 (in track) and -1 (out of track) values
+		return -(float)outside / (float)WindowSize < -0.3;
+	}
+
+	/** Slows the car down while it is out of the track */
+	public void applyDamping (CarDescriptor carDesc) {
+		// FIXME, move these hard-coded values out of here
+		if (isOutOfTrack() && carDesc.velocity_wc.len2() > 10) {
+			carDesc.velocity_wc.scl(GameplaySettings.DampingFriction);
+		}
+	}
+
+	/** Returns the samples taken so far as a bit mask, oldest first from bit 0, see {@link #getSamplesCount()} */
+	public int getSamples () {
+		int mask = 0;
+		int first = count < WindowSize ? 0 : next;
+		for (int i = 0; i < count; i++) {
+			if (samples[(first + i) % WindowSize]) {
+				mask |= 1 << i;
+			}
+		}
+
+		return mask;
+	}
+
+	/** Returns the number of samples taken so far, up to the window size */
+	public int getSamplesCount () {
+		return count;
+	}
+
+	/** Restores the samples previously returned by {@link #getSamples()} */
+	public void setSamples (int mask, int samplesCount) {
+		reset();
+		for (int i = 0; i < Math.min(samplesCount, WindowSize); i++) {
+			add((mask & (1 << i)) != 0);
+		}
+	}
+
+	private void add (boolean outOfTrack) {
+		samples[next] = outOfTrack;
+		next = (next + 1) % WindowSize;
+		if (count < WindowSize) {
+			count++;
+		}
+	}
+}
@@ -1,22 +1,17 @@
 
 package com.bitfire.uracer.game.player;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.math.WindowedMean;
 import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.utils.IntMap;
 import com.bitfire.uracer.Input;
 import com.bitfire.uracer.Input.MouseButton;
 import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.Config;
-import com.bitfire.uracer.game.GameEvents;
 import com.bitfire.uracer.game.GameLogic;
-import com.bitfire.uracer.game.GameplaySettings;
 import com.bitfire.uracer.game.actors.Car;
 import com.bitfire.uracer.game.actors.CarDescriptor;
 import com.bitfire.uracer.game.actors.CarForces;
@@ -26,9 +21,7 @@ import com.bitfire.uracer.game.actors.CarType;
 import com.bitfire.uracer.game.events.CarEvent;
 import com.bitfire.uracer.game.rendering.GameRenderer;
 import com.bitfire.uracer.game.world.GameWorld;
-import com.bitfire.uracer.game.world.WorldDefs.Layer;
 import com.bitfire.uracer.utils.AMath;
-import com.bitfire.uracer.utils.Convert;
 import com.bitfire.uracer.utils.Timer;
 import com.bitfire.uracer.utils.VMath;
 
@@ -43,7 +36,7 @@ public class PlayerCar extends Car {
 	private Vector2 touchPos = new Vector2();
 	private Vector2 carPos = new Vector2();
 	private final float invWidth, invHeight;
-	private WindowedMean frictionMean = new WindowedMean(10);
+	private FrictionMonitor friction;
 
 	private IntMap<Timer> keytimer = new IntMap<Timer>(3);
 
@@ -52,6 +45,9 @@ public class PlayerCar extends Car {
 	public DriftState driftState = null;
 	public boolean isThrottling = false;
 
+	// the number of completed substeps, that is of frames that ran the simulation
+	private int completedSubsteps = 0;
+
 	public PlayerCar (GameWorld gameWorld, GameLogic gameLogic, CarPreset.Type presetType) {
 		super(gameWorld, gameLogic, CarType.PlayerCar, InputMode.InputFromPlayer, presetType, true);
 		carInput = new CarInput();
@@ -63,11 +59,12 @@ public class PlayerCar extends Car {
 		// strategy = gameWorld.scalingStrategy;
 		carDesc = new CarDescriptor(preset.model);
 		carSim = new CarSimulator(carDesc);
+		friction = new FrictionMonitor(gameWorld);
 		stillModel.setAlpha(1);
 
 		// states
 		this.carState = new CarState(gameWorld, this);
-		this.driftState = new DriftState(this);
+		this.driftState = new DriftState(context, this);
 
 		keytimer.put(Keys.UP, new Timer());
 		keytimer.put(Keys.LEFT, new Timer());
@@ -78,7 +75,6 @@ public class PlayerCar extends Car {
 	public void dispose () {
 		super.dispose();
 		driftState.dispose();
-		frictionMean = null;
 	}
 
 	@Override
@@ -100,11 +96,27 @@ public class PlayerCar extends Car {
 		return carSim;
 	}
 
+	/** Returns the input fed to the simulator during the last physics step */
+	public CarInput getInput () {
+		return carInput;
+	}
+
+	/** Returns the number of substeps completed so far: friction is applied once per frame, so the ticks at which this changes
+	 * are needed to repeat the simulation */
+	public int getCompletedSubsteps () {
+		return completedSubsteps;
+	}
+
+	/** Returns the number of impacts not yet fed back to the simulator */
+	public int getPendingImpacts () {
+		return impacts;
+	}
+
 	@Override
 	public void resetPhysics () {
 		super.resetPhysics();
 		carSim.resetPhysics();
-		frictionMean.clear();
+		friction.reset();
 		carState.reset();
 		driftState.reset();
 	}
@@ -282,9 +294,13 @@ public class PlayerCar extends Car {
 	}
 
 	@Override
-	protected void onComputeCarForces (CarForces forces) {
+	public void onPreparePhysicsSubstep () {
+		super.onPreparePhysicsSubstep();
 		carInput = acquireInput();
+	}
 
+	@Override
+	protected void onComputeCarForces (CarForces forces) {
 		handleImpactFeedback();
 
 		carSim.applyInput(carInput);
@@ -298,82 +314,40 @@ public class PlayerCar extends Car {
 
 	@Override
 	public void onSubstepCompleted () {
+		completedSubsteps++;
 		carState.update(carDesc);
 		driftState.update(carSim.lateralForceFront.y, carSim.lateralForceRear.y, carDesc.velocity_wc.len());
 
 		if (Config.Debug.ApplyCarFrictionFromMap) {
-			updateCarFriction();
+			friction.update(this, carState.tilePosition);
 			handleFriction();
 		}
 	}
 
-	private Pixmap frictionMap = null;
-
 	public void setFrictionMap (Pixmap map) {
-		frictionMap = map;
+		friction.setFrictionMap(map);
 	}
 
-	private Vector2 offset = new Vector2();
-
-	private void updateCarFriction () {
-		Vector2 tilePosition = carState.tilePosition;
-
-		if (frictionMap != null && gameWorld.isValidTilePosition(tilePosition)) {
-			// compute realsize-based pixel offset car-tile (top-left origin)
-			float scaledTileSize = gameWorld.getTileSizePx();
-			float tsx = tilePosition.x * scaledTileSize;
-			float tsy = tilePosition.y * scaledTileSize;
-			offset.set(Convert.mt2px(getBody().getPosition()));
-			offset.y = gameWorld.worldSizePx.y - offset.y;
-			offset.x = offset.x - tsx;
-			offset.y = offset.y - tsy;
-			offset.scl(gameWorld.getTileSizePxInv()).scl(gameWorld.tileWidth);
-
-			TiledMapTileLayer layerTrack = gameWorld.getLayer(Layer.Track);
-
-			// int id = layerTrack.getCell((int)tilePosition.x, gameWorld.mapHeight - (int)tilePosition.y - 1).getTile().getId() - 1;
-			int id = layerTrack.getCell((int)tilePosition.x, (int)tilePosition.y).getTile().getId() - 1;
-
-			// int xOnMap = (id %4) * (int)gameWorld.map.tileWidth + (int)offset.x;
-			// int yOnMap = (int)( id/4f ) * (int)gameWorld.map.tileWidth + (int)offset.y;
-
-			// bit twiddling, faster version
-			int xOnMap = (id & 3) * (int)gameWorld.tileWidth + (int)offset.x;
-			int yOnMap = (id >> 2) * (int)gameWorld.tileWidth + (int)offset.y;
-
-			int pixel = frictionMap.getPixel(xOnMap, yOnMap);
-			boolean inTrack = (pixel == -256);
-			frictionMean.addValue((inTrack ? 0 : -1));
-
-			// Gdx.app.log( "PlayerCar", "xmap=" + xOnMap + ", ymap=" + yOnMap );
-			// Gdx.app.log( "PlayerCar", "mean=" + frictionMean.getMean() + ", pixel=" + pixel + ", xmap=" + xOnMap +
-			// ", ymap=" + yOnMap );
-			// Gdx.app.log("PlayerCar", "id=" + id);
-			// Gdx.app.log("PlayerCar", "#" + id + ", xt=" + (int)tilePosition.x + "," + (int)tilePosition.y);
-
-		} else {
-			Gdx.app.log("PlayerCar", "PlayerCar out of map!");
-		}
+	/** Returns the friction monitor, whose samples are part of the state of the simulation */
+	public FrictionMonitor getFrictionMonitor () {
+		return friction;
 	}
 
 	private boolean notifiedOutOfTrack = false;
 	private boolean isOutOfTrack = false;
 
 	private void handleFriction () {
-		isOutOfTrack = frictionMean.getMean() < -0.3;
+		isOutOfTrack = friction.isOutOfTrack();
 
 		if (isOutOfTrack && !notifiedOutOfTrack) {
 			notifiedOutOfTrack = true;
-			GameEvents.playerCar.trigger(this, CarEvent.Type.onOutOfTrack);
+			context.events.playerCar.trigger(this, CarEvent.Type.onOutOfTrack);
 		} else if (!isOutOfTrack && notifiedOutOfTrack) {
-			GameEvents.playerCar.trigger(this, CarEvent.Type.onBackInTrack);
+			context.events.playerCar.trigger(this, CarEvent.Type.onBackInTrack);
 			notifiedOutOfTrack = false;
 		}
 
-		// FIXME, move these hard-coded values out of here
-		if (isOutOfTrack && carDesc.velocity_wc.len2() > 10) {
-			carDesc.velocity_wc.scl(GameplaySettings.DampingFriction);
-		}
+		friction.applyDamping(carDesc);
 	}
 
 	private void handleImpactFeedback () {
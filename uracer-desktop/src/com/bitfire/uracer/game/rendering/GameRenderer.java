@@ -13,6 +13,7 @@ import com.bitfire.postprocessing.PostProcessor;
 import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.SimulationThread;
 import com.bitfire.uracer.game.events.GameRendererEvent;
 import com.bitfire.uracer.game.logic.post.PostProcessing;
 import com.bitfire.uracer.game.logic.post.PostProcessing.Effects;
@@ -28,6 +29,7 @@ import com.bitfire.uracer.utils.ScaleUtils;
 public final class GameRenderer {
 	private final GL20 gl;
 	private final GameWorld world;
+	private final GameEvents events;
 	private final GameBatchRenderer batchRenderer;
 	private final GameWorldRenderer worldRenderer;
 
@@ -41,6 +43,7 @@ public final class GameRenderer {
 
 	public GameRenderer (GameWorld gameWorld) {
 		world = gameWorld;
+		events = gameWorld.getContext().events;
 		gl = Gdx.graphics.getGL20();
 
 		postProcessing = new PostProcessing(gameWorld);
@@ -67,7 +70,7 @@ public final class GameRenderer {
 		batchRenderer.dispose();
 		worldRenderer.dispose();
 
-		GameEvents.gameRenderer.removeAllListeners();
+		events.gameRenderer.removeAllListeners();
 	}
 
 	/** Enables or disables the debug render events */
@@ -92,20 +95,20 @@ public final class GameRenderer {
 	}
 
 	private void interpolate (float timeAliasingFactor) {
-		GameEvents.gameRenderer.timeAliasingFactor = timeAliasingFactor;
-		GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.SubframeInterpolate);
+		events.gameRenderer.timeAliasingFactor = timeAliasingFactor;
+		events.gameRenderer.trigger(this, GameRendererEvent.Type.SubframeInterpolate);
 	}
 
 	private void beforeRender () {
 		// request freshdata before any rendering
-		GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.BeforeRender);
+		events.gameRenderer.trigger(this, GameRendererEvent.Type.BeforeRender);
 
 		// update matrices, cameras and other values
-		GameEvents.gameRenderer.mtxOrthographicMvpMt = worldRenderer.getOrthographicMvpMt();
-		GameEvents.gameRenderer.camOrtho = worldRenderer.getOrthographicCamera();
-		GameEvents.gameRenderer.camPersp = worldRenderer.getPerspectiveCamera();
-		GameEvents.gameRenderer.camZoom = worldRenderer.getCameraZoom();
-		GameEvents.gameRenderer.postProcessor = postProcessing.getPostProcessor();
+		events.gameRenderer.mtxOrthographicMvpMt = worldRenderer.getOrthographicMvpMt();
+		events.gameRenderer.camOrtho = worldRenderer.getOrthographicCamera();
+		events.gameRenderer.camPersp = worldRenderer.getPerspectiveCamera();
+		events.gameRenderer.camZoom = worldRenderer.getCameraZoom();
+		events.gameRenderer.postProcessor = postProcessing.getPostProcessor();
 	}
 
 	private void clear () {
@@ -115,6 +118,12 @@ public final class GameRenderer {
 	}
 
 	public void render (FrameBuffer dest, boolean quitPending, boolean paused) {
+		render(dest, quitPending, paused, null);
+	}
+
+	/** Renders the world: if a simulation thread is specified, it is run while the post-processor is at work, since that only
+	 * reads from the already captured scene, and waited for before the HUD and the debug overlays are drawn */
+	public void render (FrameBuffer dest, boolean quitPending, boolean paused, SimulationThread simulation) {
 		if (!quitPending) {
 			if (!paused) {
 				// trigger interpolables to interpolate their position and orientation
@@ -124,7 +133,7 @@ public final class GameRenderer {
 			// raise before render
 			beforeRender();
 		} else {
-			GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.BeforeRender);
+			events.gameRenderer.trigger(this, GameRendererEvent.Type.BeforeRender);
 		}
 
 		SpriteBatch batch;
@@ -167,8 +176,8 @@ public final class GameRenderer {
 		{
 			batch = batchRenderer.begin(worldRenderer.getOrthographicCamera());
 			batch.enableBlending();
-			GameEvents.gameRenderer.batch = batch;
-			GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.BatchBeforeCars);
+			events.gameRenderer.batch = batch;
+			events.gameRenderer.trigger(this, GameRendererEvent.Type.BatchBeforeCars);
 			batchRenderer.end();
 		}
 
@@ -184,8 +193,8 @@ public final class GameRenderer {
 			batch = batchRenderer.begin(worldRenderer.getOrthographicCamera());
 			batch.enableBlending();
 			{
-				GameEvents.gameRenderer.batch = batch;
-				GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.BatchAfterCars);
+				events.gameRenderer.batch = batch;
+				events.gameRenderer.trigger(this, GameRendererEvent.Type.BatchAfterCars);
 			}
 			batchRenderer.end();
 		}
@@ -218,14 +227,24 @@ public final class GameRenderer {
 		batch = batchRenderer.beginTopLeft();
 		batch.setTransformMatrix(xform);
 		{
-			GameEvents.gameRenderer.batch = batch;
-			GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.BatchBeforePostProcessing);
+			events.gameRenderer.batch = batch;
+			events.gameRenderer.trigger(this, GameRendererEvent.Type.BatchBeforePostProcessing);
 		}
 		batchRenderer.end();
 
+		if (simulation != null) {
+			simulation.start();
+		}
+
 		if (postProcessorReady) {
 			postProcessor.render(dest);
+		}
+
+		if (simulation != null) {
+			simulation.await();
+		}
 
+		if (postProcessorReady) {
 			if (hasDest) dest.begin();
 			batchAfterPostProcessing();
 			debugRender();
@@ -242,8 +261,8 @@ public final class GameRenderer {
 		SpriteBatch batch = batchRenderer.beginTopLeft();
 		batch.setTransformMatrix(xform);
 
-		GameEvents.gameRenderer.batch = batch;
-		GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.BatchAfterPostProcessing);
+		events.gameRenderer.batch = batch;
+		events.gameRenderer.trigger(this, GameRendererEvent.Type.BatchAfterPostProcessing);
 		batchRenderer.end();
 	}
 
@@ -254,13 +273,13 @@ public final class GameRenderer {
 
 			batch.setTransformMatrix(xform);
 			batch.disableBlending();
-			GameEvents.gameRenderer.batch = batch;
-			GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.BatchDebug);
+			events.gameRenderer.batch = batch;
+			events.gameRenderer.trigger(this, GameRendererEvent.Type.BatchDebug);
 			batchRenderer.end();
 
 			batch.setTransformMatrix(identity);
-			GameEvents.gameRenderer.batch = null;
-			GameEvents.gameRenderer.trigger(this, GameRendererEvent.Type.Debug);
+			events.gameRenderer.batch = null;
+			events.gameRenderer.trigger(this, GameRendererEvent.Type.Debug);
 		}
 	}
 
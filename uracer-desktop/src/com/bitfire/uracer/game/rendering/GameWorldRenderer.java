@@ -22,12 +22,16 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.bitfire.uracer.configuration.Config;
+import com.bitfire.uracer.entities.EntityRenderState;
 import com.bitfire.uracer.game.actors.Car;
+import com.bitfire.uracer.game.actors.CarPreset;
 import com.bitfire.uracer.game.actors.GhostCar;
+import com.bitfire.uracer.game.actors.GhostSwarm;
 import com.bitfire.uracer.game.logic.helpers.CameraController;
 import com.bitfire.uracer.game.player.PlayerCar;
 import com.bitfire.uracer.game.world.GameWorld;
 import com.bitfire.uracer.game.world.models.CarStillModel;
+import com.bitfire.uracer.game.world.models.ModelFactory;
 import com.bitfire.uracer.game.world.models.OrthographicAlignedStillModel;
 import com.bitfire.uracer.game.world.models.TrackTrees;
 import com.bitfire.uracer.game.world.models.TrackWalls;
@@ -136,6 +140,10 @@ public final class GameWorldRenderer {
 	private ConeLight playerLightsA = null, playerLightsB = null;
 	private GhostCar topmostGhost = null;
 
+	// kinematic ghosts
+	private CarStillModel swarmModel = null;
+	private final EntityRenderState swarmState = new EntityRenderState();
+
 	public GameWorldRenderer (GameWorld world, boolean useNormalDepthMap) {
 		this.world = world;
 		this.useDeferredRendering = useNormalDepthMap;
@@ -643,8 +651,10 @@ public final class GameWorldRenderer {
 	}
 
 	private boolean renderCar (Car car, boolean depthOnly, boolean nightMode) {
-		CarStillModel model = car.getStillModel();
+		return renderCar(car.getStillModel(), car.getCarPreset().type, depthOnly, nightMode);
+	}
 
+	private boolean renderCar (CarStillModel model, CarPreset.Type presetType, boolean depthOnly, boolean nightMode) {
 		if (Config.Debug.FrustumCulling && !camPersp.frustum.boundsInFrustum(model.boundingBox)) {
 			return false;
 		}
@@ -663,7 +673,7 @@ public final class GameWorldRenderer {
 		gl.glEnable(GL20.GL_CULL_FACE);
 
 		shader.begin();
-		Art.meshCar.get(car.getCarPreset().type.regionName).bind();
+		Art.meshCar.get(presetType.regionName).bind();
 
 		// common matrices
 		if (depthOnly) {
@@ -777,6 +787,8 @@ public final class GameWorldRenderer {
 			}
 		}
 
+		renderGhostSwarm(depthOnly);
+
 		if (depthOnly) {
 			setSsaoScale(DefaultSsaoScale);
 		}
@@ -798,6 +810,35 @@ public final class GameWorldRenderer {
 		}
 	}
 
+	/** Renders the kinematic ghosts, if any, all sharing the same model */
+	private void renderGhostSwarm (boolean depthOnly) {
+		GhostSwarm swarm = world.getGhostSwarm();
+		if (swarm == null || swarm.size() == 0) {
+			return;
+		}
+
+		if (swarmModel == null) {
+			swarmModel = ModelFactory.createCarStillModel(CarPreset.Type.Default);
+		}
+
+		float aliasingFactor = world.getContext().events.gameRenderer.timeAliasingFactor;
+		for (int i = 0; i < swarm.size(); i++) {
+			float alpha = swarm.getAlpha(i);
+			if (alpha <= 0 || (depthOnly && alpha <= 0.5f)) continue;
+
+			swarm.getRenderState(i, aliasingFactor, swarmState);
+			swarmModel.setAlpha(alpha);
+			swarmModel.transform(camPersp, camOrtho, swarmState);
+			if (depthOnly) {
+				float a = (alpha - 0.5f) * 2;
+				float s = AMath.clampf(AMath.sigmoid(a * 3f + 4f - (1 - alpha)), 0, 1);
+				setSsaoScale(DefaultSsaoScale * s);
+			}
+
+			renderCar(swarmModel, CarPreset.Type.Default, depthOnly, false);
+		}
+	}
+
 	private Vector3 tmpvec = new Vector3();
 	private Matrix4 mtx = new Matrix4();
 	private Matrix3 nmat = new Matrix3();
@@ -117,6 +117,26 @@ public class OptionsScreen extends UIScreen {
 			ltable.add(box).left().padLeft(40).padTop(5);
 		}
 
+		{
+			// threaded simulation
+			CheckBox box = UIUtils.newCheckBox("Simulate physics on a separate thread",
+				UserPreferences.bool(Preference.ThreadedSimulation), new ChangeListener() {
+					@Override
+					public void changed (ChangeEvent event, Actor actor) {
+						Sounds.menuRollover.play();
+						UserPreferences.bool(Preference.ThreadedSimulation, ((CheckBox)actor).isChecked());
+						UserPreferences.save();
+					}
+				});
+
+			Label desc = UIUtils.newLabel("Simulate the physics of the next frame while this one is post-processed, on machines "
+				+ "with more than one core: the controls then respond one frame later", true);
+
+			ltable.row().padTop(20);
+			ltable.add(desc).width(w).row();
+			ltable.add(box).left().padLeft(40).padTop(5);
+		}
+
 		{
 			// post-processing switch
 			CheckBox box = UIUtils.newCheckBox("Enable post-processing", UserPreferences.bool(Preference.PostProcessing),
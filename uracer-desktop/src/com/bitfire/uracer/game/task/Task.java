@@ -1,32 +1,34 @@
 
 package com.bitfire.uracer.game.task;
 
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.TaskManagerEvent;
 import com.bitfire.uracer.game.events.TaskManagerEvent.Order;
 import com.bitfire.uracer.game.events.TaskManagerEvent.Type;
 
 public abstract class Task implements TaskManagerEvent.Listener {
+	protected final GameContext context;
 	protected boolean isPaused = false;
 	private Order order;
 
-	public Task () {
-		this(Order.DEFAULT);
+	public Task (GameContext context) {
+		this(context, Order.DEFAULT);
 	}
 
-	public Task (Order order) {
+	public Task (GameContext context, Order order) {
+		this.context = context;
 		this.order = order;
-		GameEvents.taskManager.addListener(this, TaskManagerEvent.Type.onTick, order);
-		GameEvents.taskManager.addListener(this, TaskManagerEvent.Type.onTickCompleted, order);
-		GameEvents.taskManager.addListener(this, TaskManagerEvent.Type.onPause, order);
-		GameEvents.taskManager.addListener(this, TaskManagerEvent.Type.onResume, order);
+		context.events.taskManager.addListener(this, TaskManagerEvent.Type.onTick, order);
+		context.events.taskManager.addListener(this, TaskManagerEvent.Type.onTickCompleted, order);
+		context.events.taskManager.addListener(this, TaskManagerEvent.Type.onPause, order);
+		context.events.taskManager.addListener(this, TaskManagerEvent.Type.onResume, order);
 	}
 
 	public void dispose () {
-		GameEvents.taskManager.removeListener(this, TaskManagerEvent.Type.onTick, order);
-		GameEvents.taskManager.removeListener(this, TaskManagerEvent.Type.onTickCompleted, order);
-		GameEvents.taskManager.removeListener(this, TaskManagerEvent.Type.onPause, order);
-		GameEvents.taskManager.removeListener(this, TaskManagerEvent.Type.onResume, order);
+		context.events.taskManager.removeListener(this, TaskManagerEvent.Type.onTick, order);
+		context.events.taskManager.removeListener(this, TaskManagerEvent.Type.onTickCompleted, order);
+		context.events.taskManager.removeListener(this, TaskManagerEvent.Type.onPause, order);
+		context.events.taskManager.removeListener(this, TaskManagerEvent.Type.onResume, order);
 	}
 
 	protected abstract void onTick ();
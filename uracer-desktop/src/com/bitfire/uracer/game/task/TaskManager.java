@@ -1,18 +1,21 @@
 
 package com.bitfire.uracer.game.task;
 
-import com.bitfire.uracer.game.GameEvents;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.events.TaskManagerEvent;
 
 public final class TaskManager {
-	public TaskManager () {
+	private final GameContext context;
+
+	public TaskManager (GameContext context) {
+		this.context = context;
 	}
 
 	public void dispose () {
-		GameEvents.taskManager.removeAllListeners();
+		context.events.taskManager.removeAllListeners();
 	}
 
 	public void dispatchEvent (TaskManagerEvent.Type eventType) {
-		GameEvents.taskManager.trigger(this, eventType);
+		context.events.taskManager.trigger(this, eventType);
 	}
 }
@@ -1,35 +1,30 @@
-
 package com.bitfire.uracer.game.tween;
 
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.TweenManager;
 
-import com.bitfire.uracer.URacer;
-
-/** This tweener will update taking the timeMultiplier modulation into account */
+/** This tweener will update taking the timeMultiplier modulation into account, each GameContext owns one */
 public final class GameTweener {
-	private static final TweenManager manager = new TweenManager();
-
-	private GameTweener () {
-	}
+	private final TweenManager manager = new TweenManager();
 
-	public static void dispose () {
+	public void dispose () {
 		clear();
 	}
 
-	public static void clear () {
+	public void clear () {
 		manager.killAll();
 	}
 
-	public static void start (Timeline timeline) {
+	public void start (Timeline timeline) {
 		timeline.start(manager);
 	}
 
-	public static void stop (Object target) {
+	public void stop (Object target) {
 		manager.killTarget(target);
 	}
 
-	public static void update () {
-		manager.update(URacer.Game.getLastDeltaMs() * URacer.timeMultiplier);
+	/** Updates the tweens by the specified amount of game time, that is the frame time modulated by the timeMultiplier */
+	public void update (float deltaMs) {
+		manager.update(deltaMs);
 	}
 }
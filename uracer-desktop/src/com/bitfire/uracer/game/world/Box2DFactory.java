@@ -1,6 +1,9 @@
 
 package com.bitfire.uracer.game.world;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
@@ -11,7 +14,6 @@ import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.game.collisions.CollisionFilters;
 
 public final class Box2DFactory {
-
 	private Box2DFactory () {
 	}
 
@@ -126,6 +128,64 @@ public final class Box2DFactory {
 		return createWall(world, cx - mag / 2, cy - halfSize, cx + mag / 2, cy + halfSize, angle, restitution);
 	}
 
+	/** Computes the walls of the specified thickness along the specified polyline, one per segment, as the arguments
+	 * createWall(world, xmin, ymin, xmax, ymax, angle, restitution) takes: xmin, ymin, xmax, ymax and angle */
+	public static List<float[]> createWallBoxes (List<Vector2> points, float size) {
+		List<float[]> boxes = new ArrayList<float[]>(points.size() - 1);
+		for (int i = 1; i < points.size(); i++) {
+			Vector2 from = points.get(i - 1);
+			Vector2 to = points.get(i);
+
+			// the same box createWall(world, from, to, size, restitution) makes
+			float halfSize = size / 2f;
+			float cx = (from.x + to.x) / 2;
+			float cy = (from.y + to.y) / 2;
+			float angle = (float)Math.atan2(to.y - from.y, to.x - from.x);
+			float mag = (float)Math.sqrt((to.x - from.x) * (to.x - from.x) + (to.y - from.y) * (to.y - from.y));
+			boxes.add(new float[] {cx - mag / 2, cy - halfSize, cx + mag / 2, cy + halfSize, angle});
+		}
+
+		return boxes;
+	}
+
+	/** Creates a wall as a single static body made up of the specified boxes, as computed by createWallBoxes(): this is the very
+	 * same shape the walls createWall(world, xmin, ymin, xmax, ymax, angle, restitution) makes for each box, but with a single
+	 * body */
+	public static Body createWall (World world, List<float[]> boxes, float restitution) {
+		FixtureDef fdef = new FixtureDef();
+		fdef.density = 1.0f;
+		fdef.friction = 0.02f;
+
+		fdef.filter.groupIndex = CollisionFilters.GroupTrackWalls;
+		fdef.filter.categoryBits = CollisionFilters.CategoryTrackWalls;
+		fdef.filter.maskBits = CollisionFilters.MaskWalls;
+
+		if (Config.Debug.TraverseWalls) {
+			fdef.filter.groupIndex = CollisionFilters.GroupNoCollisions;
+		}
+
+		if (restitution > 0) {
+			fdef.restitution = restitution;
+		}
+
+		BodyDef bd = new BodyDef();
+		bd.type = BodyDef.BodyType.StaticBody;
+		Body wall = world.createBody(bd);
+
+		Vector2 center = new Vector2();
+		PolygonShape shape = new PolygonShape();
+		fdef.shape = shape;
+		for (float[] box : boxes) {
+			float xmin = box[0], ymin = box[1], xmax = box[2], ymax = box[3];
+			center.set((xmin + xmax) / 2, (ymin + ymax) / 2);
+			shape.setAsBox(Math.abs(xmax - xmin) / 2, Math.abs(ymax - ymin) / 2, center, box[4]);
+			wall.createFixture(fdef);
+		}
+
+		shape.dispose();
+		return wall;
+	}
+
 	// private static Vector2 tmp1;
 	// private static Vector2 tmp2;
 	// private static Vector2 from;
@@ -0,0 +1,208 @@
+
+package com.bitfire.uracer.game.world;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.bitfire.uracer.configuration.Storage;
+
+/** The level data a GameWorld computes from its TMX map before it can be played: the route, the sector polygons and the route
+ * segment each of them belongs to, the boxes making up the walls and, unless the world is headless, their meshes.
+ *
+ * Computing it every time a level is loaded is what takes most of the world creation time, so it is cached in the data root by
+ * level ID, as a flat binary file read in a single pass. A cached track is only used if it has been compiled from the very same
+ * map, for the same pixels-per-meter conversion and, if meshes are needed, for the same mesh scale: since the level ID only
+ * covers the track layer and the level name, the map file is checksummed as well.
+ *
+ * @author manuel */
+public final class CompiledTrack {
+	/** "URCT" */
+	private static final int Magic = 0x55524354;
+	private static final int Version = 3;
+
+	public final long sourceChecksum;
+	public final float pixelsPerMeter;
+	public final boolean hasMeshes;
+	public final float meshScale;
+
+	/** the route waypoints, as x,y pairs in meters */
+	public float[] route;
+
+	/** the sector polygons, as x,y pairs in meters */
+	public float[][] polygons;
+
+	/** the polygon of each route segment, or null if the route hasn't been sectorized yet */
+	public int[] sectorPolygons;
+
+	public Wall[] walls;
+
+	public static final class Wall {
+		/** the boxes making up the wall, one per segment, as xmin, ymin, xmax, ymax in meters and angle */
+		public float[][] boxes;
+
+		/** the position of the wall mesh, in pixels */
+		public float x, y;
+
+		/** the wall mesh, null if there are no meshes */
+		public float[] vertices;
+		public short[] indices;
+	}
+
+	public CompiledTrack (long sourceChecksum, float pixelsPerMeter, boolean hasMeshes, float meshScale) {
+		this.sourceChecksum = sourceChecksum;
+		this.pixelsPerMeter = pixelsPerMeter;
+		this.hasMeshes = hasMeshes;
+		this.meshScale = meshScale;
+	}
+
+	/** Returns whether this track can be used in place of the specified one being compiled */
+	public boolean isCompatible (CompiledTrack other) {
+		return sourceChecksum == other.sourceChecksum && pixelsPerMeter == other.pixelsPerMeter
+			&& (!other.hasMeshes || (hasMeshes && meshScale == other.meshScale));
+	}
+
+	private static FileHandle file (String levelId) {
+		return Gdx.files.external(Storage.TracksCacheRoot + levelId);
+	}
+
+	/** Loads the compiled track cached for the specified level, returning null if there is none or if it's not compatible with
+	 * the specified one, as compiled with nothing but the parameters */
+	public static CompiledTrack load (String levelId, CompiledTrack expected) {
+		FileHandle fh = file(levelId);
+		if (!fh.exists()) {
+			return null;
+		}
+
+		try {
+			ByteBuffer in = ByteBuffer.wrap(fh.readBytes());
+			if (in.getInt() != Magic || in.getShort() != Version) {
+				Gdx.app.log("CompiledTrack", "Unknown compiled track format, recompiling (" + fh.path() + ")");
+				return null;
+			}
+
+			CompiledTrack t = new CompiledTrack(in.getLong(), in.getFloat(), in.get() != 0, in.getFloat());
+			if (!t.isCompatible(expected)) {
+				Gdx.app.log("CompiledTrack", "Stale compiled track, recompiling (" + fh.path() + ")");
+				return null;
+			}
+
+			t.route = getFloats(in);
+			t.polygons = new float[in.getInt()][];
+			for (int i = 0; i < t.polygons.length; i++) {
+				t.polygons[i] = getFloats(in);
+			}
+
+			t.sectorPolygons = new int[in.getInt()];
+			in.asIntBuffer().get(t.sectorPolygons);
+			in.position(in.position() + t.sectorPolygons.length * 4);
+
+			t.walls = new Wall[in.getInt()];
+			for (int i = 0; i < t.walls.length; i++) {
+				Wall w = new Wall();
+				w.boxes = new float[in.getInt()][];
+				for (int j = 0; j < w.boxes.length; j++) {
+					w.boxes[j] = getFloats(in);
+				}
+
+				w.x = in.getFloat();
+				w.y = in.getFloat();
+
+				if (t.hasMeshes) {
+					float[] vertices = getFloats(in);
+					short[] indices = new short[in.getInt()];
+					in.asShortBuffer().get(indices);
+					in.position(in.position() + indices.length * 2);
+
+					// a headless world has no use for the meshes
+					if (expected.hasMeshes) {
+						w.vertices = vertices;
+						w.indices = indices;
+					}
+				}
+
+				t.walls[i] = w;
+			}
+
+			return t;
+		} catch (Exception e) {
+			Gdx.app.log("CompiledTrack", "Couldn't read compiled track (" + fh.path() + "), reason: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static float[] getFloats (ByteBuffer in) {
+		float[] values = new float[in.getInt()];
+		in.asFloatBuffer().get(values);
+		in.position(in.position() + values.length * 4);
+		return values;
+	}
+
+	/** Caches this track for the specified level, replacing any previous one */
+	public void save (String levelId) {
+		FileHandle fh = file(levelId);
+
+		// simulations of the same level may be saving it at the same time
+		FileHandle tmp = Gdx.files.external(Storage.TracksCacheRoot + levelId + "." + Thread.currentThread().getId() + ".tmp");
+
+		try {
+			Gdx.files.external(Storage.TracksCacheRoot).mkdirs();
+
+			DataOutputStream os = new DataOutputStream(new BufferedOutputStream(tmp.write(false)));
+			os.writeInt(Magic);
+			os.writeShort(Version);
+			os.writeLong(sourceChecksum);
+			os.writeFloat(pixelsPerMeter);
+			os.writeBoolean(hasMeshes);
+			os.writeFloat(meshScale);
+
+			putFloats(os, route);
+			os.writeInt(polygons.length);
+			for (float[] polygon : polygons) {
+				putFloats(os, polygon);
+			}
+
+			os.writeInt(sectorPolygons.length);
+			for (int p : sectorPolygons) {
+				os.writeInt(p);
+			}
+
+			os.writeInt(walls.length);
+			for (Wall w : walls) {
+				os.writeInt(w.boxes.length);
+				for (float[] box : w.boxes) {
+					putFloats(os, box);
+				}
+
+				os.writeFloat(w.x);
+				os.writeFloat(w.y);
+
+				if (hasMeshes) {
+					putFloats(os, w.vertices);
+					os.writeInt(w.indices.length);
+					for (short index : w.indices) {
+						os.writeShort(index);
+					}
+				}
+			}
+
+			os.close();
+
+			// replace the previous one only once completely written
+			tmp.moveTo(fh);
+		} catch (Exception e) {
+			Gdx.app.log("CompiledTrack", "Couldn't write compiled track (" + fh.path() + "), reason: " + e.getMessage());
+			tmp.delete();
+		}
+	}
+
+	private static void putFloats (DataOutputStream os, float[] values) throws IOException {
+		os.writeInt(values.length);
+		for (float v : values) {
+			os.writeFloat(v);
+		}
+	}
+}
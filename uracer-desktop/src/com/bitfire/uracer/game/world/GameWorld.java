@@ -2,6 +2,7 @@
 package com.bitfire.uracer.game.world;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import box2dLight.ConeLight;
@@ -33,8 +34,10 @@ import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.bitfire.uracer.URacer;
 import com.bitfire.uracer.configuration.Config;
+import com.bitfire.uracer.game.GameContext;
 import com.bitfire.uracer.game.GameLevels;
 import com.bitfire.uracer.game.actors.GhostCar;
+import com.bitfire.uracer.game.actors.GhostSwarm;
 import com.bitfire.uracer.game.collisions.CollisionFilters;
 import com.bitfire.uracer.game.logic.helpers.GameTrack;
 import com.bitfire.uracer.game.logic.helpers.GameTrack.TrackPosition;
@@ -56,6 +59,7 @@ import com.bitfire.uracer.u3d.still.StillSubMesh;
 import com.bitfire.uracer.utils.AMath;
 import com.bitfire.uracer.utils.Convert;
 import com.bitfire.uracer.utils.ScaleUtils;
+import com.bitfire.uracer.utils.UAtlasTmxMapLoader;
 
 /** Encapsulates the game's world. Yay!
  *
@@ -72,10 +76,13 @@ public final class GameWorld {
 	public final Vector2 worldSizePx, worldSizeTiles, worldSizeMt;
 
 	// private data
+	private final GameContext context;
 	private World box2dWorld;
 	private final MapUtils mapUtils;
 	private final String levelId;
 	private final float pixelsPerMeterFactor;
+	private final boolean headless;
+	private final boolean mergeWalls;
 
 	// player data
 	public PlayerCar player = null;
@@ -83,6 +90,7 @@ public final class GameWorld {
 
 	// ghost data
 	public GhostCar[] ghosts = null;
+	private GhostSwarm ghostSwarm = null;
 
 	// light/night system
 	private boolean nightMode;
@@ -101,7 +109,22 @@ public final class GameWorld {
 	private List<Vector2> route = new ArrayList<Vector2>();
 	private List<Polygon> polys = new ArrayList<Polygon>();
 
-	public GameWorld (String levelId, boolean nightMode) {
+	public GameWorld (GameContext context, String levelId, boolean nightMode) {
+		this(context, levelId, nightMode, false);
+	}
+
+	/** Creates a world for the specified level within the specified context: a headless world only holds the level data needed
+	 * by the simulation, such as the walls, the route and the sectors, and doesn't require a GL context. */
+	public GameWorld (GameContext context, String levelId, boolean nightMode, boolean headless) {
+		this(context, levelId, nightMode, headless, Config.Physics.MergeWalls);
+	}
+
+	/** Creates a world as above, with the walls made of a body per polyline rather than per segment if so specified, see
+	 * Config.Physics.MergeWalls */
+	public GameWorld (GameContext context, String levelId, boolean nightMode, boolean headless, boolean mergeWalls) {
+		this.context = context;
+		this.headless = headless;
+		this.mergeWalls = mergeWalls;
 		float widthRatio = (float)Config.Graphics.ReferenceScreenWidth / (float)ScaleUtils.PlayWidth;
 		pixelsPerMeterFactor = ((widthRatio * 256f) / 224f) * ScaleUtils.Scale;
 
@@ -115,10 +138,13 @@ public final class GameWorld {
 
 		Gdx.app.log("GameWorld", "Box2D world created (CCD=" + continuousPhysics + ", auto clear forces=" + autoClearForces + ")");
 
-		map = GameLevels.load(levelId);
+		map = headless ? GameLevels.loadHeadless(levelId) : GameLevels.load(levelId);
+		if (map == null) {
+			throw new GdxRuntimeException("Level " + levelId + " not found");
+		}
 
 		this.levelId = levelId;
-		this.nightMode = nightMode;
+		this.nightMode = nightMode && !headless;
 
 		// get map properties
 		mapWidth = map.getProperties().get("width", int.class);
@@ -135,18 +161,37 @@ public final class GameWorld {
 		// initialize tilemap utils
 		mapUtils = new MapUtils(map, tileWidth, mapHeight, worldSizePx);
 
-		createMeshes();
-		route = createRoute();
-		polys = createTrackPolygons();
-		gameTrack = new GameTrack(route, polys);
+		// the level data computed from the map, cached, checked against the map file checksummed by the loader
+		long start = System.nanoTime();
+		long sourceChecksum = map.getProperties().get(UAtlasTmxMapLoader.SourceChecksumProperty, Long.class);
+		CompiledTrack expected = new CompiledTrack(sourceChecksum, Convert.mt2px(1), !headless, pixelsPerMeterFactor);
+		CompiledTrack compiled = CompiledTrack.load(levelId, expected);
+		boolean cached = compiled != null;
+		if (!cached) {
+			compiled = compileTrack(expected);
+		}
 
-		if (route == null) {
-			throw new GdxRuntimeException("No route for this track");
+		if (headless) {
+			createWalls(compiled);
+		} else {
+			createMeshes(compiled);
+		}
+
+		route = createRoute(compiled);
+		polys = createTrackPolygons(compiled);
+		gameTrack = new GameTrack(route, polys, compiled.sectorPolygons);
+
+		if (!cached) {
+			compiled.sectorPolygons = gameTrack.getSectorPolygons();
+			compiled.save(levelId);
 		}
 
+		Gdx.app.log("GameWorld", (cached ? "Loaded compiled track" : "Compiled track") + " in "
+			+ (System.nanoTime() - start) / 1000000 + "ms");
+
 		playerStart = gameTrack.generateTrackPosition(-3);
 
-		if (nightMode) {
+		if (this.nightMode) {
 			createLights();
 		}
 	}
@@ -176,7 +221,15 @@ public final class GameWorld {
 		box2dWorld = null;
 	}
 
-	private void createMeshes () {
+	/** Computes the level data from the map, the route excepted as it needs to be sectorized first */
+	private CompiledTrack compileTrack (CompiledTrack compiled) {
+		compiled.route = compileRoute();
+		compiled.polygons = compileTrackPolygons();
+		compiled.walls = compileWalls();
+		return compiled;
+	}
+
+	private void createMeshes (CompiledTrack compiled) {
 		staticMeshes.clear();
 		TotalMeshes = 0;
 
@@ -207,7 +260,7 @@ public final class GameWorld {
 		}
 
 		// walls by polylines
-		List<OrthographicAlignedStillModel> walls = createWalls();
+		List<OrthographicAlignedStillModel> walls = createWalls(compiled);
 		trackWalls = new TrackWalls(walls);
 
 		// trees
@@ -283,7 +336,7 @@ public final class GameWorld {
 			RectangleMapObject o = (RectangleMapObject)group.getObjects().get(i);
 			pos.set(o.getRectangle().x, o.getRectangle().y);// .scl(scalingStrategy.invTileMapZoomFactor);
 			pos.y = worldSizePx.y - pos.y;
-			pos.set(Convert.px2mt(pos));// .scl(scalingStrategy.tileMapZoomFactor);
+			Convert.px2mt(pos, pos);// .scl(scalingStrategy.tileMapZoomFactor);
 
 			PointLight l = new PointLight(rayHandler, maxRays, c, MathUtils.random(15, 20), pos.x, pos.y);
 			l.setSoft(true);
@@ -306,8 +359,18 @@ public final class GameWorld {
 	// construct route/sectors
 	//
 
-	private List<Vector2> createRoute () {
-		List<Vector2> r = null;
+	private List<Vector2> createRoute (CompiledTrack compiled) {
+		List<Vector2> r = new ArrayList<Vector2>(compiled.route.length / 2);
+		for (int i = 0; i < compiled.route.length; i += 2) {
+			r.add(new Vector2(compiled.route[i], compiled.route[i + 1]));
+		}
+
+		return r;
+	}
+
+	/** Returns the route waypoints, in meters */
+	private float[] compileRoute () {
+		float[] r = null;
 
 		if (mapUtils.hasObjectGroup(ObjectGroup.Route)) {
 			Vector2 fromMt = new Vector2();
@@ -323,20 +386,22 @@ public final class GameWorld {
 					o.getPolyline().getVertices());
 				//@on
 
-				r = new ArrayList<Vector2>(points.size());
+				r = new float[points.size() * 2];
 
 				offsetMt.set(o.getPolyline().getX(), o.getPolyline().getY());
-				offsetMt.set(Convert.px2mt(offsetMt));
+				Convert.px2mt(offsetMt, offsetMt);
 
-				fromMt.set(Convert.px2mt(points.get(0))).add(offsetMt);
+				Convert.px2mt(fromMt, points.get(0)).add(offsetMt);
 				fromMt.y = worldSizeMt.y - fromMt.y;
 
-				r.add(new Vector2(fromMt));
+				r[0] = fromMt.x;
+				r[1] = fromMt.y;
 
 				for (int j = 1; j <= points.size() - 1; j++) {
-					toMt.set(Convert.px2mt(points.get(j))).add(offsetMt);
+					Convert.px2mt(toMt, points.get(j)).add(offsetMt);
 					toMt.y = worldSizeMt.y - toMt.y;
-					r.add(new Vector2(toMt));
+					r[j * 2] = toMt.x;
+					r[j * 2 + 1] = toMt.y;
 				}
 			} else {
 				if (group.getObjects().getCount() > 1) {
@@ -348,11 +413,31 @@ public final class GameWorld {
 
 		}
 
+		if (r == null) {
+			throw new GdxRuntimeException("No route for this track");
+		}
+
 		return r;
 	}
 
-	private List<Polygon> createTrackPolygons () {
-		List<Polygon> s = null;
+	private List<Polygon> createTrackPolygons (CompiledTrack compiled) {
+		List<Polygon> s = new ArrayList<Polygon>(compiled.polygons.length);
+		for (float[] vertices : compiled.polygons) {
+			Polygon p = new Polygon(vertices);
+			Rectangle r = p.getBoundingRectangle();
+			float oX = r.x + r.width / 2;
+			float oY = r.y + r.height / 2;
+			p.setOrigin(oX, oY);
+
+			s.add(p);
+		}
+
+		return s;
+	}
+
+	/** Returns the vertices of the sector polygons, in meters */
+	private float[][] compileTrackPolygons () {
+		float[][] s = null;
 
 		if (mapUtils.hasObjectGroup(ObjectGroup.Sectors)) {
 			Vector2 pt = new Vector2();
@@ -360,7 +445,7 @@ public final class GameWorld {
 
 			MapLayer group = mapUtils.getObjectGroup(ObjectGroup.Sectors);
 			if (group.getObjects().getCount() > 0) {
-				s = new ArrayList<Polygon>(group.getObjects().getCount());
+				s = new float[group.getObjects().getCount()][];
 
 				for (int i = 0; i < group.getObjects().getCount(); i++) {
 					PolygonMapObject o = (PolygonMapObject)group.getObjects().get(i);
@@ -376,25 +461,19 @@ public final class GameWorld {
 					}
 
 					offsetMt.set(o.getPolygon().getX(), o.getPolygon().getY());
-					offsetMt.set(Convert.px2mt(offsetMt));
+					Convert.px2mt(offsetMt, offsetMt);
 
 					float[] vertices = new float[8];
 					for (int j = 0; j < points.size(); j++) {
 						// convert to uracer convention
-						pt.set(Convert.px2mt(points.get(j))).add(offsetMt);
+						Convert.px2mt(pt, points.get(j)).add(offsetMt);
 						pt.y = worldSizeMt.y - pt.y;
 
 						vertices[j * 2] = pt.x;
 						vertices[j * 2 + 1] = pt.y;
 					}
 
-					Polygon p = new Polygon(vertices);
-					Rectangle r = p.getBoundingRectangle();
-					float oX = r.x + r.width / 2;
-					float oY = r.y + r.height / 2;
-					p.setOrigin(oX, oY);
-
-					s.add(p);
+					s[i] = vertices;
 				}
 
 			} else {
@@ -403,6 +482,10 @@ public final class GameWorld {
 
 		}
 
+		if (s == null) {
+			throw new GdxRuntimeException("There are no defined sectors for this track");
+		}
+
 		return s;
 
 	}
@@ -411,23 +494,63 @@ public final class GameWorld {
 	// construct walls
 	//
 
-	private List<OrthographicAlignedStillModel> createWalls () {
-		List<OrthographicAlignedStillModel> models = null;
+	/** Creates the walls physical bodies, along with their meshes unless headless */
+	private List<OrthographicAlignedStillModel> createWalls (CompiledTrack compiled) {
+		if (compiled.walls.length == 0) {
+			return null;
+		}
+
+		// create material
+		Material mat = null;
+		if (!headless) {
+			TextureAttribute ta = new TextureAttribute(Art.meshTrackWall, 0, "u_texture");
+			ta.uWrap = TextureWrap.Repeat.getGLEnum();
+			ta.vWrap = TextureWrap.Repeat.getGLEnum();
+			mat = new Material("trackWall", ta);
+		}
+
+		List<OrthographicAlignedStillModel> models = new ArrayList<OrthographicAlignedStillModel>(compiled.walls.length);
+		for (CompiledTrack.Wall wall : compiled.walls) {
+			// create box2d walls, a body per polyline or per segment
+			if (mergeWalls) {
+				Box2DFactory.createWall(box2dWorld, Arrays.asList(wall.boxes), 0f);
+			} else {
+				for (float[] box : wall.boxes) {
+					Box2DFactory.createWall(box2dWorld, box[0], box[1], box[2], box[3], box[4], 0f);
+				}
+			}
+
+			if (headless) {
+				continue;
+			}
+
+			Mesh mesh = createWallMesh(wall.vertices, wall.indices);
+
+			StillSubMesh[] subMeshes = new StillSubMesh[1];
+			subMeshes[0] = new StillSubMesh("wall", mesh, GL20.GL_TRIANGLES);
+
+			OrthographicAlignedStillModel model = new OrthographicAlignedStillModel(new StillModel(subMeshes), mat);
+
+			model.setPosition(wall.x, wall.y);
+			model.setScale(1);
+
+			models.add(model);
+		}
+
+		return models;
+	}
+
+	/** Computes the walls boxes, along with their meshes unless headless */
+	private CompiledTrack.Wall[] compileWalls () {
+		List<CompiledTrack.Wall> walls = new ArrayList<CompiledTrack.Wall>();
 
 		if (mapUtils.hasObjectGroup(ObjectGroup.Walls)) {
 			Vector2 fromMt = new Vector2();
 			Vector2 toMt = new Vector2();
 			Vector2 offsetMt = new Vector2();
 
-			// create material
-			TextureAttribute ta = new TextureAttribute(Art.meshTrackWall, 0, "u_texture");
-			ta.uWrap = TextureWrap.Repeat.getGLEnum();
-			ta.vWrap = TextureWrap.Repeat.getGLEnum();
-			Material mat = new Material("trackWall", ta);
-
 			MapLayer group = mapUtils.getObjectGroup(ObjectGroup.Walls);
 			if (group.getObjects().getCount() > 0) {
-				models = new ArrayList<OrthographicAlignedStillModel>(group.getObjects().getCount());
 
 				for (int i = 0; i < group.getObjects().getCount(); i++) {
 					PolylineMapObject o = (PolylineMapObject)group.getObjects().get(i);
@@ -439,19 +562,20 @@ public final class GameWorld {
 					if (points.size() >= 2) {
 						float wallTicknessMt = 0.75f;
 						float[] mags = new float[points.size() - 1];
+						List<Vector2> wallMt = new ArrayList<Vector2>(points.size());
 
 						offsetMt.set(o.getPolyline().getX(), o.getPolyline().getY());
-						offsetMt.set(Convert.px2mt(offsetMt));
+						Convert.px2mt(offsetMt, offsetMt);
 
-						fromMt.set(Convert.px2mt(points.get(0))).add(offsetMt);
+						Convert.px2mt(fromMt, points.get(0)).add(offsetMt);
 						fromMt.y = worldSizeMt.y - fromMt.y;
+						wallMt.add(new Vector2(fromMt));
 
 						for (int j = 1; j <= points.size() - 1; j++) {
-							toMt.set(Convert.px2mt(points.get(j))).add(offsetMt);
+							Convert.px2mt(toMt, points.get(j)).add(offsetMt);
 							toMt.y = worldSizeMt.y - toMt.y;
 
-							// create box2d wall
-							Box2DFactory.createWall(box2dWorld, fromMt, toMt, wallTicknessMt, 0f);
+							wallMt.add(new Vector2(toMt));
 
 							// compute magnitude
 							mags[j - 1] = (float)Math.sqrt((toMt.x - fromMt.x) * (toMt.x - fromMt.x) + (toMt.y - fromMt.y)
@@ -460,29 +584,28 @@ public final class GameWorld {
 							fromMt.set(toMt);
 						}
 
-						Mesh mesh = buildWallMesh(points, mags);
-
-						StillSubMesh[] subMeshes = new StillSubMesh[1];
-						subMeshes[0] = new StillSubMesh("wall", mesh, GL20.GL_TRIANGLES);
+						CompiledTrack.Wall wall = new CompiledTrack.Wall();
+						wall.boxes = Box2DFactory.createWallBoxes(wallMt, wallTicknessMt).toArray(new float[0][]);
+						wall.x = o.getPolyline().getX();
+						wall.y = worldSizePx.y - o.getPolyline().getY();
 
-						OrthographicAlignedStillModel model = new OrthographicAlignedStillModel(new StillModel(subMeshes), mat);
-
-						model.setPosition(o.getPolyline().getX(), worldSizePx.y - o.getPolyline().getY());
-						model.setScale(1);
+						if (!headless) {
+							buildWallMesh(wall, points, mags);
+						}
 
-						models.add(model);
+						walls.add(wall);
 					}
 				}
 			}
 		}
 
-		return models;
+		return walls.toArray(new CompiledTrack.Wall[walls.size()]);
 	}
 
 	private Vector3 vec1 = new Vector3(), vec2 = new Vector3(), vec3 = new Vector3(), vecFirst = new Vector3(),
 		vecSecond = new Vector3(), vecNormal = new Vector3();
 
-	private Mesh buildWallMesh (List<Vector2> points, float[] magnitudes) {
+	private void buildWallMesh (CompiledTrack.Wall wall, List<Vector2> points, float[] magnitudes) {
 		final int X1 = 0;
 		final int Y1 = 1;
 		final int Z1 = 2;
@@ -540,7 +663,7 @@ public final class GameWorld {
 
 			coordU = mag * textureScalingU;
 
-			in.set(Convert.px2mt(points.get(i)));
+			Convert.px2mt(in, points.get(i));
 			in.y = -in.y;
 			in.scl(factor * oneOnWorld3DFactor);
 
@@ -629,8 +752,15 @@ public final class GameWorld {
 			v[k + NZ1] = vecNormal.z;
 		}
 
+		wall.vertices = verts;
+		wall.indices = indices;
+	}
+
+	private Mesh createWallMesh (float[] verts, short[] indices) {
+		int vertSize = 8; // x, y, z, u, v, nx, ny, nz
+
 		//@off
-		Mesh mesh = new Mesh(VertexDataType.VertexArray, true, vertexCount, indexCount,
+		Mesh mesh = new Mesh(VertexDataType.VertexArray, true, verts.length / vertSize, indices.length,
 			new VertexAttribute(Usage.Position, 3,ShaderProgram.POSITION_ATTRIBUTE),
 			new VertexAttribute(Usage.Normal, 3, ShaderProgram.NORMAL_ATTRIBUTE),
 			new VertexAttribute(Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0")
@@ -718,6 +848,10 @@ public final class GameWorld {
 		return 0;
 	}
 
+	public boolean isHeadless () {
+		return headless;
+	}
+
 	public boolean isNightMode () {
 		return nightMode;
 	}
@@ -766,6 +900,10 @@ public final class GameWorld {
 		return playerImpulse;
 	}
 
+	public GameContext getContext () {
+		return context;
+	}
+
 	public World getBox2DWorld () {
 		return box2dWorld;
 	}
@@ -786,6 +924,15 @@ public final class GameWorld {
 		return ghosts;
 	}
 
+	public void setGhostSwarm (GhostSwarm ghostSwarm) {
+		this.ghostSwarm = ghostSwarm;
+	}
+
+	/** Returns the swarm of kinematic ghosts, if any, or null */
+	public GhostSwarm getGhostSwarm () {
+		return ghostSwarm;
+	}
+
 	// helpers from maputils
 
 	public Vector2 pxToTile (float x, float y) {
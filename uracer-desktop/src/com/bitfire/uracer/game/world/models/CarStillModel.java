@@ -46,13 +46,17 @@ public class CarStillModel extends OrthographicAlignedStillModel {
 	private GameLogic gameLogic = null;
 
 	public CarStillModel (GameLogic gameLogic, StillModel aModel, Material material, Car car) {
-		super(aModel, material);
+		this(aModel, material);
 		this.gameLogic = gameLogic;
 		this.car = car;
 		if (car == null) {
 			throw new URacerRuntimeException("The specified Car doesn't exists!");
 		}
+	}
 
+	/** Creates a model not bound to any Car, to be transformed by explicitly specifying its render state */
+	public CarStillModel (StillModel aModel, Material material) {
+		super(aModel, material);
 		setScale(1);
 
 		smBody = model.getSubMesh("car_01");
@@ -77,10 +81,6 @@ public class CarStillModel extends OrthographicAlignedStillModel {
 
 	// TODO refactor collisionFactor, gameLogic shouldn't stay here!!!!
 	public void transform (PerspectiveCamera camPersp, OrthographicCamera camOrtho) {
-		// set position to car position
-		EntityRenderState state = car.state();
-		float s = 1;
-
 		// weight transfer *simulation*
 		float wt_body_angle = 0;
 		if (car instanceof PlayerCar) {
@@ -114,6 +114,19 @@ public class CarStillModel extends OrthographicAlignedStillModel {
 			wt_body_angle = bodyAngle.get();
 		}
 
+		// set position to car position
+		transform(camPersp, camOrtho, car.state(), wt_body_angle, car.getSteerAngleRads());
+	}
+
+	/** Transforms the model to the specified render state, in pixels and degrees, with no weight transfer nor steering */
+	public void transform (PerspectiveCamera camPersp, OrthographicCamera camOrtho, EntityRenderState state) {
+		transform(camPersp, camOrtho, state, 0, 0);
+	}
+
+	private void transform (PerspectiveCamera camPersp, OrthographicCamera camOrtho, EntityRenderState state,
+		float wt_body_angle, float steerAngleRads) {
+		float s = 1;
+
 		// body
 		{
 			Vector3 pos = world2Dto3D(camPersp, camOrtho, state.position.x, state.position.y);
@@ -128,7 +141,7 @@ public class CarStillModel extends OrthographicAlignedStillModel {
 			mtxbodytransformed.set(camPersp.combined).mul(mtxbody);
 		}
 
-		tireAngle.set(MathUtils.radDeg * car.getSteerAngleRads(), 0.1f);
+		tireAngle.set(MathUtils.radDeg * steerAngleRads, 0.1f);
 
 		float offx = Convert.mt2px(0.97f) * s;
 		float offy = Convert.mt2px(1.23f) * s;
@@ -113,6 +113,12 @@ public final class ModelFactory {
 		return stillModel;
 	}
 
+	/** Creates a car model not bound to any Car, to be transformed by explicitly specifying its render state */
+	public static CarStillModel createCarStillModel (CarPreset.Type presetType) {
+		return new CarStillModel(getStillModel("data/3d/models/car-low-01.g3dt"), getMaterial(ModelMesh.Car,
+			Art.meshCar.get(presetType.regionName), presetType.regionName));
+	}
+
 	public static TreeStillModel createTree (String meshType, float posPxX, float posPxY, float scale) {
 		ModelMesh type = fromString(meshType);
 		TreeStillModel m = ModelFactory.createTree(type, posPxX, posPxY, scale);
@@ -26,6 +26,7 @@ public final class Art {
 
 	// tileset friction maps
 	public static Pixmap frictionMapDesert;
+	public static final String FrictionMapDesert = "data/levels/tileset/desert-friction-easy.png";
 
 	// 3d
 	public static Texture meshMissing;
@@ -186,7 +187,7 @@ public final class Art {
 
 	private static void loadFrictionMaps () {
 		// friction maps
-		frictionMapDesert = new Pixmap(Gdx.files.internal("data/levels/tileset/desert-friction-easy.png"));
+		frictionMapDesert = new Pixmap(Gdx.files.internal(FrictionMapDesert));
 	}
 
 	private static void disposeFrictionMaps () {
@@ -1,6 +1,7 @@
 
 package com.bitfire.uracer.utils;
 
+import com.badlogic.gdx.math.MathUtils;
 import com.bitfire.uracer.configuration.Config;
 
 /** Algebra math utils.
@@ -118,6 +119,21 @@ public final class AMath {
 		return 1f;
 	}
 
+	/** The sine used by the simulation, see Config.Physics.UseFastMath */
+	public static float sin (float radians) {
+		return Config.Physics.UseFastMath ? FastMath.sin(radians) : MathUtils.sin(radians);
+	}
+
+	/** The cosine used by the simulation, see Config.Physics.UseFastMath */
+	public static float cos (float radians) {
+		return Config.Physics.UseFastMath ? FastMath.cos(radians) : MathUtils.cos(radians);
+	}
+
+	/** The arc tangent used by the simulation, see Config.Physics.UseFastMath */
+	public static float atan2 (float y, float x) {
+		return Config.Physics.UseFastMath ? FastMath.atan2(y, x) : MathUtils.atan2(y, x);
+	}
+
 	public static float normalRelativeAngle (float angleRad) {
 		float wrapped = (angleRad % TWO_PI);
 		return wrapped >= 0 ? (wrapped < PI) ? wrapped : wrapped - TWO_PI : (wrapped >= -PI) ? wrapped : wrapped + TWO_PI;
@@ -210,6 +226,11 @@ public final class AMath {
 	 */
 	//@on
 	public static float damping (float factor) {
+		// Math.pow may differ in the last bit across JVMs, see Config.Physics.UseFastMath
+		if (Config.Physics.UseFastMath) {
+			return (float)StrictMath.pow(factor, Config.Physics.PhysicsTimestepReferenceHz * Config.Physics.Dt);
+		}
+
 		return (float)Math.pow(factor, Config.Physics.PhysicsTimestepReferenceHz * Config.Physics.Dt);
 		// return (float)Math.exp( -factor * Config.Physics.PhysicsDt );
 	}
@@ -4,6 +4,7 @@ package com.bitfire.uracer.utils;
 import gnu.getopt.Getopt;
 import gnu.getopt.LongOpt;
 
+import com.bitfire.uracer.URacerHeadless;
 import com.bitfire.uracer.configuration.BootConfig;
 import com.bitfire.uracer.configuration.BootConfig.BootConfigFlag;
 
@@ -27,6 +28,53 @@ public final class CommandLine {
 		return false;
 	}
 
+	/** Returns the headless runner for the task requested by the specified command-line flags, or null if none has been
+	 * requested: the other flags are ignored, since a headless run uses neither the display nor the boot config */
+	public static URacerHeadless parseHeadlessFlags (String[] argv) {
+		int c;
+		String arg;
+		URacerHeadless.Task task = null;
+		String path = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		//@off
+		LongOpt[] opts = {
+			new LongOpt("simulate", LongOpt.REQUIRED_ARGUMENT, null, 's'),
+			new LongOpt("validate", LongOpt.REQUIRED_ARGUMENT, null, 'c'),
+			new LongOpt("threads", LongOpt.REQUIRED_ARGUMENT, null, 't'),
+		};
+		//@on
+
+		Getopt g = new Getopt("URacer", argv, "", opts);
+		g.setOpterr(false);
+		while ((c = g.getopt()) != -1) {
+			arg = g.getOptarg();
+
+			switch (c) {
+			case 's':
+				task = URacerHeadless.Task.Simulate;
+				path = arg;
+				break;
+			case 'c':
+				task = URacerHeadless.Task.Validate;
+				path = arg;
+				break;
+			case 't':
+				if (isInt(arg) && arg.length() > 0 && Integer.parseInt(arg) > 0) {
+					threads = Integer.parseInt(arg);
+				} else {
+					System.out.println("Invalid number of threads specified (" + arg + ")");
+				}
+
+				break;
+			default:
+				break;
+			}
+		}
+
+		return task != null ? new URacerHeadless(task, path, threads) : null;
+	}
+
 	public static boolean applyLaunchFlags (String[] argv, BootConfig boot) {
 		int c;
 		String arg;
@@ -100,6 +148,13 @@ public final class CommandLine {
 				System.out.println("  --enable-fullscreen, --disable-fullscreen\tenable/disable fullscreen");
 				System.out
 					.println("  --enable-undecorated, --disable-undecorated\twhether or not to create a window without the window manager's decorations");
+				System.out.println("  --simulate=FILE\tsimulate the specified replay file headless, without a display,");
+				System.out.println("  \t\t\tand print the outcome");
+				System.out.println("  --validate=DIR\tvalidate every replay file in the specified directory headless,");
+				System.out.println("  \t\t\twithout a display, and print a report: the exit code is");
+				System.out.println("  \t\t\tnon-zero if any of them isn't valid");
+				System.out.println("  --threads=N\t\tthe number of threads to validate replays on (defaults to");
+				System.out.println("  \t\t\tthe number of cores)");
 				System.out.println("");
 				return false;
 			case 'V':
@@ -22,17 +22,27 @@ public final class Convert {
 		return v * pixelsPerMeter;
 	}
 
+	/** Returns a shared vector, use the version taking the result vector anywhere but on the rendering thread */
 	public static Vector2 mt2px (final Vector2 v) {
-		retPx.set(v.x * pixelsPerMeter, v.y * pixelsPerMeter);
-		return retPx;
+		return mt2px(retPx, v);
+	}
+
+	public static Vector2 mt2px (Vector2 result, final Vector2 v) {
+		result.set(v.x * pixelsPerMeter, v.y * pixelsPerMeter);
+		return result;
 	}
 
 	public static float px2mt (float v) {
 		return v * invPixelsPerMeter;
 	}
 
+	/** Returns a shared vector, use the version taking the result vector anywhere but on the rendering thread */
 	public static Vector2 px2mt (final Vector2 v) {
-		retMt.set(v.x * invPixelsPerMeter, v.y * invPixelsPerMeter);
-		return retMt;
+		return px2mt(retMt, v);
+	}
+
+	public static Vector2 px2mt (Vector2 result, final Vector2 v) {
+		result.set(v.x * invPixelsPerMeter, v.y * invPixelsPerMeter);
+		return result;
 	}
 }
@@ -1,78 +1,74 @@
 
 package com.bitfire.uracer.utils;
 
-import java.net.NetworkInterface;
-import java.net.SocketException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Enumeration;
 
-import com.badlogic.gdx.Gdx;
 import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.replaying.ReplayDigest;
 
 public class DigestUtils {
 
-	public static final MessageDigest sha256;
-	public static final String HardwareId;
+	private static final char[] HexDigits = "0123456789abcdef".toCharArray();
 
-	static {
-		// try setup sha256 digest
-		try {
-			sha256 = MessageDigest.getInstance("SHA-256");
-		} catch (NoSuchAlgorithmException e) {
-			throw new URacerRuntimeException("No support for SHA-256 crypto has been found.");
+	// MessageDigest instances aren't thread-safe, each thread gets its own
+	private static final ThreadLocal<MessageDigest> sha256 = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue () {
+			return createSha256();
 		}
+	};
 
-		// try retrieve macaddress(es)
-		String mac = "";
-
-		try {
-			Enumeration<NetworkInterface> nis = NetworkInterface.getNetworkInterfaces();
-			while (nis.hasMoreElements()) {
-				NetworkInterface ni = nis.nextElement();
-				byte[] ma = ni.getHardwareAddress();
-				if (ma != null) {
-					for (int i = 0; i < ma.length; i++) {
-						mac += String.format("%02X", ma[i]);
-					}
-				}
-			}
-		} catch (SocketException e) {
-			throw new URacerRuntimeException("Cannot determine the MAC address of this machine!" + e.getMessage());
+	private static final ThreadLocal<ReplayDigest> replayDigest = new ThreadLocal<ReplayDigest>() {
+		@Override
+		protected ReplayDigest initialValue () {
+			return new ReplayDigest();
 		}
+	};
 
-		if (mac.length() < 6) {
-			throw new URacerRuntimeException("Cannot retrieve a valid MAC address for this machine!");
+	static {
+		// ensure sha256 is supported
+		createSha256();
+	}
+
+	public static MessageDigest createSha256 () {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new URacerRuntimeException("No support for SHA-256 crypto has been found.");
 		}
+	}
 
-		HardwareId = mac;
-		Gdx.app.log("DigestUtils", "HardwareID set to 0x" + HardwareId);
+	/** Returns the calling thread's sha256 digest, reset */
+	public static MessageDigest getSha256 () {
+		MessageDigest digest = sha256.get();
+		digest.reset();
+		return digest;
 	}
 
+	/** Computes the ID of an already recorded replay, recordings compute it incrementally instead (see {@link ReplayDigest}) */
 	public static final String computeDigest (Replay replay) {
 		if (replay.isValidData()) {
-			String trackTimeTicks = "" + replay.getTicks();
-			String created = "" + replay.getCreationTimestamp();
-
-			sha256.reset();
-			sha256.update(HardwareId.getBytes());
-			sha256.update(created.getBytes());
-			sha256.update(replay.getUserId().getBytes());
-			sha256.update(replay.getTrackId().getBytes());
-			sha256.update(trackTimeTicks.getBytes());
-
-			byte[] digest = sha256.digest();
-			String replayId = "";
+			return replayDigest.get().compute(replay);
+		}
 
-			// output MUST be zero-padded
-			for (Byte b : digest) {
-				replayId += String.format("%02x", b);
-			}
+		return "";
+	}
 
-			return replayId;
+	/** Writes the specified bytes as lowercase, zero-padded hex digits to the specified array, that shall hold twice as many
+	 * chars */
+	public static void toHex (byte[] bytes, char[] out) {
+		for (int i = 0, j = 0; i < bytes.length; i++) {
+			int b = bytes[i] & 0xff;
+			out[j++] = HexDigits[b >>> 4];
+			out[j++] = HexDigits[b & 0x0f];
 		}
+	}
 
-		return "";
+	public static String toHex (byte[] bytes) {
+		char[] out = new char[bytes.length * 2];
+		toHex(bytes, out);
+		return new String(out);
 	}
 
 	public static boolean isValidDigest (String digest) {
@@ -0,0 +1,85 @@
+
+package com.bitfire.uracer.utils;
+
+/** Trigonometry for the simulation, giving the very same results on any JVM.
+ *
+ * MathUtils builds its lookup tables with Math.sin and Math.atan2, whose results may differ in the last bit across JVMs and
+ * platforms, so a replay recorded on one machine isn't guaranteed to reproduce bit for bit on another. Here the table is built
+ * with StrictMath and everything else is plain float arithmetic, that is strict IEEE 754 since Java 17 and, before that, on
+ * any SSE2 hardware the game runs on, so there's no need for strictfp; it is also more accurate than MathUtils, since the
+ * table is interpolated and atan2 is a polynomial rather than a coarse table.
+ *
+ * Maximum absolute errors against StrictMath, with MathUtils' in brackets: sin/cos 2e-6 (6e-4) for angles in the [-4PI,4PI]
+ * range, atan2 2e-6 rad (8e-3). The atan2 costs about the same as MathUtils', while sin and cos cost a few nanoseconds more than
+ * its plain lookup, still less than half as much as Math's: run SimulationChecks to measure them. There is no sqrt here, since
+ * Math.sqrt is correctly rounded and thus already reproducible.
+ *
+ * See Config.Physics.UseFastMath to make the simulation use it.
+ *
+ * @author manuel */
+public final class FastMath {
+	private static final int SinBits = 12;
+	private static final int SinCount = 1 << SinBits;
+	private static final int SinMask = SinCount - 1;
+	private static final float RadToIndex = SinCount / AMath.TWO_PI;
+	private static final float QuarterIndex = SinCount / 4;
+
+	// one more entry than needed, so that the last one can be interpolated without wrapping
+	private static final float[] SinTable = new float[SinCount + 1];
+
+	static {
+		for (int i = 0; i <= SinCount; i++) {
+			SinTable[i] = (float)StrictMath.sin(i * 2 * StrictMath.PI / SinCount);
+		}
+	}
+
+	// minimax approximation of atan(z) for z in [0,1]
+	private static final float A1 = 0.99997726f;
+	private static final float A3 = -0.33262347f;
+	private static final float A5 = 0.19354346f;
+	private static final float A7 = -0.11643287f;
+	private static final float A9 = 0.05265332f;
+	private static final float A11 = -0.01172120f;
+
+	private FastMath () {
+	}
+
+	public static float sin (float radians) {
+		return lookup(radians * RadToIndex);
+	}
+
+	public static float cos (float radians) {
+		return lookup(radians * RadToIndex + QuarterIndex);
+	}
+
+	private static float lookup (float index) {
+		int floor = (int)Math.floor(index);
+
+		int i = floor & SinMask;
+		float a = SinTable[i];
+		return a + (SinTable[i + 1] - a) * (index - floor);
+	}
+
+	/** Returns the angle of the specified point, in radians, in the [-PI,PI] range */
+	public static float atan2 (float y, float x) {
+		float ax = Math.abs(x), ay = Math.abs(y);
+		if (ax == 0 && ay == 0) {
+			return 0;
+		}
+
+		boolean steep = ay > ax;
+		float z = steep ? ax / ay : ay / ax;
+		float z2 = z * z;
+		float angle = z * (A1 + z2 * (A3 + z2 * (A5 + z2 * (A7 + z2 * (A9 + z2 * A11)))));
+
+		if (steep) {
+			angle = AMath.PI_2 - angle;
+		}
+
+		if (x < 0) {
+			angle = AMath.PI - angle;
+		}
+
+		return y < 0 ? -angle : angle;
+	}
+}
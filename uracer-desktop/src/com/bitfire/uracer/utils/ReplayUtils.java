@@ -3,11 +3,18 @@ package com.bitfire.uracer.utils;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.bitfire.uracer.configuration.Config;
 import com.bitfire.uracer.configuration.Storage;
+import com.bitfire.uracer.game.logic.replaying.Replay;
+import com.bitfire.uracer.game.logic.replaying.ReplayCache;
+import com.bitfire.uracer.game.logic.replaying.ReplayIndex;
 import com.bitfire.uracer.game.logic.replaying.ReplayInfo;
 
 public final class ReplayUtils {
+	private static final ObjectMap<String, ReplayIndex> indices = new ObjectMap<String, ReplayIndex>();
+	private static final ReplayCache cache = new ReplayCache();
 
 	public static boolean areValidIds (ReplayInfo info) {
 		if (info != null) {
@@ -17,39 +24,140 @@ public final class ReplayUtils {
 		return false;
 	}
 
-	public static String getDestinationDir (ReplayInfo info) {
+	public static String getTrackDir (String trackId) {
+		return Storage.ReplaysRoot + trackId + "/";
+	}
+
+	public static String getIndexPath (String trackId) {
+		return getTrackDir(trackId) + Storage.ReplaysIndex;
+	}
+
+	public static String getPackPath (String trackId) {
+		return getTrackDir(trackId) + Storage.ReplaysPack;
+	}
+
+	/** Returns the path of the uncompressed copy of the specified replay, to be memory-mapped for playback */
+	public static String getMappedPath (ReplayInfo info) {
 		if (areValidIds(info)) {
-			return Storage.ReplaysRoot + info.getTrackId() + "/" + info.getUserId() + "/";
+			return Storage.ReplaysMappedRoot + info.getTrackId() + "/" + info.getId();
 		}
 
 		return "";
 	}
 
-	public static String getFullPath (ReplayInfo info) {
-		return getDestinationDir(info) + info.getId();
+	/** Loads the specified replay for playback: if mapped playback is enabled the replay is memory-mapped from its uncompressed
+	 * copy, creating it from the stored replay if needed, else the stored replay is loaded in the heap. */
+	public static Replay loadForPlayback (ReplayInfo info) {
+		return loadForPlayback(info, null);
+	}
+
+	/** Same as {@link #loadForPlayback(ReplayInfo)}, using the specified stored replay data if it's not null instead of reading
+	 * it from the replays pack */
+	public static Replay loadForPlayback (ReplayInfo info, byte[] data) {
+		if (!areValidIds(info)) {
+			return null;
+		}
+
+		String mappedPath = getMappedPath(info);
+		if (hasMappedCopy(info)) {
+			Replay mapped = Replay.map(mappedPath);
+			if (mapped != null) {
+				return mapped;
+			}
+		}
+
+		Replay replay = (data != null) ? Replay.load(data) : getIndex(info.getTrackId()).load(info);
+		if (replay != null && Config.Replays.MappedPlayback) {
+			Gdx.files.external(Storage.ReplaysMappedRoot + info.getTrackId()).mkdirs();
+			if (replay.saveMapped(mappedPath)) {
+				Replay mapped = Replay.map(mappedPath);
+				if (mapped != null) {
+					return mapped;
+				}
+			}
+		}
+
+		return replay;
+	}
+
+	/** Returns whether the specified replay can be played back from its memory-mapped copy, without reading the replays pack */
+	public static boolean hasMappedCopy (ReplayInfo info) {
+		return Config.Replays.MappedPlayback && areValidIds(info) && Gdx.files.external(getMappedPath(info)).exists();
+	}
+
+	/** Returns the replay catalog for the specified track, opening it the first time it's requested */
+	public static ReplayIndex getIndex (String trackId) {
+		synchronized (indices) {
+			ReplayIndex index = indices.get(trackId);
+			if (index == null) {
+				index = ReplayIndex.open(trackId);
+				indices.put(trackId, index);
+				sweepMappedCopies(index);
+			}
+
+			return index;
+		}
+	}
+
+	/** Returns the in-memory ranked replays for the specified track, or null if they need to be reloaded from disk */
+	public static Array<Replay> getCachedReplays (String trackId) {
+		return cache.get(trackId);
+	}
+
+	public static void cacheReplays (String trackId, Array<Replay> ranked) {
+		cache.put(trackId, ranked);
+	}
+
+	/** Notifies the replays stored for the specified track changed, so that they will be reloaded from disk */
+	public static void invalidateCachedReplays (String trackId) {
+		cache.invalidate(trackId);
+	}
+
+	/** Deletes the uncompressed copies of the replays no longer in the specified catalog. Pruning a replay leaves its copy alone,
+	 * since it may still be mapped by a cached or playing replay: they are only deleted here, before any of them is mapped. */
+	private static void sweepMappedCopies (ReplayIndex index) {
+		FileHandle dir = Gdx.files.external(Storage.ReplaysMappedRoot + index.getTrackId());
+		if (!dir.isDirectory()) {
+			return;
+		}
+
+		int swept = 0;
+		for (FileHandle copy : dir.list()) {
+			if (!index.contains(copy.name()) && copy.delete()) {
+				swept++;
+			}
+		}
+
+		if (swept > 0) {
+			Gdx.app.log("ReplayUtils", "Deleted " + swept + " stale mapped replays for track \"" + index.getTrackId() + "\"");
+		}
 	}
 
 	public static boolean pruneReplay (ReplayInfo info) {
 		if (info != null && ReplayUtils.areValidIds(info)) {
 			String rid = info.getId();
-			if (rid.length() > 0) {
-				String path = getFullPath(info);
-				if (path.length() > 0) {
-					FileHandle hf = Gdx.files.external(path);
-					if (hf.exists()) {
-						hf.delete();
-						Gdx.app.log("ReplayUtils", "Pruned #" + rid);
-						return true;
-					} else {
-						Gdx.app.error("ReplayUtils", "Couldn't prune #" + rid);
-					}
-				}
+			invalidateCachedReplays(info.getTrackId());
+
+			if (getIndex(info.getTrackId()).remove(info)) {
+				Gdx.app.log("ReplayUtils", "Pruned #" + rid);
+				return true;
+			} else {
+				Gdx.app.error("ReplayUtils", "Couldn't prune #" + rid);
 			}
 		}
 
 		return false;
 	}
 
+	/** Prunes all the specified replays, updating the catalog of their track just once */
+	public static int pruneReplays (String trackId, Array<ReplayInfo> infos) {
+		int pruned = getIndex(trackId).removeAll(infos);
+		invalidateCachedReplays(trackId);
+
+		Gdx.app.log("ReplayUtils", "Pruned " + pruned + " replays for track \"" + trackId + "\"");
+		return pruned;
+	}
+
 	public static int ticksToMilliseconds (int ticks) {
 		return (int)(ticks * Config.Physics.Dt * AMath.ONE_ON_CMP_EPSILON);
 	}
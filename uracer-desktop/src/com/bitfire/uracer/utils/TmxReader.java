@@ -0,0 +1,239 @@
+
+package com.bitfire.uracer.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Base64Coder;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.XmlReader;
+
+/** An XmlReader for TMX maps, decoding the data of the tile layers as it's being parsed instead of leaving it as text in the
+ * returned elements.
+ *
+ * The base64 data of a layer is decoded and, if compressed, unpacked in a single call into a buffer sized after the layer, then
+ * read back as little-endian ints: each layer ends up as an array of width * height tile ids, from the top-left tile. Layers
+ * encoded in some other way, such as csv, are left to the caller as usual.
+ *
+ * The checksum identifying a uRacer level, computed over the level name and the tile ids of its first layer, is computed out of
+ * the same pass, so that a map never needs to be parsed again to identify it.
+ *
+ * @author manuel */
+public class TmxReader extends XmlReader {
+	private static final int MaskClear = 0xE0000000;
+
+	// what each of the currently open elements is, from the root
+	private static final int Other = 0, Map = 1, Layer = 2, Data = 3, Properties = 4, Property = 5;
+	private final IntArray path = new IntArray();
+
+	// the tile ids of each layer, in document order, or null if not decoded
+	private final Array<int[]> layers = new Array<int[]>();
+	private int layerWidth, layerHeight;
+	private String encoding, compression;
+	private final StringBuilder data = new StringBuilder();
+	private boolean decoding;
+
+	private String levelName;
+	private String propertyName, propertyValue;
+
+	@Override
+	public Element parse (char[] data, int offset, int length) {
+		path.clear();
+		layers.clear();
+		levelName = null;
+		return super.parse(data, offset, length);
+	}
+
+	@Override
+	protected void open (String name) {
+		super.open(name);
+
+		int parent = path.size > 0 ? path.peek() : Other;
+		int state = Other;
+		if (path.size == 0 && name.equals("map")) {
+			state = Map;
+		} else if (parent == Map && name.equals("layer")) {
+			state = Layer;
+			layerWidth = 0;
+			layerHeight = 0;
+			layers.add(null);
+		} else if (parent == Layer && name.equals("data")) {
+			state = Data;
+			encoding = null;
+			compression = null;
+			decoding = false;
+			data.setLength(0);
+		} else if (parent == Map && name.equals("properties")) {
+			state = Properties;
+		} else if (parent == Properties && name.equals("property")) {
+			state = Property;
+			propertyName = null;
+			propertyValue = null;
+		}
+
+		path.add(state);
+	}
+
+	@Override
+	protected void attribute (String name, String value) {
+		super.attribute(name, value);
+
+		int state = path.peek();
+		if (state == Layer) {
+			if (name.equals("width")) {
+				layerWidth = Integer.parseInt(value);
+			} else if (name.equals("height")) {
+				layerHeight = Integer.parseInt(value);
+			}
+		} else if (state == Data) {
+			if (name.equals("encoding")) {
+				encoding = value;
+			} else if (name.equals("compression")) {
+				compression = value;
+			}
+		} else if (state == Property) {
+			if (name.equals("name")) {
+				propertyName = value;
+			} else if (name.equals("value")) {
+				propertyValue = value;
+			}
+		}
+	}
+
+	@Override
+	protected void text (String text) {
+		if (path.peek() == Data && isDecodable()) {
+			decoding = true;
+			data.append(text);
+		} else {
+			super.text(text);
+		}
+	}
+
+	@Override
+	protected void close () {
+		int state = path.pop();
+		if (state == Data && decoding) {
+			layers.set(layers.size - 1, decode(data.toString().trim(), layerWidth * layerHeight, compression));
+			decoding = false;
+			data.setLength(0);
+		} else if (state == Property) {
+			// the first one wins
+			if (levelName == null && "name".equals(propertyName)) {
+				levelName = propertyValue;
+			}
+		}
+
+		super.close();
+	}
+
+	private boolean isDecodable () {
+		return layerWidth > 0 && layerHeight > 0 && "base64".equals(encoding)
+			&& (compression == null || compression.equals("zlib") || compression.equals("gzip"));
+	}
+
+	/** Returns the number of layers in the last parsed map */
+	public int getLayerCount () {
+		return layers.size;
+	}
+
+	/** Returns the tile ids of the specified layer of the last parsed map, flags included, or null if its data has been left as
+	 * text since not base64-encoded */
+	public int[] getLayerIds (int layer) {
+		return layers.get(layer);
+	}
+
+	/** Returns the value of the "name" map property of the last parsed map, or null if there is none */
+	public String getLevelName () {
+		return levelName;
+	}
+
+	/** Returns the checksum of the last parsed map as a uRacer level, or null if it's unnamed or its first layer couldn't be
+	 * decoded */
+	public BigInteger getLevelChecksum () {
+		if (levelName == null || levelName.length() == 0 || layers.size == 0 || layers.first() == null) {
+			return null;
+		}
+
+		int[] ids = layers.first();
+		ByteBuffer out = ByteBuffer.allocate(ids.length * 4);
+		for (int id : ids) {
+			out.putInt(id & ~MaskClear);
+		}
+
+		out.flip();
+
+		MessageDigest sha256 = DigestUtils.getSha256();
+		sha256.update(levelName.getBytes());
+		sha256.update(out);
+		return new BigInteger(1, sha256.digest());
+	}
+
+	private static int[] decode (String text, int count, String compression) {
+		byte[] bytes = Base64Coder.decode(text);
+		byte[] unpacked;
+
+		try {
+			if (compression == null) {
+				unpacked = bytes;
+			} else if (compression.equals("zlib")) {
+				unpacked = new byte[count * 4];
+				Inflater zlib = new Inflater();
+				zlib.setInput(bytes);
+				int length = 0;
+				while (length < unpacked.length && !zlib.finished()) {
+					int n = zlib.inflate(unpacked, length, unpacked.length - length);
+					if (n == 0 && (zlib.needsInput() || zlib.needsDictionary())) {
+						break;
+					}
+
+					length += n;
+				}
+
+				zlib.end();
+				checkLength(length, unpacked.length);
+			} else {
+				unpacked = new byte[count * 4];
+				InputStream is = new GZIPInputStream(new ByteArrayInputStream(bytes), bytes.length);
+				int length = 0;
+				while (length < unpacked.length) {
+					int n = is.read(unpacked, length, unpacked.length - length);
+					if (n == -1) {
+						break;
+					}
+
+					length += n;
+				}
+
+				is.close();
+				checkLength(length, unpacked.length);
+			}
+		} catch (DataFormatException e) {
+			throw new GdxRuntimeException("Error decoding tile layer data", e);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error decoding tile layer data", e);
+		}
+
+		checkLength(unpacked.length, count * 4);
+
+		int[] ids = new int[count];
+		ByteBuffer.wrap(unpacked).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(ids);
+		return ids;
+	}
+
+	private static void checkLength (int length, int expected) {
+		if (length < expected) {
+			throw new GdxRuntimeException("Error decoding tile layer data, expected " + expected + " bytes but got " + length);
+		}
+	}
+}
@@ -17,7 +17,9 @@
 package com.bitfire.uracer.utils;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.StringTokenizer;
+import java.util.zip.CRC32;
 
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
@@ -30,6 +32,9 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData.Region;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.MapProperties;
@@ -76,6 +81,9 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 		public TextureFilter textureMagFilter = TextureFilter.Nearest;
 		/** Whether to convert the objects' pixel position and size to the equivalent in tile space. **/
 		public boolean convertObjectToTileSpace = false;
+		/** Whether to load the atlas textures: if not, tiles carry their id and properties only, so that a map can be loaded
+		 * without a GL context **/
+		public boolean loadTextures = true;
 	}
 
 	protected static final int FLAG_FLIP_HORIZONTALLY = 0x80000000;
@@ -83,10 +91,23 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 	protected static final int FLAG_FLIP_DIAGONALLY = 0x20000000;
 	protected static final int MASK_CLEAR = 0xE0000000;
 
-	protected XmlReader xml = new XmlReader();
+	/** The map property holding the CRC32 of the map file, as a Long */
+	public static final String SourceChecksumProperty = "uracer.source-checksum";
+
+	/** The map property holding the checksum of the map as a uRacer level, as a BigInteger, if it's a valid one */
+	public static final String LevelChecksumProperty = "uracer.level-checksum";
+
+	protected TmxReader xml = new TmxReader();
+
+	// external tilesets are parsed apart, not to lose the layers of the map being loaded
+	protected XmlReader tsxXml = new XmlReader();
+	protected long sourceChecksum;
+	protected int tileLayerIndex;
 	protected Element root;
 	protected boolean yUp;
 	protected boolean convertObjectToTileSpace;
+	protected boolean loadTextures;
+	protected TextureAtlasData atlasData;
 
 	protected int mapTileWidth;
 	protected int mapTileHeight;
@@ -145,7 +166,7 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle tmxFile, AtlasTiledMapLoaderParameters parameter) {
 		Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
 		try {
-			root = xml.parse(tmxFile);
+			root = parse(tmxFile);
 
 			Element properties = root.getChildByName("properties");
 			if (properties != null) {
@@ -169,19 +190,29 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 			if (parameter != null) {
 				yUp = parameter.yUp;
 				convertObjectToTileSpace = parameter.convertObjectToTileSpace;
+				loadTextures = parameter.loadTextures;
 			} else {
 				yUp = true;
 				convertObjectToTileSpace = false;
+				loadTextures = true;
 			}
 
 			FileHandle tmxFile = resolve(fileName);
-			root = xml.parse(tmxFile);
+			root = parse(tmxFile);
 			ObjectMap<String, TextureAtlas> atlases = new ObjectMap<String, TextureAtlas>();
 			FileHandle atlasFile = loadAtlas(root, tmxFile);
 			if (atlasFile == null) {
 				throw new GdxRuntimeException("Couldn't load atlas");
 			}
 
+			if (!loadTextures) {
+				// only the atlas regions are needed to know the tile ids
+				atlasData = new TextureAtlasData(atlasFile, atlasFile.parent(), false);
+				TiledMap map = loadMap(root, tmxFile, null, parameter);
+				atlasData = null;
+				return map;
+			}
+
 			TextureAtlas atlas = new TextureAtlas(atlasFile);
 			atlases.put(atlasFile.path(), atlas);
 
@@ -196,6 +227,16 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 		}
 	}
 
+	/** Parses the specified map file, reading it once both to checksum and to parse it */
+	protected Element parse (FileHandle tmxFile) throws IOException {
+		byte[] bytes = tmxFile.readBytes();
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		sourceChecksum = crc.getValue();
+
+		return xml.parse(new String(bytes, "UTF-8"));
+	}
+
 	/** May return null. */
 	protected FileHandle loadAtlas (Element root, FileHandle tmxFile) throws IOException {
 		Element e = root.getChildByName("properties");
@@ -234,6 +275,7 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 	@Override
 	public void loadAsync (AssetManager manager, String fileName, FileHandle tmxFile, AtlasTiledMapLoaderParameters parameter) {
 		map = null;
+		loadTextures = true;
 
 		if (parameter != null) {
 			yUp = parameter.yUp;
@@ -281,10 +323,17 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 			mapProperties.put("backgroundcolor", mapBackgroundColor);
 		}
 
+		mapProperties.put(SourceChecksumProperty, sourceChecksum);
+		BigInteger levelChecksum = xml.getLevelChecksum();
+		if (levelChecksum != null) {
+			mapProperties.put(LevelChecksumProperty, levelChecksum);
+		}
+
 		mapTileWidth = tileWidth;
 		mapTileHeight = tileHeight;
 		mapWidthInPixels = mapWidth * tileWidth;
 		mapHeightInPixels = mapHeight * tileHeight;
+		tileLayerIndex = 0;
 
 		for (int i = 0, j = root.getChildCount(); i < j; i++) {
 			Element element = root.getChild(i);
@@ -323,7 +372,7 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 			if (source != null) {
 				FileHandle tsx = getRelativeFileHandle(tmxFile, source);
 				try {
-					element = xml.parse(tsx);
+					element = tsxXml.parse(tsx);
 					name = element.get("name", null);
 					tilewidth = element.getIntAttribute("tilewidth", 0);
 					tileheight = element.getIntAttribute("tileheight", 0);
@@ -367,10 +416,10 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 			// get the TextureAtlas for this tileset
 			FileHandle atlasHandle = getRelativeFileHandle(tmxFile, atlasFilePath);
 			atlasHandle = resolve(atlasHandle.path());
-			TextureAtlas atlas = resolver.getAtlas(atlasHandle.path());
+			TextureAtlas atlas = loadTextures ? resolver.getAtlas(atlasHandle.path()) : null;
 			String regionsName = atlasHandle.nameWithoutExtension();
 
-			if (parameter != null && parameter.forceTextureFilters) {
+			if (loadTextures && parameter != null && parameter.forceTextureFilters) {
 				for (Texture texture : atlas.getTextures()) {
 					trackedTextures.add(texture);
 				}
@@ -388,20 +437,35 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 			props.put("margin", margin);
 			props.put("spacing", spacing);
 
-			for (AtlasRegion region : atlas.findRegions(regionsName)) {
-				// handle unused tile ids
-				if (region != null) {
-					StaticTiledMapTile tile = new StaticTiledMapTile(region);
+			if (loadTextures) {
+				for (AtlasRegion region : atlas.findRegions(regionsName)) {
+					// handle unused tile ids
+					if (region != null) {
+						StaticTiledMapTile tile = new StaticTiledMapTile(region);
+
+						if (!yUp) {
+							region.flip(false, true);
+						}
 
-					if (!yUp) {
-						region.flip(false, true);
+						int tileid = firstgid + region.index;
+						tile.setId(tileid);
+						tile.setOffsetX(offsetX);
+						tile.setOffsetY(yUp ? -offsetY : offsetY);
+						tileset.putTile(tileid, tile);
 					}
+				}
+			} else {
+				for (Region region : atlasData.getRegions()) {
+					if (region.name.equals(regionsName)) {
+						// an empty region, the tile is only there to be looked up
+						StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion());
 
-					int tileid = firstgid + region.index;
-					tile.setId(tileid);
-					tile.setOffsetX(offsetX);
-					tile.setOffsetY(yUp ? -offsetY : offsetY);
-					tileset.putTile(tileid, tile);
+						int tileid = firstgid + region.index;
+						tile.setId(tileid);
+						tile.setOffsetX(offsetX);
+						tile.setOffsetY(yUp ? -offsetY : offsetY);
+						tileset.putTile(tileid, tile);
+					}
 				}
 			}
 
@@ -414,10 +478,15 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 						// Is a tilemap with individual images.
 						String regionName = imageElement.getAttribute("source");
 						regionName = regionName.substring(0, regionName.lastIndexOf('.'));
-						AtlasRegion region = atlas.findRegion(regionName);
-						if (region == null) throw new GdxRuntimeException("Tileset region not found: " + regionName);
-						tile = new StaticTiledMapTile(region);
-						if (!yUp) region.flip(false, true);
+						if (loadTextures) {
+							AtlasRegion region = atlas.findRegion(regionName);
+							if (region == null) throw new GdxRuntimeException("Tileset region not found: " + regionName);
+							tile = new StaticTiledMapTile(region);
+							if (!yUp) region.flip(false, true);
+						} else {
+							if (!hasRegion(regionName)) throw new GdxRuntimeException("Tileset region not found: " + regionName);
+							tile = new StaticTiledMapTile(new TextureRegion());
+						}
 						tile.setId(tileid);
 						tile.setOffsetX(offsetX);
 						tile.setOffsetY(yUp ? -offsetY : offsetY);
@@ -448,6 +517,16 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 		}
 	}
 
+	private boolean hasRegion (String name) {
+		for (Region region : atlasData.getRegions()) {
+			if (region.name.equals(name)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	protected void loadTileLayer (TiledMap map, Element element) {
 		if (element.getName().equals("layer")) {
 			String name = element.getAttribute("name", null);
@@ -462,7 +541,12 @@ public class UAtlasTmxMapLoader extends AsynchronousAssetLoader<TiledMap, UAtlas
 			layer.setOpacity(opacity);
 			layer.setName(name);
 
-			int[] ids = TmxMapHelper.getTileIds(element, width, height);
+			// the reader has already decoded it, unless not base64-encoded
+			int[] ids = xml.getLayerIds(tileLayerIndex++);
+			if (ids == null) {
+				ids = TmxMapHelper.getTileIds(element, width, height);
+			}
+
 			TiledMapTileSets tilesets = map.getTileSets();
 			for (int y = 0; y < height; y++) {
 				for (int x = 0; x < width; x++) {
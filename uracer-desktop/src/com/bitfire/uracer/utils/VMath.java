@@ -19,9 +19,14 @@ public final class VMath {
 	private static Vector2 retRad = new Vector2();
 	private static Vector2 tmprj = new Vector2();
 
+	/** Returns a shared vector, use the version taking the result vector anywhere but on the rendering thread */
 	public static Vector2 fromRadians (float radians) {
-		retRad.set(AMath.fixup(-MathUtils.sin(radians)), AMath.fixup(-MathUtils.cos(radians)));
-		return retRad;
+		return fromRadians(retRad, radians);
+	}
+
+	public static Vector2 fromRadians (Vector2 result, float radians) {
+		result.set(AMath.fixup(-AMath.sin(radians)), AMath.fixup(-AMath.cos(radians)));
+		return result;
 	}
 
 	private static Vector2 retDeg = new Vector2();